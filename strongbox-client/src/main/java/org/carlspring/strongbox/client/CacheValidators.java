@@ -0,0 +1,74 @@
+package org.carlspring.strongbox.client;
+
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * The `ETag` and `Last-Modified` headers of a remote resource, which are sent back with the conditional
+ * (`If-None-Match` and `If-Modified-Since`) requests, so that the remote repository can reply with
+ * `304 Not Modified` instead of the resource content, if the resource hasn't changed.
+ */
+public class CacheValidators
+{
+
+    private final String entityTag;
+
+    private final String lastModified;
+
+    public CacheValidators(String entityTag,
+                           String lastModified)
+    {
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return the validators of the response, or <code>null</code> if the response doesn't have any
+     */
+    public static CacheValidators of(Response response)
+    {
+        String entityTag = response.getHeaderString(HttpHeaders.ETAG);
+        String lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+        if (entityTag == null && lastModified == null)
+        {
+            return null;
+        }
+
+        return new CacheValidators(entityTag, lastModified);
+    }
+
+    public String getEntityTag()
+    {
+        return entityTag;
+    }
+
+    public String getLastModified()
+    {
+        return lastModified;
+    }
+
+    /**
+     * Makes the request conditional.
+     */
+    public Invocation.Builder apply(Invocation.Builder request)
+    {
+        if (entityTag != null)
+        {
+            request.header(HttpHeaders.IF_NONE_MATCH, entityTag);
+        }
+        if (lastModified != null)
+        {
+            request.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+
+        return request;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("ETag [%s], Last-Modified [%s]", entityTag, lastModified);
+    }
+
+}
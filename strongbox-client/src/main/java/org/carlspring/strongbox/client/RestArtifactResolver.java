@@ -70,6 +70,18 @@ public class RestArtifactResolver
 
     public CloseableRestResponse get(String path,
                                      long offset)
+    {
+        return get(path, offset, null);
+    }
+
+    /**
+     * @param cacheValidators
+     *            validators of the locally cached resource, if any, to make the request conditional; they are ignored
+     *            for the range requests
+     */
+    public CloseableRestResponse get(String path,
+                                     long offset,
+                                     CacheValidators cacheValidators)
     {
         String url = escapeUrl(path);
 
@@ -87,6 +99,10 @@ public class RestArtifactResolver
         {
             response = request.header("Range", "bytes=" + offset + "-").get();
         }
+        else if (cacheValidators != null)
+        {
+            response = cacheValidators.apply(request).get();
+        }
         else
         {
             response = request.get();
@@ -11,6 +11,7 @@ import java.util.List;
 
 public class ByteRangeInputStream
         extends AbstractByteRangeInputStream
+        implements FileChannelSource
 {
 
     private long length;
@@ -55,6 +56,12 @@ public class ByteRangeInputStream
         this.length = length;
     }
 
+    @Override
+    public FileChannelInputStream getFileChannelInputStream()
+    {
+        return StreamUtils.findFileChannelSource(in);
+    }
+
     @Override
     public int read(byte[] bytes,
                     int off,
@@ -0,0 +1,35 @@
+package org.carlspring.strongbox.io;
+
+import java.io.FilterInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * {@link java.io.InputStream} over a {@link FileChannel}, which exposes the channel so that the content can be
+ * transferred without copying it through the stream (see {@link StreamUtils#findFileChannelSource(java.io.InputStream)}).
+ */
+public class FileChannelInputStream
+        extends FilterInputStream
+        implements FileChannelSource
+{
+
+    private final FileChannel channel;
+
+    public FileChannelInputStream(FileChannel channel)
+    {
+        super(Channels.newInputStream(channel));
+        this.channel = channel;
+    }
+
+    public FileChannel getChannel()
+    {
+        return channel;
+    }
+
+    @Override
+    public FileChannelInputStream getFileChannelInputStream()
+    {
+        return this;
+    }
+
+}
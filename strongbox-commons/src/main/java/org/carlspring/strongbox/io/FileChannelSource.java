@@ -0,0 +1,16 @@
+package org.carlspring.strongbox.io;
+
+/**
+ * {@link java.io.InputStream} which reads the content of a {@link FileChannelInputStream} as it is, so that the
+ * content can be transferred straight from the file instead of being copied through the stream.
+ */
+public interface FileChannelSource
+{
+
+    /**
+     * @return the {@link FileChannelInputStream} under this stream, or <code>null</code> if this stream (or any of
+     *         the streams under it) could change the content or needs to see it
+     */
+    FileChannelInputStream getFileChannelInputStream();
+
+}
@@ -0,0 +1,20 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a `multipart/form-data` stream doesn't follow the format, which is a client error rather than a failure
+ * to read the stream.
+ *
+ * @see MultipartPartInputStream
+ */
+public class MalformedMultipartException
+        extends IOException
+{
+
+    public MalformedMultipartException(String message)
+    {
+        super(message);
+    }
+
+}
@@ -0,0 +1,295 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the first part of a `multipart/form-data` stream in a single pass, without copying it anywhere: the
+ * {@link #readHeaders()} skips the preamble and returns the part headers, then the stream itself provides the part
+ * body up to the next boundary.
+ * <br>
+ * According to the specification, the boundary delimiter should be prefixed with `CRLF`, but some clients (the NuGet
+ * command line tool for example) prefix it with `LF` only, so both are accepted.
+ * <br>
+ * Malformed input is reported with {@link MalformedMultipartException}, any other {@link IOException} comes from the
+ * source stream.
+ */
+public class MultipartPartInputStream
+        extends InputStream
+{
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+
+    private final InputStream source;
+
+    private final byte[] boundaryLine;
+
+    private final byte[] delimiter;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    /**
+     * The delimiter doesn't start before this buffer index.
+     */
+    private int scanned;
+
+    private boolean eof;
+
+    private boolean headersRead;
+
+    private boolean bodyRead;
+
+    public MultipartPartInputStream(InputStream source,
+                                    String boundary)
+    {
+        this.source = source;
+        this.boundaryLine = ("--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.delimiter = ("\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+    }
+
+    /**
+     * Skips the preamble and reads the headers of the part.
+     *
+     * @return the part headers, separated with `CRLF`
+     * @throws MalformedMultipartException if the stream has no boundary, or the headers are malformed
+     */
+    public String readHeaders()
+        throws IOException
+    {
+        if (headersRead)
+        {
+            throw new IllegalStateException("Part headers have already been read.");
+        }
+
+        byte[] line;
+        do
+        {
+            line = readLine();
+            if (line == null)
+            {
+                throw new MalformedMultipartException("Multipart boundary not found.");
+            }
+        } while (!startsWith(line, boundaryLine));
+
+        StringBuilder headers = new StringBuilder();
+        while ((line = readLine()) != null && line.length > 0)
+        {
+            headers.append(new String(line, StandardCharsets.ISO_8859_1)).append("\r\n");
+        }
+        if (line == null)
+        {
+            throw new MalformedMultipartException("Unexpected end of multipart headers.");
+        }
+
+        headersRead = true;
+
+        return headers.toString();
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        byte[] bytes = new byte[1];
+        int n = read(bytes, 0, 1);
+
+        return n == -1 ? -1 : bytes[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes,
+                    int off,
+                    int len)
+        throws IOException
+    {
+        if (!headersRead)
+        {
+            readHeaders();
+        }
+        if (bodyRead)
+        {
+            return -1;
+        }
+        if (len == 0)
+        {
+            return 0;
+        }
+
+        while (true)
+        {
+            // Every returned byte is followed by at least the delimiter length of bytes which have been checked, so
+            // a `CR` right before the delimiter is never returned.
+            if (!eof && limit - position <= delimiter.length)
+            {
+                fill();
+
+                continue;
+            }
+
+            int match = indexOfDelimiter();
+            if (match >= 0)
+            {
+                int end = match > position && buffer[match - 1] == '\r' ? match - 1 : match;
+                if (end == position)
+                {
+                    bodyRead = true;
+                    position = match + delimiter.length;
+
+                    return -1;
+                }
+
+                return copy(bytes, off, Math.min(len, end - position));
+            }
+
+            if (eof)
+            {
+                throw new MalformedMultipartException("Multipart boundary not found at the end of the part.");
+            }
+
+            return copy(bytes, off, Math.min(len, limit - position - delimiter.length));
+        }
+    }
+
+    @Override
+    public int available()
+    {
+        return bodyRead ? 0 : Math.max(0, limit - position - delimiter.length);
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        source.close();
+    }
+
+    private int copy(byte[] bytes,
+                     int off,
+                     int len)
+    {
+        System.arraycopy(buffer, position, bytes, off, len);
+        position += len;
+
+        return len;
+    }
+
+    private int indexOfDelimiter()
+    {
+        int last = limit - delimiter.length;
+        for (int i = Math.max(position, scanned); i <= last; i++)
+        {
+            if (buffer[i] != delimiter[0])
+            {
+                continue;
+            }
+
+            int j = 1;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j])
+            {
+                j++;
+            }
+            if (j == delimiter.length)
+            {
+                scanned = i;
+
+                return i;
+            }
+        }
+        scanned = last + 1;
+
+        return -1;
+    }
+
+    private byte[] readLine()
+        throws IOException
+    {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true)
+        {
+            if (position == limit)
+            {
+                if (eof)
+                {
+                    return line.size() == 0 ? null : line.toByteArray();
+                }
+
+                fill();
+
+                continue;
+            }
+
+            byte b = buffer[position++];
+            if (b == '\n')
+            {
+                break;
+            }
+
+            line.write(b);
+            if (line.size() > MAX_LINE_LENGTH)
+            {
+                throw new MalformedMultipartException("Multipart line is too long.");
+            }
+        }
+
+        byte[] result = line.toByteArray();
+        if (result.length > 0 && result[result.length - 1] == '\r')
+        {
+            byte[] trimmed = new byte[result.length - 1];
+            System.arraycopy(result, 0, trimmed, 0, trimmed.length);
+
+            return trimmed;
+        }
+
+        return result;
+    }
+
+    private void fill()
+        throws IOException
+    {
+        if (position > 0)
+        {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            scanned = Math.max(0, scanned - position);
+            position = 0;
+        }
+
+        int n = source.read(buffer, limit, buffer.length - limit);
+        if (n == -1)
+        {
+            eof = true;
+        }
+        else
+        {
+            limit += n;
+        }
+    }
+
+    private static boolean startsWith(byte[] bytes,
+                                      byte[] prefix)
+    {
+        if (bytes.length < prefix.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++)
+        {
+            if (bytes[i] != prefix[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
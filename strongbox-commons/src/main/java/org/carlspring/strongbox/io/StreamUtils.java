@@ -32,6 +32,20 @@ public class StreamUtils
         bris.skip(byteRange.getOffset());
     }
 
+    /**
+     * @return the {@link FileChannelInputStream} under the given stream, or <code>null</code> if the stream is not a
+     *         {@link FileChannelSource} or any of the streams on the way could change the content or need to see it
+     */
+    public static FileChannelInputStream findFileChannelSource(InputStream is)
+    {
+        if (!(is instanceof FileChannelSource))
+        {
+            return null;
+        }
+
+        return ((FileChannelSource) is).getFileChannelInputStream();
+    }
+
     public static <T extends InputStream> T findSource(Class<T> sourceClass,
                                                        InputStream is)
     {
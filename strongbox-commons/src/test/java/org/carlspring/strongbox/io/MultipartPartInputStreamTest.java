@@ -0,0 +1,194 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class MultipartPartInputStreamTest
+{
+
+    private static final String BOUNDARY = "8d6a3b7f-2f2c-4c1b";
+
+    private static final String HEADERS = "Content-Disposition: form-data; name=\"package\"; filename=\"package\"\r\n" +
+                                          "Content-Type: application/octet-stream\r\n";
+
+    @Test
+    public void crlfDelimitedPartShouldBeRead()
+        throws IOException
+    {
+        byte[] body = "package content".getBytes(StandardCharsets.US_ASCII);
+        MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(multipart(body, "\r\n")),
+                                                                   BOUNDARY);
+
+        assertEquals(HEADERS, is.readHeaders());
+        assertArrayEquals(body, IOUtils.toByteArray(is));
+        assertEquals(-1, is.read());
+    }
+
+    @Test
+    public void lfOnlyDelimitersShouldBeAccepted()
+        throws IOException
+    {
+        byte[] body = "package content\r\nwith lines\n".getBytes(StandardCharsets.US_ASCII);
+        MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(multipart(body, "\n")),
+                                                                   BOUNDARY);
+
+        assertEquals(HEADERS, is.readHeaders());
+        assertArrayEquals(body, IOUtils.toByteArray(is));
+    }
+
+    @Test
+    public void delimiterSplitAcrossRefillShouldBeFound()
+        throws IOException
+    {
+        byte[] body = new byte[3 * 64 * 1024 + 17];
+        new Random(1).nextBytes(body);
+
+        // Every split of the delimiter between two reads of the source.
+        for (int chunkSize = 1; chunkSize <= BOUNDARY.length() + 5; chunkSize++)
+        {
+            for (String eol : Arrays.asList("\r\n", "\n"))
+            {
+                InputStream source = new ChunkedInputStream(multipart(body, eol), chunkSize);
+                MultipartPartInputStream is = new MultipartPartInputStream(source, BOUNDARY);
+
+                assertArrayEquals(body, IOUtils.toByteArray(is), String.format("Chunk size [%s].", chunkSize));
+            }
+        }
+    }
+
+    @Test
+    public void delimiterSplitAcrossBufferShouldBeFound()
+        throws IOException
+    {
+        // The delimiter starts a few bytes before the end of the (full) internal buffer.
+        for (int shift = 1; shift <= BOUNDARY.length() + 4; shift++)
+        {
+            byte[] prefix = multipart(new byte[0], "\r\n");
+            int headersLength = prefix.length - ("\r\n--" + BOUNDARY + "--\r\n").length();
+
+            byte[] body = new byte[64 * 1024 - headersLength - shift];
+            Arrays.fill(body, (byte) '-');
+
+            MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(multipart(body, "\r\n")),
+                                                                       BOUNDARY);
+
+            assertArrayEquals(body, IOUtils.toByteArray(is), String.format("Shift [%s].", shift));
+        }
+    }
+
+    @Test
+    public void trailingCrOfTheBodyShouldBeKept()
+        throws IOException
+    {
+        byte[] body = "package content\r".getBytes(StandardCharsets.US_ASCII);
+
+        for (int chunkSize = 1; chunkSize <= 8; chunkSize++)
+        {
+            InputStream source = new ChunkedInputStream(multipart(body, "\r\n"), chunkSize);
+
+            assertArrayEquals(body, IOUtils.toByteArray(new MultipartPartInputStream(source, BOUNDARY)));
+        }
+
+        // Without `CRLF` the `CR` is taken as the delimiter prefix.
+        InputStream source = new ByteArrayInputStream(multipart(body, "\n"));
+
+        assertArrayEquals(Arrays.copyOf(body, body.length - 1),
+                          IOUtils.toByteArray(new MultipartPartInputStream(source, BOUNDARY)));
+    }
+
+    @Test
+    public void partialDelimiterShouldBeReturnedWithTheBody()
+        throws IOException
+    {
+        byte[] body = ("line\r\n--" + BOUNDARY.substring(0, 5) + "\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1))
+                              .getBytes(StandardCharsets.US_ASCII);
+
+        for (int chunkSize = 1; chunkSize <= 8; chunkSize++)
+        {
+            InputStream source = new ChunkedInputStream(multipart(body, "\r\n"), chunkSize);
+
+            assertArrayEquals(body, IOUtils.toByteArray(new MultipartPartInputStream(source, BOUNDARY)));
+        }
+    }
+
+    @Test
+    public void streamWithoutBoundaryShouldBeRejected()
+    {
+        byte[] content = "no multipart here\r\n".getBytes(StandardCharsets.US_ASCII);
+        MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(content), BOUNDARY);
+
+        assertThrows(MalformedMultipartException.class, is::readHeaders);
+    }
+
+    @Test
+    public void truncatedHeadersShouldBeRejected()
+    {
+        byte[] content = ("--" + BOUNDARY + "\r\n" + HEADERS).getBytes(StandardCharsets.US_ASCII);
+        MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(content), BOUNDARY);
+
+        assertThrows(MalformedMultipartException.class, is::readHeaders);
+    }
+
+    @Test
+    public void truncatedBodyShouldBeRejected()
+    {
+        byte[] content = ("--" + BOUNDARY + "\r\n" + HEADERS + "\r\npackage content").getBytes(StandardCharsets.US_ASCII);
+        MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(content), BOUNDARY);
+
+        assertThrows(MalformedMultipartException.class, () -> IOUtils.toByteArray(is));
+    }
+
+    private static byte[] multipart(byte[] body,
+                                    String eol)
+    {
+        byte[] head = ("preamble" + eol + "--" + BOUNDARY + eol + HEADERS.replace("\r\n", eol) + eol)
+                              .getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = (eol + "--" + BOUNDARY + "--" + eol).getBytes(StandardCharsets.US_ASCII);
+
+        byte[] result = Arrays.copyOf(head, head.length + body.length + tail.length);
+        System.arraycopy(body, 0, result, head.length, body.length);
+        System.arraycopy(tail, 0, result, head.length + body.length, tail.length);
+
+        return result;
+    }
+
+    /**
+     * Returns at most the chunk size of bytes per read, like a network stream.
+     */
+    private static class ChunkedInputStream
+            extends ByteArrayInputStream
+    {
+
+        private final int chunkSize;
+
+        private ChunkedInputStream(byte[] content,
+                                   int chunkSize)
+        {
+            super(content);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public synchronized int read(byte[] b,
+                                     int off,
+                                     int len)
+        {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+
+    }
+
+}
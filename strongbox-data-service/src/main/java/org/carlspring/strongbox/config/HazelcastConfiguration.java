@@ -36,11 +36,24 @@ public class HazelcastConfiguration
 
     public static MapConfig artifactEntryCacheConfig(String name)
     {
-        return new MapConfig().setName(name).setNearCacheConfig(new NearCacheConfig().setCacheLocalEntries(true)
-                                                                                     .setEvictionConfig(new EvictionConfig().setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
-                                                                                                                            .setSize(100))
-                                                                                     .setInvalidateOnChange(true)
-                                                                                     .setTimeToLiveSeconds(ARTIFACT_ENTRY_CACHE_INVALIDATE_INTERVAL));
+        return artifactEntryCacheConfig(name, 100, EvictionPolicy.LRU, ARTIFACT_ENTRY_CACHE_INVALIDATE_INTERVAL);
+    }
+
+    public static MapConfig artifactEntryCacheConfig(String name,
+                                                     int maxSize,
+                                                     EvictionPolicy evictionPolicy,
+                                                     int timeToLiveSeconds)
+    {
+        return new MapConfig().setName(name)
+                              .setMaxSizeConfig(new MaxSizeConfig(maxSize, MaxSizeConfig.MaxSizePolicy.PER_NODE))
+                              .setEvictionPolicy(evictionPolicy)
+                              .setTimeToLiveSeconds(timeToLiveSeconds)
+                              .setNearCacheConfig(new NearCacheConfig().setCacheLocalEntries(true)
+                                                                       .setEvictionConfig(new EvictionConfig().setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                                                                                                              .setEvictionPolicy(evictionPolicy)
+                                                                                                              .setSize(maxSize))
+                                                                       .setInvalidateOnChange(true)
+                                                                       .setTimeToLiveSeconds(timeToLiveSeconds));
     }
 
     public static MapConfig newDefaultMapConfig(String name)
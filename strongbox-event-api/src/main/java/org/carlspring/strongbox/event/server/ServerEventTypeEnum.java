@@ -36,8 +36,6 @@ public enum ServerEventTypeEnum
 
     /**
      * Occurs when the server's configuration has been changed.
-     *
-     * TODO: Not yet implemented.
      */
     EVENT_SERVER_CONFIGURATION_CHANGED(5);
 
@@ -8,6 +8,7 @@ import org.carlspring.strongbox.authorization.dto.RoleDto;
 import org.carlspring.strongbox.authorization.service.AuthorizationConfigService;
 import org.carlspring.strongbox.configuration.ConfigurationException;
 import org.carlspring.strongbox.users.domain.Roles;
+import org.carlspring.strongbox.users.security.UserAccessModelCache;
 
 import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
@@ -40,6 +41,9 @@ public class AuthorizationConfigServiceImpl
     @Inject
     private AuthorizationConfigFileManager authorizationConfigFileManager;
 
+    @Inject
+    private UserAccessModelCache userAccessModelCache;
+
     /**
      * Yes, this is a state object.
      * It is protected by the {@link #authorizationConfigLock} here
@@ -180,6 +184,7 @@ public class AuthorizationConfigServiceImpl
         }
         finally
         {
+            userAccessModelCache.invalidateAll();
             writeLock.unlock();
         }
     }
@@ -2,20 +2,15 @@ package org.carlspring.strongbox.users.domain;
 
 import org.carlspring.strongbox.users.dto.UserAccessModelDto;
 import org.carlspring.strongbox.users.dto.UserAccessModelReadContract;
-import org.carlspring.strongbox.users.dto.UserPathPrivelegiesReadContract;
-import org.carlspring.strongbox.users.dto.UserRepositoryReadContract;
 import org.carlspring.strongbox.users.dto.UserStorageDto;
-import org.carlspring.strongbox.users.dto.UserStorageReadContract;
 
 import javax.annotation.concurrent.Immutable;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
-import org.apache.commons.lang.StringUtils;
 import static java.util.stream.Collectors.toSet;
 
 /**
@@ -49,46 +44,6 @@ public class AccessModel
 
     public static Collection<String> getPathPrivileges(UserAccessModelReadContract accessModel, String url)
     {
-        String normalizedUrl = StringUtils.chomp(url, "/");
-
-        Collection<String> privileges = new HashSet<>();
-        for (final UserStorageReadContract storage : accessModel.getStorages())
-        {
-            String storageKey = "/storages/" + storage.getStorageId();
-            if (!normalizedUrl.startsWith(storageKey))
-            {
-                continue;
-            }
-            for (UserRepositoryReadContract repository : storage.getRepositories())
-            {
-                String repositoryKey = storageKey + "/" + repository.getRepositoryId();
-                if (!normalizedUrl.startsWith(repositoryKey))
-                {
-                    continue;
-                }
-                privileges.addAll(repository.getRepositoryPrivileges()
-                                            .stream()
-                                            .map(p -> p.getName())
-                                            .collect(toSet()));
-                for (UserPathPrivelegiesReadContract pathPrivilege : repository.getPathPrivileges())
-                {
-                    String normalizedPath = StringUtils.chomp(pathPrivilege.getPath(), "/");
-                    String pathKey = repositoryKey + "/" + normalizedPath;
-
-                    if (!normalizedUrl.startsWith(pathKey))
-                    {
-                        continue;
-                    }
-                    if (normalizedUrl.equals(pathKey) || pathPrivilege.isWildcard())
-                    {
-                        privileges.addAll(pathPrivilege.getPrivileges()
-                                                       .stream()
-                                                       .map(p -> p.getName())
-                                                       .collect(toSet()));
-                    }
-                }
-            }
-        }
-        return privileges;
+        return new CompiledAccessModel(accessModel).getPathPrivileges(url);
     }
 }
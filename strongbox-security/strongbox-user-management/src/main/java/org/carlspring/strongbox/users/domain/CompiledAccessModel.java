@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.users.domain;
+
+import org.carlspring.strongbox.authorization.dto.PrivelegieReadContract;
+import org.carlspring.strongbox.users.dto.UserAccessModelReadContract;
+import org.carlspring.strongbox.users.dto.UserPathPrivelegiesReadContract;
+import org.carlspring.strongbox.users.dto.UserRepositoryReadContract;
+import org.carlspring.strongbox.users.dto.UserStorageReadContract;
+
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * {@link UserAccessModelReadContract} compiled into a prefix trie of the
+ * `/storages/{storageId}/{repositoryId}/{path}` keys, so that the privileges
+ * for an URL are collected within a single walk along the URL.
+ * <br>
+ * Repository privileges and wildcard path privileges apply to all the URLs
+ * starting with their key, other path privileges apply to their key only.
+ *
+ * @see AccessModel#getPathPrivileges(UserAccessModelReadContract, String)
+ */
+@Immutable
+public class CompiledAccessModel
+        implements Serializable
+{
+
+    private final Node root = new Node();
+
+    public CompiledAccessModel(final UserAccessModelReadContract accessModel)
+    {
+        for (final UserStorageReadContract storage : accessModel.getStorages())
+        {
+            String storageKey = "/storages/" + storage.getStorageId();
+            for (UserRepositoryReadContract repository : storage.getRepositories())
+            {
+                String repositoryKey = storageKey + "/" + repository.getRepositoryId();
+                add(root.compute(repositoryKey).prefixPrivileges, repository.getRepositoryPrivileges());
+
+                for (UserPathPrivelegiesReadContract pathPrivilege : repository.getPathPrivileges())
+                {
+                    String normalizedPath = StringUtils.chomp(pathPrivilege.getPath(), "/");
+                    Node node = root.compute(repositoryKey + "/" + normalizedPath);
+
+                    add(pathPrivilege.isWildcard() ? node.prefixPrivileges : node.exactPrivileges,
+                        pathPrivilege.getPrivileges());
+                }
+            }
+        }
+    }
+
+    private void add(Set<String> target,
+                     Collection<? extends PrivelegieReadContract> privileges)
+    {
+        privileges.forEach(p -> target.add(p.getName()));
+    }
+
+    public Collection<String> getPathPrivileges(String url)
+    {
+        String normalizedUrl = StringUtils.chomp(url, "/");
+
+        Collection<String> privileges = new HashSet<>();
+        Node node = root;
+        for (int i = 0; i < normalizedUrl.length(); i++)
+        {
+            privileges.addAll(node.prefixPrivileges);
+
+            node = node.children.get(normalizedUrl.charAt(i));
+            if (node == null)
+            {
+                return privileges;
+            }
+        }
+
+        privileges.addAll(node.prefixPrivileges);
+        privileges.addAll(node.exactPrivileges);
+
+        return privileges;
+    }
+
+    private static class Node
+            implements Serializable
+    {
+
+        private final Map<Character, Node> children = new HashMap<>();
+
+        private final Set<String> prefixPrivileges = new HashSet<>();
+
+        private final Set<String> exactPrivileges = new HashSet<>();
+
+        private Node compute(String key)
+        {
+            Node node = this;
+            for (int i = 0; i < key.length(); i++)
+            {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            }
+
+            return node;
+        }
+
+    }
+
+}
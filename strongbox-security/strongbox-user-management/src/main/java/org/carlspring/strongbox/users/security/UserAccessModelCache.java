@@ -0,0 +1,72 @@
+package org.carlspring.strongbox.users.security;
+
+import org.carlspring.strongbox.users.domain.CompiledAccessModel;
+import org.carlspring.strongbox.users.dto.UserAccessModelReadContract;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link CompiledAccessModel}s per user, so that access models are
+ * compiled once and not on every authorization.
+ * <br>
+ * Entries are invalidated when users or roles are modified. A compiled model
+ * is also rebuilt if the principal comes with an access model instance
+ * other than the one it was compiled from.
+ */
+@Component
+public class UserAccessModelCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAccessModelCache.class);
+
+    private final ConcurrentMap<String, Entry> compiledAccessModels = new ConcurrentHashMap<>();
+
+    public CompiledAccessModel get(String username,
+                                   UserAccessModelReadContract accessModel)
+    {
+        Entry entry = compiledAccessModels.get(username);
+        if (entry != null && entry.source == accessModel)
+        {
+            return entry.compiledAccessModel;
+        }
+
+        logger.debug(String.format("Compiling access model of [%s].", username));
+
+        entry = new Entry(accessModel, new CompiledAccessModel(accessModel));
+        compiledAccessModels.put(username, entry);
+
+        return entry.compiledAccessModel;
+    }
+
+    public void invalidate(String username)
+    {
+        compiledAccessModels.remove(username);
+    }
+
+    public void invalidateAll()
+    {
+        compiledAccessModels.clear();
+    }
+
+    private static class Entry
+    {
+
+        private final UserAccessModelReadContract source;
+
+        private final CompiledAccessModel compiledAccessModel;
+
+        private Entry(UserAccessModelReadContract source,
+                      CompiledAccessModel compiledAccessModel)
+        {
+            this.source = source;
+            this.compiledAccessModel = compiledAccessModel;
+        }
+
+    }
+
+}
@@ -31,6 +31,7 @@ import org.carlspring.strongbox.users.dto.UserReadContract;
 import org.carlspring.strongbox.users.dto.UsersDto;
 import org.carlspring.strongbox.users.security.AuthoritiesProvider;
 import org.carlspring.strongbox.users.security.SecurityTokenProvider;
+import org.carlspring.strongbox.users.security.UserAccessModelCache;
 import org.carlspring.strongbox.users.service.UserService;
 import org.jose4j.lang.JoseException;
 import org.springframework.cache.annotation.CacheEvict;
@@ -53,6 +54,9 @@ public class InMemoryUserService implements UserService
     @Inject
     private AuthoritiesProvider authoritiesProvider;
 
+    @Inject
+    private UserAccessModelCache userAccessModelCache;
+
     @Override
     public Users findAll()
     {
@@ -244,6 +248,7 @@ public class InMemoryUserService implements UserService
         }
         finally
         {
+            userAccessModelCache.invalidateAll();
             writeLock.unlock();
         }
     }
@@ -0,0 +1,63 @@
+package org.carlspring.strongbox.users.domain;
+
+import org.carlspring.strongbox.authorization.dto.PrivilegeDto;
+import org.carlspring.strongbox.users.dto.UserAccessModelDto;
+import org.carlspring.strongbox.users.dto.UserPathPrivilegesDto;
+import org.carlspring.strongbox.users.dto.UserRepositoryDto;
+import org.carlspring.strongbox.users.dto.UserStorageDto;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledAccessModelTest
+{
+
+    @Test
+    public void testPathPrivileges()
+    {
+        UserRepositoryDto repository = new UserRepositoryDto();
+        repository.setRepositoryId("releases");
+        repository.getRepositoryPrivileges().add(new PrivilegeDto("ARTIFACTS_RESOLVE", null));
+        repository.getPathPrivileges().add(pathPrivilege("com/carlspring/", true, "ARTIFACTS_VIEW"));
+        repository.getPathPrivileges().add(pathPrivilege("com/mycorp", false, "ARTIFACTS_DEPLOY"));
+
+        UserStorageDto storage = new UserStorageDto();
+        storage.setStorageId("storage0");
+        storage.getRepositories().add(repository);
+
+        UserAccessModelDto accessModel = new UserAccessModelDto();
+        accessModel.getStorages().add(storage);
+
+        CompiledAccessModel compiledAccessModel = new CompiledAccessModel(accessModel);
+
+        assertTrue(compiledAccessModel.getPathPrivileges("/storages/storage0/snapshots/com/carlspring").isEmpty());
+        assertTrue(compiledAccessModel.getPathPrivileges("/storages/storage0").isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList("ARTIFACTS_RESOLVE")),
+                     compiledAccessModel.getPathPrivileges("/storages/storage0/releases/"));
+        assertEquals(new HashSet<>(Arrays.asList("ARTIFACTS_RESOLVE", "ARTIFACTS_VIEW")),
+                     compiledAccessModel.getPathPrivileges("/storages/storage0/releases/com/carlspring/foo/1.0/foo-1.0.jar"));
+        assertEquals(new HashSet<>(Arrays.asList("ARTIFACTS_RESOLVE", "ARTIFACTS_DEPLOY")),
+                     compiledAccessModel.getPathPrivileges("/storages/storage0/releases/com/mycorp/"));
+        assertEquals(new HashSet<>(Arrays.asList("ARTIFACTS_RESOLVE")),
+                     compiledAccessModel.getPathPrivileges("/storages/storage0/releases/com/mycorp/foo"));
+        assertEquals(compiledAccessModel.getPathPrivileges("/storages/storage0/releases/com/mycorp"),
+                     AccessModel.getPathPrivileges(accessModel, "/storages/storage0/releases/com/mycorp"));
+    }
+
+    private UserPathPrivilegesDto pathPrivilege(String path,
+                                                boolean wildcard,
+                                                String privilege)
+    {
+        UserPathPrivilegesDto pathPrivilege = new UserPathPrivilegesDto();
+        pathPrivilege.setPath(path);
+        pathPrivilege.setWildcard(wildcard);
+        pathPrivilege.getPrivileges().add(new PrivilegeDto(privilege, null));
+
+        return pathPrivilege;
+    }
+
+}
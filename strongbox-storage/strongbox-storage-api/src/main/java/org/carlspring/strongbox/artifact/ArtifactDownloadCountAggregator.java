@@ -0,0 +1,458 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Coalesces {@link ArtifactEntry#getDownloadCount()} and
+ * {@link ArtifactEntry#getLastUsed()} updates in memory and flushes them
+ * periodically in batched transactions.
+ * <br>
+ * Pending increments are kept per {@link ArtifactEntry} (storage, repository
+ * and path), so many downloads of a hot artifact result in a single update.
+ * The loss window on crash is bounded by the flush interval, pending
+ * increments are also flushed on shutdown.
+ * <br>
+ * The {@link ArtifactEntry}s of a batch are write locked until the batch has
+ * been committed, the ones which are locked by somebody else are left for the
+ * next flush. If a batch fails, its entries are flushed one by one, and the
+ * increments of an entry which keeps failing are dropped after
+ * {@link #MAX_ATTEMPTS} flushes. Increments of an entry which doesn't exist
+ * yet (the artifact is still being stored) are kept until the entry has been
+ * created or the missing entry timeout has elapsed.
+ */
+@Component
+public class ArtifactDownloadCountAggregator
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadCountAggregator.class);
+
+    private static final int MAX_RETRY = 10;
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final ConcurrentMap<String, PendingDownloads> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedDownloads = new AtomicLong();
+
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private final AtomicLong droppedDownloads = new AtomicLong();
+
+    private volatile long lastFlushLag;
+
+    private volatile long lastFlushDuration;
+
+    @Value("${strongbox.artifact.downloadCount.flushIntervalMillis:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.artifact.downloadCount.batchSize:100}")
+    private int batchSize;
+
+    @Value("${strongbox.artifact.downloadCount.missingEntryTimeoutMillis:600000}")
+    private long missingEntryTimeoutMillis;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, ArtifactDownloadCountAggregator.class.getSimpleName());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        flushQuietly();
+    }
+
+    public void downloaded(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        long now = System.currentTimeMillis();
+
+        pending.compute(String.format("%s/%s/%s", storageId, repositoryId, path), (k,
+                                                                                  v) -> {
+            PendingDownloads result = v == null ? new PendingDownloads(repositoryPath, storageId, repositoryId, path, now)
+                    : v;
+            result.count++;
+            result.lastUsed = Math.max(result.lastUsed, now);
+
+            return result;
+        });
+    }
+
+    /**
+     * Writes all the pending increments into the database.
+     */
+    public synchronized void flush()
+    {
+        List<PendingDownloads> drained = new ArrayList<>();
+        for (String key : pending.keySet())
+        {
+            PendingDownloads downloads = pending.remove(key);
+            if (downloads != null)
+            {
+                drained.add(downloads);
+            }
+        }
+
+        if (drained.isEmpty())
+        {
+            lastFlushLag = 0;
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        lastFlushLag = start - drained.stream().mapToLong(d -> d.firstDownloaded).min().getAsLong();
+
+        for (int i = 0; i < drained.size(); i += batchSize)
+        {
+            flushBatch(drained.subList(i, Math.min(i + batchSize, drained.size())));
+        }
+
+        lastFlushDuration = System.currentTimeMillis() - start;
+
+        logger.debug(String.format("Flushed [%s] download counts in [%s] ms with lag [%s] ms.", drained.size(),
+                                   lastFlushDuration, lastFlushLag));
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush download counts.", e);
+        }
+    }
+
+    private void flushBatch(List<PendingDownloads> batch)
+    {
+        List<PendingDownloads> locked = new ArrayList<>(batch.size());
+        List<Lock> locks = new ArrayList<>(batch.size());
+        try
+        {
+            for (PendingDownloads downloads : batch)
+            {
+                Lock lock;
+                try
+                {
+                    lock = tryLock(downloads);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    failed(downloads, e);
+
+                    continue;
+                }
+
+                if (lock == null)
+                {
+                    logger.debug(String.format("[%s] for [%s] is locked, downloads flush postponed.",
+                                               ArtifactEntry.class.getSimpleName(), downloads.repositoryPath));
+                    requeue(downloads);
+
+                    continue;
+                }
+
+                locks.add(lock);
+                locked.add(downloads);
+            }
+
+            if (locked.isEmpty())
+            {
+                return;
+            }
+
+            try
+            {
+                flushWithRetry(locked);
+            }
+            catch (RuntimeException e)
+            {
+                logger.warn(String.format("Failed to flush [%s] download counts, flushing them one by one.",
+                                          locked.size()),
+                            e);
+
+                for (PendingDownloads downloads : locked)
+                {
+                    try
+                    {
+                        flushWithRetry(Collections.singletonList(downloads));
+                    }
+                    catch (RuntimeException e1)
+                    {
+                        failed(downloads, e1);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            for (int i = locks.size() - 1; i >= 0; i--)
+            {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private Lock tryLock(PendingDownloads downloads)
+        throws IOException
+    {
+        Lock lock = repositoryPathLock.lock(downloads.repositoryPath, ArtifactEntry.class.getSimpleName())
+                                      .writeLock();
+
+        return lock.tryLock() ? lock : null;
+    }
+
+    private void flushWithRetry(List<PendingDownloads> batch)
+    {
+        List<PendingDownloads> missing = new ArrayList<>();
+        for (int i = 1;; i++)
+        {
+            try
+            {
+                missing.clear();
+                new TransactionTemplate(transactionManager).execute(t -> {
+                    batch.stream().filter(d -> !flush(d)).forEach(missing::add);
+                    return null;
+                });
+
+                break;
+            }
+            catch (ONeedRetryException e)
+            {
+                if (i >= MAX_RETRY)
+                {
+                    throw e;
+                }
+
+                logger.debug(String.format("Retry flush of [%s] download counts.", batch.size()));
+            }
+        }
+
+        flushedDownloads.addAndGet(batch.stream().filter(d -> !missing.contains(d)).mapToLong(d -> d.count).sum());
+        missing.forEach(this::missing);
+    }
+
+    /**
+     * @return <code>false</code> if the {@link ArtifactEntry} doesn't exist
+     */
+    private boolean flush(PendingDownloads downloads)
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(downloads.storageId,
+                                                                           downloads.repositoryId,
+                                                                           downloads.path);
+        if (artifactEntry == null)
+        {
+            return false;
+        }
+
+        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + downloads.count);
+        Date lastUsed = artifactEntry.getLastUsed();
+        if (lastUsed == null || lastUsed.getTime() < downloads.lastUsed)
+        {
+            artifactEntry.setLastUsed(new Date(downloads.lastUsed));
+        }
+
+        artifactEntryService.save(artifactEntry);
+
+        return true;
+    }
+
+    private void missing(PendingDownloads downloads)
+    {
+        if (System.currentTimeMillis() - downloads.firstDownloaded < missingEntryTimeoutMillis)
+        {
+            logger.debug(String.format("No [%s] found for [%s] yet, downloads flush postponed.",
+                                       ArtifactEntry.class.getSimpleName(), downloads.repositoryPath));
+            requeue(downloads);
+
+            return;
+        }
+
+        droppedDownloads.addAndGet(downloads.count);
+        logger.warn(String.format("No [%s] found for [%s/%s/%s], [%s] downloads discarded.",
+                                  ArtifactEntry.class.getSimpleName(), downloads.storageId,
+                                  downloads.repositoryId, downloads.path, downloads.count));
+    }
+
+    private void failed(PendingDownloads downloads,
+                        Exception e)
+    {
+        failedFlushes.incrementAndGet();
+
+        if (++downloads.attempts < MAX_ATTEMPTS)
+        {
+            logger.error(String.format("Failed to flush [%s] downloads of [%s], will retry on next flush.",
+                                       downloads.count, downloads.repositoryPath),
+                         e);
+            requeue(downloads);
+
+            return;
+        }
+
+        droppedDownloads.addAndGet(downloads.count);
+        logger.error(String.format("Failed to flush [%s] downloads of [%s] [%s] times, downloads discarded.",
+                                   downloads.count, downloads.repositoryPath, downloads.attempts),
+                     e);
+    }
+
+    private void requeue(PendingDownloads downloads)
+    {
+        pending.merge(String.format("%s/%s/%s", downloads.storageId, downloads.repositoryId, downloads.path),
+                      downloads,
+                      (v1,
+                       v2) -> {
+                          v1.count += v2.count;
+                          v1.lastUsed = Math.max(v1.lastUsed, v2.lastUsed);
+                          v1.firstDownloaded = Math.min(v1.firstDownloaded, v2.firstDownloaded);
+                          v1.attempts = Math.max(v1.attempts, v2.attempts);
+
+                          return v1;
+                      });
+    }
+
+    /**
+     * @return number of {@link ArtifactEntry}s with not yet flushed downloads.
+     */
+    public int getPendingEntries()
+    {
+        return pending.size();
+    }
+
+    /**
+     * @return age, in milliseconds, of the oldest not yet flushed download.
+     */
+    public long getFlushLag()
+    {
+        long now = System.currentTimeMillis();
+
+        return pending.values().stream().mapToLong(d -> now - d.firstDownloaded).max().orElse(0);
+    }
+
+    /**
+     * @return age, in milliseconds, of the oldest download written by the last flush.
+     */
+    public long getLastFlushLag()
+    {
+        return lastFlushLag;
+    }
+
+    public long getLastFlushDuration()
+    {
+        return lastFlushDuration;
+    }
+
+    public long getFlushedDownloads()
+    {
+        return flushedDownloads.get();
+    }
+
+    /**
+     * @return number of failed attempts to flush the downloads of an {@link ArtifactEntry}.
+     */
+    public long getFailedFlushes()
+    {
+        return failedFlushes.get();
+    }
+
+    /**
+     * @return number of downloads which have been discarded, because they couldn't be flushed.
+     */
+    public long getDroppedDownloads()
+    {
+        return droppedDownloads.get();
+    }
+
+    private static class PendingDownloads
+    {
+
+        private final RepositoryPath repositoryPath;
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final String path;
+
+        private long firstDownloaded;
+
+        private long lastUsed;
+
+        private int count;
+
+        private int attempts;
+
+        private PendingDownloads(RepositoryPath repositoryPath,
+                                 String storageId,
+                                 String repositoryId,
+                                 String path,
+                                 long firstDownloaded)
+        {
+            this.repositoryPath = repositoryPath;
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+            this.path = path;
+            this.firstDownloaded = firstDownloaded;
+        }
+
+    }
+
+}
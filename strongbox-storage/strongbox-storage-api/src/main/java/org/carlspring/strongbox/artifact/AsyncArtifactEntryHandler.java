@@ -56,7 +56,7 @@ public abstract class AsyncArtifactEntryHandler
         }
 
         RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
-        if (!RepositoryFiles.isArtifact(repositoryPath))
+        if (!RepositoryFiles.isArtifact(repositoryPath) || !supports(repositoryPath))
         {
             return;
         }
@@ -153,6 +153,9 @@ public abstract class AsyncArtifactEntryHandler
         new TransactionTemplate(transactionManager).execute(t -> {
             try
             {
+                // Retries should get the actual entry rather than the memoized one.
+                repositoryPath.invalidateArtifactEntry();
+
                 ArtifactEntry result = handleEvent(repositoryPath);
                 if (result == null)
                 {
@@ -164,7 +167,10 @@ public abstract class AsyncArtifactEntryHandler
                     return null;
                 }
 
-                return artifactEntryService.save(result);
+                ArtifactEntry savedResult = artifactEntryService.save(result);
+                repositoryPath.invalidateArtifactEntry();
+
+                return savedResult;
             }
             catch (IOException e)
             {
@@ -173,6 +179,14 @@ public abstract class AsyncArtifactEntryHandler
         });
     }
 
+    /**
+     * Allows to skip the paths which the handler doesn't apply to, without starting the handler transaction.
+     */
+    protected boolean supports(RepositoryPath repositoryPath)
+    {
+        return true;
+    }
+
     protected abstract ArtifactEntry handleEvent(RepositoryPath repositoryPath)
         throws IOException;
 
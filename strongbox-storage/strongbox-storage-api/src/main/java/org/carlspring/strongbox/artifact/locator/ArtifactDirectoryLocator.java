@@ -4,14 +4,27 @@ import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOpera
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Visits the directories of a repository, starting from {@link #getStartingPath()}, and executes the
+ * {@link ArtifactDirectoryOperation} for each of them.
+ * <br>
+ * {@link ArtifactDirectoryOperation#isOrdered() Ordered} operations are executed sequentially, in sorted depth-first
+ * order, and the other ones are executed concurrently by a work-stealing {@link ForkJoinPool}. In both cases only the
+ * entries of the directories being visited are kept in memory.
+ *
  * @author mtodorov
  */
 public class ArtifactDirectoryLocator
@@ -27,6 +40,11 @@ public class ArtifactDirectoryLocator
      */
     private RepositoryPath basedir;
 
+    /**
+     * The number of threads used to visit the directories for the operations which are not ordered.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
     public void locateArtifactDirectories()
         throws IOException
     {
@@ -34,14 +52,13 @@ public class ArtifactDirectoryLocator
 
         RepositoryPath startingPath = getStartingPath();
 
-        try (Stream<Path> pathStream = Files.walk(startingPath))
+        if (getOperation().isOrdered())
         {
-            pathStream.filter(Files::isDirectory)
-                      // Skip directories which start with a dot (like, for example: .index)
-                      .filter(path -> !path.getFileName().toString().startsWith("."))
-                      // Note: Sorting can be expensive:
-                      .sorted()
-                      .forEach(this::execute);
+            visit(startingPath);
+        }
+        else
+        {
+            visitConcurrently(startingPath);
         }
 
         long endTime = System.currentTimeMillis();
@@ -78,6 +95,16 @@ public class ArtifactDirectoryLocator
         this.operation = operation;
     }
 
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
     public RepositoryPath getBasedir()
     {
         return basedir;
@@ -99,5 +126,94 @@ public class ArtifactDirectoryLocator
             logger.error(String.format("Failed to execute operation [%s]", operation.getClass().getSimpleName()), e);
         }
     }
-    
+
+    private void visit(Path directory)
+        throws IOException
+    {
+        executeIfApplicable(directory);
+
+        for (Path subdirectory : listDirectories(directory))
+        {
+            visit(subdirectory);
+        }
+    }
+
+    private void visitConcurrently(Path directory)
+        throws IOException
+    {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            pool.invoke(new DirectoryVisitorTask(directory));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private void executeIfApplicable(Path directory)
+    {
+        // Skip directories which start with a dot (like, for example: .index)
+        if (!directory.getFileName().toString().startsWith("."))
+        {
+            execute(directory);
+        }
+    }
+
+    private static List<Path> listDirectories(Path directory)
+        throws IOException
+    {
+        try (Stream<Path> pathStream = Files.list(directory))
+        {
+            // Symbolic links are not followed, like with Files.walk(), so that link cycles are not visited forever.
+            return pathStream.filter(p -> Files.isDirectory(p, LinkOption.NOFOLLOW_LINKS))
+                             .sorted()
+                             .collect(Collectors.toList());
+        }
+    }
+
+    private class DirectoryVisitorTask
+            extends RecursiveAction
+    {
+
+        private final Path directory;
+
+        DirectoryVisitorTask(Path directory)
+        {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute()
+        {
+            List<DirectoryVisitorTask> subtasks;
+            try
+            {
+                subtasks = listDirectories(directory).stream()
+                                                     .map(DirectoryVisitorTask::new)
+                                                     .collect(Collectors.toList());
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            // Let the idle threads steal the subdirectories, while this one is busy with the operation.
+            subtasks.forEach(DirectoryVisitorTask::fork);
+
+            executeIfApplicable(directory);
+
+            for (DirectoryVisitorTask subtask : subtasks)
+            {
+                subtask.join();
+            }
+        }
+
+    }
+
 }
@@ -24,5 +24,17 @@ public interface ArtifactDirectoryOperation
     LinkedHashMap<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
 
     RepositoryPath getBasePath();
-    
+
+    /**
+     * Operations which keep state between the visited directories (such as {@link #getVisitedRootPaths()}) need the
+     * directories to be visited one by one, in sorted depth-first order. Operations which only depend on the provided
+     * directory can return <code>false</code>, so that the directories are visited concurrently.
+     *
+     * @return <code>true</code> if the directories have to be visited sequentially, in sorted order
+     */
+    default boolean isOrdered()
+    {
+        return true;
+    }
+
 }
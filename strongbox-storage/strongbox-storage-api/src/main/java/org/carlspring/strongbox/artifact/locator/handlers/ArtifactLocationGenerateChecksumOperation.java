@@ -7,7 +7,8 @@ import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -22,70 +23,95 @@ public class ArtifactLocationGenerateChecksumOperation
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactLocationGenerateChecksumOperation.class);
 
-    private Path previousPath;
-
     private boolean forceRegeneration = false;
 
+    /**
+     * Directory -> whether it's within a directory which contains metadata, so that each directory of the walk is
+     * listed once, rather than once for itself and once for each of its subdirectories.
+     */
+    private final ConcurrentMap<RepositoryPath, Boolean> withinMetadataDirectory = new ConcurrentHashMap<>();
+
     public void execute(RepositoryPath path)
             throws IOException
     {
-        try (Stream<Path> pathStream = Files.list(path))
+        if (!isWithinMetadataDirectory(path))
         {
-            boolean containsMetadata = pathStream.anyMatch(p -> {
-                try
-                {
-                    return RepositoryFiles.isMetadata((RepositoryPath) p);
-                }
-                catch (IOException e)
-                {
-                    logger.error(String.format("Failed to read attributes for [%s]", p),
-                                 e);
-                }
-                return false;
-            });
-            if (!containsMetadata)
-            {
-                logger.debug(String.format("Target path [%s] does not contains any metadata, so we don't need to execute any operations.",
-                                           path));
-                return;
-            }
+            logger.debug(String.format("Target path [%s] is not within a directory which contains metadata, so we don't need to execute any operations.",
+                                       path));
+            return;
         }
 
-        RepositoryPath parentPath = path;
+        logger.debug("{}", path);
 
-        // Don't enter visited paths (i.e. version directories such as 1.2, 1.3, 1.4...)
-        if (!getVisitedRootPaths().isEmpty() && getVisitedRootPaths().containsKey(parentPath))
-        {
-            List<RepositoryPath> visitedVersionPaths = getVisitedRootPaths().get(parentPath);
+        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) path.getFileSystem().provider();
+        provider.storeChecksum(path, forceRegeneration);
+    }
 
-            if (visitedVersionPaths.contains(path))
-            {
-                return;
-            }
+    /**
+     * The checksums are generated for the files of the directories which contain metadata, and of their
+     * subdirectories (i.e. version directories), down from the {@link #getBasePath()}.
+     */
+    private boolean isWithinMetadataDirectory(RepositoryPath path)
+            throws IOException
+    {
+        RepositoryPath basePath = path.getFileSystem().getRootDirectory();
+        if (getBasePath() != null)
+        {
+            basePath = basePath.resolve(getBasePath().relativize()).normalize();
         }
 
-        if (logger.isDebugEnabled())
+        return isWithinMetadataDirectory(path, basePath);
+    }
+
+    private boolean isWithinMetadataDirectory(RepositoryPath directory,
+                                              RepositoryPath basePath)
+            throws IOException
+    {
+        if (!directory.startsWith(basePath))
         {
-            // We're using System.out.println() here for clarity and due to the length of the lines
-            System.out.println(parentPath);
+            return false;
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !parentPath.startsWith(previousPath))
+        Boolean result = withinMetadataDirectory.get(directory);
+        if (result == null)
         {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = parentPath;
+            // The concurrent visits may list the same directory twice, which is harmless.
+            result = containsMetadata(directory)
+                     || !directory.equals(basePath) && isWithinMetadataDirectory(directory.getParent(), basePath);
+            withinMetadataDirectory.put(directory, result);
         }
 
-        if (previousPath == null)
+        return result;
+    }
+
+    private boolean containsMetadata(RepositoryPath directory)
+            throws IOException
+    {
+        try (Stream<Path> pathStream = Files.list(directory))
         {
-            previousPath = parentPath;
+            return pathStream.anyMatch(p -> {
+                try
+                {
+                    return RepositoryFiles.isMetadata((RepositoryPath) p);
+                }
+                catch (IOException e)
+                {
+                    logger.error(String.format("Failed to read attributes for [%s]", p),
+                                 e);
+                }
+                return false;
+            });
         }
+    }
 
-        RepositoryPath basePath = parentPath;
-        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) basePath.getFileSystem()
-                                                                                                   .provider();
-        provider.storeChecksum(basePath, forceRegeneration);
+    /**
+     * Only the files directly within each directory are handled, so each checksum is written by a single visit and
+     * the directories can be visited concurrently.
+     */
+    @Override
+    public boolean isOrdered()
+    {
+        return false;
     }
 
     public boolean getForceRegeneration()
@@ -12,7 +12,9 @@ import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.Transient;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -41,6 +43,12 @@ public class ArtifactEntry
     @Embedded
     private ArtifactArchiveListing artifactArchiveListing;
 
+    /**
+     * Layout specific attributes, which are extracted from the artifact once it has been stored, so that they don't
+     * need to be read from the storage on every query.
+     */
+    private Map<String, String> artifactAttributes = new HashMap<>();
+
     private Long sizeInBytes;
 
     private Date lastUpdated;
@@ -155,6 +163,16 @@ public class ArtifactEntry
         this.artifactArchiveListing = artifactArchiveListing;
     }
 
+    public Map<String, String> getArtifactAttributes()
+    {
+        return artifactAttributes;
+    }
+
+    public void setArtifactAttributes(Map<String, String> artifactAttributes)
+    {
+        this.artifactAttributes = artifactAttributes;
+    }
+
     @Transient
     public String getArtifactPath()
     {
@@ -174,6 +192,7 @@ public class ArtifactEntry
         sb.append(", objectId='").append(objectId).append('\'');
         sb.append(", uuid='").append(uuid).append('\'');
         sb.append(", artifactArchiveListing=").append(artifactArchiveListing);
+        sb.append(", artifactAttributes=").append(artifactAttributes);
         sb.append(", entityVersion=").append(entityVersion);
         sb.append(", sizeInBytes=").append(sizeInBytes);
         sb.append(", lastUpdated=").append(lastUpdated);
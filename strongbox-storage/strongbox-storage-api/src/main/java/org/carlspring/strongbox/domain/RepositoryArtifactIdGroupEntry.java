@@ -1,6 +1,10 @@
 package org.carlspring.strongbox.domain;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * @author Przemyslaw Fusik
@@ -13,6 +17,16 @@ public class RepositoryArtifactIdGroupEntry
     private String storageId;
     private String repositoryId;
 
+    /**
+     * The entries of the group which have the latest version (one per classifier), maintained on every add and
+     * remove of the group entries, so that the latest version is known without going through the whole group.
+     */
+    @ManyToOne(cascade = { CascadeType.DETACH,
+                           CascadeType.MERGE,
+                           CascadeType.PERSIST,
+                           CascadeType.REFRESH })
+    private Set<ArtifactEntry> lastVersionEntries = new HashSet<>();
+
     public RepositoryArtifactIdGroupEntry()
     {
     }
@@ -46,6 +60,16 @@ public class RepositoryArtifactIdGroupEntry
         this.storageId = storageId;
     }
 
+    public Set<ArtifactEntry> getLastVersionEntries()
+    {
+        return lastVersionEntries;
+    }
+
+    public void setLastVersionEntries(Set<ArtifactEntry> lastVersionEntries)
+    {
+        this.lastVersionEntries = lastVersionEntries;
+    }
+
     public String getArtifactId()
     {
         return getName();
@@ -218,10 +218,14 @@ public abstract class AbstractRepositoryProvider extends RepositoryStreamSupport
         
         RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
         repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, artifactEntry);
+        repositoryPath.invalidateArtifactEntry();
     }
 
     protected ArtifactEntry provideArtifactEntry(RepositoryPath repositoryPath) throws IOException
     {
+        // The entry could have been stored since it was looked up last time, outside of the write lock.
+        repositoryPath.invalidateArtifactEntry();
+
         return Optional.ofNullable(repositoryPath.getArtifactEntry())
                        .orElse(new ArtifactEntry());
     }
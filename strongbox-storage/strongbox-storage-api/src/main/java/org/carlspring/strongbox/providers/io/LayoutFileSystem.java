@@ -4,7 +4,10 @@ import org.carlspring.strongbox.io.StorageFileSystem;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.storage.repository.Repository;
 
+import java.io.IOException;
 import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Set;
 
 /**
@@ -63,6 +66,23 @@ public abstract class LayoutFileSystem
         return getRootDirectory().resolve(TEMP).toAbsolutePath();
     }
 
+    /**
+     * Creates a new file within the {@link #TEMP} directory of the repository,
+     * for the content which is not a part of the repository (yet), so that
+     * it's kept on the same storage as the repository itself.
+     *
+     * @return the storage path of the file, which is not a {@link RepositoryPath}
+     */
+    public Path createTempFile(String prefix,
+                               String suffix)
+        throws IOException
+    {
+        Path tempDirectory = getTempPath().getTarget();
+        Files.createDirectories(tempDirectory);
+
+        return Files.createTempFile(tempDirectory, prefix, suffix);
+    }
+
     public RepositoryPath getPath(String first,
                                   String... more)
     {
@@ -61,6 +61,17 @@ public class RepositoryPath
         return artifactEntry;
     }
 
+    /**
+     * Drops the {@link ArtifactEntry} which may have been memoized by this
+     * path, so that the next {@link #getArtifactEntry()} call gets the actual
+     * one. Should be called after the {@link ArtifactEntry} of this path has
+     * been stored, updated or deleted.
+     */
+    public void invalidateArtifactEntry()
+    {
+        // Nothing is memoized by default.
+    }
+
     public LayoutFileSystem getFileSystem()
     {
         return fileSystem;
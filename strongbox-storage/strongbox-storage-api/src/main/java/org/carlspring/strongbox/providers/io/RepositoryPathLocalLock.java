@@ -0,0 +1,155 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The node-local part of a {@link RepositoryPathReadWriteLock}: the node-local
+ * lock itself, the readers which hold it without the cluster-wide lock (fast
+ * readers) and the writers of the cluster which have announced themselves for
+ * the same lock name.
+ * <br>
+ * A reader first registers itself as a fast reader and then checks for
+ * writers, while a writer first registers itself and then waits for the fast
+ * readers to leave. Both of them use sequentially consistent atomics, so either
+ * the reader sees the writer and falls back to the cluster-wide lock, or the
+ * writer sees the reader and waits for it.
+ *
+ * @see RepositoryPathLock
+ */
+class RepositoryPathLocalLock
+{
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicInteger fastReaders = new AtomicInteger();
+
+    private final AtomicInteger writers = new AtomicInteger();
+
+    /**
+     * The member of each announced writer, guarded by {@code this}.
+     */
+    private final Map<String, String> writerMembers = new HashMap<>();
+
+    /**
+     * The member of each withdrawal which has overtaken its announcement,
+     * guarded by {@code this}.
+     */
+    private final Map<String, String> withdrawals = new HashMap<>();
+
+    ReentrantReadWriteLock getLock()
+    {
+        return lock;
+    }
+
+    /**
+     * Should be called with the node-local read lock held.
+     *
+     * @return true, if the reader can skip the cluster-wide lock, in which case
+     *         it has to call {@link #exitFastRead()} before it releases the
+     *         node-local read lock
+     */
+    boolean enterFastRead()
+    {
+        fastReaders.incrementAndGet();
+        if (writers.get() == 0)
+        {
+            return true;
+        }
+
+        exitFastRead();
+
+        return false;
+    }
+
+    void exitFastRead()
+    {
+        if (fastReaders.decrementAndGet() == 0 && writers.get() > 0)
+        {
+            synchronized (this)
+            {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return false, if the writer has already been withdrawn
+     */
+    synchronized boolean addWriter(String writerId,
+                                   String memberId)
+    {
+        if (withdrawals.remove(writerId) != null)
+        {
+            return false;
+        }
+
+        writerMembers.put(writerId, memberId);
+        writers.incrementAndGet();
+
+        return true;
+    }
+
+    synchronized void removeWriter(String writerId,
+                                   String memberId)
+    {
+        if (writerMembers.remove(writerId) != null)
+        {
+            writers.decrementAndGet();
+        }
+        else
+        {
+            withdrawals.put(writerId, memberId);
+        }
+    }
+
+    synchronized void removeWriters(String memberId)
+    {
+        writerMembers.values().removeIf(memberId::equals);
+        withdrawals.values().removeIf(memberId::equals);
+        writers.set(writerMembers.size());
+    }
+
+    boolean hasWriters()
+    {
+        return writers.get() > 0;
+    }
+
+    /**
+     * @return true, if there are neither writers, nor withdrawals waiting for their announcements
+     */
+    synchronized boolean isIdle()
+    {
+        return writerMembers.isEmpty() && withdrawals.isEmpty();
+    }
+
+    /**
+     * Waits for the fast readers to release the lock. New readers don't
+     * become fast readers while there are writers.
+     *
+     * @return false, if the fast readers have not left within the timeout
+     */
+    synchronized boolean awaitFastReaders(long timeout,
+                                          TimeUnit unit)
+        throws InterruptedException
+    {
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        while (fastReaders.get() > 0)
+        {
+            if (remaining <= 0)
+            {
+                return false;
+            }
+
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+
+        return true;
+    }
+
+}
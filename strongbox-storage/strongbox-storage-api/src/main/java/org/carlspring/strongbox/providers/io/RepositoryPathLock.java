@@ -2,10 +2,20 @@ package org.carlspring.strongbox.providers.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -17,11 +27,37 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.core.MembershipAdapter;
+import com.hazelcast.core.MembershipEvent;
 
 import ca.thoughtwire.lock.DistributedLockService;
 
 /**
+ * Provides {@link ReadWriteLock}s for {@link RepositoryPath}s.
+ * <br>
+ * The threads of the same node queue up on a node-local lock table before
+ * they take the cluster-wide lock of the same name, see
+ * {@link RepositoryPathReadWriteLock}. Readers are served from the node-local
+ * lock only, unless a writer has announced itself for the same lock name.
+ * Writers announce themselves synchronously to every node through a Hazelcast
+ * executor and wait until the node-local readers have left, so the writers
+ * pay a cluster round-trip for the reads which don't. The announcements of a
+ * node which leaves the cluster are dropped by the remaining nodes.
+ * <br>
+ * Artifacts are locked per coordinates; writers additionally take the
+ * artifactId group lock, because there can be
+ * `RepositoryArtifactIdGroupService.addArtifactToGroup()` operations which
+ * affect other artifacts from the group.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -30,12 +66,63 @@ public class RepositoryPathLock
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryPathLock.class);
 
+    static final String WRITERS_EXECUTOR_NAME = "repository-path-lock-writers";
+
+    private static final String USER_CONTEXT_KEY = RepositoryPathLock.class.getName();
+
+    private final LoadingCache<String, RepositoryPathLocalLock> localLocks = CacheBuilder.newBuilder()
+                                                                                        .weakValues()
+                                                                                        .build(CacheLoader.from(() -> new RepositoryPathLocalLock()));
+
+    /**
+     * Keeps the local locks with announced writers strongly reachable, so that they don't lose the writers.
+     */
+    private final ConcurrentMap<String, RepositoryPathLocalLock> announcedLocks = new ConcurrentHashMap<>();
+
     private DistributedLockService lockService;
 
+    private HazelcastInstance hazelcastInstance;
+
+    private IExecutorService writersExecutor;
+
+    private final RepositoryPathReadWriteLock.Writers writers = new RepositoryPathReadWriteLock.Writers()
+    {
+
+        @Override
+        public boolean announce(String lockName,
+                                String writerId,
+                                long timeout,
+                                TimeUnit unit)
+            throws InterruptedException
+        {
+            return announceWriter(lockName, writerId, timeout, unit);
+        }
+
+        @Override
+        public void withdraw(String lockName,
+                             String writerId)
+        {
+            withdrawWriter(lockName, writerId);
+        }
+
+    };
+
     @Inject
     public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
     {
-        lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+        this.hazelcastInstance = hazelcastInstance;
+        this.lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+        this.writersExecutor = hazelcastInstance.getExecutorService(WRITERS_EXECUTOR_NAME);
+
+        hazelcastInstance.getUserContext().put(USER_CONTEXT_KEY, this);
+        hazelcastInstance.getCluster().addMembershipListener(new MembershipAdapter()
+        {
+            @Override
+            public void memberRemoved(MembershipEvent membershipEvent)
+            {
+                removeMemberWriters(membershipEvent.getMember().getUuid());
+            }
+        });
     }
 
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath) throws IOException
@@ -47,25 +134,139 @@ public class RepositoryPathLock
                               String id) throws IOException
     {
         URI lock = getLock(repositoryPath);
+        String lockName = getLockName(lock, id);
 
-        String lockName = Optional.ofNullable(id)
-                                  .map(p -> String.format("%s?%s", lock, p))
-                                  .orElseGet(() -> lock.toString());
+        // Only the writers take the group lock, so the readers don't read the coordinates.
+        Supplier<ReadWriteLock> groupLock = Suppliers.memoize(() -> getGroupLock(repositoryPath, id));
 
-        return lockService.getReentrantReadWriteLock(lockName);
+        return new RepositoryPathReadWriteLock(lockName,
+                                               localLocks.getUnchecked(lockName),
+                                               lockService.getReentrantReadWriteLock(lockName),
+                                               groupLock,
+                                               writers);
     }
 
-    private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
+    private ReadWriteLock getGroupLock(RepositoryPath repositoryPath,
+                                       String id)
     {
-        if (RepositoryFiles.isArtifact(repositoryPath))
+        try
         {
+            if (!RepositoryFiles.isArtifact(repositoryPath))
+            {
+                return null;
+            }
+
             ArtifactCoordinates c = RepositoryFiles.readCoordinates(repositoryPath);
-            // We should lock all the RepositoryArtifactIdGroup because there can be
-            // `ArtifactEntryServiceImpl.updateLastVersionTag()` operations
-            // which affetcs on other artifacts from group.
-            return URI.create(c.getId());
+
+            return lockService.getReentrantReadWriteLock(getLockName(URI.create(c.getId()), id));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean announceWriter(String lockName,
+                                   String writerId,
+                                   long timeout,
+                                   TimeUnit unit)
+        throws InterruptedException
+    {
+        WriterAnnouncement announcement = new WriterAnnouncement(lockName,
+                                                                 writerId,
+                                                                 getLocalMemberId(),
+                                                                 unit.toNanos(timeout));
+
+        boolean announced = true;
+        for (Map.Entry<Member, Future<Boolean>> result : writersExecutor.submitToAllMembers(announcement).entrySet())
+        {
+            try
+            {
+                announced &= result.getValue().get();
+            }
+            catch (ExecutionException e)
+            {
+                // The readers of a node which has left the cluster don't matter anymore.
+                if (!(e.getCause() instanceof MemberLeftException))
+                {
+                    throw new IllegalStateException(String.format("Failed to announce writer of [%s] to [%s].",
+                                                                  lockName, result.getKey()), e.getCause());
+                }
+            }
+        }
+
+        return announced;
+    }
+
+    private void withdrawWriter(String lockName,
+                                String writerId)
+    {
+        writersExecutor.executeOnAllMembers(new WriterWithdrawal(lockName, writerId, getLocalMemberId()));
+    }
+
+    private String getLocalMemberId()
+    {
+        return hazelcastInstance.getCluster().getLocalMember().getUuid();
+    }
+
+    boolean addWriter(String lockName,
+                      String writerId,
+                      String memberId,
+                      long timeoutNanos)
+        throws InterruptedException
+    {
+        boolean[] added = new boolean[1];
+        RepositoryPathLocalLock localLock = announcedLocks.compute(lockName, (k, v) -> {
+            RepositoryPathLocalLock result = v == null ? localLocks.getUnchecked(k) : v;
+            added[0] = result.addWriter(writerId, memberId);
+
+            return result.isIdle() ? null : result;
+        });
+
+        return !added[0] || localLock.awaitFastReaders(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void removeWriter(String lockName,
+                      String writerId,
+                      String memberId)
+    {
+        announcedLocks.compute(lockName, (k, v) -> {
+            RepositoryPathLocalLock result = v == null ? localLocks.getUnchecked(k) : v;
+            result.removeWriter(writerId, memberId);
+
+            return result.isIdle() ? null : result;
+        });
+    }
+
+    void removeMemberWriters(String memberId)
+    {
+        for (String lockName : announcedLocks.keySet())
+        {
+            announcedLocks.computeIfPresent(lockName, (k, v) -> {
+                v.removeWriters(memberId);
+
+                return v.isIdle() ? null : v;
+            });
         }
+    }
+
+    boolean hasWriters(String lockName)
+    {
+        RepositoryPathLocalLock localLock = announcedLocks.get(lockName);
 
+        return localLock != null && localLock.hasWriters();
+    }
+
+    private String getLockName(URI lock,
+                               String id)
+    {
+        return Optional.ofNullable(id)
+                       .map(p -> String.format("%s?%s", lock, p))
+                       .orElseGet(() -> lock.toString());
+    }
+
+    private URI getLock(final @Nonnull RepositoryPath repositoryPath)
+    {
         final URI lock = repositoryPath.toUri();
 
         Assert.isTrue(lock.isAbsolute(), String.format("Unable to lock relative path %s", lock));
@@ -140,4 +341,90 @@ public class RepositoryPathLock
 
     }
 
+    private static RepositoryPathLock getRepositoryPathLock(HazelcastInstance hazelcastInstance)
+    {
+        return (RepositoryPathLock) hazelcastInstance.getUserContext().get(USER_CONTEXT_KEY);
+    }
+
+    /**
+     * Registers a writer on the node which runs it and waits for the node-local readers.
+     */
+    static class WriterAnnouncement
+            implements Callable<Boolean>, Serializable, HazelcastInstanceAware
+    {
+
+        private final String lockName;
+
+        private final String writerId;
+
+        private final String memberId;
+
+        private final long timeoutNanos;
+
+        private transient HazelcastInstance hazelcastInstance;
+
+        WriterAnnouncement(String lockName,
+                           String writerId,
+                           String memberId,
+                           long timeoutNanos)
+        {
+            this.lockName = lockName;
+            this.writerId = writerId;
+            this.memberId = memberId;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        @Override
+        public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
+        {
+            this.hazelcastInstance = hazelcastInstance;
+        }
+
+        @Override
+        public Boolean call()
+            throws InterruptedException
+        {
+            return getRepositoryPathLock(hazelcastInstance).addWriter(lockName, writerId, memberId, timeoutNanos);
+        }
+
+    }
+
+    /**
+     * Removes a writer from the node which runs it.
+     */
+    static class WriterWithdrawal
+            implements Runnable, Serializable, HazelcastInstanceAware
+    {
+
+        private final String lockName;
+
+        private final String writerId;
+
+        private final String memberId;
+
+        private transient HazelcastInstance hazelcastInstance;
+
+        WriterWithdrawal(String lockName,
+                         String writerId,
+                         String memberId)
+        {
+            this.lockName = lockName;
+            this.writerId = writerId;
+            this.memberId = memberId;
+        }
+
+        @Override
+        public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
+        {
+            this.hazelcastInstance = hazelcastInstance;
+        }
+
+        @Override
+        public void run()
+        {
+            getRepositoryPathLock(hazelcastInstance).removeWriter(lockName, writerId, memberId);
+        }
+
+    }
+
 }
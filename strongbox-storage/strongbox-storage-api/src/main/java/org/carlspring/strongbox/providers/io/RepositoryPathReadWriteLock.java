@@ -0,0 +1,557 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+
+/**
+ * {@link ReadWriteLock} which combines a node-local lock with the cluster-wide
+ * lock of the same name.
+ * <br>
+ * The node-local lock is taken first, so that the threads of the same node
+ * queue up locally, and only the ones which hold the node-local lock go to the
+ * cluster-wide lock. Readers skip the cluster-wide lock while no writer of the
+ * cluster has announced itself for the same lock name, see
+ * {@link RepositoryPathLocalLock}. Writers take the node-local write lock, the
+ * (optional) group write lock, announce themselves to every node, wait for the
+ * readers which have skipped the cluster-wide lock, and take the distributed
+ * write lock, in this order.
+ * <br>
+ * Conditions are not supported, as with the read lock of
+ * {@link java.util.concurrent.locks.ReentrantReadWriteLock}; none of the
+ * callers waits on a {@link RepositoryPath} lock condition.
+ *
+ * @see RepositoryPathLock
+ */
+class RepositoryPathReadWriteLock
+        implements ReadWriteLock
+{
+
+    private final String name;
+
+    private final RepositoryPathLocalLock localLock;
+
+    private final ReadWriteLock distributedLock;
+
+    private final Supplier<ReadWriteLock> groupLock;
+
+    private final Writers writers;
+
+    private final Lock readLock;
+
+    private final Supplier<Lock> writeLock = Suppliers.memoize(this::createWriteLock);
+
+    /**
+     * @param groupLock supplies the group lock of the writers, or null if there is none; it's only called when
+     *                  the write lock is requested
+     */
+    RepositoryPathReadWriteLock(String name,
+                                RepositoryPathLocalLock localLock,
+                                ReadWriteLock distributedLock,
+                                Supplier<ReadWriteLock> groupLock,
+                                Writers writers)
+    {
+        this.name = name;
+        this.localLock = localLock;
+        this.distributedLock = distributedLock;
+        this.groupLock = groupLock;
+        this.writers = writers;
+        this.readLock = new ReadLock();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public Lock readLock()
+    {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock()
+    {
+        return writeLock.get();
+    }
+
+    private Lock createWriteLock()
+    {
+        ReadWriteLock group = groupLock.get();
+
+        return group == null ?
+               new CompositeLock(localLock.getLock().writeLock(),
+                                 new WriterAnnouncement(),
+                                 distributedLock.writeLock()) :
+               new CompositeLock(localLock.getLock().writeLock(),
+                                 group.writeLock(),
+                                 new WriterAnnouncement(),
+                                 distributedLock.writeLock());
+    }
+
+    /**
+     * Announces the writers of a lock name to every node of the cluster.
+     */
+    interface Writers
+    {
+
+        /**
+         * Registers the writer on every node and waits for the readers which hold the node-local locks without the
+         * cluster-wide lock. The writer has to be withdrawn afterwards, whatever the outcome.
+         *
+         * @return false, if the readers have not released the node-local locks within the timeout
+         */
+        boolean announce(String lockName,
+                         String writerId,
+                         long timeout,
+                         TimeUnit unit)
+            throws InterruptedException;
+
+        void withdraw(String lockName,
+                      String writerId);
+
+    }
+
+    /**
+     * Takes the node-local read lock and, while there are writers, the distributed read lock. Each thread tracks
+     * which of its holds have skipped the distributed lock.
+     */
+    private class ReadLock
+            implements Lock
+    {
+
+        private final ThreadLocal<Deque<Boolean>> fastHolds = ThreadLocal.withInitial(ArrayDeque::new);
+
+        @Override
+        public void lock()
+        {
+            Lock local = localLock.getLock().readLock();
+            local.lock();
+            try
+            {
+                if (!enterFastRead())
+                {
+                    distributedLock.readLock().lock();
+                    fastHolds.get().push(Boolean.FALSE);
+                }
+            }
+            catch (RuntimeException e)
+            {
+                local.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            Lock local = localLock.getLock().readLock();
+            local.lockInterruptibly();
+            try
+            {
+                if (!enterFastRead())
+                {
+                    distributedLock.readLock().lockInterruptibly();
+                    fastHolds.get().push(Boolean.FALSE);
+                }
+            }
+            catch (InterruptedException | RuntimeException e)
+            {
+                local.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            Lock local = localLock.getLock().readLock();
+            if (!local.tryLock())
+            {
+                return false;
+            }
+
+            boolean acquired = false;
+            try
+            {
+                acquired = enterFastRead() || tryDistributedLock(distributedLock.readLock().tryLock());
+            }
+            finally
+            {
+                if (!acquired)
+                {
+                    local.unlock();
+                }
+            }
+
+            return acquired;
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+
+            Lock local = localLock.getLock().readLock();
+            if (!local.tryLock(time, unit))
+            {
+                return false;
+            }
+
+            boolean acquired = false;
+            try
+            {
+                acquired = enterFastRead() ||
+                           tryDistributedLock(distributedLock.readLock()
+                                                             .tryLock(Math.max(0, deadline - System.nanoTime()),
+                                                                      TimeUnit.NANOSECONDS));
+            }
+            finally
+            {
+                if (!acquired)
+                {
+                    local.unlock();
+                }
+            }
+
+            return acquired;
+        }
+
+        private boolean enterFastRead()
+        {
+            if (localLock.enterFastRead())
+            {
+                fastHolds.get().push(Boolean.TRUE);
+
+                return true;
+            }
+
+            return false;
+        }
+
+        private boolean tryDistributedLock(boolean acquired)
+        {
+            if (acquired)
+            {
+                fastHolds.get().push(Boolean.FALSE);
+            }
+
+            return acquired;
+        }
+
+        @Override
+        public void unlock()
+        {
+            Deque<Boolean> holds = fastHolds.get();
+            Boolean fast = holds.pop();
+            if (holds.isEmpty())
+            {
+                fastHolds.remove();
+            }
+
+            try
+            {
+                if (fast)
+                {
+                    localLock.exitFastRead();
+                }
+                else
+                {
+                    distributedLock.readLock().unlock();
+                }
+            }
+            finally
+            {
+                localLock.getLock().readLock().unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    /**
+     * The writer's announcement as a step of the composite write lock. Each
+     * acquisition is announced under its own id.
+     */
+    private class WriterAnnouncement
+            implements Lock
+    {
+
+        private final ThreadLocal<Deque<String>> writerIds = ThreadLocal.withInitial(ArrayDeque::new);
+
+        @Override
+        public void lock()
+        {
+            boolean interrupted = false;
+            try
+            {
+                while (true)
+                {
+                    try
+                    {
+                        lockInterruptibly();
+
+                        return;
+                    }
+                    catch (InterruptedException e)
+                    {
+                        interrupted = true;
+                    }
+                }
+            }
+            finally
+            {
+                if (interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            while (!tryLock(Long.MAX_VALUE, TimeUnit.NANOSECONDS))
+            {
+                // Only a timeout makes the announcement fail.
+            }
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            try
+            {
+                return tryLock(0, TimeUnit.NANOSECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            String writerId = UUID.randomUUID().toString();
+
+            boolean announced = false;
+            try
+            {
+                announced = writers.announce(name, writerId, time, unit);
+            }
+            finally
+            {
+                if (announced)
+                {
+                    writerIds.get().push(writerId);
+                }
+                else
+                {
+                    writers.withdraw(name, writerId);
+                }
+            }
+
+            return announced;
+        }
+
+        @Override
+        public void unlock()
+        {
+            Deque<String> ids = writerIds.get();
+            String writerId = ids.pop();
+            if (ids.isEmpty())
+            {
+                writerIds.remove();
+            }
+
+            writers.withdraw(name, writerId);
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    /**
+     * Acquires the locks in the given order and releases them in the reverse
+     * order. If any of the locks can't be acquired, the ones which have
+     * already been acquired are released.
+     */
+    private static class CompositeLock
+            implements Lock
+    {
+
+        private final Lock[] locks;
+
+        private CompositeLock(Lock... locks)
+        {
+            this.locks = locks;
+        }
+
+        @Override
+        public void lock()
+        {
+            int acquired = 0;
+            try
+            {
+                for (Lock lock : locks)
+                {
+                    lock.lock();
+                    acquired++;
+                }
+            }
+            catch (RuntimeException e)
+            {
+                unlock(acquired);
+                throw e;
+            }
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            int acquired = 0;
+            try
+            {
+                for (Lock lock : locks)
+                {
+                    lock.lockInterruptibly();
+                    acquired++;
+                }
+            }
+            catch (InterruptedException | RuntimeException e)
+            {
+                unlock(acquired);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            int acquired = 0;
+            try
+            {
+                while (acquired < locks.length && locks[acquired].tryLock())
+                {
+                    acquired++;
+                }
+            }
+            catch (RuntimeException e)
+            {
+                unlock(acquired);
+                throw e;
+            }
+
+            return acquiredAll(acquired);
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+
+            int acquired = 0;
+            try
+            {
+                while (acquired < locks.length &&
+                       locks[acquired].tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+                {
+                    acquired++;
+                }
+            }
+            catch (InterruptedException | RuntimeException e)
+            {
+                unlock(acquired);
+                throw e;
+            }
+
+            return acquiredAll(acquired);
+        }
+
+        private boolean acquiredAll(int acquired)
+        {
+            if (acquired == locks.length)
+            {
+                return true;
+            }
+
+            unlock(acquired);
+
+            return false;
+        }
+
+        @Override
+        public void unlock()
+        {
+            unlock(locks.length);
+        }
+
+        private void unlock(int acquired)
+        {
+            RuntimeException failure = null;
+            for (int i = acquired - 1; i >= 0; i--)
+            {
+                try
+                {
+                    locks[i].unlock();
+                }
+                catch (RuntimeException e)
+                {
+                    if (failure == null)
+                    {
+                        failure = e;
+                    }
+                    else
+                    {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            if (failure != null)
+            {
+                throw failure;
+            }
+        }
+
+        /**
+         * Not supported, see {@link RepositoryPathReadWriteLock}.
+         */
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
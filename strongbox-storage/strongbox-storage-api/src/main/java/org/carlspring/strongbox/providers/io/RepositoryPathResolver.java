@@ -10,6 +10,8 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.stereotype.Component;
 
@@ -29,13 +31,47 @@ public class RepositoryPathResolver
     @Inject
     protected RepositoryFileSystemRegistry fileSystemRegistry;
 
+    /**
+     * storageId -> (repositoryId -> file system).
+     * <br>
+     * File systems and their providers don't hold any state other than the
+     * {@link Repository}, so they are created once per repository instead of
+     * on every resolution. Any configuration change publishes new
+     * {@link Repository} instances, so a cached file system is reused only
+     * while it refers to the very same {@link Repository} instance.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, LayoutFileSystem>> fileSystems = new ConcurrentHashMap<>();
+
     public RootRepositoryPath resolve(final Repository repository)
     {
         Objects.requireNonNull(repository, "Repository should be provided");
 
+        return getFileSystem(repository).getRootDirectory();
+    }
+
+    private LayoutFileSystem getFileSystem(final Repository repository)
+    {
         LayoutFileSystemFactory fileSystemFactory = fileSystemRegistry.lookupRepositoryFileSystemFactory(repository);
+        if (repository.getStorage() == null)
+        {
+            // Detached repository, which is not a part of the configuration.
+            return fileSystemFactory.create(repository);
+        }
+
+        ConcurrentMap<String, LayoutFileSystem> storageFileSystems = fileSystems.computeIfAbsent(repository.getStorage()
+                                                                                                           .getId(),
+                                                                                                 k -> new ConcurrentHashMap<>());
+
+        LayoutFileSystem fileSystem = storageFileSystems.get(repository.getId());
+        if (fileSystem != null && fileSystem.getRepository() == repository)
+        {
+            return fileSystem;
+        }
 
-        return fileSystemFactory.create(repository).getRootDirectory();
+        fileSystem = fileSystemFactory.create(repository);
+        storageFileSystems.put(repository.getId(), fileSystem);
+
+        return fileSystem;
     }
 
     public RepositoryPath resolve(String storageId,
@@ -80,9 +116,25 @@ public class RepositoryPathResolver
         return new CachedRepositoryPath(repositoryPath.resolve(path));
     }
     
+    /**
+     * Memoizes the {@link ArtifactEntry} for the lifetime of the path
+     * instance, which is normally a single request or operation, so that
+     * the entry is fetched from the DB once rather than by every component
+     * which handles the path.
+     * <br>
+     * Missing entries are not memoized, as the entry can be created by
+     * another thread (for example, a concurrent proxy download) while the
+     * path is being handled.
+     */
     private class CachedRepositoryPath extends RepositoryPath
     {
 
+        /**
+         * <code>null</code> if the {@link ArtifactEntry} has not been found
+         * yet.
+         */
+        private volatile ArtifactEntry cachedArtifactEntry;
+
         private CachedRepositoryPath(RepositoryPath target)
         {
             super(target.getTarget(), target.getFileSystem());
@@ -97,9 +149,18 @@ public class RepositoryPathResolver
                 return null;
             }
 
-            return artifactEntryService.findOneArtifact(getRepository().getStorage().getId(),
-                                                        getRepository().getId(),
-                                                        RepositoryFiles.relativizePath(this));
+            ArtifactEntry result = cachedArtifactEntry;
+            if (result != null)
+            {
+                return result;
+            }
+
+            result = artifactEntryService.findOneArtifact(getRepository().getStorage().getId(),
+                                                          getRepository().getId(),
+                                                          RepositoryFiles.relativizePath(this));
+            cachedArtifactEntry = result;
+
+            return result;
             // TODO: we should check this restriction 
 //            if (Files.exists(this) && !Files.isDirectory(this) && RepositoryFiles.isArtifact(this) && result == null)
 //            {
@@ -109,6 +170,12 @@ public class RepositoryPathResolver
 
         }
 
+        @Override
+        public void invalidateArtifactEntry()
+        {
+            cachedArtifactEntry = null;
+        }
+
     }
 
 }
@@ -14,10 +14,13 @@ import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.io.output.ProxyOutputStream;
+import org.carlspring.strongbox.io.FileChannelInputStream;
+import org.carlspring.strongbox.io.FileChannelSource;
 import org.carlspring.strongbox.io.RepositoryStreamCallback;
 import org.carlspring.strongbox.io.RepositoryStreamContext;
 import org.carlspring.strongbox.io.RepositoryStreamReadContext;
 import org.carlspring.strongbox.io.RepositoryStreamWriteContext;
+import org.carlspring.strongbox.io.StreamUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -182,12 +185,16 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
 
     public class RepositoryInputStream
             extends ProxyInputStream
+            implements FileChannelSource
     {
 
+        private final InputStream source;
+
         protected RepositoryInputStream(Path path,
                                         InputStream in)
         {
             super(new CountingInputStream(in));
+            this.source = in;
 
             RepositoryStreamReadContext ctx = new RepositoryStreamReadContext();
             ctx.setPath(path);
@@ -203,6 +210,22 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
             open();
         }
 
+        /**
+         * Locks the path and dispatches the read events, which is otherwise done by the first read. Should be called
+         * before the content is read through the {@link #getFileChannelInputStream()} instead of this stream.
+         */
+        public void open()
+            throws IOException
+        {
+            RepositoryStreamSupport.this.open();
+        }
+
+        @Override
+        public FileChannelInputStream getFileChannelInputStream()
+        {
+            return StreamUtils.findFileChannelSource(source);
+        }
+
         @Override
         public void close()
             throws IOException
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.providers.io;
 
+import org.carlspring.strongbox.io.FileChannelInputStream;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
@@ -304,6 +305,28 @@ public abstract class StorageFileSystemProvider
         }
     }
 
+    /**
+     * Writes the content into a temporary sibling file first, which then
+     * replaces the target file, so that the readers never see partially
+     * written content.
+     */
+    protected void writeAtomically(RepositoryPath path,
+                                   byte[] content)
+        throws IOException
+    {
+        Path target = unwrap(path);
+        Path tempPath = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try
+        {
+            Files.write(tempPath, content);
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
     public RepositoryPath moveFromTemporaryDirectory(TempRepositoryPath tempPath)
         throws IOException
     {
@@ -392,7 +415,28 @@ public abstract class StorageFileSystemProvider
                                       OpenOption... options)
         throws IOException
     {
-        return repositoryPathLock.lockInputStream((RepositoryPath) path, () -> super.newInputStream(unwrap(path), options));
+        return repositoryPathLock.lockInputStream((RepositoryPath) path, () -> newTargetInputStream(unwrap(path), options));
+    }
+
+    private InputStream newTargetInputStream(Path path,
+                                             OpenOption... options)
+        throws IOException
+    {
+        if (path.getFileSystem() != FileSystems.getDefault())
+        {
+            return super.newInputStream(path, options);
+        }
+
+        for (OpenOption option : options)
+        {
+            if (option == StandardOpenOption.APPEND || option == StandardOpenOption.WRITE)
+            {
+                throw new UnsupportedOperationException(String.format("Option not allowed: [%s]", option));
+            }
+        }
+
+        // Local files expose their channel, so the downloads can be served without copying the content.
+        return new FileChannelInputStream(FileChannel.open(path, options));
     }
 
     @Override
@@ -1,7 +1,9 @@
 package org.carlspring.strongbox.providers.layout;
 
 import org.carlspring.commons.io.reloading.FSReloadableInputStreamHandler;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.io.ByteRangeInputStream;
@@ -12,6 +14,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.util.MessageDigestUtils;
@@ -26,10 +29,17 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +63,9 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     
     @Inject
     private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
     
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -61,6 +74,10 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
     protected abstract AbstractLayoutProvider getLayoutProvider();
     
+    /**
+     * Opens the artifact for reading. The digests of the content are calculated only if the
+     * {@link LayoutOpenOption#DIGEST} option is provided, so that plain downloads don't pay for them.
+     */
     @Override
     public LayoutInputStream newInputStream(Path path,
                                               OpenOption... options)
@@ -76,7 +93,12 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                                           path.toString()));
         }
         
-        InputStream is = super.newInputStream(path, options);
+        boolean digest = Arrays.stream(options).anyMatch(LayoutOpenOption.DIGEST::equals);
+        OpenOption[] storageOptions = Arrays.stream(options)
+                                            .filter(o -> !(o instanceof LayoutOpenOption))
+                                            .toArray(OpenOption[]::new);
+
+        InputStream is = super.newInputStream(path, storageOptions);
         ByteRangeInputStream bris;
         try
         {
@@ -91,6 +113,11 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         
         try
         {
+            if (!digest)
+            {
+                return new LayoutInputStream(bris, Collections.emptySet());
+            }
+
             return decorateStream((RepositoryPath) path, bris);
         }
         catch (NoSuchAlgorithmException e)
@@ -116,7 +143,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
             String checksum = null;
             try
             {
-                checksum = getChecksum(path, result, a);
+                checksum = getChecksum(path, a);
             }
             catch (IOException e)
             {
@@ -134,22 +161,16 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     }
 
     private String getChecksum(RepositoryPath path,
-                               LayoutInputStream is,
                                String digestAlgorithm) throws IOException
     {
         RepositoryPath checksumPath = getChecksumPath(path, digestAlgorithm);
-        
-        String checksum = null;
-        if (Files.exists(checksumPath) && Files.size(checksumPath) != 0)
-        {
-            checksum = MessageDigestUtils.readChecksumFile(Files.newInputStream(checksumPath));
-        }
-        else
+        if (!Files.exists(checksumPath) || Files.size(checksumPath) == 0)
         {
-            checksum = is.getMessageDigestAsHexadecimalString(digestAlgorithm);
+            // Will be calculated from the content.
+            return null;
         }
 
-        return checksum;
+        return MessageDigestUtils.readChecksumFile(Files.newInputStream(checksumPath));
     }
 
     public RepositoryPath getChecksumPath(RepositoryPath path,
@@ -210,47 +231,59 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         return result;
     }
     
-    public void storeChecksum(RepositoryPath basePath,
+    /**
+     * Stores the checksums of the files directly within the directory, the subdirectories are not visited.
+     */
+    public void storeChecksum(RepositoryPath directoryPath,
                               boolean forceRegeneration)
         throws IOException
     {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to read attributes for [%s]", p), e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to write checksum for [%s]", p), e);
-                 }
-             });
+        List<Path> files;
+        try (Stream<Path> pathStream = Files.list(directoryPath))
+        {
+            // Collected before the checksums are written, so that the listing doesn't see the new files.
+            files = pathStream.filter(p -> !Files.isDirectory(p))
+                              .filter(p -> {
+                                  try
+                                  {
+                                      return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
+                                  }
+                                  catch (IOException e)
+                                  {
+                                      logger.error(String.format("Failed to read attributes for [%s]", p), e);
+                                  }
+                                  return false;
+                              })
+                              .collect(Collectors.toList());
+        }
+
+        for (Path file : files)
+        {
+            try
+            {
+                writeChecksum((RepositoryPath) file, forceRegeneration);
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to write checksum for [%s]", file), e);
+            }
+        }
     }
 
-    
     public void writeChecksum(RepositoryPath path,
                               boolean force)
         throws IOException
     {
-        try (LayoutInputStream is = newInputStream(path))
+        try (LayoutInputStream is = newInputStream(path, LayoutOpenOption.DIGEST))
         {
+            // The digests are calculated while the content is read.
+            IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+
             Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
             digestAlgorithmSet.stream()
                               .forEach(p ->
                                        {
-                                           String checksum = is.getHexDigests().get(p);
+                                           String checksum = is.getMessageDigestAsHexadecimalString(p);
                                            RepositoryPath checksumPath = getChecksumPath(path, p);
                                            if (Files.exists(checksumPath) && !force)
                                            {
@@ -258,7 +291,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                            }
                                            try
                                            {
-                                               Files.write(checksumPath, checksum.getBytes());
+                                               writeAtomically(checksumPath, checksum.getBytes());
                                            }
                                            catch (IOException e)
                                            {
@@ -312,12 +345,33 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                               .orElseGet(() -> fetchArtifactEntry(repositoryPath));
         if (artifactEntry != null)
         {
+            removeArtifactFromGroup(repositoryPath, artifactEntry);
             artifactEntryService.delete(artifactEntry);
+            repositoryPath.invalidateArtifactEntry();
         }
         
         super.doDeletePath(repositoryPath, force);
     }
 
+    private void removeArtifactFromGroup(RepositoryPath repositoryPath,
+                                         ArtifactEntry artifactEntry)
+    {
+        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
+        if (coordinates == null)
+        {
+            return;
+        }
+
+        Repository repository = repositoryPath.getRepository();
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(repository.getStorage().getId(),
+                                                                                                repository.getId(),
+                                                                                                coordinates.getId());
+        if (artifactGroup != null)
+        {
+            repositoryArtifactIdGroupService.removeArtifactFromGroup(artifactGroup, artifactEntry);
+        }
+    }
+
     private ArtifactEntry fetchArtifactEntry(RepositoryPath repositoryPath)
     {
         Repository repository = repositoryPath.getRepository();
@@ -0,0 +1,27 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.io.LayoutInputStream;
+
+import java.nio.file.OpenOption;
+
+/**
+ * Layout specific {@link OpenOption}s, supported by {@link LayoutFileSystemProvider}.
+ *
+ * <pre>
+ *     try (LayoutInputStream is = (LayoutInputStream) Files.newInputStream(repositoryPath, LayoutOpenOption.DIGEST))
+ *     {
+ *         ...
+ *     }
+ * </pre>
+ */
+public enum LayoutOpenOption
+        implements OpenOption
+{
+
+    /**
+     * Calculate the {@link LayoutInputStream} digests while the stream is read. Without this option the stream
+     * doesn't calculate any digests, which is what plain downloads need.
+     */
+    DIGEST;
+
+}
@@ -6,12 +6,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -30,7 +32,9 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryMemberExecutor;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownloads;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -64,6 +68,15 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
     
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathNotFoundCache notFoundCache;
+
+    @Inject
+    private GroupRepositoryMemberExecutor groupRepositoryMemberExecutor;
+
+    @Inject
+    private ProxyRepositoryInFlightDownloads inFlightDownloads;
     
     @Override
     public String getAlias()
@@ -96,7 +109,8 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
     {
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
-        
+        List<Callable<RepositoryPath>> members = new ArrayList<>();
+
         for (String storageAndRepositoryId : groupRepository.getGroupRepositories().keySet())
         {
             String sId = configurationManager.getStorageId(storage, storageAndRepositoryId);
@@ -108,23 +122,40 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
                 continue;
             }
             
-            RepositoryPath result = repositoryPathResolver.resolve(subRepository, repositoryPath);
-            if (artifactRoutingRulesChecker.isDenied(groupRepository, result))
+            RepositoryPath memberPath = repositoryPathResolver.resolve(subRepository, repositoryPath);
+            if (artifactRoutingRulesChecker.isDenied(groupRepository, memberPath))
             {
                 continue;
             }
             
-            result = resolvePathFromGroupMemberOrTraverse(result);
-            if (result == null)
+            if (notFoundCache.isNotFound(memberPath))
             {
                 continue;
             }
-            
+
+            members.add(() -> resolvePathFromGroupMember(memberPath));
+        }
+
+        // The proxy downloads of the members which have been superseded are not needed anymore.
+        RepositoryPath result = groupRepositoryMemberExecutor.resolveFirst(members, inFlightDownloads::cancel);
+        if (result != null)
+        {
             logger.debug(String.format("Located artifact: [%s]", result));
-            
-            return result;
         }
-        return null;
+
+        return result;
+    }
+
+    private RepositoryPath resolvePathFromGroupMember(RepositoryPath memberPath)
+        throws IOException
+    {
+        RepositoryPath result = resolvePathFromGroupMemberOrTraverse(memberPath);
+        if (result == null && getAlias().equals(memberPath.getRepository().getType()))
+        {
+            notFoundCache.put(memberPath);
+        }
+
+        return result;
     }
 
     private RepositoryPath resolvePathDirectlyFromGroupPathIfPossible(final RepositoryPath artifactPath)
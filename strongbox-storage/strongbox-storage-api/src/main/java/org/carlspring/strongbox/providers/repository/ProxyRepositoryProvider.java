@@ -1,10 +1,12 @@
 package org.carlspring.strongbox.providers.repository;
 
 
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.io.RepositoryStreamReadContext;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -12,6 +14,8 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownload;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownloads;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -49,6 +53,12 @@ public class ProxyRepositoryProvider
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private ProxyRepositoryInFlightDownloads inFlightDownloads;
+
+    @Inject
+    private RepositoryPathNotFoundCache notFoundCache;
+
     @Override
     public String getAlias()
     {
@@ -59,18 +69,65 @@ public class ProxyRepositoryProvider
     protected InputStream getInputStreamInternal(RepositoryPath path)
         throws IOException
     {
+        ProxyRepositoryInFlightDownload download = inFlightDownloads.get(path);
+        if (download != null && download.retain())
+        {
+            try
+            {
+                return download.newInputStream();
+            }
+            finally
+            {
+                download.release();
+            }
+        }
+
         return hostedRepositoryProvider.getInputStreamInternal(path);
     }
 
+    @Override
+    public void onBeforeRead(RepositoryStreamReadContext ctx)
+        throws IOException
+    {
+        RepositoryPath repositoryPath = (RepositoryPath) ctx.getPath();
+        if (inFlightDownloads.get(repositoryPath) == null || !RepositoryFiles.isArtifact(repositoryPath))
+        {
+            super.onBeforeRead(ctx);
+
+            return;
+        }
+
+        // The artifact is not cached yet, it's streamed through while being downloaded.
+        artifactEventListenerRegistry.dispatchArtifactDownloadingEvent(repositoryPath);
+    }
+
     @Override
     protected RepositoryPath fetchPath(RepositoryPath repositoryPath)
         throws IOException
     {
         RepositoryPath targetPath = hostedRepositoryProvider.fetchPath(repositoryPath);
 
-        if (targetPath == null)
+        if (targetPath == null && inFlightDownloads.isStreamThroughEnabled()
+                && inFlightDownloads.join(repositoryPath) != null)
         {
-            targetPath = resolvePathExclusive(repositoryPath);
+            targetPath = repositoryPath;
+        }
+        else if (targetPath == null && notFoundCache.isNotFound(repositoryPath))
+        {
+            logger.debug(String.format("Path [%s] was recently not found in remote repository.", repositoryPath));
+        }
+        else if (targetPath == null)
+        {
+            try
+            {
+                targetPath = resolvePathExclusive(repositoryPath);
+            }
+            catch (ArtifactNotFoundException e)
+            {
+                notFoundCache.put(repositoryPath);
+
+                throw e;
+            }
         }
         else if (RepositoryFiles.hasExpired(targetPath))
         {
@@ -92,12 +149,18 @@ public class ProxyRepositoryProvider
         {
             // This is the second attempt, but this time inside exclusive write lock
             // Things might have changed.
+            repositoryPath.invalidateArtifactEntry();
             RepositoryPath targetPath = hostedRepositoryProvider.fetchPath(repositoryPath);
             if (targetPath != null)
             {
                 return targetPath;
 
             }
+            if (inFlightDownloads.isStreamThroughEnabled() && RepositoryFiles.isArtifact(repositoryPath)
+                    && !RepositoryFiles.isMetadata(repositoryPath))
+            {
+                return proxyRepositoryArtifactResolver.fetchRemoteResourceStreamThrough(repositoryPath);
+            }
             return proxyRepositoryArtifactResolver.fetchRemoteResource(repositoryPath);
         }
         catch (IOException e)
@@ -0,0 +1,244 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.event.server.ServerEvent;
+import org.carlspring.strongbox.event.server.ServerEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers, for a limited time, the {@link RepositoryPath}s which could not
+ * be resolved within proxy and group repositories, so that repeated lookups
+ * of non-existent paths don't go to the remote repositories (or traverse the
+ * group members) over and over again.
+ * <br>
+ * Entries are grouped by parent directory and kept per file name and per
+ * repository, both the number of directories and the number of entries per
+ * directory are bounded. Any store, update, move, copy or delete of a path
+ * invalidates the entries of its directory for all the repositories, which
+ * covers the groups containing the changed repository, as well as the
+ * checksums generated next to the changed path. Configuration changes (group
+ * members, remote URLs, repositories put out of service, etc.) and trash
+ * restores invalidate everything.
+ * <br>
+ * The cache is node-local and is invalidated by the events of its own node
+ * only, so a path which has been stored (or a configuration which has been
+ * changed) on another member of the cluster may still be reported as not
+ * found on this node, for at most `ttlSeconds`.
+ * <br>
+ * Only the lookups of the proxy and group repositories are cached (and
+ * counted), the hosted repositories are looked up in the storage directly.
+ */
+@Component
+public class RepositoryPathNotFoundCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryPathNotFoundCache.class);
+
+    private static final Set<ArtifactEventTypeEnum> INVALIDATING_EVENTS = EnumSet.of(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_STORED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_COPIED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED);
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    @Value("${strongbox.repository.notFoundCache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.repository.notFoundCache.ttlSeconds:60}")
+    private long ttlSeconds;
+
+    /**
+     * Maximum number of the directories.
+     */
+    @Value("${strongbox.repository.notFoundCache.maxSize:100000}")
+    private long maxSize;
+
+    @Value("${strongbox.repository.notFoundCache.maxDirectoryEntries:1000}")
+    private long maxDirectoryEntries;
+
+    /**
+     * Relative directory path -> (storageId:repositoryId/fileName -> not found).
+     */
+    private Cache<String, Cache<String, Boolean>> notFound;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        notFound = CacheBuilder.newBuilder()
+                               .maximumSize(maxSize)
+                               .expireAfterAccess(ttlSeconds, TimeUnit.SECONDS)
+                               .build();
+    }
+
+    /**
+     * @return <code>true</code> if the path has recently been looked up in
+     *         the repository and was not found
+     */
+    public boolean isNotFound(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!enabled || isHosted(repositoryPath))
+        {
+            return false;
+        }
+
+        Cache<String, Boolean> entries = notFound.getIfPresent(getDirectoryKey(repositoryPath));
+        if (entries != null && entries.getIfPresent(getEntryKey(repositoryPath)) != null)
+        {
+            hitCount.incrementAndGet();
+
+            return true;
+        }
+
+        missCount.incrementAndGet();
+
+        return false;
+    }
+
+    public void put(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!enabled || isHosted(repositoryPath))
+        {
+            return;
+        }
+
+        Cache<String, Boolean> entries = notFound.asMap().computeIfAbsent(getDirectoryKey(repositoryPath),
+                                                                          k -> newDirectoryEntries());
+        entries.put(getEntryKey(repositoryPath), Boolean.TRUE);
+    }
+
+    private Cache<String, Boolean> newDirectoryEntries()
+    {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(maxDirectoryEntries)
+                           .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                           .build();
+    }
+
+    public void invalidate(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        notFound.invalidate(getDirectoryKey(repositoryPath));
+    }
+
+    public void invalidateAll()
+    {
+        notFound.invalidateAll();
+    }
+
+    @EventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
+    {
+        if (INVALIDATING_EVENTS.stream().noneMatch(e -> e.getType() == event.getType()))
+        {
+            return;
+        }
+
+        invalidate(event.getPath());
+        if (event.getTargetPath() != null)
+        {
+            invalidate(event.getTargetPath());
+        }
+
+        logger.debug(String.format("Invalidated not found entries of [%s].", event.getPath()));
+    }
+
+    @EventListener
+    public void handleEvent(final RepositoryEvent event)
+    {
+        if (event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_UNDELETE_TRASH.getType() &&
+            event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_UNDELETE_TRASH_FOR_ALL_REPOSITORIES.getType())
+        {
+            return;
+        }
+
+        invalidateAll();
+
+        logger.debug(String.format("Invalidated not found entries, trash of [%s:%s] has been restored.",
+                                   event.getStorageId(), event.getRepositoryId()));
+    }
+
+    @EventListener
+    public void handleEvent(final ServerEvent event)
+    {
+        if (event.getType() != ServerEventTypeEnum.EVENT_SERVER_CONFIGURATION_CHANGED.getType())
+        {
+            return;
+        }
+
+        invalidateAll();
+
+        logger.debug("Invalidated not found entries, configuration has been changed.");
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of the directories which have not found entries.
+     */
+    public long getSize()
+    {
+        return notFound.size();
+    }
+
+    private boolean isHosted(RepositoryPath repositoryPath)
+    {
+        return RepositoryTypeEnum.HOSTED.getType().equals(repositoryPath.getRepository().getType());
+    }
+
+    private String getDirectoryKey(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        int i = path.lastIndexOf('/');
+
+        return i < 0 ? "" : path.substring(0, i);
+    }
+
+    private String getEntryKey(RepositoryPath repositoryPath)
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        return String.format("%s:%s/%s", repository.getStorage().getId(), repository.getId(),
+                             repositoryPath.getFileName());
+    }
+
+}
@@ -0,0 +1,438 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownloads;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves group repository members on a dedicated, bounded thread pool, so
+ * that blocking remote I/O doesn't run on the common ForkJoinPool.
+ * <br>
+ * {@link #resolveFirst(List)} honours the members order: a member is started
+ * either when all the previous members have missed, or when the previous
+ * member has been running for longer than the hedge delay. The result of a
+ * member wins only when all the previous members have missed, so a slow
+ * upstream doesn't delay the lookup in the members which follow it, but it
+ * still takes precedence if it does have the path. The results of the
+ * members which have been superseded are discarded (for example, their
+ * downloads are cancelled), and member failures are reported only if none of
+ * the members has the path.
+ * <br>
+ * Tasks submitted from the pool threads (nested groups) are executed in the
+ * calling thread to avoid pool starvation.
+ */
+@Component
+public class GroupRepositoryMemberExecutor
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryMemberExecutor.class);
+
+    private final ThreadLocal<Boolean> poolThread = new ThreadLocal<>();
+
+    @Value("${strongbox.group.resolution.maxThreads:32}")
+    private int maxThreads;
+
+    @Value("${strongbox.group.resolution.queueCapacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * Delay before the next member is started while the previous one is still
+     * running; negative value disables parallel resolution.
+     */
+    @Value("${strongbox.group.resolution.hedgeDelayMillis:200}")
+    private long hedgeDelayMillis;
+
+    @Inject
+    private ProxyRepositoryInFlightDownloads inFlightDownloads;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                                          new LinkedBlockingQueue<>(queueCapacity), r -> {
+                                              Thread thread = new Thread(() -> {
+                                                  poolThread.set(Boolean.TRUE);
+                                                  r.run();
+                                              }, String.format("%s-%s", GroupRepositoryMemberExecutor.class.getSimpleName(),
+                                                               threadNumber.incrementAndGet()));
+                                              thread.setDaemon(true);
+
+                                              return thread;
+                                          }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @see #resolveFirst(List, Consumer)
+     */
+    public <T> T resolveFirst(List<Callable<T>> members)
+        throws IOException
+    {
+        return resolveFirst(members, r -> {
+        });
+    }
+
+    /**
+     * @param members
+     *            member lookups, in the members order; a lookup returns
+     *            <code>null</code> if the member doesn't have the path
+     * @param discard
+     *            called with the results of the hedged members which have
+     *            been superseded by a previous member, including the ones
+     *            which complete after this method has returned
+     * @return the result of the first member, by order, which has the path,
+     *         or <code>null</code> if none of them does
+     * @throws IOException
+     *             if none of the members has the path and some of them failed
+     */
+    public <T> T resolveFirst(List<Callable<T>> members,
+                              Consumer<T> discard)
+        throws IOException
+    {
+        List<Throwable> failures = new ArrayList<>();
+
+        if (hedgeDelayMillis < 0 || members.size() < 2 || isPoolThread())
+        {
+            for (Callable<T> member : members)
+            {
+                T result;
+                try
+                {
+                    result = call(member);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    failures.add(e);
+
+                    continue;
+                }
+
+                if (result != null)
+                {
+                    return resolved(result, failures);
+                }
+            }
+
+            return unresolved(members, failures);
+        }
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<MemberTask<T>> tasks = new ArrayList<>(members.size());
+        List<Future<T>> futures = new ArrayList<>(members.size());
+        int winner = -1;
+        try
+        {
+            submit(completionService, members, discard, tasks, futures);
+            long nextStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+
+            for (int i = 0; i < members.size();)
+            {
+                Future<T> future = futures.get(i);
+                if (future.isDone())
+                {
+                    T result = getResult(future, failures);
+                    if (result != null)
+                    {
+                        winner = i;
+
+                        return resolved(result, failures);
+                    }
+
+                    // All the members up to `i` have missed, so the next one should run right away.
+                    if (++i == futures.size() && i < members.size())
+                    {
+                        submit(completionService, members, discard, tasks, futures);
+                        nextStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+                    }
+
+                    continue;
+                }
+
+                if (futures.size() < members.size() && System.nanoTime() >= nextStart)
+                {
+                    logger.debug(String.format("Hedging group member [%s] after [%s] ms.", futures.size(),
+                                               hedgeDelayMillis));
+
+                    submit(completionService, members, discard, tasks, futures);
+                    nextStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+
+                    continue;
+                }
+
+                if (futures.size() < members.size())
+                {
+                    completionService.poll(Math.max(0, nextStart - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                else
+                {
+                    completionService.take();
+                }
+            }
+
+            return unresolved(members, failures);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while resolving group members.");
+        }
+        finally
+        {
+            // Members which are already running are not interrupted (they may hold locks or be within a
+            // transaction), but their results are discarded.
+            for (int i = 0; i < tasks.size(); i++)
+            {
+                if (i == winner)
+                {
+                    continue;
+                }
+                futures.get(i).cancel(false);
+                tasks.get(i).discard();
+            }
+        }
+    }
+
+    private <T> void submit(CompletionService<T> completionService,
+                            List<Callable<T>> members,
+                            Consumer<T> discard,
+                            List<MemberTask<T>> tasks,
+                            List<Future<T>> futures)
+    {
+        MemberTask<T> task = new MemberTask<>(wrap(members.get(tasks.size())), discard);
+        tasks.add(task);
+        futures.add(completionService.submit(task));
+    }
+
+    private <T> T resolved(T result,
+                           List<Throwable> failures)
+    {
+        failures.forEach(e -> logger.warn(String.format("Failed to resolve group member, resolved [%s] instead.",
+                                                        result),
+                                          e));
+
+        return result;
+    }
+
+    private <T> T unresolved(List<Callable<T>> members,
+                             List<Throwable> failures)
+        throws IOException
+    {
+        if (failures.isEmpty())
+        {
+            return null;
+        }
+
+        IOException e = new IOException(String.format("Failed to resolve [%s] of [%s] group members.",
+                                                      failures.size(), members.size()),
+                                        failures.get(0));
+        failures.stream().skip(1).forEach(e::addSuppressed);
+
+        throw e;
+    }
+
+    /**
+     * Executes all the actions and waits for them to complete, failures are
+     * logged.
+     */
+    public void executeAll(List<Callable<?>> actions)
+        throws IOException
+    {
+        if (actions.size() < 2 || isPoolThread())
+        {
+            actions.forEach(this::callLogged);
+
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(actions.size());
+        actions.forEach(a -> futures.add(executor.submit(wrap(a))));
+
+        try
+        {
+            for (Future<?> future : futures)
+            {
+                List<Throwable> failures = new ArrayList<>();
+                getResult(future, failures);
+                failures.forEach(e -> logger.error("Failed to execute group member action.", e));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching group members.");
+        }
+    }
+
+    private boolean isPoolThread()
+    {
+        return Boolean.TRUE.equals(poolThread.get());
+    }
+
+    /**
+     * Propagates the stream-through mode of the calling thread to the pool
+     * thread.
+     */
+    private <T> Callable<T> wrap(Callable<T> member)
+    {
+        if (!inFlightDownloads.isStreamThroughEnabled())
+        {
+            return () -> call(member);
+        }
+
+        return () -> inFlightDownloads.streamThrough(() -> call(member));
+    }
+
+    private <T> T call(Callable<T> member)
+        throws IOException
+    {
+        try
+        {
+            return member.call();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private void callLogged(Callable<?> action)
+    {
+        try
+        {
+            call(action);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error("Failed to execute group member action.", e);
+        }
+    }
+
+    private <T> T getResult(Future<T> future,
+                            List<Throwable> failures)
+        throws InterruptedException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (CancellationException e)
+        {
+            return null;
+        }
+        catch (ExecutionException e)
+        {
+            failures.add(e.getCause());
+
+            return null;
+        }
+    }
+
+    /**
+     * Group member lookup, whose result is discarded if it has been superseded
+     * by a previous member.
+     */
+    private static class MemberTask<T> implements Callable<T>
+    {
+
+        private final Callable<T> member;
+
+        private final Consumer<T> discard;
+
+        private boolean discarded;
+
+        private T result;
+
+        private MemberTask(Callable<T> member,
+                           Consumer<T> discard)
+        {
+            this.member = member;
+            this.discard = discard;
+        }
+
+        @Override
+        public T call()
+            throws Exception
+        {
+            T value = member.call();
+            synchronized (this)
+            {
+                if (!discarded)
+                {
+                    result = value;
+
+                    return value;
+                }
+            }
+            discard(value);
+
+            return null;
+        }
+
+        private void discard()
+        {
+            T value;
+            synchronized (this)
+            {
+                discarded = true;
+                value = result;
+                result = null;
+            }
+            discard(value);
+        }
+
+        private void discard(T value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+
+            try
+            {
+                discard.accept(value);
+            }
+            catch (RuntimeException e)
+            {
+                logger.warn(String.format("Failed to discard group member result [%s].", value), e);
+            }
+        }
+
+    }
+
+}
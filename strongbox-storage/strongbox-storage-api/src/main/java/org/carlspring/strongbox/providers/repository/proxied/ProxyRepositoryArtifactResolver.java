@@ -1,23 +1,39 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CacheValidators;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import javax.inject.Inject;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -45,6 +61,12 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private ProxyRepositoryCacheValidators cacheValidators;
+
+    @Inject
+    private ProxyRepositoryInFlightDownloads inFlightDownloads;
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
@@ -70,9 +92,12 @@ public class ProxyRepositoryArtifactResolver
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        try (ProxyRepositoryInputStream remoteIs = new ProxyRepositoryInputStream(client, repositoryPath))
         {
-            return doFetch(repositoryPath, is);
+            RepositoryPath result = doFetch(repositoryPath, new BufferedInputStream(remoteIs));
+            cacheValidators.put(repositoryPath, remoteIs.getCacheValidators());
+
+            return result;
         }
         finally
         {
@@ -80,6 +105,238 @@ public class ProxyRepositoryArtifactResolver
         }
     }
 
+    /**
+     * Revalidates the cached resource against the remote repository with a conditional request, if the validators
+     * of the cached resource are known, or fetches it with {@link #fetchRemoteResource(RepositoryPath)} otherwise.
+     * <br>
+     * If the remote resource hasn't been modified, the cached resource is touched, so that it's valid for another
+     * expiration period.
+     */
+    public RepositoryPath revalidateRemoteResource(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        CacheValidators currentCacheValidators = cacheValidators.get(repositoryPath);
+        if (currentCacheValidators == null)
+        {
+            return fetchRemoteResource(repositoryPath);
+        }
+
+        Repository repository = repositoryPath.getFileSystem().getRepository();
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.debug("Remote repository '" + remoteRepository.getUrl() + "' is down.");
+
+            return null;
+        }
+
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+
+        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
+        Lock lock = lockSource.writeLock();
+        lock.lock();
+
+        try (ProxyRepositoryInputStream remoteIs = new ProxyRepositoryInputStream(client, repositoryPath,
+                                                                                  currentCacheValidators))
+        {
+            if (remoteIs.isNotModified())
+            {
+                logger.debug(String.format("Remote resource [%s] has not been modified.", repositoryPath));
+
+                Files.setAttribute(repositoryPath, "basic:lastModifiedTime", FileTime.from(Instant.now()));
+
+                CacheValidators newCacheValidators = remoteIs.getCacheValidators();
+                cacheValidators.put(repositoryPath,
+                                    newCacheValidators == null ? currentCacheValidators : newCacheValidators);
+
+                return repositoryPath;
+            }
+
+            RepositoryPath result = doFetch(repositoryPath, new BufferedInputStream(remoteIs));
+            cacheValidators.put(repositoryPath, remoteIs.getCacheValidators());
+
+            return result;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #fetchRemoteResource(RepositoryPath)}, but returns as soon
+     * as the remote connection has been established, while the artifact is
+     * downloaded in background. The content which is being downloaded can be
+     * read with {@link ProxyRepositoryInFlightDownload#newInputStream()}, and
+     * concurrent requests of the same Path attach to the same download.
+     * <br>
+     * The remote checksum (if any) is fetched before the download, so that it
+     * can be served along with the content, and the cached copy is stored only
+     * after it has been validated.
+     */
+    public RepositoryPath fetchRemoteResourceStreamThrough(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getFileSystem().getRepository();
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.debug("Remote repository '" + remoteRepository.getUrl() + "' is down.");
+
+            return null;
+        }
+
+        ProxyRepositoryInFlightDownload download = inFlightDownloads.join(repositoryPath);
+        if (download == null)
+        {
+            download = inFlightDownloads.start(repositoryPath, d -> streamThrough(remoteRepository, d));
+        }
+        if (download == null)
+        {
+            return fetchRemoteResource(repositoryPath);
+        }
+
+        download.awaitStarted();
+
+        return repositoryPath;
+    }
+
+    private void streamThrough(RemoteRepository remoteRepository,
+                               ProxyRepositoryInFlightDownload download)
+    {
+        RepositoryPath repositoryPath = download.getRepositoryPath();
+        try
+        {
+            String digestAlgorithm = getValidationDigestAlgorithm(repositoryPath);
+            String remoteChecksum = getRemoteChecksum(remoteRepository, repositoryPath, digestAlgorithm);
+            String digest = spool(remoteRepository, download, digestAlgorithm, remoteChecksum);
+
+            validateChecksum(repositoryPath, remoteChecksum, digest);
+            download.completed();
+        }
+        catch (IOException e)
+        {
+            download.failed(e);
+
+            return;
+        }
+        catch (Exception e)
+        {
+            download.failed(new IOException(e));
+
+            return;
+        }
+
+        try
+        {
+            Lock lock = repositoryPathLock.lock(repositoryPath, "remote-fetch").writeLock();
+            lock.lock();
+            try (InputStream is = download.newSpoolInputStream())
+            {
+                doFetch(repositoryPath, is);
+                cacheValidators.put(repositoryPath, download.getCacheValidators());
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to store proxied artifact [%s]", repositoryPath), e);
+        }
+    }
+
+    private String spool(RemoteRepository remoteRepository,
+                         ProxyRepositoryInFlightDownload download,
+                         String digestAlgorithm,
+                         String remoteChecksum)
+        throws IOException,
+        NoSuchAlgorithmException
+    {
+        RepositoryPath repositoryPath = download.getRepositoryPath();
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+
+        try (ProxyRepositoryInputStream is = new ProxyRepositoryInputStream(client, repositoryPath))
+        {
+            //We need this to force initialize lazy connection to remote repository.
+            is.available();
+            download.started(is.getContentLength(), is.getCacheValidators(),
+                             remoteChecksum == null ? Collections.emptyMap()
+                                     : Collections.singletonMap(digestAlgorithm, remoteChecksum));
+
+            MessageDigest messageDigest = digestAlgorithm == null ? null : MessageDigest.getInstance(digestAlgorithm);
+            try (InputStream dis = messageDigest == null ? new CloseShieldInputStream(is)
+                    : new DigestInputStream(new CloseShieldInputStream(is), messageDigest);
+                 OutputStream os = download.newSpoolOutputStream())
+            {
+                IOUtils.copy(dis, os);
+            }
+
+            return messageDigest == null ? null : MessageDigestUtils.convertToHexadecimalString(messageDigest);
+        }
+    }
+
+    private String getValidationDigestAlgorithm(RepositoryPath repositoryPath)
+    {
+        Set<String> digestAlgorithmSet = repositoryPath.getFileSystem().getDigestAlgorithmSet();
+        if (digestAlgorithmSet.contains(MessageDigestAlgorithms.SHA_1))
+        {
+            return MessageDigestAlgorithms.SHA_1;
+        }
+
+        return digestAlgorithmSet.stream().findFirst().orElse(null);
+    }
+
+    /**
+     * @return the remote checksum of the path, or <code>null</code> if there is none
+     */
+    private String getRemoteChecksum(RemoteRepository remoteRepository,
+                                     RepositoryPath repositoryPath,
+                                     String digestAlgorithm)
+        throws IOException
+    {
+        if (digestAlgorithm == null || Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+        {
+            return null;
+        }
+
+        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) repositoryPath.getFileSystem().provider();
+        RepositoryPath checksumPath = provider.getChecksumPath(repositoryPath, digestAlgorithm);
+
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+        String remoteChecksum;
+        try (InputStream is = new ProxyRepositoryInputStream(client, checksumPath))
+        {
+            remoteChecksum = MessageDigestUtils.readChecksumFile(is);
+        }
+        catch (ArtifactNotFoundException e)
+        {
+            logger.debug(String.format("No remote checksum for [%s].", repositoryPath));
+
+            return null;
+        }
+        if (remoteChecksum == null || remoteChecksum.trim().isEmpty())
+        {
+            return null;
+        }
+
+        // The checksum file may also contain the file name after the checksum.
+        return remoteChecksum.trim().split("\\s+")[0].toLowerCase();
+    }
+
+    private void validateChecksum(RepositoryPath repositoryPath,
+                                  String remoteChecksum,
+                                  String digest)
+        throws IOException
+    {
+        if (remoteChecksum != null && !remoteChecksum.equalsIgnoreCase(digest))
+        {
+            throw new IOException(String.format("Remote checksum [%s] does not match [%s] for [%s].",
+                                                remoteChecksum, digest, repositoryPath));
+        }
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
                                    InputStream is)
         throws IOException
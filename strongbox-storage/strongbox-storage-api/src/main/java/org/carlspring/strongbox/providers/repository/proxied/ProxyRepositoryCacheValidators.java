@@ -0,0 +1,309 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers the {@link CacheValidators} of the resources fetched from the remote repositories, so that they can be
+ * revalidated with conditional requests.
+ * <br>
+ * The validators of a cached {@link RepositoryPath} are kept along with the size and the modification time of the
+ * file they have been received with, and are discarded once the file has been changed by anything else than the
+ * proxy repository. They are kept as the user-defined attributes of the file itself, so that they survive restarts
+ * and go away with the file, at the cost of a single file system call. The validators of the files whose file store
+ * doesn't support user-defined attributes, and of the other resources (like the package feeds, which are kept by the
+ * request key provided by the caller), are kept in memory only.
+ */
+@Component
+public class ProxyRepositoryCacheValidators
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryCacheValidators.class);
+
+    static final String ENTITY_TAG_ATTRIBUTE = "strongbox.cacheValidators.entityTag";
+
+    static final String LAST_MODIFIED_ATTRIBUTE = "strongbox.cacheValidators.lastModified";
+
+    static final String STAMP_ATTRIBUTE = "strongbox.cacheValidators.stamp";
+
+    @Value("${strongbox.repository.cacheValidators.ttlSeconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${strongbox.repository.cacheValidators.maxSize:100000}")
+    private long maxSize;
+
+    /**
+     * Request key -> validators (and the cached file stamp, if any).
+     */
+    private Cache<String, Entry> validators;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        validators = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                                 .build();
+    }
+
+    /**
+     * @return the validators of the cached path, or <code>null</code> if they are unknown or the path has been
+     *         changed since
+     */
+    public CacheValidators get(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!Files.exists(repositoryPath))
+        {
+            validators.invalidate(getKey(repositoryPath));
+
+            return null;
+        }
+
+        Entry entry = readFileAttributes(repositoryPath);
+        if (entry == null)
+        {
+            entry = validators.getIfPresent(getKey(repositoryPath));
+        }
+        if (entry == null)
+        {
+            return null;
+        }
+        if (!entry.stamp.equals(stamp(repositoryPath)))
+        {
+            invalidate(repositoryPath);
+
+            return null;
+        }
+
+        return entry.cacheValidators;
+    }
+
+    /**
+     * Should be called once the path has been stored (or touched), as the validators are bound to the current file.
+     */
+    public void put(RepositoryPath repositoryPath,
+                    CacheValidators cacheValidators)
+        throws IOException
+    {
+        Entry entry = cacheValidators == null ? null : new Entry(cacheValidators, stamp(repositoryPath));
+        if (writeFileAttributes(repositoryPath, entry))
+        {
+            validators.invalidate(getKey(repositoryPath));
+
+            return;
+        }
+
+        if (entry == null)
+        {
+            validators.invalidate(getKey(repositoryPath));
+
+            return;
+        }
+
+        validators.put(getKey(repositoryPath), entry);
+    }
+
+    public void invalidate(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        put(repositoryPath, null);
+    }
+
+    public CacheValidators get(String key)
+    {
+        Entry entry = validators.getIfPresent(key);
+
+        return entry == null ? null : entry.cacheValidators;
+    }
+
+    public void put(String key,
+                    CacheValidators cacheValidators)
+    {
+        if (cacheValidators == null)
+        {
+            validators.invalidate(key);
+
+            return;
+        }
+
+        validators.put(key, new Entry(cacheValidators, ""));
+    }
+
+    /**
+     * @return the number of the validators kept in memory
+     */
+    public long getSize()
+    {
+        return validators.size();
+    }
+
+    /**
+     * @return the validators kept with the file, or <code>null</code> if there are none, or the file store doesn't
+     *         support user-defined attributes
+     */
+    private Entry readFileAttributes(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(repositoryPath,
+                                                                       UserDefinedFileAttributeView.class);
+        if (view == null)
+        {
+            return null;
+        }
+
+        List<String> names;
+        try
+        {
+            names = view.list();
+        }
+        catch (FileSystemException | UnsupportedOperationException e)
+        {
+            return null;
+        }
+        if (!names.contains(STAMP_ATTRIBUTE))
+        {
+            return null;
+        }
+
+        return new Entry(new CacheValidators(readAttribute(view, names, ENTITY_TAG_ATTRIBUTE),
+                                             readAttribute(view, names, LAST_MODIFIED_ATTRIBUTE)),
+                         readAttribute(view, names, STAMP_ATTRIBUTE));
+    }
+
+    /**
+     * @return <code>false</code> if the file store doesn't support user-defined attributes
+     */
+    private boolean writeFileAttributes(RepositoryPath repositoryPath,
+                                        Entry entry)
+        throws IOException
+    {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(repositoryPath,
+                                                                       UserDefinedFileAttributeView.class);
+        if (view == null || !Files.exists(repositoryPath))
+        {
+            return false;
+        }
+
+        try
+        {
+            List<String> names = view.list();
+            deleteAttribute(view, names, STAMP_ATTRIBUTE);
+            deleteAttribute(view, names, ENTITY_TAG_ATTRIBUTE);
+            deleteAttribute(view, names, LAST_MODIFIED_ATTRIBUTE);
+            if (entry == null)
+            {
+                return true;
+            }
+
+            writeAttribute(view, ENTITY_TAG_ATTRIBUTE, entry.cacheValidators.getEntityTag());
+            writeAttribute(view, LAST_MODIFIED_ATTRIBUTE, entry.cacheValidators.getLastModified());
+            // The stamp goes last, as it marks the validators complete.
+            writeAttribute(view, STAMP_ATTRIBUTE, entry.stamp);
+
+            return true;
+        }
+        catch (FileSystemException | UnsupportedOperationException e)
+        {
+            logger.debug(String.format("Failed to keep the validators of [%s] with the file, keeping them in memory.",
+                                       repositoryPath));
+
+            return false;
+        }
+    }
+
+    private static String readAttribute(UserDefinedFileAttributeView view,
+                                        List<String> names,
+                                        String name)
+        throws IOException
+    {
+        if (!names.contains(name))
+        {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(view.size(name));
+        view.read(name, buffer);
+        buffer.flip();
+
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    private static void writeAttribute(UserDefinedFileAttributeView view,
+                                       String name,
+                                       String value)
+        throws IOException
+    {
+        if (value != null)
+        {
+            view.write(name, StandardCharsets.UTF_8.encode(value));
+        }
+    }
+
+    private static void deleteAttribute(UserDefinedFileAttributeView view,
+                                        List<String> names,
+                                        String name)
+        throws IOException
+    {
+        if (names.contains(name))
+        {
+            view.delete(name);
+        }
+    }
+
+    private String getKey(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        return String.format("%s:%s/%s", repository.getStorage().getId(), repository.getId(),
+                             RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    private String stamp(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(repositoryPath, BasicFileAttributes.class);
+
+        return String.format("%s:%s", attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    private static class Entry
+    {
+
+        private final CacheValidators cacheValidators;
+
+        private final String stamp;
+
+        private Entry(CacheValidators cacheValidators,
+                      String stamp)
+        {
+            this.cacheValidators = cacheValidators;
+            this.stamp = stamp;
+        }
+
+    }
+
+}
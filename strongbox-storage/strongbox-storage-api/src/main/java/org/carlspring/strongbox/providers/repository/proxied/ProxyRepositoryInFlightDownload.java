@@ -0,0 +1,557 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remote artifact download which is in progress.
+ * <br>
+ * Remote bytes are spooled into a file within the repository temporary
+ * directory, and any number of clients can read the spool while it's being
+ * written (see {@link #newInputStream()}). The last {@link #HOLD_BACK_SIZE}
+ * bytes, and the end of stream, are available to the readers only after the
+ * download has been {@link #completed()}, so if the checksum validation fails
+ * they get an {@link IOException} instead of the rest of the content.
+ * <br>
+ * The spool file is removed when the writer and all the readers have released
+ * it. Anyone who needs the spool to stay for a while (for example, a request
+ * which is going to read it) can {@link #retain()} it.
+ * <br>
+ * A download which nobody else has joined (see {@link #join()}) can be
+ * {@link #cancel() cancelled}, for example when the group member which started
+ * it has been superseded by a previous member.
+ *
+ * @see ProxyRepositoryInFlightDownloads
+ */
+public class ProxyRepositoryInFlightDownload
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryInFlightDownload.class);
+
+    static final int HOLD_BACK_SIZE = 64 * 1024;
+
+    private final RepositoryPath repositoryPath;
+
+    private final Path spool;
+
+    private final Object monitor = new Object();
+
+    private final Consumer<ProxyRepositoryInFlightDownload> onReleased;
+
+    private long written;
+
+    private long contentLength = -1;
+
+    private CacheValidators cacheValidators;
+
+    private Map<String, String> checksums = Collections.emptyMap();
+
+    private Instant lastModified;
+
+    private boolean started;
+
+    private boolean completed;
+
+    private IOException failure;
+
+    private boolean cancelled;
+
+    /**
+     * The number of the requests which are waiting for the download.
+     */
+    private int requesters = 1;
+
+    /**
+     * The writer holds one reference until the spool is published.
+     */
+    private int references = 1;
+
+    public ProxyRepositoryInFlightDownload(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        this(repositoryPath, d -> {
+        });
+    }
+
+    /**
+     * @param onReleased
+     *            called once the writer and all the readers have released the
+     *            download
+     */
+    public ProxyRepositoryInFlightDownload(RepositoryPath repositoryPath,
+                                           Consumer<ProxyRepositoryInFlightDownload> onReleased)
+        throws IOException
+    {
+        this.repositoryPath = repositoryPath;
+        this.onReleased = onReleased;
+        this.spool = repositoryPath.getFileSystem().createTempFile("strongbox-proxy-", ".spool");
+    }
+
+    public RepositoryPath getRepositoryPath()
+    {
+        return repositoryPath;
+    }
+
+    /**
+     * @return the remote content length, or <code>-1</code> if it's unknown.
+     */
+    public long getContentLength()
+    {
+        synchronized (monitor)
+        {
+            return contentLength;
+        }
+    }
+
+    /**
+     * @return the validators of the remote artifact, or <code>null</code> if
+     *         there are none
+     */
+    public CacheValidators getCacheValidators()
+    {
+        synchronized (monitor)
+        {
+            return cacheValidators;
+        }
+    }
+
+    /**
+     * @return the remote checksums the download is validated against, by the
+     *         digest algorithm
+     */
+    public Map<String, String> getChecksums()
+    {
+        synchronized (monitor)
+        {
+            return checksums;
+        }
+    }
+
+    /**
+     * @return the remote modification time, or the time when the download has
+     *         been started, if it's unknown
+     */
+    public Instant getLastModified()
+    {
+        synchronized (monitor)
+        {
+            return lastModified;
+        }
+    }
+
+    public boolean isCompleted()
+    {
+        synchronized (monitor)
+        {
+            return completed;
+        }
+    }
+
+    /**
+     * Waits until the remote connection has been established.
+     *
+     * @throws IOException
+     *             if the download failed to start (for example, the remote
+     *             artifact was not found)
+     */
+    public void awaitStarted()
+        throws IOException
+    {
+        synchronized (monitor)
+        {
+            while (!started && failure == null)
+            {
+                await();
+            }
+            if (!started)
+            {
+                throw failure;
+            }
+        }
+    }
+
+    void started(long contentLength)
+    {
+        started(contentLength, null, Collections.emptyMap());
+    }
+
+    void started(long contentLength,
+                 CacheValidators cacheValidators,
+                 Map<String, String> checksums)
+    {
+        Instant remoteLastModified = parseLastModified(cacheValidators);
+        synchronized (monitor)
+        {
+            this.contentLength = contentLength;
+            this.cacheValidators = cacheValidators;
+            this.checksums = Collections.unmodifiableMap(checksums);
+            this.lastModified = remoteLastModified == null ? Instant.now() : remoteLastModified;
+            this.started = true;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * @throws IOException
+     *             if the download has been cancelled in the meantime, in
+     *             which case it should not be stored
+     */
+    void completed()
+        throws IOException
+    {
+        synchronized (monitor)
+        {
+            if (cancelled)
+            {
+                throw failure;
+            }
+
+            completed = true;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Registers one more request for this download, so that it won't be
+     * cancelled.
+     *
+     * @return <code>false</code> if the download has already been cancelled,
+     *         or has failed
+     */
+    public boolean join()
+    {
+        synchronized (monitor)
+        {
+            if (failure != null)
+            {
+                return false;
+            }
+
+            requesters++;
+
+            return true;
+        }
+    }
+
+    /**
+     * Cancels the download if the request which has started it is the only
+     * one, and nobody is reading it.
+     *
+     * @return <code>true</code> if the download has been cancelled
+     */
+    public boolean cancel()
+    {
+        synchronized (monitor)
+        {
+            if (cancelled)
+            {
+                return true;
+            }
+            if (completed || failure != null || requesters > 1 || references > 1)
+            {
+                return false;
+            }
+
+            cancelled = true;
+            failure = new IOException(String.format("Download of [%s] has been cancelled.", repositoryPath));
+            monitor.notifyAll();
+
+            return true;
+        }
+    }
+
+    void failed(IOException e)
+    {
+        synchronized (monitor)
+        {
+            if (cancelled)
+            {
+                return;
+            }
+
+            failure = e;
+            monitor.notifyAll();
+        }
+    }
+
+    OutputStream newSpoolOutputStream()
+        throws IOException
+    {
+        return new FilterOutputStream(Files.newOutputStream(spool))
+        {
+
+            @Override
+            public void write(byte[] b,
+                              int off,
+                              int len)
+                throws IOException
+            {
+                out.write(b, off, len);
+                written(len);
+            }
+
+            @Override
+            public void write(int b)
+                throws IOException
+            {
+                out.write(b);
+                written(1);
+            }
+
+        };
+    }
+
+    InputStream newSpoolInputStream()
+        throws IOException
+    {
+        return Files.newInputStream(spool);
+    }
+
+    private void written(int len)
+        throws IOException
+    {
+        synchronized (monitor)
+        {
+            if (cancelled)
+            {
+                throw failure;
+            }
+
+            written += len;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Opens a new reader for the spooled content, which blocks until more
+     * bytes are available or the download is finished.
+     */
+    public InputStream newInputStream()
+        throws IOException
+    {
+        if (!retain())
+        {
+            throw new IOException(String.format("Download of [%s] has already been released.", repositoryPath));
+        }
+
+        try
+        {
+            return new SpoolInputStream(FileChannel.open(spool, StandardOpenOption.READ));
+        }
+        catch (IOException e)
+        {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Keeps the spool until {@link #release()} is called.
+     *
+     * @return <code>false</code> if the download has already been released, in
+     *         which case the artifact is either stored, or has failed to
+     *         download
+     */
+    public boolean retain()
+    {
+        synchronized (monitor)
+        {
+            if (references == 0)
+            {
+                return false;
+            }
+            references++;
+
+            return true;
+        }
+    }
+
+    public void release()
+    {
+        synchronized (monitor)
+        {
+            if (--references > 0)
+            {
+                return;
+            }
+        }
+
+        try
+        {
+            Files.deleteIfExists(spool);
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to delete spool [%s] for [%s].", spool, repositoryPath), e);
+        }
+        finally
+        {
+            onReleased.accept(this);
+        }
+    }
+
+    /**
+     * @return the number of bytes which can be read, must be called within the monitor
+     */
+    private long readable()
+    {
+        return completed ? written : Math.max(0, written - HOLD_BACK_SIZE);
+    }
+
+    Path getSpool()
+    {
+        return spool;
+    }
+
+    private Instant parseLastModified(CacheValidators cacheValidators)
+    {
+        if (cacheValidators == null || cacheValidators.getLastModified() == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return ZonedDateTime.parse(cacheValidators.getLastModified(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                                .toInstant();
+        }
+        catch (DateTimeParseException e)
+        {
+            logger.debug(String.format("Invalid Last-Modified [%s] of [%s].", cacheValidators.getLastModified(),
+                                       repositoryPath));
+
+            return null;
+        }
+    }
+
+    private void await()
+        throws InterruptedIOException
+    {
+        try
+        {
+            monitor.wait();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting for [%s].", repositoryPath));
+        }
+    }
+
+    private class SpoolInputStream extends InputStream
+    {
+
+        private final FileChannel channel;
+
+        private long position;
+
+        private boolean closed;
+
+        private SpoolInputStream(FileChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+
+            return n < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            long available;
+            synchronized (monitor)
+            {
+                while (position >= readable() && !completed && failure == null)
+                {
+                    await();
+                }
+                if (failure != null)
+                {
+                    throw new IOException(String.format("Failed to download [%s].", repositoryPath), failure);
+                }
+
+                available = readable() - position;
+            }
+
+            if (available <= 0)
+            {
+                return -1;
+            }
+
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, available)), position);
+            if (n > 0)
+            {
+                position += n;
+            }
+
+            return n;
+        }
+
+        @Override
+        public int available()
+        {
+            synchronized (monitor)
+            {
+                return (int) Math.min(Integer.MAX_VALUE, Math.max(0, readable() - position));
+            }
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+
+            try
+            {
+                channel.close();
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+    }
+
+}
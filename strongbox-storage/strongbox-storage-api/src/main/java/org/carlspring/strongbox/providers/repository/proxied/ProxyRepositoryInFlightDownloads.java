@@ -0,0 +1,184 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node-local registry of the remote artifact downloads in progress, see
+ * {@link ProxyRepositoryInFlightDownload}.
+ * <br>
+ * A download stays registered until the writer and all the readers have
+ * released it, so a request which has found it can still read the spool, even
+ * if the artifact has been stored (or has failed to be stored) in the meantime.
+ * <br>
+ * Downloads are executed with a dedicated, bounded thread pool. Stream-through
+ * mode is enabled only for the code executed within
+ * {@link #streamThrough(StreamThroughCallback)}, so the callers which expect
+ * the remote artifact to be fully cached after the Path has been fetched are
+ * not affected.
+ */
+@Component
+public class ProxyRepositoryInFlightDownloads
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryInFlightDownloads.class);
+
+    private final ConcurrentMap<URI, ProxyRepositoryInFlightDownload> downloads = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Boolean> streamThrough = new ThreadLocal<>();
+
+    @Value("${strongbox.proxy.streamThrough.maxThreads:64}")
+    private int maxThreads;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0, maxThreads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, String.format("%s-%s", ProxyRepositoryInFlightDownloads.class.getSimpleName(),
+                                                        threadNumber.incrementAndGet()));
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    public <T> T streamThrough(StreamThroughCallback<T> callback)
+        throws IOException
+    {
+        Boolean previous = streamThrough.get();
+        streamThrough.set(Boolean.TRUE);
+        try
+        {
+            return callback.execute();
+        }
+        finally
+        {
+            if (previous == null)
+            {
+                streamThrough.remove();
+            }
+        }
+    }
+
+    public boolean isStreamThroughEnabled()
+    {
+        return Boolean.TRUE.equals(streamThrough.get());
+    }
+
+    public ProxyRepositoryInFlightDownload get(RepositoryPath repositoryPath)
+    {
+        return downloads.get(repositoryPath.toUri());
+    }
+
+    /**
+     * Joins the download which is in progress for the Path, if any.
+     *
+     * @return the download, or <code>null</code> if there is no download in
+     *         progress or it has been cancelled or has failed
+     */
+    public ProxyRepositoryInFlightDownload join(RepositoryPath repositoryPath)
+    {
+        ProxyRepositoryInFlightDownload download = get(repositoryPath);
+
+        return download != null && download.join() ? download : null;
+    }
+
+    /**
+     * Cancels the download which is in progress for the Path, unless it has
+     * been joined by other requests.
+     */
+    public void cancel(RepositoryPath repositoryPath)
+    {
+        ProxyRepositoryInFlightDownload download = get(repositoryPath);
+        if (download != null && download.cancel())
+        {
+            logger.debug(String.format("Cancelled the download of [%s].", repositoryPath));
+        }
+    }
+
+    /**
+     * Starts a new download, or joins the one which is already in progress
+     * for the same Path.
+     *
+     * @return the download, or <code>null</code> if there are no threads
+     *         available to start it, or the download in progress has been
+     *         cancelled or has failed
+     */
+    ProxyRepositoryInFlightDownload start(RepositoryPath repositoryPath,
+                                          Consumer<ProxyRepositoryInFlightDownload> task)
+        throws IOException
+    {
+        URI key = repositoryPath.toUri();
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath,
+                                                                                       d -> downloads.remove(key, d));
+
+        ProxyRepositoryInFlightDownload existing = downloads.putIfAbsent(key, download);
+        if (existing != null)
+        {
+            download.release();
+
+            return existing.join() ? existing : null;
+        }
+
+        try
+        {
+            executor.execute(() -> {
+                try
+                {
+                    task.accept(download);
+                }
+                finally
+                {
+                    download.release();
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.debug(String.format("No threads available to stream [%s] through.", repositoryPath));
+
+            download.release();
+
+            return null;
+        }
+
+        return download;
+    }
+
+    @FunctionalInterface
+    public interface StreamThroughCallback<T>
+    {
+
+        T execute()
+            throws IOException;
+
+    }
+
+}
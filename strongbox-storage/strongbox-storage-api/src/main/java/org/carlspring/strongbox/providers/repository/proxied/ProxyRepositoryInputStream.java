@@ -7,6 +7,7 @@ import java.io.IOException;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CacheValidators;
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -36,7 +37,20 @@ public class ProxyRepositoryInputStream extends FilterInputStream
                                       RepositoryPath path)
         throws IOException
     {
-        super(new RemoteArtifactStreamFetcher(proxyTargetClient).getInputStream(0, path));
+        this(proxyTargetClient, path, null);
+    }
+
+    /**
+     * @param cacheValidators
+     *            validators of the locally cached path, if any, to make the remote request conditional, see
+     *            {@link #isNotModified()}
+     */
+    public ProxyRepositoryInputStream(RestArtifactResolver proxyTargetClient,
+                                      RepositoryPath path,
+                                      CacheValidators cacheValidators)
+        throws IOException
+    {
+        super(new RemoteArtifactStreamFetcher(proxyTargetClient).getInputStream(0, path, cacheValidators));
 
         this.repositoryPath = path;
         this.client = proxyTargetClient;
@@ -94,6 +108,49 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         return super.available();
     }
 
+    /**
+     * @return the remote content length, or <code>-1</code> if it's unknown.
+     */
+    public long getContentLength()
+        throws IOException
+    {
+        if (!(in instanceof RemoteArtifactStreamFetcher.RemoteArtifactInputStream))
+        {
+            return -1;
+        }
+
+        return ((RemoteArtifactStreamFetcher.RemoteArtifactInputStream) in).getContentLength();
+    }
+
+    /**
+     * @return <code>true</code> if the remote request was conditional, and the remote resource hasn't been
+     *         modified since it was cached, in which case the stream has no content.
+     */
+    public boolean isNotModified()
+        throws IOException
+    {
+        if (!(in instanceof RemoteArtifactStreamFetcher.RemoteArtifactInputStream))
+        {
+            return false;
+        }
+
+        return ((RemoteArtifactStreamFetcher.RemoteArtifactInputStream) in).isNotModified();
+    }
+
+    /**
+     * @return the validators of the remote resource, or <code>null</code> if they are unknown.
+     */
+    public CacheValidators getCacheValidators()
+        throws IOException
+    {
+        if (!(in instanceof RemoteArtifactStreamFetcher.RemoteArtifactInputStream))
+        {
+            return null;
+        }
+
+        return ((RemoteArtifactStreamFetcher.RemoteArtifactInputStream) in).getCacheValidators();
+    }
+
     @Override
     public void close()
         throws IOException
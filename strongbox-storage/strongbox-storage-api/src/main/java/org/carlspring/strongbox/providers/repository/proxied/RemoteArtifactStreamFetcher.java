@@ -7,6 +7,7 @@ import java.net.URI;
 import javax.ws.rs.core.Response;
 
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.CacheValidators;
 import org.carlspring.strongbox.client.CloseableRestResponse;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
@@ -26,10 +27,23 @@ public class RemoteArtifactStreamFetcher
     public InputStream getInputStream(long offset,
                                       RepositoryPath artifactPath)
         throws IOException
+    {
+        return getInputStream(offset, artifactPath, null);
+    }
+
+    /**
+     * @param cacheValidators
+     *            validators of the locally cached resource, if any, to make the request conditional, see
+     *            {@link RemoteArtifactInputStream#isNotModified()}
+     */
+    public InputStream getInputStream(long offset,
+                                      RepositoryPath artifactPath,
+                                      CacheValidators cacheValidators)
+        throws IOException
     {
         URI resource = getRestClientResourcePath(artifactPath);
 
-        return new RemoteArtifactInputStream(resource, offset);
+        return new RemoteArtifactInputStream(resource, offset, cacheValidators);
     }
 
     public String getHead(RepositoryPath repositoryPath)
@@ -57,12 +71,18 @@ public class RemoteArtifactStreamFetcher
     }
 
     private CloseableRestResponse getConnection(URI resource,
-                                                long offset)
+                                                long offset,
+                                                CacheValidators cacheValidators)
         throws IOException
     {
-        CloseableRestResponse connection = client.get(resource.toString(), offset);
+        CloseableRestResponse connection = cacheValidators == null ? client.get(resource.toString(), offset)
+                : client.get(resource.toString(), offset, cacheValidators);
 
         Response response = connection.getResponse();
+        if (cacheValidators != null && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode())
+        {
+            return connection;
+        }
         if (response.getStatus() == 404)
         {
             terminateConnection(connection);
@@ -97,14 +117,23 @@ public class RemoteArtifactStreamFetcher
 
         private URI resource;
         private long offset;
+        private CacheValidators cacheValidators;
         private CloseableRestResponse connection;
         private InputStream target;
 
         public RemoteArtifactInputStream(URI resource,
                                          long offset)
+        {
+            this(resource, offset, null);
+        }
+
+        public RemoteArtifactInputStream(URI resource,
+                                         long offset,
+                                         CacheValidators cacheValidators)
         {
             this.resource = resource;
             this.offset = offset;
+            this.cacheValidators = cacheValidators;
         }
 
         public CloseableRestResponse getConnection()
@@ -114,7 +143,36 @@ public class RemoteArtifactStreamFetcher
             {
                 return connection;
             }
-            return connection = RemoteArtifactStreamFetcher.this.getConnection(resource, offset);
+            return connection = RemoteArtifactStreamFetcher.this.getConnection(resource, offset, cacheValidators);
+        }
+
+        /**
+         * @return <code>true</code> if the request was conditional, and the remote resource hasn't been modified
+         *         since it was cached, in which case the stream has no content.
+         */
+        public boolean isNotModified()
+            throws IOException
+        {
+            return getConnection().getResponse().getStatus() == Response.Status.NOT_MODIFIED.getStatusCode();
+        }
+
+        /**
+         * @return the validators of the remote resource, or <code>null</code> if the remote repository doesn't
+         *         provide them.
+         */
+        public CacheValidators getCacheValidators()
+            throws IOException
+        {
+            return CacheValidators.of(getConnection().getResponse());
+        }
+
+        /**
+         * @return the remote content length, or <code>-1</code> if it's unknown.
+         */
+        public long getContentLength()
+            throws IOException
+        {
+            return getConnection().getResponse().getLength();
         }
 
         private InputStream getTarget()
@@ -124,6 +182,11 @@ public class RemoteArtifactStreamFetcher
             {
                 return target;
             }
+            if (isNotModified())
+            {
+                throw new IOException(String.format("Remote resource %s has not been modified, there is no content to read.",
+                                                    resource));
+            }
 
             target = getConnection().getResponse().readEntity(InputStream.class);
             if (target == null)
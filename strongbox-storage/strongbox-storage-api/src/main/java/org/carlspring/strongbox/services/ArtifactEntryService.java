@@ -73,6 +73,15 @@ public interface ArtifactEntryService
                            String repositoryId,
                            String path);
 
+    /**
+     * Batch variant of {@link #artifactExists(String, String, String)}.
+     *
+     * @return the paths, from the given ones, which have artifact entries within the repository
+     */
+    Set<String> findExistingArtifactPaths(String storageId,
+                                          String repositoryId,
+                                          Collection<String> paths);
+
     ArtifactEntry findOneArtifact(String storageId,
                                   String repositoryId,
                                   String path);
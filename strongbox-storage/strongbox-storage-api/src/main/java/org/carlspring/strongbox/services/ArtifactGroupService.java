@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.services;
 
+import java.util.Collection;
+
 import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactGroupEntry;
@@ -13,5 +15,15 @@ public interface ArtifactGroupService<T extends ArtifactGroupEntry>
 
     void addArtifactToGroup(T artifactGroup,
                             ArtifactEntry artifactEntry);
-    
+
+    /**
+     * Same as {@link #addArtifactToGroup(ArtifactGroupEntry, ArtifactEntry)} for each of the entries, but the group
+     * itself is saved only once.
+     */
+    void addArtifactsToGroup(T artifactGroup,
+                             Collection<? extends ArtifactEntry> artifactEntries);
+
+    void removeArtifactFromGroup(T artifactGroup,
+                                 ArtifactEntry artifactEntry);
+
 }
@@ -24,4 +24,15 @@ public interface ArtifactResolutionService
                                String repositoryId,
                                String path) 
             throws IOException;
+
+    /**
+     * Same as {@link #resolvePath(String, String, String)}, but proxied
+     * artifacts which are not cached yet can be resolved before they have
+     * been fully downloaded, so that {@link #getInputStream(RepositoryPath)}
+     * streams the content through while it's being cached.
+     */
+    RepositoryPath resolvePathStreamThrough(String storageId,
+                                            String repositoryId,
+                                            String path)
+            throws IOException;
 }
@@ -0,0 +1,169 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.config.HazelcastConfiguration;
+import org.carlspring.strongbox.configuration.ArtifactEntryCacheConfiguration;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.inject.Inject;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide cache of the {@link ArtifactEntry} record ids by
+ * `storageId/repositoryId/path`, which saves the index lookups of
+ * {@link ArtifactEntryServiceImpl#findOneArtifact(String, String, String)}.
+ * <br>
+ * Record ids are cached rather than the records, so the entries are always
+ * loaded with their actual version. Stale ids (of deleted or moved entries)
+ * are detected on load and evicted, so only the store and delete of an entry
+ * need to update the cache.
+ * <br>
+ * The backing map is configured with the `artifact-entry-cache-configuration`
+ * from `strongbox.xml`.
+ */
+@Component
+class ArtifactEntryCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryCache.class);
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    private volatile IMap<String, String> artifactEntryIds;
+
+    private volatile boolean enabled = true;
+
+    public String get(String storageId,
+                      String repositoryId,
+                      String path)
+    {
+        IMap<String, String> map = getArtifactEntryIds();
+
+        return map == null ? null : map.get(getKey(storageId, repositoryId, path));
+    }
+
+    public void put(ArtifactEntry artifactEntry)
+    {
+        IMap<String, String> map = getArtifactEntryIds();
+        if (map == null || artifactEntry.getObjectId() == null || artifactEntry.getArtifactCoordinates() == null)
+        {
+            return;
+        }
+
+        map.set(getKey(artifactEntry), artifactEntry.getObjectId());
+    }
+
+    public void evict(ArtifactEntry artifactEntry)
+    {
+        if (artifactEntry.getArtifactCoordinates() == null)
+        {
+            return;
+        }
+
+        evict(getKey(artifactEntry));
+    }
+
+    public void evict(String storageId,
+                      String repositoryId,
+                      String path)
+    {
+        evict(getKey(storageId, repositoryId, path));
+    }
+
+    private void evict(String key)
+    {
+        IMap<String, String> map = getArtifactEntryIds();
+        if (map == null)
+        {
+            return;
+        }
+
+        map.delete(key);
+    }
+
+    public void evictAll()
+    {
+        IMap<String, String> map = getArtifactEntryIds();
+        if (map == null)
+        {
+            return;
+        }
+
+        map.clear();
+    }
+
+    private IMap<String, String> getArtifactEntryIds()
+    {
+        if (artifactEntryIds != null || !enabled)
+        {
+            return artifactEntryIds;
+        }
+
+        synchronized (this)
+        {
+            if (artifactEntryIds != null || !enabled)
+            {
+                return artifactEntryIds;
+            }
+
+            Configuration configuration = configurationManager.getConfiguration();
+            ArtifactEntryCacheConfiguration cacheConfiguration = configuration == null ? null
+                    : configuration.getArtifactEntryCacheConfiguration();
+            if (cacheConfiguration == null)
+            {
+                // The configuration has not been loaded yet.
+                return null;
+            }
+            if (!cacheConfiguration.isEnabled())
+            {
+                enabled = false;
+
+                return null;
+            }
+
+            try
+            {
+                hazelcastInstance.getConfig()
+                                 .addMapConfig(HazelcastConfiguration.artifactEntryCacheConfig(CacheName.Artifact.ARTIFACT_ENTRIES,
+                                                                                               cacheConfiguration.getMaxSize(),
+                                                                                               EvictionPolicy.valueOf(cacheConfiguration.getEvictionPolicy()),
+                                                                                               cacheConfiguration.getTimeToLiveSeconds()));
+            }
+            catch (RuntimeException e)
+            {
+                // Another cluster member has already added a different configuration.
+                logger.warn(String.format("Failed to configure [%s] cache.", CacheName.Artifact.ARTIFACT_ENTRIES), e);
+            }
+
+            artifactEntryIds = hazelcastInstance.getMap(CacheName.Artifact.ARTIFACT_ENTRIES);
+        }
+
+        return artifactEntryIds;
+    }
+
+    private String getKey(ArtifactEntry artifactEntry)
+    {
+        return getKey(artifactEntry.getStorageId(), artifactEntry.getRepositoryId(),
+                      artifactEntry.getArtifactCoordinates().toPath());
+    }
+
+    private String getKey(String storageId,
+                          String repositoryId,
+                          String path)
+    {
+        return storageId + "/" + repositoryId + "/" + path;
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -8,11 +9,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import javax.inject.Inject;
+
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
@@ -28,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OCommandSQL;
@@ -45,6 +50,9 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    @Inject
+    private ArtifactEntryCache artifactEntryCache;
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -59,7 +67,11 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             entity.setCreated(new Date());
         }
 
-        return super.cascadeEntitySave(entity);
+        S result = super.cascadeEntitySave(entity);
+        // The record id may be temporary until the transaction is committed, so it's cached on the next lookup.
+        artifactEntryCache.evict(result);
+
+        return result;
     }
 
     @Override
@@ -370,16 +382,90 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return findArtifactEntryId(storageId, repositoryId, path) != null;
     }
 
+    @Override
+    public Set<String> findExistingArtifactPaths(String storageId,
+                                                 String repositoryId,
+                                                 Collection<String> paths)
+    {
+        if (CollectionUtils.isEmpty(paths))
+        {
+            return Collections.emptySet();
+        }
+
+        String sQuery = String.format("SELECT FROM INDEX:idx_artifact_coordinates WHERE key IN :paths");
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("paths", new ArrayList<>(paths));
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+
+        Map<ORID, String> artifactCoordinatesPathMap = new HashMap<>();
+        for (ODocument result : resultList)
+        {
+            artifactCoordinatesPathMap.put(((ODocument) result.field("rid")).getIdentity(), result.field("key"));
+        }
+        if (artifactCoordinatesPathMap.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        sQuery = String.format("SELECT artifactCoordinates FROM %s " +
+                               "WHERE storageId = :storageId AND repositoryId = :repositoryId " +
+                               "AND artifactCoordinates IN :artifactCoordinatesIds",
+                               getEntityClass().getSimpleName());
+
+        oQuery = new OSQLSynchQuery<>(sQuery);
+
+        params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("artifactCoordinatesIds", new ArrayList<>(artifactCoordinatesPathMap.keySet()));
+
+        resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream()
+                         .map(r -> ((OIdentifiable) r.field("artifactCoordinates")).getIdentity())
+                         .map(artifactCoordinatesPathMap::get)
+                         .filter(Objects::nonNull)
+                         .collect(Collectors.toSet());
+    }
+
     @Override
     public ArtifactEntry findOneArtifact(String storageId,
                                          String repositoryId,
                                          String path)
     {
+        String cachedArtifactEntryId = artifactEntryCache.get(storageId, repositoryId, path);
+        if (cachedArtifactEntryId != null)
+        {
+            ArtifactEntry artifactEntry = entityManager.find(ArtifactEntry.class, cachedArtifactEntryId);
+            if (artifactEntry != null && Objects.equals(storageId, artifactEntry.getStorageId())
+                    && Objects.equals(repositoryId, artifactEntry.getRepositoryId())
+                    && artifactEntry.getArtifactCoordinates() != null
+                    && Objects.equals(path, artifactEntry.getArtifactCoordinates().toPath()))
+            {
+                return detach(artifactEntry);
+            }
+
+            // The entry has been deleted, or moved to the other path.
+            artifactEntryCache.evict(storageId, repositoryId, path);
+        }
+
         ORID artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
-        return Optional.ofNullable(artifactEntryId)
-                       .flatMap(id -> Optional.ofNullable(entityManager.find(ArtifactEntry.class, id)))
-                       .map(e -> detach(e))
-                       .orElse(null);
+        ArtifactEntry result = Optional.ofNullable(artifactEntryId)
+                                       .flatMap(id -> Optional.ofNullable(entityManager.find(ArtifactEntry.class, id)))
+                                       .map(e -> detach(e))
+                                       .orElse(null);
+        // The record id is temporary for the entries which are saved within the current (not yet committed)
+        // transaction, so they are cached on the lookup after the commit.
+        if (result != null && artifactEntryId.isPersistent())
+        {
+            artifactEntryCache.put(result);
+        }
+
+        return result;
     }
 
     @Override
@@ -391,6 +477,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     @Override
     public void delete(ArtifactEntry entity)
     {
+        artifactEntryCache.evict(entity);
         super.delete(entity);
     }
 
@@ -398,6 +485,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     public void deleteAll()
     {
         super.deleteAll();
+        artifactEntryCache.evictAll();
     }
 
     @Override
@@ -414,6 +502,8 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         Map<String, Object> parameterMap = new HashMap<>();
         parameterMap.put("uuids", artifactEntries.stream().map(ArtifactEntry::getUuid).collect(Collectors.toList()));
 
+        artifactEntries.forEach(artifactEntryCache::evict);
+
         OCommandSQL oCommandSQL = new OCommandSQL(sb.toString());
         return getDelegate().command(oCommandSQL).execute(parameterMap);
     }
@@ -466,6 +556,10 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     {
         ArtifactEntry result = super.detach(entity);
         result.setArtifactCoordinates(getDelegate().detachAll(entity.getArtifactCoordinates(), true));
+        if (entity.getArtifactAttributes() != null)
+        {
+            result.setArtifactAttributes(new HashMap<>(entity.getArtifactAttributes()));
+        }
 
         return result;
     }
@@ -13,6 +13,7 @@ import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryI
 import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryOutputStream;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownloads;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.storage.ArtifactResolutionException;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
@@ -41,6 +42,9 @@ public class ArtifactResolutionServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private ProxyRepositoryInFlightDownloads inFlightDownloads;
+
     @Override
     public RepositoryInputStream getInputStream(RepositoryPath path)
         throws IOException
@@ -102,5 +106,14 @@ public class ArtifactResolutionServiceImpl
             return null;
         }
     }
-    
+
+    @Override
+    public RepositoryPath resolvePathStreamThrough(String storageId,
+                                                   String repositoryId,
+                                                   String artifactPath)
+           throws IOException
+    {
+        return inFlightDownloads.streamThrough(() -> resolvePath(storageId, repositoryId, artifactPath));
+    }
+
 }
@@ -5,6 +5,7 @@ import org.carlspring.strongbox.configuration.*;
 import org.carlspring.strongbox.event.repository.RepositoryEvent;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.event.server.ServerEventListenerRegistry;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
@@ -18,7 +19,6 @@ import javax.inject.Inject;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
@@ -38,7 +38,7 @@ public class ConfigurationManagementServiceImpl
         implements ConfigurationManagementService
 {
 
-    private final ReadWriteLock configurationLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock configurationLock = new ReentrantReadWriteLock();
 
     @Inject
     private ConfigurationFileManager configurationFileManager;
@@ -46,6 +46,9 @@ public class ConfigurationManagementServiceImpl
     @Inject
     private RepositoryEventListenerRegistry repositoryEventListenerRegistry;
 
+    @Inject
+    private ServerEventListenerRegistry serverEventListenerRegistry;
+
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
 
@@ -64,6 +67,14 @@ public class ConfigurationManagementServiceImpl
      */
     private MutableConfiguration configuration;
 
+    /**
+     * Immutable snapshot of the {@link #configuration}, it's published once
+     * per modification and shared by all the readers.
+     *
+     * @see #modifyInLock(Consumer, boolean)
+     */
+    private volatile Configuration snapshot;
+
     @PostConstruct
     public void init()
     {
@@ -102,17 +113,13 @@ public class ConfigurationManagementServiceImpl
     @Override
     public Configuration getConfiguration()
     {
-        final Lock readLock = configurationLock.readLock();
-        readLock.lock();
-
-        try
+        if (configurationLock.isWriteLockedByCurrentThread())
         {
+            // The modification in progress should see its own changes.
             return new Configuration(configuration);
         }
-        finally
-        {
-            readLock.unlock();
-        }
+
+        return snapshot;
     }
 
     @Override
@@ -560,6 +567,7 @@ public class ConfigurationManagementServiceImpl
         final Lock writeLock = configurationLock.writeLock();
         writeLock.lock();
 
+        boolean published = false;
         try
         {
             operation.accept(configuration);
@@ -571,7 +579,25 @@ public class ConfigurationManagementServiceImpl
         }
         finally
         {
-            writeLock.unlock();
+            try
+            {
+                // Nested modifications are published with the outermost one.
+                if (configurationLock.getWriteHoldCount() == 1)
+                {
+                    snapshot = new Configuration(configuration);
+                    published = true;
+                }
+            }
+            finally
+            {
+                writeLock.unlock();
+            }
+        }
+
+        // The listeners get the new snapshot.
+        if (published)
+        {
+            serverEventListenerRegistry.dispatchConfigurationChangedEvent();
         }
     }
 
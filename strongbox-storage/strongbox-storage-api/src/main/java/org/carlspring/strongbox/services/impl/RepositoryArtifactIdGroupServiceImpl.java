@@ -1,9 +1,13 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -40,67 +44,174 @@ public class RepositoryArtifactIdGroupServiceImpl
     @Inject
     private ArtifactTagService artifactTagService;
 
+    /**
+     * Adds the entry to the group and moves the {@link ArtifactTagEntry#LAST_VERSION} tag if needed.
+     * <br>
+     * The incoming entry is compared with the maintained
+     * {@link RepositoryArtifactIdGroupEntry#getLastVersionEntries()} only, and only the entries with changed tags are
+     * saved, so the cost of an add doesn't depend on the number of versions within the group.
+     */
     @Override
     public void addArtifactToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
                                    ArtifactEntry artifactEntry)
     {
-        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
-        Assert.notNull(coordinates, "coordinates should not be null");
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        doAddArtifactToGroup(artifactGroup, artifactEntry, lastVersionTag);
+
+        // The entries have been saved above, so the group is saved without the cascade over all its entries.
+        getDelegate().save(artifactGroup);
+    }
+
+    @Override
+    public void addArtifactsToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                    Collection<? extends ArtifactEntry> artifactEntries)
+    {
+        if (artifactEntries.isEmpty())
+        {
+            return;
+        }
 
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
-        artifactEntry.getTagSet().add(lastVersionTag);
-        artifactGroup.putArtifactEntry(artifactEntry);
-        
-        artifactGroup.getArtifactEntries()
-                     .stream()
-                     .filter(e -> e.getTagSet().contains(lastVersionTag))
-                     .sorted((e1,
-                              e2) -> e1.getArtifactCoordinates().compareTo(e2.getArtifactCoordinates()))
-                     .forEach(e -> checkAndUpdateLastVersionTagIfNeeded(e, artifactEntry, lastVersionTag));
-        
-        
-        save(artifactGroup);
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            doAddArtifactToGroup(artifactGroup, artifactEntry, lastVersionTag);
+        }
+
+        getDelegate().save(artifactGroup);
     }
 
-    private <S extends ArtifactEntry> Optional<S> checkAndUpdateLastVersionTagIfNeeded(S lastVersionEntry,
-                                                                                       S entity,
-                                                                                       ArtifactTag lastVersionTag)
+    private void doAddArtifactToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                      ArtifactEntry artifactEntry,
+                                      ArtifactTag lastVersionTag)
     {
-        Optional<S> result = Optional.empty();
-        ArtifactCoordinates coordinates = entity.getArtifactCoordinates();
-        
-        int artifactCoordinatesComparison = entity.getArtifactCoordinates()
-                                                  .compareTo(lastVersionEntry.getArtifactCoordinates());
+        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
+        Assert.notNull(coordinates, "coordinates should not be null");
+
+        Set<ArtifactEntry> lastVersionEntries = getLastVersionEntries(artifactGroup, lastVersionTag);
+        ArtifactEntry lastVersionEntry = lastVersionEntries.stream()
+                                                           .filter(e -> !e.equals(artifactEntry))
+                                                           .findFirst()
+                                                           .orElse(null);
+
+        int artifactCoordinatesComparison = lastVersionEntry == null ? 1
+                : coordinates.compareTo(lastVersionEntry.getArtifactCoordinates());
         if (artifactCoordinatesComparison == 0)
         {
             logger.debug(String.format("Set [%s] last version to [%s]",
-                                       entity.getArtifactPath(),
+                                       artifactEntry.getArtifactPath(),
                                        coordinates.getVersion()));
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.getTagSet().add(lastVersionTag);
         }
         else if (artifactCoordinatesComparison > 0)
         {
             logger.debug(String.format("Update [%s] last version from [%s] to [%s]",
-                                       entity.getArtifactPath(),
-                                       lastVersionEntry.getArtifactCoordinates().getVersion(),
+                                       artifactEntry.getArtifactPath(),
+                                       lastVersionEntry == null ? null
+                                               : lastVersionEntry.getArtifactCoordinates().getVersion(),
                                        coordinates.getVersion()));
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.getTagSet().add(lastVersionTag);
 
-            lastVersionEntry.getTagSet().remove(lastVersionTag);
-            result  = Optional.of(lastVersionEntry);
+            for (ArtifactEntry e : new ArrayList<>(lastVersionEntries))
+            {
+                lastVersionEntries.remove(e);
+                if (!e.equals(artifactEntry))
+                {
+                    e.getTagSet().remove(lastVersionTag);
+                    tryToCascadeEntitySave(e);
+                }
+            }
         }
         else
         {
             logger.debug(String.format("Keep [%s] last version [%s]",
-                                       entity.getArtifactPath(),
+                                       artifactEntry.getArtifactPath(),
                                        lastVersionEntry.getArtifactCoordinates().getVersion()));
-            entity.getTagSet().remove(lastVersionTag);
+            artifactEntry.getTagSet().remove(lastVersionTag);
+            lastVersionEntries.remove(artifactEntry);
+        }
+
+        ArtifactEntry result = (ArtifactEntry) tryToCascadeEntitySave(artifactEntry);
+        artifactGroup.putArtifactEntry(result);
+        if (artifactCoordinatesComparison >= 0)
+        {
+            lastVersionEntries.remove(result);
+            lastVersionEntries.add(result);
         }
-        
-        return result;
     }
-    
+
+    /**
+     * Removes the entry from the group. The latest version is recomputed from the rest of the group entries only if
+     * the removed entry was the last one with the latest version.
+     */
+    @Override
+    public void removeArtifactFromGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                        ArtifactEntry artifactEntry)
+    {
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        Set<ArtifactEntry> lastVersionEntries = getLastVersionEntries(artifactGroup, lastVersionTag);
+
+        artifactGroup.getArtifactEntries().remove(artifactEntry);
+        if (lastVersionEntries.remove(artifactEntry) && lastVersionEntries.isEmpty())
+        {
+            logger.debug(String.format("Recompute [%s] last version after [%s] removal",
+                                       artifactGroup.getArtifactId(),
+                                       artifactEntry.getArtifactPath()));
+            computeLastVersionEntries(artifactGroup, lastVersionTag);
+        }
+
+        getDelegate().save(artifactGroup);
+    }
+
+    private Set<ArtifactEntry> getLastVersionEntries(RepositoryArtifactIdGroupEntry artifactGroup,
+                                                     ArtifactTag lastVersionTag)
+    {
+        if (artifactGroup.getLastVersionEntries() == null)
+        {
+            artifactGroup.setLastVersionEntries(new HashSet<>());
+        }
+        if (artifactGroup.getLastVersionEntries().isEmpty() && !artifactGroup.getArtifactEntries().isEmpty())
+        {
+            // The group was created before the last version entries have been maintained.
+            computeLastVersionEntries(artifactGroup, lastVersionTag);
+        }
+
+        return artifactGroup.getLastVersionEntries();
+    }
+
+    private void computeLastVersionEntries(RepositoryArtifactIdGroupEntry artifactGroup,
+                                           ArtifactTag lastVersionTag)
+    {
+        Set<ArtifactEntry> lastVersionEntries = artifactGroup.getLastVersionEntries();
+        lastVersionEntries.clear();
+
+        ArtifactCoordinates lastVersion = artifactGroup.getArtifactEntries()
+                                                       .stream()
+                                                       .filter(e -> e.getArtifactCoordinates() != null)
+                                                       .map(ArtifactEntry::getArtifactCoordinates)
+                                                       .max(ArtifactCoordinates::compareTo)
+                                                       .orElse(null);
+
+        for (ArtifactEntry e : artifactGroup.getArtifactEntries())
+        {
+            boolean isLastVersion = lastVersion != null && e.getArtifactCoordinates() != null
+                    && e.getArtifactCoordinates().compareTo(lastVersion) == 0;
+            if (isLastVersion)
+            {
+                lastVersionEntries.add(e);
+            }
+
+            boolean tagChanged = isLastVersion ? e.getTagSet().add(lastVersionTag)
+                    : e.getTagSet().remove(lastVersionTag);
+            if (tagChanged)
+            {
+                tryToCascadeEntitySave(e);
+            }
+        }
+    }
+
     public RepositoryArtifactIdGroupEntry findOneOrCreate(String storageId,
                                                      String repositoryId,
                                                      String artifactId)
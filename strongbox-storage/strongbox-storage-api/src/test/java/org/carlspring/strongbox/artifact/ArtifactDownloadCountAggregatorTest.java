@@ -0,0 +1,228 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArtifactDownloadCountAggregatorTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private static final String PATH_1 = "org/foo/bar/1.0/bar-1.0.jar";
+
+    private static final String PATH_2 = "org/foo/bar/2.0/bar-2.0.jar";
+
+    private ArtifactDownloadCountAggregator aggregator;
+
+    private ArtifactEntryService artifactEntryService;
+
+    private ReadWriteLock artifactEntryLock;
+
+    private LayoutFileSystem fileSystem;
+
+    private ExecutorService executor;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        MutableStorage storage = new MutableStorage(STORAGE_ID);
+        MutableRepository repository = new MutableRepository(REPOSITORY_ID);
+        repository.setStorage(storage);
+        repository.setBasedir(new File("target/strongbox-vault/storages/storage0/releases").getAbsolutePath());
+
+        fileSystem = new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), null)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        artifactEntryService = mock(ArtifactEntryService.class);
+        artifactEntryLock = new ReentrantReadWriteLock();
+
+        RepositoryPathLock repositoryPathLock = mock(RepositoryPathLock.class);
+        when(repositoryPathLock.lock(any(RepositoryPath.class), anyString())).thenReturn(artifactEntryLock);
+
+        aggregator = new ArtifactDownloadCountAggregator();
+        ReflectionTestUtils.setField(aggregator, "batchSize", 100);
+        ReflectionTestUtils.setField(aggregator, "missingEntryTimeoutMillis", 60000L);
+        ReflectionTestUtils.setField(aggregator, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(aggregator, "repositoryPathLock", repositoryPathLock);
+        ReflectionTestUtils.setField(aggregator, "transactionManager", mock(PlatformTransactionManager.class));
+
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void downloadsShouldBeCoalescedPerArtifactEntry()
+        throws IOException
+    {
+        ArtifactEntry artifactEntry1 = artifactEntry(PATH_1, 5);
+        ArtifactEntry artifactEntry2 = artifactEntry(PATH_2, 0);
+
+        downloaded(PATH_1, 3);
+        downloaded(PATH_2, 1);
+
+        assertEquals(2, aggregator.getPendingEntries());
+
+        aggregator.flush();
+
+        assertEquals(Integer.valueOf(8), artifactEntry1.getDownloadCount());
+        assertEquals(Integer.valueOf(1), artifactEntry2.getDownloadCount());
+        assertEquals(0, aggregator.getPendingEntries());
+        assertEquals(4, aggregator.getFlushedDownloads());
+        verify(artifactEntryService, times(2)).save(any(ArtifactEntry.class));
+    }
+
+    @Test
+    public void downloadsOfNotYetStoredArtifactEntryShouldBeKept()
+        throws IOException
+    {
+        downloaded(PATH_1, 2);
+
+        aggregator.flush();
+
+        assertEquals(1, aggregator.getPendingEntries());
+        assertEquals(0, aggregator.getDroppedDownloads());
+
+        ArtifactEntry artifactEntry = artifactEntry(PATH_1, 0);
+        aggregator.flush();
+
+        assertEquals(Integer.valueOf(2), artifactEntry.getDownloadCount());
+        assertEquals(0, aggregator.getPendingEntries());
+    }
+
+    @Test
+    public void downloadsOfMissingArtifactEntryShouldBeDroppedAfterTimeout()
+        throws IOException
+    {
+        ReflectionTestUtils.setField(aggregator, "missingEntryTimeoutMillis", 0L);
+
+        downloaded(PATH_1, 2);
+
+        aggregator.flush();
+
+        assertEquals(0, aggregator.getPendingEntries());
+        assertEquals(2, aggregator.getDroppedDownloads());
+    }
+
+    @Test
+    public void failingArtifactEntryShouldNotAffectTheOthersAndShouldBeDroppedEventually()
+        throws IOException
+    {
+        ArtifactEntry artifactEntry1 = artifactEntry(PATH_1, 0);
+        ArtifactEntry artifactEntry2 = artifactEntry(PATH_2, 0);
+        doAnswer(i -> {
+            throw new IllegalStateException("Broken entry.");
+        }).when(artifactEntryService).save(artifactEntry1);
+
+        downloaded(PATH_1, 1);
+        downloaded(PATH_2, 1);
+
+        aggregator.flush();
+
+        assertEquals(Integer.valueOf(1), artifactEntry2.getDownloadCount());
+        assertEquals(1, aggregator.getPendingEntries());
+
+        for (int i = 1; i < ArtifactDownloadCountAggregator.MAX_ATTEMPTS; i++)
+        {
+            aggregator.flush();
+        }
+
+        assertEquals(0, aggregator.getPendingEntries());
+        assertEquals(ArtifactDownloadCountAggregator.MAX_ATTEMPTS, aggregator.getFailedFlushes());
+        assertEquals(1, aggregator.getDroppedDownloads());
+    }
+
+    @Test
+    public void lockedArtifactEntryShouldBeFlushedLater()
+        throws Exception
+    {
+        ArtifactEntry artifactEntry = artifactEntry(PATH_1, 0);
+        downloaded(PATH_1, 1);
+
+        executor.submit(() -> artifactEntryLock.writeLock().lock()).get(10, TimeUnit.SECONDS);
+
+        aggregator.flush();
+
+        assertEquals(1, aggregator.getPendingEntries());
+        verify(artifactEntryService, never()).save(any(ArtifactEntry.class));
+
+        executor.submit(() -> artifactEntryLock.writeLock().unlock()).get(10, TimeUnit.SECONDS);
+
+        aggregator.flush();
+
+        assertEquals(Integer.valueOf(1), artifactEntry.getDownloadCount());
+        assertEquals(0, aggregator.getPendingEntries());
+    }
+
+    private ArtifactEntry artifactEntry(String path,
+                                        int downloadCount)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(REPOSITORY_ID);
+        artifactEntry.setDownloadCount(downloadCount);
+
+        when(artifactEntryService.findOneArtifact(eq(STORAGE_ID), eq(REPOSITORY_ID), eq(path)))
+                .thenReturn(artifactEntry);
+
+        return artifactEntry;
+    }
+
+    private void downloaded(String path,
+                            int times)
+        throws IOException
+    {
+        RepositoryPath repositoryPath = fileSystem.getRootDirectory().resolve(path);
+        for (int i = 0; i < times; i++)
+        {
+            aggregator.downloaded(repositoryPath);
+        }
+    }
+
+}
@@ -0,0 +1,462 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The distributed lock is shared by the locks of two "nodes", each of them with its own node-local lock, and the
+ * writers of each node are announced to both of them.
+ */
+public class RepositoryPathReadWriteLockTest
+{
+
+    private static final String LOCK_NAME = "strongbox:/storage0/releases/org/foo/bar/1.0/bar-1.0.jar";
+
+    private ReentrantReadWriteLock distributedLock;
+
+    private ReentrantReadWriteLock groupLock;
+
+    private RepositoryPathLocalLock firstNodeLocalLock;
+
+    private RepositoryPathLocalLock secondNodeLocalLock;
+
+    private RepositoryPathReadWriteLock firstNodeLock;
+
+    private RepositoryPathReadWriteLock secondNodeLock;
+
+    private ExecutorService executor;
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        distributedLock = new ReentrantReadWriteLock();
+        groupLock = new ReentrantReadWriteLock();
+        firstNodeLocalLock = new RepositoryPathLocalLock();
+        secondNodeLocalLock = new RepositoryPathLocalLock();
+
+        firstNodeLock = new RepositoryPathReadWriteLock(LOCK_NAME, firstNodeLocalLock, distributedLock,
+                                                        () -> groupLock, new Writers("first"));
+        secondNodeLock = new RepositoryPathReadWriteLock(LOCK_NAME, secondNodeLocalLock, distributedLock,
+                                                         () -> groupLock, new Writers("second"));
+
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void writerShouldWaitForReaderOfAnotherNode()
+        throws Exception
+    {
+        Holder reader = hold(firstNodeLock.readLock());
+
+        assertFalse(tryLockInAnotherThread(secondNodeLock.writeLock()));
+        assertFalse(secondNodeLocalLock.getLock().isWriteLocked());
+        assertFalse(groupLock.isWriteLocked());
+        // The failed writer has been withdrawn, so the readers stay node-local.
+        assertFalse(firstNodeLocalLock.hasWriters());
+        assertFalse(secondNodeLocalLock.hasWriters());
+
+        reader.release();
+
+        assertTrue(tryLockInAnotherThread(secondNodeLock.writeLock()));
+    }
+
+    @Test
+    public void uncontendedReadersShouldSkipTheDistributedLock()
+        throws Exception
+    {
+        Holder firstReader = hold(firstNodeLock.readLock());
+        Holder secondReader = hold(secondNodeLock.readLock());
+
+        assertEquals(0, distributedLock.getReadLockCount());
+
+        firstReader.release();
+        secondReader.release();
+
+        Holder writer = hold(firstNodeLock.writeLock());
+        writer.release();
+
+        // Once the writer has been withdrawn, the readers are node-local again.
+        Holder reader = hold(secondNodeLock.readLock());
+
+        assertEquals(0, distributedLock.getReadLockCount());
+
+        reader.release();
+    }
+
+    @Test
+    public void readersShouldTakeTheDistributedLockWhileThereAreWriters()
+        throws Exception
+    {
+        secondNodeLocalLock.addWriter("writer", "first");
+        firstNodeLocalLock.addWriter("writer", "first");
+
+        Holder reader = hold(secondNodeLock.readLock());
+
+        assertEquals(1, distributedLock.getReadLockCount());
+
+        reader.release();
+
+        assertEquals(0, distributedLock.getReadLockCount());
+    }
+
+    @Test
+    public void writerShouldWaitForNodeLocalReadersOfAnotherNode()
+        throws Exception
+    {
+        Holder reader = hold(firstNodeLock.readLock());
+
+        Future<?> writer = executor.submit(() -> {
+            secondNodeLock.writeLock().lock();
+            secondNodeLock.writeLock().unlock();
+        });
+
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertFalse(writer.isDone());
+        assertFalse(distributedLock.isWriteLocked());
+        // New readers of the node go to the distributed lock and wait there.
+        assertTrue(firstNodeLocalLock.hasWriters());
+
+        reader.release();
+
+        writer.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void readersAndWritersShouldExcludeEachOtherAcrossNodes()
+        throws Exception
+    {
+        AtomicInteger readers = new AtomicInteger();
+        AtomicInteger writers = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            RepositoryPathReadWriteLock lock = i % 2 == 0 ? firstNodeLock : secondNodeLock;
+            boolean writer = i < 2;
+            results.add(executor.submit(() -> {
+                for (int j = 0; j < 500; j++)
+                {
+                    Lock l = writer ? lock.writeLock() : lock.readLock();
+                    l.lock();
+                    try
+                    {
+                        if (writer)
+                        {
+                            if (writers.incrementAndGet() != 1 || readers.get() != 0)
+                            {
+                                violations.incrementAndGet();
+                            }
+                            writers.decrementAndGet();
+                        }
+                        else
+                        {
+                            readers.incrementAndGet();
+                            if (writers.get() != 0)
+                            {
+                                violations.incrementAndGet();
+                            }
+                            readers.decrementAndGet();
+                        }
+                    }
+                    finally
+                    {
+                        l.unlock();
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> result : results)
+        {
+            result.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(0, violations.get());
+        assertFalse(firstNodeLocalLock.hasWriters());
+        assertFalse(secondNodeLocalLock.hasWriters());
+    }
+
+    @Test
+    public void withdrawalWhichOvertakesItsAnnouncementShouldCancelIt()
+        throws Exception
+    {
+        RepositoryPathLock repositoryPathLock = new RepositoryPathLock();
+
+        assertTrue(repositoryPathLock.addWriter(LOCK_NAME, "writer", "first", 0));
+        repositoryPathLock.removeWriter(LOCK_NAME, "late", "first");
+
+        // The withdrawal doesn't remove the other writer of the member.
+        assertTrue(repositoryPathLock.hasWriters(LOCK_NAME));
+
+        assertTrue(repositoryPathLock.addWriter(LOCK_NAME, "late", "first", 0));
+        repositoryPathLock.removeWriter(LOCK_NAME, "writer", "first");
+
+        assertFalse(repositoryPathLock.hasWriters(LOCK_NAME));
+
+        firstNodeLocalLock.removeWriter("late", "first");
+
+        assertFalse(firstNodeLocalLock.addWriter("late", "first"));
+        assertTrue(firstNodeLocalLock.isIdle());
+    }
+
+    @Test
+    public void writersOfLeftMemberShouldBeRemoved()
+        throws Exception
+    {
+        RepositoryPathLock repositoryPathLock = new RepositoryPathLock();
+
+        assertTrue(repositoryPathLock.addWriter(LOCK_NAME, "writer", "first", 0));
+        assertTrue(repositoryPathLock.addWriter(LOCK_NAME, "other", "second", 0));
+        assertTrue(repositoryPathLock.hasWriters(LOCK_NAME));
+
+        repositoryPathLock.removeMemberWriters("first");
+
+        assertTrue(repositoryPathLock.hasWriters(LOCK_NAME));
+
+        repositoryPathLock.removeWriter(LOCK_NAME, "other", "second");
+
+        assertFalse(repositoryPathLock.hasWriters(LOCK_NAME));
+    }
+
+    @Test
+    public void readerShouldWaitForWriterOfAnotherNode()
+        throws Exception
+    {
+        Holder writer = hold(firstNodeLock.writeLock());
+
+        assertFalse(tryLockInAnotherThread(secondNodeLock.readLock()));
+        assertFalse(tryLockInAnotherThread(firstNodeLock.readLock()));
+        assertTrue(groupLock.isWriteLocked());
+
+        writer.release();
+
+        assertFalse(groupLock.isWriteLocked());
+        assertTrue(tryLockInAnotherThread(secondNodeLock.readLock()));
+    }
+
+    @Test
+    public void readersShouldShareTheLock()
+        throws Exception
+    {
+        Holder firstReader = hold(firstNodeLock.readLock());
+        Holder secondReader = hold(secondNodeLock.readLock());
+
+        assertTrue(tryLockInAnotherThread(firstNodeLock.readLock()));
+        assertTrue(tryLockInAnotherThread(secondNodeLock.readLock()));
+
+        firstReader.release();
+        secondReader.release();
+    }
+
+    @Test
+    public void writerShouldWaitForGroupWriter()
+        throws Exception
+    {
+        Holder groupWriter = hold(groupLock.writeLock());
+
+        assertFalse(tryLockInAnotherThread(firstNodeLock.writeLock()));
+        assertFalse(firstNodeLocalLock.getLock().isWriteLocked());
+        // Readers don't take the group lock.
+        assertTrue(tryLockInAnotherThread(secondNodeLock.readLock()));
+
+        groupWriter.release();
+
+        assertTrue(tryLockInAnotherThread(firstNodeLock.writeLock()));
+    }
+
+    @Test
+    public void timedTryLockShouldWaitUntilTheLockIsReleased()
+        throws Exception
+    {
+        Holder reader = hold(firstNodeLock.readLock());
+
+        Future<Boolean> writerResult = executor.submit(() -> {
+            Lock lock = secondNodeLock.writeLock();
+            if (!lock.tryLock(10, TimeUnit.SECONDS))
+            {
+                return false;
+            }
+            lock.unlock();
+
+            return true;
+        });
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(writerResult.isDone());
+
+        reader.release();
+
+        assertTrue(writerResult.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void lockInterruptiblyShouldBeInterruptedWhileWaiting()
+        throws Exception
+    {
+        Holder reader = hold(firstNodeLock.readLock());
+
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> writerResult = executor.submit(() -> {
+            started.countDown();
+            secondNodeLock.writeLock().lockInterruptibly();
+
+            return null;
+        });
+
+        started.await();
+        TimeUnit.MILLISECONDS.sleep(100);
+        writerResult.cancel(true);
+
+        assertThrows(Exception.class, () -> writerResult.get(10, TimeUnit.SECONDS));
+
+        reader.release();
+
+        // The node-local and the group locks have been released after the interruption.
+        assertTrue(tryLockInAnotherThread(secondNodeLock.writeLock()));
+    }
+
+    private boolean tryLockInAnotherThread(Lock lock)
+        throws InterruptedException,
+               ExecutionException
+    {
+        return executor.submit(() -> {
+            if (!lock.tryLock())
+            {
+                return false;
+            }
+            lock.unlock();
+
+            return true;
+        }).get();
+    }
+
+    private Holder hold(Lock lock)
+        throws InterruptedException
+    {
+        Holder holder = new Holder(lock);
+        executor.execute(holder);
+        holder.acquired.await();
+
+        return holder;
+    }
+
+    /**
+     * Announces the writers of a node to both of the nodes.
+     */
+    private class Writers
+            implements RepositoryPathReadWriteLock.Writers
+    {
+
+        private final String memberId;
+
+        Writers(String memberId)
+        {
+            this.memberId = memberId;
+        }
+
+        @Override
+        public boolean announce(String lockName,
+                                String writerId,
+                                long timeout,
+                                TimeUnit unit)
+            throws InterruptedException
+        {
+            boolean announced = true;
+            for (RepositoryPathLocalLock localLock : Arrays.asList(firstNodeLocalLock, secondNodeLocalLock))
+            {
+                if (localLock.addWriter(writerId, memberId))
+                {
+                    announced &= localLock.awaitFastReaders(timeout, unit);
+                }
+            }
+
+            return announced;
+        }
+
+        @Override
+        public void withdraw(String lockName,
+                             String writerId)
+        {
+            firstNodeLocalLock.removeWriter(writerId, memberId);
+            secondNodeLocalLock.removeWriter(writerId, memberId);
+        }
+
+    }
+
+    /**
+     * Holds the lock within its own thread, until it has been released.
+     */
+    private static class Holder
+            implements Runnable
+    {
+
+        private final Lock lock;
+
+        private final CountDownLatch acquired = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        Holder(Lock lock)
+        {
+            this.lock = lock;
+        }
+
+        @Override
+        public void run()
+        {
+            lock.lock();
+            try
+            {
+                acquired.countDown();
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                lock.unlock();
+                released.countDown();
+            }
+        }
+
+        void release()
+            throws InterruptedException
+        {
+            release.countDown();
+            released.await();
+        }
+
+    }
+
+}
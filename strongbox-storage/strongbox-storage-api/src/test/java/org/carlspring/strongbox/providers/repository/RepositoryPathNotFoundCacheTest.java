@@ -0,0 +1,253 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.event.server.ServerEvent;
+import org.carlspring.strongbox.event.server.ServerEventTypeEnum;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepositoryPathNotFoundCacheTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/not-found-cache").getAbsolutePath());
+
+    private RepositoryPathNotFoundCache cache;
+
+    private LayoutFileSystem fileSystem;
+
+    private LayoutFileSystem otherFileSystem;
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        cache = newCache(60, 1000);
+
+        fileSystem = newFileSystem("releases", RepositoryTypeEnum.PROXY);
+        otherFileSystem = newFileSystem("snapshots", RepositoryTypeEnum.PROXY);
+    }
+
+    @Test
+    public void notFoundPathShouldBeRememberedPerRepository()
+        throws IOException
+    {
+        RepositoryPath path = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+
+        assertFalse(cache.isNotFound(path));
+        cache.put(path);
+
+        assertTrue(cache.isNotFound(path));
+        assertTrue(cache.isNotFound(resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar")));
+        assertFalse(cache.isNotFound(resolve(otherFileSystem, "org/foo/bar/1.0/bar-1.0.jar")));
+        assertFalse(cache.isNotFound(resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.pom")));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void entriesShouldExpire()
+        throws Exception
+    {
+        cache = newCache(1, 1000);
+
+        RepositoryPath path = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+        cache.put(path);
+        assertTrue(cache.isNotFound(path));
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+
+        assertFalse(cache.isNotFound(path));
+    }
+
+    @Test
+    public void entriesPerDirectoryShouldBeBounded()
+        throws IOException
+    {
+        cache = newCache(60, 10);
+
+        for (int i = 0; i < 100; i++)
+        {
+            cache.put(resolve(fileSystem, String.format("org/foo/bar/1.0/bar-1.0-%s.jar", i)));
+        }
+
+        long remembered = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            remembered += cache.isNotFound(resolve(fileSystem, String.format("org/foo/bar/1.0/bar-1.0-%s.jar", i))) ? 1 : 0;
+        }
+
+        assertTrue(remembered <= 10, String.format("Too many entries [%s].", remembered));
+        assertTrue(cache.isNotFound(resolve(fileSystem, "org/foo/bar/1.0/bar-1.0-99.jar")));
+    }
+
+    @Test
+    public void changedPathShouldInvalidateItsDirectoryForAllRepositories()
+        throws IOException
+    {
+        RepositoryPath path = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+        RepositoryPath checksumPath = resolve(otherFileSystem, "org/foo/bar/1.0/bar-1.0.jar.sha1");
+        RepositoryPath otherDirectoryPath = resolve(fileSystem, "org/foo/bar/2.0/bar-2.0.jar");
+        cache.put(path);
+        cache.put(checksumPath);
+        cache.put(otherDirectoryPath);
+
+        cache.handleEvent(new ArtifactEvent<>(resolve(otherFileSystem, "org/foo/bar/1.0/bar-1.0.jar"),
+                                              ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        assertFalse(cache.isNotFound(path));
+        assertFalse(cache.isNotFound(checksumPath));
+        assertTrue(cache.isNotFound(otherDirectoryPath));
+    }
+
+    @Test
+    public void movedPathShouldInvalidateTheTargetDirectory()
+        throws IOException
+    {
+        RepositoryPath source = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+        RepositoryPath target = resolve(otherFileSystem, "org/foo/bar/2.0/bar-2.0.jar");
+        cache.put(target);
+
+        cache.handleEvent(new ArtifactEvent<>(source,
+                                              target,
+                                              ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED.getType()));
+
+        assertFalse(cache.isNotFound(target));
+    }
+
+    @Test
+    public void configurationChangeShouldInvalidateAllEntries()
+        throws IOException
+    {
+        RepositoryPath path = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+        cache.put(path);
+
+        cache.handleEvent(new ServerEvent(ServerEventTypeEnum.EVENT_SERVER_STARTED.getType()));
+        assertTrue(cache.isNotFound(path));
+
+        cache.handleEvent(new ServerEvent(ServerEventTypeEnum.EVENT_SERVER_CONFIGURATION_CHANGED.getType()));
+        assertFalse(cache.isNotFound(path));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void restoredTrashShouldInvalidateAllEntries()
+        throws IOException
+    {
+        RepositoryPath path = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+        cache.put(path);
+
+        cache.handleEvent(new RepositoryEvent("storage0", "releases",
+                                              RepositoryEventTypeEnum.EVENT_REPOSITORY_EMTPY_TRASH.getType()));
+        assertTrue(cache.isNotFound(path));
+
+        cache.handleEvent(new RepositoryEvent("storage0", "releases",
+                                              RepositoryEventTypeEnum.EVENT_REPOSITORY_UNDELETE_TRASH.getType()));
+        assertFalse(cache.isNotFound(path));
+    }
+
+    @Test
+    public void disabledCacheShouldNotRememberPaths()
+        throws IOException
+    {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        RepositoryPath path = resolve(fileSystem, "org/foo/bar/1.0/bar-1.0.jar");
+        cache.put(path);
+
+        assertFalse(cache.isNotFound(path));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void hostedRepositoryLookupsShouldNotBeCounted()
+        throws IOException
+    {
+        RepositoryPath path = resolve(newFileSystem("hosted", RepositoryTypeEnum.HOSTED), "org/foo/bar/1.0/bar-1.0.jar");
+
+        cache.put(path);
+
+        assertFalse(cache.isNotFound(path));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    private static RepositoryPathNotFoundCache newCache(long ttlSeconds,
+                                                        long maxDirectoryEntries)
+    {
+        RepositoryPathNotFoundCache cache = new RepositoryPathNotFoundCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(cache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(cache, "maxDirectoryEntries", maxDirectoryEntries);
+        cache.afterPropertiesSet();
+
+        return cache;
+    }
+
+    private static LayoutFileSystem newFileSystem(String repositoryId,
+                                                  RepositoryTypeEnum type)
+    {
+        MutableRepository repository = new MutableRepository(repositoryId);
+        repository.setType(type.getType());
+        repository.setBasedir(REPOSITORY_BASEDIR.resolve(repositoryId).toString());
+        repository.setStorage(new MutableStorage("storage0", REPOSITORY_BASEDIR.toString()));
+
+        // The paths are neither in the trash nor temporary.
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                return Arrays.stream(attributeTypes).collect(Collectors.toMap(Function.identity(), t -> Boolean.FALSE));
+            }
+        };
+
+        return new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static RepositoryPath resolve(LayoutFileSystem fileSystem,
+                                          String path)
+    {
+        return fileSystem.getRootDirectory().resolve(path);
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownloads;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GroupRepositoryMemberExecutorTest
+{
+
+    private GroupRepositoryMemberExecutor executor;
+
+    private List<String> discarded;
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = new GroupRepositoryMemberExecutor();
+        ReflectionTestUtils.setField(executor, "maxThreads", 4);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 10);
+        ReflectionTestUtils.setField(executor, "hedgeDelayMillis", 10L);
+        ReflectionTestUtils.setField(executor, "inFlightDownloads", new ProxyRepositoryInFlightDownloads());
+        executor.afterPropertiesSet();
+
+        discarded = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.destroy();
+    }
+
+    @Test
+    public void slowMemberShouldTakePrecedenceOverTheFollowingOnes()
+        throws IOException
+    {
+        List<Callable<String>> members = Arrays.asList(() -> {
+            TimeUnit.MILLISECONDS.sleep(200);
+
+            return "first";
+        }, () -> "second");
+
+        assertEquals("first", executor.resolveFirst(members, discarded::add));
+        assertEquals(Arrays.asList("second"), discarded);
+    }
+
+    @Test
+    public void followingMemberShouldBeResolvedWhenThePreviousOnesMiss()
+        throws IOException
+    {
+        List<Callable<String>> members = Arrays.asList(() -> null, () -> null, () -> "third");
+
+        assertEquals("third", executor.resolveFirst(members, discarded::add));
+        assertTrue(discarded.isEmpty());
+    }
+
+    @Test
+    public void supersededResultShouldBeDiscardedOnceCompleted()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(executor, "hedgeDelayMillis", 0L);
+
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        CountDownLatch firstResolved = new CountDownLatch(1);
+        CountDownLatch secondDiscarded = new CountDownLatch(1);
+        List<Callable<String>> members = Arrays.asList(() -> {
+            secondStarted.await(10, TimeUnit.SECONDS);
+
+            return "first";
+        }, () -> {
+            secondStarted.countDown();
+            firstResolved.await(10, TimeUnit.SECONDS);
+
+            return "second";
+        });
+
+        assertEquals("first", executor.resolveFirst(members, r -> {
+            discarded.add(r);
+            secondDiscarded.countDown();
+        }));
+        assertTrue(discarded.isEmpty());
+
+        firstResolved.countDown();
+
+        assertTrue(secondDiscarded.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("second"), discarded);
+    }
+
+    @Test
+    public void memberFailuresShouldBeReportedWhenNoMemberResolves()
+    {
+        List<Callable<String>> members = Arrays.asList(() -> {
+            throw new IOException("Remote repository is down.");
+        }, () -> null);
+
+        IOException e = assertThrows(IOException.class, () -> executor.resolveFirst(members));
+        assertEquals("Remote repository is down.", e.getCause().getMessage());
+
+        ReflectionTestUtils.setField(executor, "hedgeDelayMillis", -1L);
+
+        e = assertThrows(IOException.class, () -> executor.resolveFirst(members));
+        assertEquals("Remote repository is down.", e.getCause().getMessage());
+    }
+
+    @Test
+    public void memberFailureShouldBeIgnoredWhenAnotherMemberResolves()
+        throws IOException
+    {
+        List<Callable<String>> members = Arrays.asList(() -> {
+            throw new IllegalStateException("Broken member.");
+        }, () -> "second");
+
+        assertEquals("second", executor.resolveFirst(members));
+
+        ReflectionTestUtils.setField(executor, "hedgeDelayMillis", -1L);
+
+        assertEquals("second", executor.resolveFirst(members));
+    }
+
+    @Test
+    public void missesShouldResolveToNull()
+        throws IOException
+    {
+        List<Callable<String>> members = Arrays.asList(() -> null, () -> null);
+
+        assertNull(executor.resolveFirst(members));
+    }
+
+}
@@ -0,0 +1,257 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.client.CloseableRestResponse;
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.MutableRemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProxyRepositoryArtifactResolverTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/artifact-resolver").getAbsolutePath());
+
+    private static final String METADATA_PATH = "org/foo/bar/maven-metadata.xml";
+
+    private static final byte[] CACHED_CONTENT = "cached content".getBytes();
+
+    private static final byte[] REMOTE_CONTENT = "remote content".getBytes();
+
+    private RestArtifactResolver client;
+
+    private ArtifactManagementService artifactManagementService;
+
+    private ProxyRepositoryCacheValidators cacheValidators;
+
+    private ProxyRepositoryArtifactResolver resolver;
+
+    private RepositoryPath repositoryPath;
+
+    private Path file;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        file = REPOSITORY_BASEDIR.resolve("proxy").resolve(METADATA_PATH);
+        Files.createDirectories(file.getParent());
+        Files.write(file, CACHED_CONTENT);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+
+        repositoryPath = newFileSystem().getRootDirectory().resolve(METADATA_PATH);
+
+        client = Mockito.mock(RestArtifactResolver.class);
+        when(client.isAlive()).thenReturn(true);
+
+        RestArtifactResolverFactory restArtifactResolverFactory = Mockito.mock(RestArtifactResolverFactory.class);
+        when(restArtifactResolverFactory.newInstance(any())).thenReturn(client);
+
+        RemoteRepositoryAlivenessCacheManager alivenessCacheManager = Mockito.mock(RemoteRepositoryAlivenessCacheManager.class);
+        when(alivenessCacheManager.isAlive(any())).thenReturn(true);
+
+        RepositoryPathLock repositoryPathLock = Mockito.mock(RepositoryPathLock.class);
+        when(repositoryPathLock.lock(any(), anyString())).thenReturn(new ReentrantReadWriteLock());
+
+        artifactManagementService = Mockito.mock(ArtifactManagementService.class);
+        doAnswer(invocation -> {
+            InputStream is = invocation.getArgument(1);
+
+            return (long) Files.write(file, IOUtils.toByteArray(is)).toFile().length();
+        }).when(artifactManagementService).store(any(), any());
+
+        cacheValidators = new ProxyRepositoryCacheValidators();
+        ReflectionTestUtils.setField(cacheValidators, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheValidators, "maxSize", 1000L);
+        cacheValidators.afterPropertiesSet();
+
+        resolver = new ProxyRepositoryArtifactResolver();
+        ReflectionTestUtils.setField(resolver, "remoteRepositoryAlivenessCacheManager", alivenessCacheManager);
+        ReflectionTestUtils.setField(resolver, "artifactEventListenerRegistry",
+                                     Mockito.mock(ArtifactEventListenerRegistry.class));
+        ReflectionTestUtils.setField(resolver, "restArtifactResolverFactory", restArtifactResolverFactory);
+        ReflectionTestUtils.setField(resolver, "repositoryPathLock", repositoryPathLock);
+        ReflectionTestUtils.setField(resolver, "artifactManagementService", artifactManagementService);
+        ReflectionTestUtils.setField(resolver, "cacheValidators", cacheValidators);
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileUtils.deleteDirectory(REPOSITORY_BASEDIR.toFile());
+    }
+
+    @Test
+    public void notModifiedResourceShouldBeTouchedAndKeptAsIs()
+        throws IOException
+    {
+        CacheValidators current = new CacheValidators("\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT");
+        cacheValidators.put(repositoryPath, current);
+
+        CloseableRestResponse response = response(304, null, null);
+        when(client.get(anyString(), anyLong(), any())).thenReturn(response);
+
+        assertEquals(repositoryPath, resolver.revalidateRemoteResource(repositoryPath));
+
+        ArgumentCaptor<CacheValidators> sent = ArgumentCaptor.forClass(CacheValidators.class);
+        verify(client).get(eq(METADATA_PATH), eq(0L), sent.capture());
+        assertEquals("\"v1\"", sent.getValue().getEntityTag());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", sent.getValue().getLastModified());
+
+        verify(artifactManagementService, never()).store(any(), any());
+        assertArrayEquals(CACHED_CONTENT, Files.readAllBytes(file));
+        assertTrue(Files.getLastModifiedTime(file).toMillis() > 1000);
+
+        // The validators are still valid for the touched file.
+        assertEquals("\"v1\"", cacheValidators.get(repositoryPath).getEntityTag());
+    }
+
+    @Test
+    public void modifiedResourceShouldBeFetchedWithTheNewValidators()
+        throws IOException
+    {
+        cacheValidators.put(repositoryPath, new CacheValidators("\"v1\"", null));
+
+        CloseableRestResponse response = response(200, "\"v2\"", REMOTE_CONTENT);
+        when(client.get(anyString(), anyLong(), any())).thenReturn(response);
+
+        assertEquals(repositoryPath, resolver.revalidateRemoteResource(repositoryPath));
+
+        verify(artifactManagementService).store(eq(repositoryPath), any());
+        assertArrayEquals(REMOTE_CONTENT, Files.readAllBytes(file));
+        assertEquals("\"v2\"", cacheValidators.get(repositoryPath).getEntityTag());
+    }
+
+    @Test
+    public void resourceWithoutValidatorsShouldBeFetchedUnconditionally()
+        throws IOException
+    {
+        CloseableRestResponse response = response(200, null, REMOTE_CONTENT);
+        when(client.get(anyString(), anyLong())).thenReturn(response);
+
+        assertEquals(repositoryPath, resolver.revalidateRemoteResource(repositoryPath));
+
+        verify(client).get(METADATA_PATH, 0L);
+        verify(client, never()).get(anyString(), anyLong(), any());
+        assertArrayEquals(REMOTE_CONTENT, Files.readAllBytes(file));
+
+        // The remote repository doesn't provide the validators, so the next revalidation is unconditional as well.
+        assertNull(cacheValidators.get(repositoryPath));
+    }
+
+    @Test
+    public void changedFileShouldBeFetchedUnconditionally()
+        throws IOException
+    {
+        cacheValidators.put(repositoryPath, new CacheValidators("\"v1\"", null));
+        Files.write(file, "locally changed content".getBytes());
+
+        CloseableRestResponse response = response(200, "\"v2\"", REMOTE_CONTENT);
+        when(client.get(anyString(), anyLong())).thenReturn(response);
+
+        resolver.revalidateRemoteResource(repositoryPath);
+
+        verify(client, never()).get(anyString(), anyLong(), any());
+        assertArrayEquals(REMOTE_CONTENT, Files.readAllBytes(file));
+        assertEquals("\"v2\"", cacheValidators.get(repositoryPath).getEntityTag());
+    }
+
+    private static CloseableRestResponse response(int status,
+                                                  String entityTag,
+                                                  byte[] content)
+    {
+        Response response = Mockito.mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(entityTag);
+        if (content != null)
+        {
+            when(response.getEntity()).thenReturn(content);
+            when(response.getLength()).thenReturn(content.length);
+            when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(content));
+        }
+
+        return new CloseableRestResponse(response);
+    }
+
+    private static LayoutFileSystem newFileSystem()
+    {
+        MutableRemoteRepository remoteRepository = new MutableRemoteRepository();
+        remoteRepository.setUrl("http://localhost:48080/remote");
+
+        MutableRepository repository = new MutableRepository("proxy");
+        repository.setBasedir(REPOSITORY_BASEDIR.resolve("proxy").toString());
+        repository.setStorage(new MutableStorage("storage0", REPOSITORY_BASEDIR.toString()));
+        repository.setRemoteRepository(remoteRepository);
+
+        // The metadata is neither an artifact nor a checksum.
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                return Arrays.stream(attributeTypes).collect(Collectors.toMap(Function.identity(), t -> Boolean.FALSE));
+            }
+        };
+
+        return new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,181 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProxyRepositoryCacheValidatorsTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/cache-validators").getAbsolutePath());
+
+    private LayoutFileSystem fileSystem;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        Files.createDirectories(REPOSITORY_BASEDIR);
+
+        fileSystem = newFileSystem();
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileUtils.deleteDirectory(REPOSITORY_BASEDIR.toFile());
+    }
+
+    @Test
+    public void validatorsShouldBeKeptWithTheFile()
+        throws IOException
+    {
+        RepositoryPath path = createFile("org/foo/bar/maven-metadata.xml");
+
+        newCacheValidators().put(path, new CacheValidators("\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT"));
+
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(REPOSITORY_BASEDIR.resolve("proxy")
+                                                                                         .resolve("org/foo/bar/maven-metadata.xml"),
+                                                                       UserDefinedFileAttributeView.class);
+        assertTrue(view.list().contains(ProxyRepositoryCacheValidators.ENTITY_TAG_ATTRIBUTE));
+
+        // Another instance, like after a restart.
+        ProxyRepositoryCacheValidators cacheValidators = newCacheValidators();
+        CacheValidators result = cacheValidators.get(path);
+
+        assertEquals("\"v1\"", result.getEntityTag());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", result.getLastModified());
+        assertEquals(0, cacheValidators.getSize());
+    }
+
+    @Test
+    public void validatorsShouldBeDiscardedOnceTheFileHasChanged()
+        throws IOException
+    {
+        RepositoryPath path = createFile("org/foo/bar/maven-metadata.xml");
+
+        ProxyRepositoryCacheValidators cacheValidators = newCacheValidators();
+        cacheValidators.put(path, new CacheValidators("\"v1\"", null));
+
+        Path file = REPOSITORY_BASEDIR.resolve("proxy").resolve("org/foo/bar/maven-metadata.xml");
+        Files.write(file, "changed content".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+
+        assertNull(cacheValidators.get(path));
+        assertFalse(Files.getFileAttributeView(file, UserDefinedFileAttributeView.class)
+                         .list()
+                         .contains(ProxyRepositoryCacheValidators.STAMP_ATTRIBUTE));
+    }
+
+    @Test
+    public void missingValidatorsShouldRemoveTheKeptOnes()
+        throws IOException
+    {
+        RepositoryPath path = createFile("org/foo/bar/1.0/bar-1.0.jar");
+
+        ProxyRepositoryCacheValidators cacheValidators = newCacheValidators();
+        cacheValidators.put(path, new CacheValidators("\"v1\"", null));
+        cacheValidators.put(path, null);
+
+        assertNull(cacheValidators.get(path));
+        assertEquals(0, cacheValidators.getSize());
+    }
+
+    @Test
+    public void validatorsOfRemovedFileShouldBeDiscarded()
+        throws IOException
+    {
+        RepositoryPath path = createFile("org/foo/bar/maven-metadata.xml");
+
+        ProxyRepositoryCacheValidators cacheValidators = newCacheValidators();
+        cacheValidators.put(path, new CacheValidators("\"v1\"", null));
+
+        Files.delete(REPOSITORY_BASEDIR.resolve("proxy").resolve("org/foo/bar/maven-metadata.xml"));
+
+        assertNull(cacheValidators.get(path));
+        cacheValidators.invalidate(path);
+    }
+
+    private ProxyRepositoryCacheValidators newCacheValidators()
+    {
+        ProxyRepositoryCacheValidators cacheValidators = new ProxyRepositoryCacheValidators();
+        ReflectionTestUtils.setField(cacheValidators, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheValidators, "maxSize", 1000L);
+        cacheValidators.afterPropertiesSet();
+
+        return cacheValidators;
+    }
+
+    private RepositoryPath createFile(String path)
+        throws IOException
+    {
+        Path file = REPOSITORY_BASEDIR.resolve("proxy").resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, "content".getBytes());
+
+        return fileSystem.getRootDirectory().resolve(path);
+    }
+
+    private static LayoutFileSystem newFileSystem()
+    {
+        MutableRepository repository = new MutableRepository("proxy");
+        repository.setBasedir(REPOSITORY_BASEDIR.resolve("proxy").toString());
+        repository.setStorage(new MutableStorage("storage0", REPOSITORY_BASEDIR.toString()));
+
+        // Only the jar files are artifacts.
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                boolean artifact = repositoryRelativePath.getFileName().toString().endsWith(".jar");
+
+                return Arrays.stream(attributeTypes)
+                             .collect(Collectors.toMap(Function.identity(),
+                                                       t -> t == RepositoryFileAttributeType.ARTIFACT && artifact));
+            }
+        };
+
+        return new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,348 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownload.HOLD_BACK_SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProxyRepositoryInFlightDownloadTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/in-flight-downloads").getAbsolutePath());
+
+    private RepositoryPath repositoryPath;
+
+    private byte[] content;
+
+    private ExecutorService executor;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        Files.createDirectories(REPOSITORY_BASEDIR);
+
+        MutableRepository repository = new MutableRepository();
+        repository.setBasedir(REPOSITORY_BASEDIR.toString());
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), null)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        repositoryPath = fileSystem.getRootDirectory().resolve("org/foo/bar/1.0/bar-1.0.jar");
+
+        content = new byte[3 * HOLD_BACK_SIZE];
+        new Random(1).nextBytes(content);
+
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        executor.shutdownNow();
+        FileUtils.deleteDirectory(REPOSITORY_BASEDIR.toFile());
+    }
+
+    @Test
+    public void spoolShouldBeWithinRepositoryTempDirectory()
+        throws IOException
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        Path spool = download.getSpool();
+
+        assertTrue(spool.startsWith(REPOSITORY_BASEDIR.resolve(LayoutFileSystem.TEMP)));
+        assertTrue(Files.exists(spool));
+
+        download.release();
+
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    public void followerShouldReadWhileDownloadingAndGetTheRestOnceCompleted()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(content.length);
+
+        InputStream follower = download.newInputStream();
+        try (OutputStream os = download.newSpoolOutputStream())
+        {
+            os.write(content);
+        }
+
+        // Everything except the held back bytes can be read before the download has been validated.
+        byte[] head = new byte[content.length - HOLD_BACK_SIZE];
+        readFully(follower, head);
+        assertArrayEquals(Arrays.copyOf(content, head.length), head);
+
+        Future<byte[]> tail = executor.submit(() -> readToEnd(follower));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(tail.isDone());
+
+        download.completed();
+
+        assertArrayEquals(Arrays.copyOfRange(content, head.length, content.length), tail.get(10, TimeUnit.SECONDS));
+
+        Path spool = download.getSpool();
+        follower.close();
+        download.release();
+
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    public void followerShouldFailWhenChecksumValidationFails()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(content.length);
+
+        try (InputStream follower = download.newInputStream())
+        {
+            Future<byte[]> result = executor.submit(() -> readToEnd(follower));
+            try (OutputStream os = download.newSpoolOutputStream())
+            {
+                os.write(content);
+            }
+
+            download.failed(new IOException("Checksum mismatch"));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        finally
+        {
+            download.release();
+        }
+    }
+
+    @Test
+    public void followerShouldNotGetTheEndOfStreamBeforeCompletion()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(HOLD_BACK_SIZE / 2);
+
+        try (InputStream follower = download.newInputStream())
+        {
+            try (OutputStream os = download.newSpoolOutputStream())
+            {
+                os.write(content, 0, HOLD_BACK_SIZE / 2);
+            }
+
+            // The whole (small) content is held back.
+            assertEquals(0, follower.available());
+
+            Future<byte[]> result = executor.submit(() -> readToEnd(follower));
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertFalse(result.isDone());
+
+            download.failed(new IOException("Checksum mismatch"));
+
+            assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            download.release();
+        }
+    }
+
+    @Test
+    public void leaderFailureShouldBeReportedToTheWaitingRequests()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+
+        Future<?> waiting = executor.submit(() -> {
+            download.awaitStarted();
+
+            return null;
+        });
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(waiting.isDone());
+
+        download.failed(new IOException("Not found"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+        assertEquals("Not found", e.getCause().getMessage());
+
+        download.release();
+    }
+
+    @Test
+    public void joinedDownloadShouldNotBeCancelled()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(content.length);
+
+        assertTrue(download.join());
+        assertFalse(download.cancel());
+
+        try (OutputStream os = download.newSpoolOutputStream())
+        {
+            os.write(content);
+        }
+        download.completed();
+        download.release();
+    }
+
+    @Test
+    public void cancelledDownloadShouldStopTheWriter()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(content.length);
+
+        try (OutputStream os = download.newSpoolOutputStream())
+        {
+            os.write(content, 0, HOLD_BACK_SIZE);
+
+            assertTrue(download.cancel());
+            assertFalse(download.join());
+
+            assertThrows(IOException.class, () -> os.write(content, HOLD_BACK_SIZE, HOLD_BACK_SIZE));
+        }
+
+        assertThrows(IOException.class, download::completed);
+        assertFalse(download.isCompleted());
+
+        download.release();
+    }
+
+    @Test
+    public void retainedDownloadShouldBeReadableOnceStored()
+        throws Exception
+    {
+        AtomicReference<ProxyRepositoryInFlightDownload> released = new AtomicReference<>();
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath, released::set);
+        download.started(content.length);
+
+        try (OutputStream os = download.newSpoolOutputStream())
+        {
+            os.write(content);
+        }
+        download.completed();
+
+        // A request has found the download, and the writer stores the artifact and releases it in the meantime.
+        assertTrue(download.retain());
+        download.release();
+        assertNull(released.get());
+
+        try (InputStream follower = download.newInputStream())
+        {
+            assertArrayEquals(content, readToEnd(follower));
+        }
+        download.release();
+
+        assertSame(download, released.get());
+        assertFalse(Files.exists(download.getSpool()));
+        assertFalse(download.retain());
+        assertThrows(IOException.class, download::newInputStream);
+    }
+
+    @Test
+    public void failedDownloadShouldNotBeJoined()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(content.length);
+
+        download.failed(new IOException("Checksum mismatch"));
+
+        assertFalse(download.join());
+
+        download.release();
+    }
+
+    @Test
+    public void remoteHeadersShouldBeKept()
+        throws Exception
+    {
+        ProxyRepositoryInFlightDownload download = new ProxyRepositoryInFlightDownload(repositoryPath);
+        download.started(content.length,
+                         new CacheValidators("\"remote\"", "Wed, 21 Oct 2015 07:28:00 GMT"),
+                         Collections.singletonMap(MessageDigestAlgorithms.SHA_1, "da39a3ee5e6b4b0d3255bfef95601890afd80709"));
+
+        assertEquals(Instant.parse("2015-10-21T07:28:00Z"), download.getLastModified());
+        assertEquals("\"remote\"", download.getCacheValidators().getEntityTag());
+        assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709",
+                     download.getChecksums().get(MessageDigestAlgorithms.SHA_1));
+
+        download.release();
+    }
+
+    private static void readFully(InputStream is,
+                                  byte[] buffer)
+        throws IOException
+    {
+        int offset = 0;
+        while (offset < buffer.length)
+        {
+            int n = is.read(buffer, offset, buffer.length - offset);
+            if (n < 0)
+            {
+                throw new IOException("Unexpected end of stream.");
+            }
+            offset += n;
+        }
+    }
+
+    private static byte[] readToEnd(InputStream is)
+        throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n = is.read(buffer); n >= 0; n = is.read(buffer))
+        {
+            result.write(buffer, 0, n);
+        }
+
+        return result.toByteArray();
+    }
+
+}
@@ -9,10 +9,15 @@ import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 
 import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import com.orientechnologies.orient.core.id.ORecordId;
 import org.apache.commons.lang3.time.DateUtils;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.Test;
@@ -22,6 +27,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,6 +59,9 @@ public class ArtifactEntryServiceTest
     @Inject
     ArtifactEntryService artifactEntryService;
 
+    @Inject
+    PlatformTransactionManager transactionManager;
+
 
     @Test
     public void saveEntityShouldWork()
@@ -127,6 +137,78 @@ public class ArtifactEntryServiceTest
 
     }
 
+    @Test
+    public void cachedArtifactEntryShouldBeEvictedOnDelete()
+    {
+        artifactEntryService.deleteAll();
+        createArtifacts(groupId, artifactId, storageId, repositoryId);
+
+        String path = "org.carlspring.strongbox/coordinates-test123/1.2.3/jar";
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+        assertThat(artifactEntry, CoreMatchers.notNullValue());
+
+        // Second lookup goes through the cached record id.
+        assertEquals(artifactEntry.getObjectId(),
+                     artifactEntryService.findOneArtifact(storageId, repositoryId, path).getObjectId());
+
+        artifactEntryService.delete(Collections.singletonList(artifactEntry));
+
+        assertThat(artifactEntryService.findOneArtifact(storageId, repositoryId, path), CoreMatchers.nullValue());
+
+        artifactEntry = createArtifactEntry(new NullArtifactCoordinates(path), storageId, repositoryId);
+
+        assertEquals(artifactEntry.getObjectId(),
+                     artifactEntryService.findOneArtifact(storageId, repositoryId, path).getObjectId());
+    }
+
+    @Test
+    public void artifactEntryShouldBeCachedOnceCommitted()
+    {
+        artifactEntryService.deleteAll();
+
+        String path = "org.carlspring.strongbox/coordinates-test123/1.2.3/jar";
+        new TransactionTemplate(transactionManager).execute(t -> {
+            createArtifactEntry(new NullArtifactCoordinates(path), storageId, repositoryId);
+
+            // The record id is still temporary, so it must not be cached.
+            return artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+        });
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+        assertThat(artifactEntry, CoreMatchers.notNullValue());
+        assertTrue(new ORecordId(artifactEntry.getObjectId()).isPersistent());
+
+        assertEquals(artifactEntry.getObjectId(),
+                     artifactEntryService.findOneArtifact(storageId, repositoryId, path).getObjectId());
+    }
+
+    @Test
+    public void findExistingArtifactPathsShouldReturnOnlyTheStoredPathsOfTheRepository()
+    {
+        artifactEntryService.deleteAll();
+        createArtifacts(groupId, artifactId, storageId, repositoryId);
+
+        String otherRepositoryPath = "org.carlspring.strongbox/coordinates-test-other/1.2.3/jar";
+        createArtifactEntry(new NullArtifactCoordinates(otherRepositoryPath), storageId, repositoryId + "-other");
+
+        String path1 = String.format("%s/%s/%s/%s", groupId, artifactId + "123", "1.2.3", "jar");
+        String path2 = String.format("%s/%s/%s/%s", groupId, artifactId, "1.2.3", "jar");
+        String missingPath = String.format("%s/%s/%s/%s", groupId, artifactId, "3.2.1", "jar");
+
+        Set<String> existingPaths = artifactEntryService.findExistingArtifactPaths(storageId,
+                                                                                   repositoryId,
+                                                                                   Arrays.asList(path1,
+                                                                                                 path2,
+                                                                                                 missingPath,
+                                                                                                 otherRepositoryPath));
+
+        assertEquals(new HashSet<>(Arrays.asList(path1, path2)), existingPaths);
+        assertTrue(artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                  Collections.emptySet()).isEmpty());
+        assertTrue(artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                  Collections.singleton(missingPath)).isEmpty());
+    }
+
     private ArtifactEntry save(ArtifactEntry artifactEntry)
     {
         ArtifactEntry result = artifactEntryService.save(artifactEntry);
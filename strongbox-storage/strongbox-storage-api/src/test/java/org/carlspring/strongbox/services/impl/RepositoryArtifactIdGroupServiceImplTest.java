@@ -1,10 +1,18 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -28,6 +36,9 @@ class RepositoryArtifactIdGroupServiceImplTest
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
     @Test
     public void repositoryArtifactIdGroupShouldBeProtectedByIndex()
     {
@@ -45,4 +56,54 @@ class RepositoryArtifactIdGroupServiceImplTest
             System.out.println(repositoryArtifactIdGroupService.save(g2).getObjectId());
         });
     }
+
+    @Test
+    public void addArtifactsToGroupShouldAddAllTheEntriesAndTagTheLastVersionOnly()
+    {
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate("s2", "r2", "a2");
+
+        List<ArtifactEntry> artifactEntries = Arrays.asList(createArtifactEntry("a2/1.0"),
+                                                            createArtifactEntry("a2/1.2"),
+                                                            createArtifactEntry("a2/1.1"));
+        repositoryArtifactIdGroupService.addArtifactsToGroup(artifactGroup, artifactEntries);
+
+        artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate("s2", "r2", "a2");
+        Assertions.assertEquals(3, artifactGroup.getArtifactEntries().size());
+
+        Assertions.assertFalse(isLastVersion("a2/1.0"));
+        Assertions.assertTrue(isLastVersion("a2/1.2"));
+        Assertions.assertFalse(isLastVersion("a2/1.1"));
+
+        // The next batch moves the last version tag.
+        repositoryArtifactIdGroupService.addArtifactsToGroup(artifactGroup,
+                                                             Collections.singletonList(createArtifactEntry("a2/1.3")));
+
+        artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate("s2", "r2", "a2");
+        Assertions.assertEquals(4, artifactGroup.getArtifactEntries().size());
+
+        Assertions.assertFalse(isLastVersion("a2/1.2"));
+        Assertions.assertTrue(isLastVersion("a2/1.3"));
+
+        repositoryArtifactIdGroupService.addArtifactsToGroup(artifactGroup, Collections.emptyList());
+
+        artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate("s2", "r2", "a2");
+        Assertions.assertEquals(4, artifactGroup.getArtifactEntries().size());
+    }
+
+    private ArtifactEntry createArtifactEntry(String path)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId("s2");
+        artifactEntry.setRepositoryId("r2");
+        artifactEntry.setArtifactCoordinates(new NullArtifactCoordinates(path));
+
+        return artifactEntry;
+    }
+
+    private boolean isLastVersion(String path)
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact("s2", "r2", path);
+
+        return artifactEntry.getTagSet().stream().anyMatch(t -> ArtifactTag.LAST_VERSION.equals(t.getName()));
+    }
 }
@@ -0,0 +1,58 @@
+package org.carlspring.strongbox.configuration;
+
+import javax.annotation.concurrent.Immutable;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * @see MutableArtifactEntryCacheConfiguration
+ */
+@Immutable
+@XmlAccessorType(XmlAccessType.FIELD)
+@SuppressFBWarnings(value = "AJCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
+public class ArtifactEntryCacheConfiguration
+{
+
+    private boolean enabled;
+
+    private int maxSize;
+
+    private String evictionPolicy;
+
+    private int timeToLiveSeconds;
+
+    ArtifactEntryCacheConfiguration()
+    {
+
+    }
+
+    public ArtifactEntryCacheConfiguration(final MutableArtifactEntryCacheConfiguration delegate)
+    {
+        this.enabled = delegate.isEnabled();
+        this.maxSize = delegate.getMaxSize();
+        this.evictionPolicy = delegate.getEvictionPolicy();
+        this.timeToLiveSeconds = delegate.getTimeToLiveSeconds();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public String getEvictionPolicy()
+    {
+        return evictionPolicy;
+    }
+
+    public int getTimeToLiveSeconds()
+    {
+        return timeToLiveSeconds;
+    }
+}
@@ -49,6 +49,8 @@ public class Configuration
 
     private final SmtpConfiguration smtpConfiguration;
 
+    private final ArtifactEntryCacheConfiguration artifactEntryCacheConfiguration;
+
     public Configuration(final MutableConfiguration delegate)
     {
 
@@ -66,6 +68,8 @@ public class Configuration
         routingRules = immuteRoutingRules(delegate.getRoutingRules());
         corsConfiguration = immuteCorsConfiguration(delegate.getCorsConfiguration());
         smtpConfiguration = immuteSmtpConfiguration(delegate.getSmtpConfiguration());
+        artifactEntryCacheConfiguration = immuteArtifactEntryCacheConfiguration(
+                delegate.getArtifactEntryCacheConfiguration());
     }
 
     private ProxyConfiguration immuteProxyConfiguration(final MutableProxyConfiguration source)
@@ -104,6 +108,11 @@ public class Configuration
         return source != null ? new SmtpConfiguration(source) : null;
     }
 
+    private ArtifactEntryCacheConfiguration immuteArtifactEntryCacheConfiguration(final MutableArtifactEntryCacheConfiguration source)
+    {
+        return source != null ? new ArtifactEntryCacheConfiguration(source) : null;
+    }
+
     public String getId()
     {
         return id;
@@ -250,4 +259,9 @@ public class Configuration
     {
         return smtpConfiguration;
     }
+
+    public ArtifactEntryCacheConfiguration getArtifactEntryCacheConfiguration()
+    {
+        return artifactEntryCacheConfiguration;
+    }
 }
@@ -0,0 +1,109 @@
+package org.carlspring.strongbox.configuration;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+
+/**
+ * Settings of the cluster-wide cache which maps artifact paths to their
+ * `ArtifactEntry` records.
+ */
+@XmlRootElement(name = "artifact-entry-cache-configuration")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class MutableArtifactEntryCacheConfiguration
+        implements Serializable
+{
+
+    @XmlAttribute
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of the entries per cluster node.
+     */
+    @XmlAttribute(name = "max-size")
+    private int maxSize = 100000;
+
+    /**
+     * One of `LRU`, `LFU`, `RANDOM` or `NONE`.
+     */
+    @XmlAttribute(name = "eviction-policy")
+    private String evictionPolicy = "LRU";
+
+    @XmlAttribute(name = "time-to-live-seconds")
+    private int timeToLiveSeconds = 3600;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize)
+    {
+        this.maxSize = maxSize;
+    }
+
+    public String getEvictionPolicy()
+    {
+        return evictionPolicy;
+    }
+
+    public void setEvictionPolicy(String evictionPolicy)
+    {
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    public int getTimeToLiveSeconds()
+    {
+        return timeToLiveSeconds;
+    }
+
+    public void setTimeToLiveSeconds(int timeToLiveSeconds)
+    {
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MutableArtifactEntryCacheConfiguration that = (MutableArtifactEntryCacheConfiguration) o;
+        return enabled == that.enabled &&
+               maxSize == that.maxSize &&
+               timeToLiveSeconds == that.timeToLiveSeconds &&
+               Objects.equal(evictionPolicy, that.evictionPolicy);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hashCode(enabled, maxSize, evictionPolicy, timeToLiveSeconds);
+    }
+
+    @Override
+    public String toString()
+    {
+        return MoreObjects.toStringHelper(this)
+                          .add("enabled", enabled)
+                          .add("maxSize", maxSize)
+                          .add("evictionPolicy", evictionPolicy)
+                          .add("timeToLiveSeconds", timeToLiveSeconds)
+                          .toString();
+    }
+
+}
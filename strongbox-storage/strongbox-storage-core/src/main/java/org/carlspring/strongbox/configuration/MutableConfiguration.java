@@ -68,6 +68,9 @@ public class MutableConfiguration
     @XmlElement(name = "smtp-configuration")
     private MutableSmtpConfiguration smtpConfiguration = new MutableSmtpConfiguration();
 
+    @XmlElement(name = "artifact-entry-cache-configuration")
+    private MutableArtifactEntryCacheConfiguration artifactEntryCacheConfiguration = new MutableArtifactEntryCacheConfiguration();
+
     public MutableConfiguration()
     {
     }
@@ -213,6 +216,16 @@ public class MutableConfiguration
         this.smtpConfiguration = smtpConfiguration;
     }
 
+    public MutableArtifactEntryCacheConfiguration getArtifactEntryCacheConfiguration()
+    {
+        return artifactEntryCacheConfiguration;
+    }
+
+    public void setArtifactEntryCacheConfiguration(final MutableArtifactEntryCacheConfiguration artifactEntryCacheConfiguration)
+    {
+        this.artifactEntryCacheConfiguration = artifactEntryCacheConfiguration;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -229,14 +242,16 @@ public class MutableConfiguration
                Objects.equal(routingRules, that.routingRules) &&
                Objects.equal(remoteRepositoriesConfiguration, that.remoteRepositoriesConfiguration) &&
                Objects.equal(corsConfiguration, that.corsConfiguration) &&
-               Objects.equal(smtpConfiguration, that.smtpConfiguration);
+               Objects.equal(smtpConfiguration, that.smtpConfiguration) &&
+               Objects.equal(artifactEntryCacheConfiguration, that.artifactEntryCacheConfiguration);
     }
 
     @Override
     public int hashCode()
     {
         return Objects.hashCode(version, baseUrl, port, proxyConfiguration, sessionConfiguration, storages,
-                                routingRules, remoteRepositoriesConfiguration, corsConfiguration, smtpConfiguration);
+                                routingRules, remoteRepositoriesConfiguration, corsConfiguration, smtpConfiguration,
+                                artifactEntryCacheConfiguration);
     }
 
     @Override
@@ -254,6 +269,7 @@ public class MutableConfiguration
                           .add("\n\tremoteRepositoriesConfiguration", remoteRepositoriesConfiguration)
                           .add("\n\tcorsConfiguration", corsConfiguration)
                           .add("\n\tsmtpConfiguration", smtpConfiguration)
+                          .add("\n\tartifactEntryCacheConfiguration", artifactEntryCacheConfiguration)
                           .toString();
     }
 
@@ -31,6 +31,7 @@ import org.apache.commons.io.input.ProxyInputStream;
  */
 public class LayoutInputStream
         extends ProxyInputStream
+        implements FileChannelSource
 {
 
     private static final Set<String> DEFAULT_ALGORITHM_SET = Stream.of(MessageDigestAlgorithms.MD5,
@@ -41,12 +42,18 @@ public class LayoutInputStream
 
     private Map<String, String> hexDigests = new LinkedHashMap<>();
 
+    /**
+     * The stream under the internal buffer.
+     */
+    private final InputStream source;
+
     public LayoutInputStream(InputStream is,
                              Set<String> checkSumDigestAlgorithmSet)
         throws NoSuchAlgorithmException
     {
         super(new BufferedInputStream(is));
-        
+        this.source = is;
+
         for (String algorithm : checkSumDigestAlgorithmSet)
         {
             addAlgorithm(algorithm);
@@ -149,15 +156,22 @@ public class LayoutInputStream
     public int read(byte[] bytes)
             throws IOException
     {
-        int len = in.read(bytes);
+        return read(bytes, 0, bytes.length);
+    }
 
-        for (Map.Entry entry : digests.entrySet())
+    /**
+     * The content can be read straight from the file only if it doesn't have to be digested. Should be called before
+     * anything is read through this stream, as the buffered content would be skipped.
+     */
+    @Override
+    public FileChannelInputStream getFileChannelInputStream()
+    {
+        if (!digests.isEmpty())
         {
-            MessageDigest digest = (MessageDigest) entry.getValue();
-            digest.update(bytes);
+            return null;
         }
 
-        return len;
+        return StreamUtils.findFileChannelSource(source);
     }
 
     InputStream getTarget()
@@ -0,0 +1,61 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the artifacts deployed into hosted repositories to the `maven-metadata.xml`, see
+ * {@link org.carlspring.strongbox.storage.metadata.MavenMetadataManager#updateMetadata(RepositoryPath)}.
+ * <br>
+ * Disabled by default, as Maven clients deploy the metadata along with the artifacts.
+ */
+@Component
+public class MavenArtifactStoredEventListener
+        extends BaseMavenArtifactEventListener
+{
+
+    @Value("${strongbox.maven.metadata.updateOnDeploy:false}")
+    private boolean updateOnDeploy;
+
+    /**
+     * Not an {@link org.carlspring.strongbox.event.AsyncEventListener}, so that the metadata is up to date once the
+     * deployment request has been completed.
+     */
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!updateOnDeploy || event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        {
+            return;
+        }
+
+        final Repository repository = getRepository(event);
+
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()) || !repository.isHostedRepository())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        try
+        {
+            if (!RepositoryFiles.isArtifact(repositoryPath))
+            {
+                return;
+            }
+
+            mavenMetadataManager.updateMetadata(repositoryPath);
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Unable to update the metadata of [%s]", repositoryPath), e);
+        }
+    }
+
+}
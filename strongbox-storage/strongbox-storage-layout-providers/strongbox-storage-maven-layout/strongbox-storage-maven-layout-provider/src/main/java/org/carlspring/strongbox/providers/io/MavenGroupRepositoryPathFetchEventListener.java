@@ -6,13 +6,13 @@ import org.carlspring.strongbox.providers.repository.GroupRepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryMemberExecutor;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -46,6 +46,9 @@ public class MavenGroupRepositoryPathFetchEventListener
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
+    @Inject
+    private GroupRepositoryMemberExecutor groupRepositoryMemberExecutor;
+
     @EventListener
     public void handle(final GroupRepositoryPathFetchEvent event)
             throws IOException
@@ -72,7 +75,7 @@ public class MavenGroupRepositoryPathFetchEventListener
     {
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
-        List<Callable<Path>> fetchActions = new ArrayList<>();
+        List<Callable<?>> fetchActions = new ArrayList<>();
 
         for (String storageAndRepositoryId : groupRepository.getGroupRepositories().keySet())
         {
@@ -95,22 +98,6 @@ public class MavenGroupRepositoryPathFetchEventListener
             fetchActions.add(() -> provider.fetchPath(resolvedPath));
         }
 
-        fetchPathsInParallel(fetchActions);
-    }
-
-    private void fetchPathsInParallel(final List<Callable<Path>> fetchActions)
-    {
-        fetchActions
-                .parallelStream()
-                .forEach(action -> {
-                    try
-                    {
-                        action.call();
-                    }
-                    catch (Exception e)
-                    {
-                        logger.error(e.getMessage(), e);
-                    }
-                });
+        groupRepositoryMemberExecutor.executeAll(fetchActions);
     }
 }
@@ -2,12 +2,15 @@ package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCacheValidators;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +30,9 @@ public class MavenMetadataExpiredRepositoryPathHandler
     @Inject
     private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
 
+    @Inject
+    private ProxyRepositoryCacheValidators proxyRepositoryCacheValidators;
+
     @Override
     public boolean supports(final RepositoryPath repositoryPath)
     {
@@ -54,6 +60,13 @@ public class MavenMetadataExpiredRepositoryPathHandler
     public void handleExpiration(final RepositoryPath repositoryPath)
             throws IOException
     {
+        if (proxyRepositoryCacheValidators.get(repositoryPath) != null)
+        {
+            logger.debug("maven-metadata.xml will be revalidated with conditional request.");
+            proxyRepositoryArtifactResolver.revalidateRemoteResource(repositoryPath);
+            return;
+        }
+
         Decision refetchMetadata = determineMetadataRefetch(repositoryPath,
                                                             EncryptionAlgorithmsEnum.SHA1);
         if (refetchMetadata == I_DONT_KNOW)
@@ -63,8 +76,9 @@ public class MavenMetadataExpiredRepositoryPathHandler
         }
         if (refetchMetadata == NO_LEAVE_IT)
         {
-            // checksums match - do nothing
+            // checksums match - the local copy is valid for another expiration period
             logger.debug("Local and remote checksums match - no need to re-fetch maven-metadata.xml.");
+            Files.setAttribute(repositoryPath, "basic:lastModifiedTime", FileTime.from(Instant.now()));
             return;
         }
         if (refetchMetadata == I_DONT_KNOW)
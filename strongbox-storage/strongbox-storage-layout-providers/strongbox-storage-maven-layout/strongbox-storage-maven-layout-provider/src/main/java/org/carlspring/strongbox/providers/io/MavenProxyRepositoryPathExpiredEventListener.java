@@ -6,7 +6,12 @@ import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathEx
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +19,10 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
+ * Handles the expired paths of the Maven proxy repositories in the background: the expired (stale) path is served
+ * to the client right away, while it is being revalidated against the remote repository. There is only one
+ * revalidation in progress per path, the subsequent expiration events of that path are ignored until it completes.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -25,6 +34,11 @@ public class MavenProxyRepositoryPathExpiredEventListener
     @Inject
     private List<MavenExpiredRepositoryPathHandler> expiredRepositoryPathHandlers;
 
+    @Inject
+    private Executor eventTaskExecutor;
+
+    private final Set<RepositoryPath> pathsInProgress = ConcurrentHashMap.newKeySet();
+
     @EventListener
     public void handle(final ProxyRepositoryPathExpiredEvent event)
     {
@@ -35,9 +49,40 @@ public class MavenProxyRepositoryPathExpiredEventListener
             return;
         }
 
-        expiredRepositoryPathHandlers.stream()
-                                     .filter(handler -> handler.supports(repositoryPath))
-                                     .forEach(handleExpiration(repositoryPath));
+        List<MavenExpiredRepositoryPathHandler> handlers = expiredRepositoryPathHandlers.stream()
+                                                                                        .filter(handler -> handler.supports(repositoryPath))
+                                                                                        .collect(Collectors.toList());
+        if (handlers.isEmpty())
+        {
+            return;
+        }
+
+        if (!pathsInProgress.add(repositoryPath))
+        {
+            logger.debug(String.format("Expired path [%s] is already being handled.", repositoryPath));
+
+            return;
+        }
+
+        try
+        {
+            eventTaskExecutor.execute(() -> {
+                try
+                {
+                    handlers.forEach(handleExpiration(repositoryPath));
+                }
+                finally
+                {
+                    pathsInProgress.remove(repositoryPath);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            pathsInProgress.remove(repositoryPath);
+
+            logger.warn(String.format("Expired path [%s] will be handled on next request.", repositoryPath), e);
+        }
     }
 
     private Consumer<MavenExpiredRepositoryPathHandler> handleExpiration(final RepositoryPath repositoryPath)
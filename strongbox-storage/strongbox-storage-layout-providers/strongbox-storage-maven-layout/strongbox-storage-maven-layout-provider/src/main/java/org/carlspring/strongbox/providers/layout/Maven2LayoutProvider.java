@@ -13,6 +13,9 @@ import org.carlspring.strongbox.repository.MavenRepositoryManagementStrategy;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.metadata.MetadataType;
+import org.carlspring.strongbox.xml.configuration.repository.MavenRepositoryConfiguration;
+import org.carlspring.strongbox.xml.configuration.repository.MutableMavenRepositoryConfiguration;
+import org.carlspring.strongbox.xml.repository.CustomRepositoryConfiguration;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -114,11 +117,10 @@ public class Maven2LayoutProvider
 
                     break;
                 case EXPIRED:
-                    final Instant tenSecondsAgo = Instant.now().minus(10, ChronoUnit.SECONDS);
                     value = BooleanUtils.isTrue((Boolean) value) || (isMavenMetadata(repositoryPath)
                                                                      &&
                                                                      !RepositoryFiles.wasModifiedAfter(repositoryPath,
-                                                                                                       tenSecondsAgo));
+                                                                                                       metadataExpirationTime(repositoryPath)));
 
                     result.put(attributeType, value);
 
@@ -132,6 +134,17 @@ public class Maven2LayoutProvider
         return result;
     }
 
+    private Instant metadataExpirationTime(RepositoryPath repositoryPath)
+    {
+        CustomRepositoryConfiguration repositoryConfiguration = repositoryPath.getRepository()
+                                                                              .getRepositoryConfiguration();
+        int metadataExpirationSeconds = repositoryConfiguration instanceof MavenRepositoryConfiguration ?
+                                        ((MavenRepositoryConfiguration) repositoryConfiguration).getMetadataExpirationSeconds() :
+                                        MutableMavenRepositoryConfiguration.DEFAULT_METADATA_EXPIRATION_SECONDS;
+
+        return Instant.now().minus(metadataExpirationSeconds, ChronoUnit.SECONDS);
+    }
+
     private boolean isIndex(RepositoryPath path)
     {
         if (!path.isAbsolute())
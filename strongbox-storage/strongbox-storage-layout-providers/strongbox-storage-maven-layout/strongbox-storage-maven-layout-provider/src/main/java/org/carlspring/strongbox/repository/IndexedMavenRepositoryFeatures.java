@@ -150,6 +150,9 @@ public class IndexedMavenRepositoryFeatures
                 throw new ArtifactStorageException("Target repository not found!");
             }
 
+            // the source index is read from its directory
+            sourceIndex.commit();
+
             targetIndex.getIndexingContext().merge(FSDirectory.open(sourceIndex.getIndexDir()));
         }
         catch (IOException e)
@@ -163,6 +166,8 @@ public class IndexedMavenRepositoryFeatures
             throws IOException
     {
         RepositoryIndexer indexer = getIndexer(storageId, repositoryId);
+        indexer.commit();
+
         IndexingContext context = indexer.getIndexingContext();
         Path indexPath = resolveIndexPath(storageId, repositoryId, null);
         final IndexSearcher indexSearcher = context.acquireIndexSearcher();
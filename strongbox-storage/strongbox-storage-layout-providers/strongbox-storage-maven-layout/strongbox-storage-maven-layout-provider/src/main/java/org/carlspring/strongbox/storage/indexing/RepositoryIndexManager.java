@@ -6,14 +6,19 @@ import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -31,18 +36,59 @@ public class RepositoryIndexManager
      * K: storageId:repositoryId:type[local|remote]
      * V: index
      */
-    private Map<String, RepositoryIndexer> indexes = new LinkedHashMap<>();
+    private Map<String, RepositoryIndexer> indexes = new ConcurrentHashMap<>();
 
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Value("${strongbox.maven.indexer.commitIntervalMillis:1000}")
+    private long commitIntervalMillis;
+
+    private ScheduledExecutorService executor;
+
     public RepositoryIndexManager()
     {
     }
 
+    @PostConstruct
+    private void init()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, RepositoryIndexManager.class.getSimpleName());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::commitIndexers, commitIntervalMillis, commitIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Commits the changes collected by the indexers since their last commit, so that the time a change stays
+     * uncommitted is bounded by the commit interval, when the indexers don't reach their commit batch size.
+     */
+    private void commitIndexers()
+    {
+        indexes.forEach((contextId, repositoryIndexer) ->
+                        {
+                            try
+                            {
+                                repositoryIndexer.commit();
+                            }
+                            catch (Exception e)
+                            {
+                                logger.error("Unable to commit indexer for contextId " + contextId, e);
+                            }
+                        });
+    }
+
     @PreDestroy
     private void close()
+            throws InterruptedException
     {
+        executor.shutdown();
+        executor.awaitTermination(commitIntervalMillis, TimeUnit.MILLISECONDS);
+
         indexes.forEach((contextId, repositoryIndexer) ->
                         {
                             try
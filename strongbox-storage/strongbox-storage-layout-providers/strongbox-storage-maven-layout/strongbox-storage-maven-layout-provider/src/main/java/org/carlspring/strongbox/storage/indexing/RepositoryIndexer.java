@@ -9,17 +9,26 @@ import org.carlspring.strongbox.storage.search.SearchResult;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BooleanQuery.Builder;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
 import org.apache.maven.index.*;
 import org.apache.maven.index.Scanner;
 import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.expr.SourcedSearchExpression;
 import org.slf4j.Logger;
@@ -42,6 +51,8 @@ public class RepositoryIndexer
 
     private Indexer indexer;
 
+    private IndexerEngine indexerEngine;
+
     private Scanner scanner;
 
     private List<IndexCreator> indexers;
@@ -62,6 +73,20 @@ public class RepositoryIndexer
 
     private ApplicationContext applicationContext;
 
+    private int commitBatchSize = 1;
+
+    private final AtomicInteger uncommittedChanges = new AtomicInteger();
+
+    private volatile boolean refreshRequired;
+
+    /**
+     * Near-real-time searcher of the index writer, which (unlike the searcher of the indexing context) applies the
+     * uncommitted deletions.
+     */
+    private SearcherManager searcherManager;
+
+    private IndexWriter searcherManagerWriter;
+
 
     public RepositoryIndexer(String contextId)
     {
@@ -82,37 +107,196 @@ public class RepositoryIndexer
             {
                 return;
             }
-            final ArtifactInfo artifactInfo = artifactContext.getArtifactInfo();
 
-            // preserve duplicates
-            if (CollectionUtils.isNotEmpty(
-                    search(artifactInfo)))
-            {
-                return;
-            }
-            getIndexer().addArtifactToIndex(artifactContext, indexingContext);
+            // replaces the document with the same UINFO, if any
+            getIndexerEngine().update(indexingContext, artifactContext);
         }
         catch (Exception e) // it's not really a critical problem, artifacts could be added to index later
         {
             logger.warn("Unable to add artifacts to index", e);
+
+            return;
         }
+
+        indexChanged(1);
     }
 
     public void delete(final Collection<ArtifactInfo> artifactInfos)
             throws IOException
     {
-        final List<ArtifactContext> delete = new ArrayList<>();
+        int deleted = 0;
         for (final ArtifactInfo artifactInfo : artifactInfos)
         {
             // preserve extra delete index records
-            if (CollectionUtils.isEmpty(search(artifactInfo)))
+            if (!isIndexed(artifactInfo))
             {
                 continue;
             }
-            delete.add(new SafeArtifactContext(new ArtifactContext(null, null, null, artifactInfo, null)));
+
+            getIndexerEngine().remove(indexingContext,
+                                      new SafeArtifactContext(new ArtifactContext(null, null, null, artifactInfo, null)));
+            refreshRequired = true;
+            deleted++;
+        }
+
+        indexChanged(deleted);
+    }
+
+    private boolean isIndexed(final ArtifactInfo artifactInfo)
+            throws IOException
+    {
+        final Query query = new TermQuery(new Term(ArtifactInfo.UINFO, artifactInfo.getUinfo()));
+
+        final IndexSearcher indexSearcher = acquireIndexSearcher();
+        try
+        {
+            return indexSearcher.count(query) > 0;
+        }
+        finally
+        {
+            releaseIndexSearcher(indexSearcher);
+        }
+    }
+
+    private void indexChanged(int changes)
+            throws IOException
+    {
+        if (changes == 0)
+        {
+            return;
+        }
+
+        refreshRequired = true;
+
+        if (uncommittedChanges.addAndGet(changes) >= commitBatchSize)
+        {
+            commit();
+        }
+    }
+
+    /**
+     * Commits the changes, which have been added to the index since the last commit.
+     * <br>
+     * The changes are committed once {@link #getCommitBatchSize()} of them have been collected, periodically by the
+     * {@link RepositoryIndexManager}, and before the index files are used directly (packing, merging, closing).
+     */
+    public synchronized void commit()
+            throws IOException
+    {
+        int changes = uncommittedChanges.getAndSet(0);
+        if (changes == 0)
+        {
+            return;
+        }
+
+        try
+        {
+            indexingContext.commit();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            uncommittedChanges.addAndGet(changes);
+
+            throw e;
+        }
+
+        logger.debug("Committed [{}] changes of index [{}].", changes, contextId);
+    }
+
+    /**
+     * @return the near-real-time searcher, which sees the uncommitted changes, including the deletions; it is
+     *         reopened only if the index has been changed since the last search
+     */
+    private synchronized IndexSearcher acquireIndexSearcher()
+            throws IOException
+    {
+        IndexWriter indexWriter = indexingContext.getIndexWriter();
+        if (searcherManager == null || searcherManagerWriter != indexWriter)
+        {
+            // the writer is reopened when the index is replaced
+            closeSearcherManager();
+
+            searcherManager = new SearcherManager(indexWriter, true, new SearcherFactory());
+            searcherManagerWriter = indexWriter;
+            refreshRequired = false;
+        }
+        else if (refreshRequired)
+        {
+            refreshRequired = false;
+            searcherManager.maybeRefreshBlocking();
+        }
+
+        return searcherManager.acquire();
+    }
+
+    private void releaseIndexSearcher(IndexSearcher indexSearcher)
+            throws IOException
+    {
+        // same as SearcherManager.release(), which works even if the searcher manager has been reopened since
+        indexSearcher.getIndexReader().decRef();
+    }
+
+    private synchronized void closeSearcherManager()
+            throws IOException
+    {
+        if (searcherManager == null)
+        {
+            return;
+        }
+
+        try
+        {
+            searcherManager.close();
+        }
+        finally
+        {
+            searcherManager = null;
+            searcherManagerWriter = null;
+        }
+    }
+
+    private Set<ArtifactInfo> searchFlat(Query query,
+                                         Comparator<ArtifactInfo> comparator)
+            throws IOException
+    {
+        final Set<ArtifactInfo> result = new TreeSet<>(comparator);
+
+        final IndexSearcher indexSearcher = acquireIndexSearcher();
+        try
+        {
+            int count = indexSearcher.count(query);
+            if (count == 0)
+            {
+                return result;
+            }
+
+            for (ScoreDoc scoreDoc : indexSearcher.search(query, count).scoreDocs)
+            {
+                Document document = indexSearcher.doc(scoreDoc.doc);
+                ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(document, indexingContext);
+                if (artifactInfo == null)
+                {
+                    continue;
+                }
+
+                artifactInfo.setRepository(indexingContext.getRepositoryId());
+                artifactInfo.setContext(indexingContext.getId());
+                result.add(artifactInfo);
+            }
         }
+        finally
+        {
+            releaseIndexSearcher(indexSearcher);
+        }
+
+        logger.debug("Hit count: {}", result.size());
 
-        getIndexer().deleteArtifactsFromIndex(delete, indexingContext);
+        return result;
+    }
+
+    public int getUncommittedChanges()
+    {
+        return uncommittedChanges.get();
     }
 
     public Set<SearchResult> search(final ArtifactInfo artifactInfo)
@@ -173,11 +357,7 @@ public class RepositoryIndexer
 
 
 
-        final FlatSearchResponse response = getIndexer().searchFlat(new FlatSearchRequest(booleanQuery, indexingContext));
-
-        logger.debug("Hit count: {}", response.getReturnedHitsCount());
-
-        final Set<ArtifactInfo> r = response.getResults();
+        final Set<ArtifactInfo> r = searchFlat(booleanQuery, ArtifactInfo.VERSION_COMPARATOR);
         final Set<SearchResult> results = asSearchResults(r);
 
         if (logger.isDebugEnabled())
@@ -204,27 +384,18 @@ public class RepositoryIndexer
                                        indexingContext.getId(),
                                        indexingContext.getIndexDirectory().toString() });
 
-            FlatSearchRequest searchRequest = new FlatSearchRequest(query,
-                                                                    Comparator.comparing(this::calculateArtifactInfo),
-                                                                    indexingContext);
+            final Set<ArtifactInfo> r = searchFlat(query, Comparator.comparing(this::calculateArtifactInfo));
+            final Set<SearchResult> results = asSearchResults(r);
 
-            try (final FlatSearchResponse response = getIndexer().searchFlat(searchRequest))
+            if (logger.isDebugEnabled())
             {
-
-                logger.debug("Hit count: {}", response.getReturnedHitsCount());
-
-                final Set<ArtifactInfo> r = response.getResults();
-                final Set<SearchResult> results = asSearchResults(r);
-
-                if (logger.isDebugEnabled())
+                for (final SearchResult result : results)
                 {
-                    for (final SearchResult result : results)
-                    {
-                        logger.debug("Found artifact: {}", result.toString());
-                    }
+                    logger.debug("Found artifact: {}", result.toString());
                 }
-                return results;
             }
+
+            return results;
         }
         catch (Exception e)
         {
@@ -253,11 +424,7 @@ public class RepositoryIndexer
                                    indexingContext.getId(),
                                    indexingContext.getIndexDirectory().toString() });
 
-        final FlatSearchResponse response = getIndexer().searchFlat(new FlatSearchRequest(booleanQuery, indexingContext));
-
-        logger.debug("Hit count: {}", response.getReturnedHitsCount());
-
-        final Set<ArtifactInfo> r = response.getResults();
+        final Set<ArtifactInfo> r = searchFlat(booleanQuery, ArtifactInfo.VERSION_COMPARATOR);
         final Set<SearchResult> results = asSearchResults(r);
 
         if (logger.isDebugEnabled())
@@ -307,12 +474,25 @@ public class RepositoryIndexer
     public void close()
             throws IOException
     {
+        commit();
+        closeSearcherManager();
+
         indexer.closeIndexingContext(indexingContext, false);
     }
 
     public void close(boolean deleteFiles)
             throws IOException
     {
+        if (deleteFiles)
+        {
+            uncommittedChanges.set(0);
+        }
+        else
+        {
+            commit();
+        }
+        closeSearcherManager();
+
         indexingContext.close(deleteFiles);
     }
 
@@ -336,6 +516,26 @@ public class RepositoryIndexer
         this.indexer = indexer;
     }
 
+    public IndexerEngine getIndexerEngine()
+    {
+        return indexerEngine;
+    }
+
+    public void setIndexerEngine(IndexerEngine indexerEngine)
+    {
+        this.indexerEngine = indexerEngine;
+    }
+
+    public int getCommitBatchSize()
+    {
+        return commitBatchSize;
+    }
+
+    public void setCommitBatchSize(int commitBatchSize)
+    {
+        this.commitBatchSize = commitBatchSize;
+    }
+
     public Scanner getScanner()
     {
         return scanner;
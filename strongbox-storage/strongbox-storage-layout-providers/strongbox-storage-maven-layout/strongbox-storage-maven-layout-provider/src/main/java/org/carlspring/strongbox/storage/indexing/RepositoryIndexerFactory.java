@@ -13,11 +13,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import org.apache.maven.index.IndexerEngine;
 import org.apache.maven.index.context.IndexCreator;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.creator.JarFileContentsIndexCreator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
@@ -44,6 +46,12 @@ public class RepositoryIndexerFactory
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Inject
+    private IndexerEngine indexerEngine;
+
+    @Value("${strongbox.maven.indexer.commitBatchSize:100}")
+    private int commitBatchSize;
+
     public RepositoryIndexer createRepositoryIndexer(String storageId,
                                                      String repositoryId,
                                                      String indexType,
@@ -69,6 +77,8 @@ public class RepositoryIndexerFactory
         repositoryIndexer.setIndexDir(indexDir);
         repositoryIndexer.setIndexingContext(indexingContext);
         repositoryIndexer.setIndexer(indexerConfiguration.getIndexer());
+        repositoryIndexer.setIndexerEngine(indexerEngine);
+        repositoryIndexer.setCommitBatchSize(commitBatchSize);
         repositoryIndexer.setScanner(indexerConfiguration.getScanner());
         repositoryIndexer.setConfiguration(configurationManager.getConfiguration());
         repositoryIndexer.setApplicationContext(applicationContext);
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.storage.metadata;
 
 import org.carlspring.commons.io.MultipleDigestOutputStream;
+import org.carlspring.maven.commons.util.ArtifactUtils;
 import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
@@ -24,9 +25,11 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.Plugin;
@@ -315,6 +318,140 @@ public class MavenMetadataManager
         return snapshotMetadata;
     }
 
+    /**
+     * Adds a deployed artifact file to the existing metadata: its version to the artifact level metadata (updating
+     * the latest, release and lastUpdated fields) and, for a timestamped snapshot, the file to the snapshotVersions of
+     * the snapshot version level metadata.
+     * <br>
+     * Unlike {@link #generateMetadata(RepositoryPath, VersionCollectionRequest)}, neither the version directories are
+     * walked, nor the POM-s are parsed, which also means that the plugin metadata isn't updated. The full
+     * regeneration remains the way to repair metadata which is out of sync with the repository content.
+     */
+    public void updateMetadata(RepositoryPath artifactPath)
+            throws IOException
+    {
+        MavenArtifact artifact = MavenArtifactUtils.convertPathToArtifact(artifactPath);
+        RepositoryPath artifactBasePath = artifactPath.getParent().getParent();
+
+        doInLock(artifactBasePath, path ->
+        {
+            try
+            {
+                updateArtifactLevelMetadata(artifactBasePath, artifact);
+
+                if (ArtifactUtils.isSnapshot(artifact.getVersion()) &&
+                    !artifact.getVersion().equals(artifact.getBaseVersion()))
+                {
+                    updateSnapshotVersionLevelMetadata(artifactBasePath, artifact,
+                                                       FilenameUtils.getExtension(artifactPath.getFileName()
+                                                                                              .toString()));
+                }
+            }
+            catch (IOException | XmlPullParserException e)
+            {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+
+        logger.debug(String.format("Updated Maven metadata for [%s].", artifactPath));
+    }
+
+    private void updateArtifactLevelMetadata(RepositoryPath artifactBasePath,
+                                             MavenArtifact artifact)
+            throws IOException,
+                   XmlPullParserException
+    {
+        Metadata metadata = readOrCreateMetadata(MetadataHelper.getArtifactMetadataPath(artifactBasePath), artifact);
+        metadata.setVersion(null);
+
+        String version = artifact.getBaseVersion();
+
+        Versioning versioning = metadata.getVersioning();
+        if (versioning.getVersions().contains(version))
+        {
+            // Another file of an already known version, such as a classifier or the POM.
+            return;
+        }
+
+        VersionComparator versionComparator = new VersionComparator();
+
+        versioning.addVersion(version);
+        versioning.getVersions().sort(versionComparator);
+        versioning.setLatest(versioning.getVersions().get(versioning.getVersions().size() - 1));
+
+        if (!ArtifactUtils.isSnapshot(version) &&
+            (versioning.getRelease() == null || versionComparator.compare(version, versioning.getRelease()) > 0))
+        {
+            versioning.setRelease(version);
+        }
+
+        MetadataHelper.setLastUpdated(versioning);
+
+        storeMetadata(artifactBasePath, null, metadata, MetadataType.ARTIFACT_ROOT_LEVEL);
+    }
+
+    private void updateSnapshotVersionLevelMetadata(RepositoryPath artifactBasePath,
+                                                    MavenArtifact artifact,
+                                                    String extension)
+            throws IOException,
+                   XmlPullParserException
+    {
+        String baseVersion = artifact.getBaseVersion();
+
+        Metadata metadata = readOrCreateMetadata(MetadataHelper.getSnapshotMetadataPath(artifactBasePath, baseVersion),
+                                                 artifact);
+        metadata.setVersion(baseVersion);
+
+        Versioning versioning = metadata.getVersioning();
+
+        // A redeployed file replaces its previous entry.
+        versioning.getSnapshotVersions()
+                  .removeIf(v -> artifact.getVersion().equals(v.getVersion()) &&
+                                 extension.equals(v.getExtension()) &&
+                                 Objects.equals(emptyToNull(artifact.getClassifier()),
+                                                emptyToNull(v.getClassifier())));
+        versioning.addSnapshotVersion(MetadataHelper.createSnapshotVersion(artifact, extension));
+        versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+
+        MetadataHelper.setupSnapshotVersioning(versioning);
+        MetadataHelper.setLastUpdated(versioning);
+
+        storeMetadata(artifactBasePath, baseVersion, metadata, MetadataType.SNAPSHOT_VERSION_LEVEL);
+    }
+
+    private Metadata readOrCreateMetadata(Path metadataPath,
+                                          MavenArtifact artifact)
+            throws IOException,
+                   XmlPullParserException
+    {
+        Metadata metadata;
+        if (Files.exists(metadataPath))
+        {
+            try (InputStream is = Files.newInputStream(metadataPath))
+            {
+                metadata = readMetadata(is);
+            }
+        }
+        else
+        {
+            metadata = new Metadata();
+            metadata.setGroupId(artifact.getGroupId());
+            metadata.setArtifactId(artifact.getArtifactId());
+        }
+
+        if (metadata.getVersioning() == null)
+        {
+            metadata.setVersioning(new Versioning());
+        }
+
+        return metadata;
+    }
+
+    private static String emptyToNull(String value)
+    {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
     public void mergeAndStore(final RepositoryPath metadataBasePath,
                               final Metadata mergeMetadata) throws IOException
     {
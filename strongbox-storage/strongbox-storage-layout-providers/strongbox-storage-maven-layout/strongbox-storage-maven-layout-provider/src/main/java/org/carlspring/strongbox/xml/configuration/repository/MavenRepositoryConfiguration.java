@@ -25,6 +25,8 @@ public class MavenRepositoryConfiguration
 
     private boolean indexingClassNamesEnabled;
 
+    private int metadataExpirationSeconds = MutableMavenRepositoryConfiguration.DEFAULT_METADATA_EXPIRATION_SECONDS;
+
     MavenRepositoryConfiguration()
     {
     }
@@ -33,6 +35,7 @@ public class MavenRepositoryConfiguration
     {
         this.indexingEnabled = delegate.isIndexingEnabled();
         this.indexingClassNamesEnabled = delegate.isIndexingClassNamesEnabled();
+        this.metadataExpirationSeconds = delegate.getMetadataExpirationSeconds();
     }
 
     public boolean isIndexingEnabled()
@@ -44,5 +47,9 @@ public class MavenRepositoryConfiguration
     {
         return indexingClassNamesEnabled;
     }
-}
 
+    public int getMetadataExpirationSeconds()
+    {
+        return metadataExpirationSeconds;
+    }
+}
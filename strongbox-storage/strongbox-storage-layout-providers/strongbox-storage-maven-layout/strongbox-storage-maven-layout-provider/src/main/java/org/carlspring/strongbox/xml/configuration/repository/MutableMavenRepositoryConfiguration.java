@@ -17,12 +17,21 @@ public class MutableMavenRepositoryConfiguration
         extends MutableCustomRepositoryConfiguration
 {
 
+    public static final int DEFAULT_METADATA_EXPIRATION_SECONDS = 10;
+
     @XmlAttribute(name = "indexing-enabled")
     private boolean indexingEnabled = false;
 
     @XmlAttribute(name = "indexing-class-names-enabled")
     private boolean indexingClassNamesEnabled = true;
 
+    /**
+     * Time after which the cached `maven-metadata.xml` files of the proxy repository are revalidated against the
+     * remote repository. Until then the cached copy is served as is.
+     */
+    @XmlAttribute(name = "metadata-expiration-seconds")
+    private int metadataExpirationSeconds = DEFAULT_METADATA_EXPIRATION_SECONDS;
+
 
     public MutableMavenRepositoryConfiguration()
     {
@@ -48,6 +57,16 @@ public class MutableMavenRepositoryConfiguration
         this.indexingClassNamesEnabled = indexingClassNamesEnabled;
     }
 
+    public int getMetadataExpirationSeconds()
+    {
+        return metadataExpirationSeconds;
+    }
+
+    public void setMetadataExpirationSeconds(final int metadataExpirationSeconds)
+    {
+        this.metadataExpirationSeconds = metadataExpirationSeconds;
+    }
+
     @Override
     public CustomRepositoryConfiguration getImmutable()
     {
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.artifact.locator;
 
+import org.carlspring.strongbox.artifact.locator.handlers.AbstractArtifactLocationHandler;
 import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationReportOperation;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -12,6 +13,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 
 import org.junit.jupiter.api.AfterEach;
@@ -21,6 +30,7 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
@@ -179,6 +189,65 @@ public class ArtifactDirectoryLocatorTest
         System.out.println(output);
     }
 
+    @Test
+    public void testLocateDirectoriesConcurrently()
+            throws IOException
+    {
+        Storage storage = configurationManagementService.getConfiguration().getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository);
+
+        List<RepositoryPath> orderedPaths = new ArrayList<>();
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setBasedir(repositoryPath);
+        locator.setOperation(new DirectoryCollectingOperation(true, orderedPaths::add));
+        locator.locateArtifactDirectories();
+
+        Set<RepositoryPath> concurrentPaths = ConcurrentHashMap.newKeySet();
+        locator = new ArtifactDirectoryLocator();
+        locator.setBasedir(repositoryPath);
+        locator.setParallelism(4);
+        locator.setOperation(new DirectoryCollectingOperation(false, concurrentPaths::add));
+        locator.locateArtifactDirectories();
+
+        assertTrue(orderedPaths.contains(repositoryPath.resolve("org/carlspring/strongbox/locator/utils/2.3")));
+        assertTrue(orderedPaths.indexOf(repositoryPath.resolve("org/carlspring/strongbox/locator")) <
+                   orderedPaths.indexOf(repositoryPath.resolve("org/carlspring/strongbox/locator/foo-locator")));
+        assertEquals(orderedPaths.size(), concurrentPaths.size());
+        assertTrue(concurrentPaths.containsAll(orderedPaths));
+    }
+
+    @Test
+    public void testSymbolicLinksAreNotFollowed()
+            throws IOException
+    {
+        Storage storage = configurationManagementService.getConfiguration().getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository);
+
+        // The link points to its own parent directory, so following it would never end.
+        Path link = Paths.get(getRepositoryBasedir(STORAGE0, "releases").getAbsolutePath(),
+                              "org/carlspring/strongbox/locator/cycle");
+        Files.createSymbolicLink(link, link.getParent());
+        try
+        {
+            Set<RepositoryPath> concurrentPaths = ConcurrentHashMap.newKeySet();
+            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+            locator.setBasedir(repositoryPath);
+            locator.setOperation(new DirectoryCollectingOperation(false, concurrentPaths::add));
+            locator.locateArtifactDirectories();
+
+            assertTrue(concurrentPaths.contains(repositoryPath.resolve("org/carlspring/strongbox/locator/utils")));
+            assertFalse(concurrentPaths.contains(repositoryPath.resolve("org/carlspring/strongbox/locator/cycle")));
+        }
+        finally
+        {
+            Files.deleteIfExists(link);
+        }
+    }
+
     private String normalize(String path)
     {
         if (!File.separator.equals("/"))
@@ -189,4 +258,33 @@ public class ArtifactDirectoryLocatorTest
         return path;
     }
 
+    private static class DirectoryCollectingOperation
+            extends AbstractArtifactLocationHandler
+    {
+
+        private final boolean ordered;
+
+        private final Consumer<RepositoryPath> consumer;
+
+        DirectoryCollectingOperation(boolean ordered,
+                                     Consumer<RepositoryPath> consumer)
+        {
+            this.ordered = ordered;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void execute(RepositoryPath directoryPath)
+        {
+            consumer.accept(directoryPath);
+        }
+
+        @Override
+        public boolean isOrdered()
+        {
+            return ordered;
+        }
+
+    }
+
 }
@@ -0,0 +1,145 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MavenArtifactStoredEventListenerTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/stored-event-listener").getAbsolutePath());
+
+    private static final String ARTIFACT_PATH = "org/carlspring/strongbox/stored/1.0/stored-1.0.jar";
+
+    private MavenArtifactStoredEventListener listener;
+
+    private MavenMetadataManager mavenMetadataManager;
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        mavenMetadataManager = Mockito.mock(MavenMetadataManager.class);
+
+        listener = new MavenArtifactStoredEventListener();
+        ReflectionTestUtils.setField(listener, "mavenMetadataManager", mavenMetadataManager);
+        ReflectionTestUtils.setField(listener, "updateOnDeploy", true);
+    }
+
+    @Test
+    public void storedArtifactShouldUpdateTheMetadata()
+        throws Exception
+    {
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, RepositoryTypeEnum.HOSTED, ARTIFACT_PATH);
+
+        listener.handle(stored(path));
+
+        verify(mavenMetadataManager).updateMetadata(path);
+    }
+
+    @Test
+    public void metadataShouldNotBeUpdatedWhenDisabled()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(listener, "updateOnDeploy", false);
+
+        listener.handle(stored(resolve(Maven2LayoutProvider.ALIAS, RepositoryTypeEnum.HOSTED, ARTIFACT_PATH)));
+
+        verify(mavenMetadataManager, never()).updateMetadata(any());
+    }
+
+    @Test
+    public void otherEventsShouldBeIgnored()
+        throws Exception
+    {
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, RepositoryTypeEnum.HOSTED, ARTIFACT_PATH);
+
+        listener.handle(new ArtifactEvent<>(path, ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()));
+        listener.handle(new ArtifactEvent<>(path, ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADED.getType()));
+
+        verify(mavenMetadataManager, never()).updateMetadata(any());
+    }
+
+    @Test
+    public void onlyArtifactsOfHostedMavenRepositoriesShouldUpdateTheMetadata()
+        throws Exception
+    {
+        listener.handle(stored(resolve(Maven2LayoutProvider.ALIAS, RepositoryTypeEnum.PROXY, ARTIFACT_PATH)));
+        listener.handle(stored(resolve("npm", RepositoryTypeEnum.HOSTED, ARTIFACT_PATH)));
+        listener.handle(stored(resolve(Maven2LayoutProvider.ALIAS, RepositoryTypeEnum.HOSTED,
+                                       "org/carlspring/strongbox/stored/maven-metadata.xml")));
+        listener.handle(stored(resolve(Maven2LayoutProvider.ALIAS, RepositoryTypeEnum.HOSTED,
+                                       ARTIFACT_PATH + ".sha1")));
+
+        verify(mavenMetadataManager, never()).updateMetadata(any());
+    }
+
+    private static ArtifactEvent<RepositoryPath> stored(RepositoryPath path)
+    {
+        return new ArtifactEvent<>(path, ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType());
+    }
+
+    private static RepositoryPath resolve(String layout,
+                                          RepositoryTypeEnum type,
+                                          String path)
+    {
+        MutableRepository repository = new MutableRepository("releases");
+        repository.setLayout(layout);
+        repository.setType(type.getType());
+        repository.setBasedir(REPOSITORY_BASEDIR.resolve("releases").toString());
+        repository.setStorage(new MutableStorage("storage0", REPOSITORY_BASEDIR.toString()));
+
+        // Everything, except for the metadata and the checksums, is an artifact.
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                String fileName = repositoryRelativePath.getFileName().toString();
+                Boolean artifact = !fileName.endsWith(".xml") && !fileName.endsWith(".sha1");
+
+                return Arrays.stream(attributeTypes)
+                             .collect(Collectors.toMap(Function.identity(),
+                                                       t -> t == RepositoryFileAttributeType.ARTIFACT && artifact));
+            }
+        };
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        return fileSystem.getRootDirectory().resolve(path);
+    }
+
+}
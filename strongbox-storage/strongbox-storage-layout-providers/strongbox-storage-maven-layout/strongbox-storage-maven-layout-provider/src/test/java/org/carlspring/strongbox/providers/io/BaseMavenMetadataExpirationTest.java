@@ -26,6 +26,7 @@ import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.mutable.MutableObject;
@@ -33,6 +34,8 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.junit.jupiter.api.TestInfo;
 import org.mockito.Mockito;
+import static org.awaitility.Awaitility.await;
+import static org.carlspring.strongbox.util.MessageDigestUtils.calculateChecksum;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
@@ -49,6 +52,8 @@ abstract class BaseMavenMetadataExpirationTest
 
     protected static final String REPOSITORY_PROXY = "mvn-proxy-repo-snapshots";
 
+    protected static final long REVALIDATION_TIMEOUT_SECONDS = 10L;
+
     protected String groupId = "pl.fuss.maven.metadata";
 
     protected String artifactId = "maven-metadata-exp";
@@ -209,6 +214,30 @@ abstract class BaseMavenMetadataExpirationTest
         return repositoryPath.resolve(filename);
     }
 
+    /**
+     * Expired metadata is revalidated in background, while the stale copy is served, so the test should wait until
+     * the revalidation of unchanged metadata is complete.
+     */
+    protected void awaitRevalidated(final RepositoryPath repositoryPath)
+    {
+        await().atMost(REVALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+               .until(() -> !RepositoryFiles.hasExpired(repositoryPath));
+    }
+
+    /**
+     * Waits until the expired metadata, which has been changed in the remote repository, has been re-fetched in
+     * background.
+     */
+    protected void awaitRefetched(final RepositoryPath repositoryPath,
+                                  final String expectedChecksum)
+    {
+        await().atMost(REVALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+               .until(() -> expectedChecksum.equals(readChecksum(resolveSiblingChecksum(repositoryPath,
+                                                                                        EncryptionAlgorithmsEnum.SHA1))) &&
+                            expectedChecksum.equals(calculateChecksum(repositoryPath,
+                                                                      EncryptionAlgorithmsEnum.SHA1.getAlgorithm())));
+    }
+
     protected FileTime oneHourAgo()
     {
         LocalDateTime dateTime = LocalDateTime.now().minusHours(1);
@@ -0,0 +1,118 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.xml.configuration.repository.MutableMavenRepositoryConfiguration;
+
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles({ "MockedRestArtifactResolverTestConfig",
+                  "test" })
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class MavenMetadataExpirationConfigurationTest
+        extends BaseMavenMetadataExpirationTest
+{
+
+    private static final String REPOSITORY_HOSTED_CONFIGURED = "mvn-hosted-repo-snapshots-configured";
+
+    private static final int METADATA_EXPIRATION_SECONDS = 3600;
+
+    @BeforeEach
+    public void initialize(TestInfo testInfo)
+            throws Exception
+    {
+        localSourceRepository = createRepository(STORAGE0,
+                                                 getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                                 RepositoryPolicyEnum.SNAPSHOT.getPolicy(),
+                                                 false);
+
+        createRepository(STORAGE0,
+                         getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                         RepositoryPolicyEnum.SNAPSHOT.getPolicy(),
+                         false);
+
+        MutableMavenRepositoryConfiguration repositoryConfiguration = new MutableMavenRepositoryConfiguration();
+        repositoryConfiguration.setIndexingEnabled(false);
+        repositoryConfiguration.setMetadataExpirationSeconds(METADATA_EXPIRATION_SECONDS);
+
+        createRepository(STORAGE0,
+                         getRepositoryName(REPOSITORY_HOSTED_CONFIGURED, testInfo),
+                         RepositoryPolicyEnum.SNAPSHOT.getPolicy(),
+                         repositoryConfiguration);
+
+        mockHostedRepositoryMetadataUpdate(localSourceRepository,
+                                           getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                                           getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                           versionLevelMetadata,
+                                           artifactLevelMetadata);
+
+        storeTestDataInHostedRepository(getRepositoryName(REPOSITORY_HOSTED_CONFIGURED, testInfo),
+                                        getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                        true,
+                                        "maven-metadata.xml");
+    }
+
+    @Test
+    public void metadataShouldExpireAfterTheConfiguredPeriod(TestInfo testInfo)
+            throws Exception
+    {
+        String defaultRepositoryId = getRepositoryName(REPOSITORY_HOSTED, testInfo);
+        String configuredRepositoryId = getRepositoryName(REPOSITORY_HOSTED_CONFIGURED, testInfo);
+
+        FileTime halfAnHourAgo = FileTime.from(Instant.now().minus(30, ChronoUnit.MINUTES));
+        Files.setLastModifiedTime(resolvePath(defaultRepositoryId, true, "maven-metadata.xml"), halfAnHourAgo);
+        Files.setLastModifiedTime(resolvePath(configuredRepositoryId, true, "maven-metadata.xml"), halfAnHourAgo);
+
+        // The attributes are cached by the path, so each check resolves a new one.
+        assertTrue(RepositoryFiles.hasExpired(resolvePath(defaultRepositoryId, true, "maven-metadata.xml")));
+        assertFalse(RepositoryFiles.hasExpired(resolvePath(configuredRepositoryId, true, "maven-metadata.xml")));
+
+        Files.setLastModifiedTime(resolvePath(configuredRepositoryId, true, "maven-metadata.xml"), oneHourAgo());
+
+        assertTrue(RepositoryFiles.hasExpired(resolvePath(configuredRepositoryId, true, "maven-metadata.xml")));
+    }
+
+    @AfterEach
+    public void removeRepositories(TestInfo testInfo)
+            throws Exception
+    {
+        removeRepositories(getRepositories(testInfo));
+    }
+
+    private Set<MutableRepository> getRepositories(TestInfo testInfo)
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0,
+                                              getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                                              Maven2LayoutProvider.ALIAS));
+        repositories.add(createRepositoryMock(STORAGE0,
+                                              getRepositoryName(REPOSITORY_HOSTED_CONFIGURED, testInfo),
+                                              Maven2LayoutProvider.ALIAS));
+        repositories.add(createRepositoryMock(STORAGE0,
+                                              getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                              Maven2LayoutProvider.ALIAS));
+        return repositories;
+    }
+
+}
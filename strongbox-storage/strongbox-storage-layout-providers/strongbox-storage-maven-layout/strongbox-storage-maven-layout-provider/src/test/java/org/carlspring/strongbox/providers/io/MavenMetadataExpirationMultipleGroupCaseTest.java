@@ -139,6 +139,7 @@ public class MavenMetadataExpirationMultipleGroupCaseTest
         Files.setLastModifiedTime(proxyPath, oneHourAgo());
 
         groupRepositoryProvider.fetchPath(groupPath);
+        awaitRevalidated(proxyPath);
         sha1ProxyPathChecksum = readChecksum(resolveSiblingChecksum(proxyPath, EncryptionAlgorithmsEnum.SHA1));
         assertEquals(sha1ProxyPathChecksum, calculatedGroupPathChecksum);
 
@@ -162,6 +163,9 @@ public class MavenMetadataExpirationMultipleGroupCaseTest
 
         Files.setLastModifiedTime(proxyPath, oneHourAgo());
 
+        groupRepositoryProvider.fetchPath(groupPath);
+        awaitRefetched(proxyPath, calculatedHostedPathChecksum);
+
         resolvedGroupPath = groupRepositoryProvider.fetchPath(groupPath);
 
         sha1ProxyPathChecksum = readChecksum(resolveSiblingChecksum(proxyPath, EncryptionAlgorithmsEnum.SHA1));
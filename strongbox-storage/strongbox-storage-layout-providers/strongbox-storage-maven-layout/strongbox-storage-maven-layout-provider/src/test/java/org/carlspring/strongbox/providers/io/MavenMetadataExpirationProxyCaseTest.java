@@ -102,6 +102,7 @@ public class MavenMetadataExpirationProxyCaseTest
         Files.setLastModifiedTime(proxiedPath, oneHourAgo());
 
         proxyRepositoryProvider.fetchPath(proxiedPath);
+        awaitRevalidated(proxiedPath);
         sha1ProxiedPathChecksum = readChecksum(resolveSiblingChecksum(proxiedPath,
                                                                       EncryptionAlgorithmsEnum.SHA1));
         assertEquals(sha1ProxiedPathChecksum, calculatedProxiedPathChecksum);
@@ -122,6 +123,7 @@ public class MavenMetadataExpirationProxyCaseTest
         Files.setLastModifiedTime(proxiedPath, oneHourAgo());
 
         proxyRepositoryProvider.fetchPath(proxiedPath);
+        awaitRefetched(proxiedPath, calculatedHostedPathChecksum);
         sha1ProxiedPathChecksum = readChecksum(resolveSiblingChecksum(proxiedPath,
                                                                       EncryptionAlgorithmsEnum.SHA1));
         assertEquals(sha1ProxiedPathChecksum, calculatedHostedPathChecksum);
@@ -126,6 +126,9 @@ public class MavenMetadataExpirationSingleGroupCaseTest
 
         Files.setLastModifiedTime(proxyPath, oneHourAgo());
 
+        groupRepositoryProvider.fetchPath(groupPath);
+        awaitRefetched(proxyPath, calculatedHostedPathChecksum);
+
         resolvedGroupPath = groupRepositoryProvider.fetchPath(groupPath);
         sha1ProxyPathChecksum = readChecksum(resolveSiblingChecksum(proxyPath,
                                                                     EncryptionAlgorithmsEnum.SHA1));
@@ -0,0 +1,209 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MavenProxyRepositoryPathExpiredEventListenerTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/expired-event-listener").getAbsolutePath());
+
+    private static final String METADATA_PATH = "org/carlspring/strongbox/expired/maven-metadata.xml";
+
+    private MavenProxyRepositoryPathExpiredEventListener listener;
+
+    private MavenExpiredRepositoryPathHandler handler;
+
+    /**
+     * Holds the submitted tasks until they are run by the test.
+     */
+    private final List<Runnable> tasks = new ArrayList<>();
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        tasks.clear();
+
+        handler = Mockito.mock(MavenExpiredRepositoryPathHandler.class);
+        when(handler.supports(any())).thenReturn(true);
+
+        listener = new MavenProxyRepositoryPathExpiredEventListener();
+        ReflectionTestUtils.setField(listener, "expiredRepositoryPathHandlers", Collections.singletonList(handler));
+        ReflectionTestUtils.setField(listener, "eventTaskExecutor", (Executor) tasks::add);
+    }
+
+    @Test
+    public void pathInProgressShouldBeHandledOnce()
+        throws Exception
+    {
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, METADATA_PATH);
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+        listener.handle(new ProxyRepositoryPathExpiredEvent(resolve(Maven2LayoutProvider.ALIAS, METADATA_PATH)));
+
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        verify(handler).handleExpiration(path);
+
+        // Once the revalidation has completed, the path can expire again.
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        verify(handler, times(2)).handleExpiration(path);
+    }
+
+    @Test
+    public void differentPathsShouldBeHandledConcurrently()
+        throws Exception
+    {
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, METADATA_PATH);
+        RepositoryPath otherPath = resolve(Maven2LayoutProvider.ALIAS,
+                                           "org/carlspring/strongbox/expired/1.0-SNAPSHOT/maven-metadata.xml");
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+        listener.handle(new ProxyRepositoryPathExpiredEvent(otherPath));
+
+        assertEquals(2, tasks.size());
+
+        runTasks();
+
+        verify(handler).handleExpiration(path);
+        verify(handler).handleExpiration(otherPath);
+    }
+
+    @Test
+    public void failedHandlingShouldReleaseThePath()
+        throws Exception
+    {
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, METADATA_PATH);
+        Mockito.doThrow(new RuntimeException("Remote repository is unreachable."))
+               .doNothing()
+               .when(handler)
+               .handleExpiration(path);
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+
+        try
+        {
+            runTasks();
+        }
+        catch (RuntimeException e)
+        {
+            // The executor would log it.
+        }
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+        runTasks();
+
+        verify(handler, times(2)).handleExpiration(path);
+    }
+
+    @Test
+    public void rejectedTaskShouldReleaseThePath()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(listener, "eventTaskExecutor", (Executor) task -> {
+            throw new RejectedExecutionException();
+        });
+
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, METADATA_PATH);
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+
+        ReflectionTestUtils.setField(listener, "eventTaskExecutor", (Executor) tasks::add);
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void unsupportedPathsShouldBeIgnored()
+        throws Exception
+    {
+        listener.handle(new ProxyRepositoryPathExpiredEvent(resolve("npm", METADATA_PATH)));
+
+        RepositoryPath path = resolve(Maven2LayoutProvider.ALIAS, METADATA_PATH);
+        when(handler.supports(path)).thenReturn(false);
+
+        listener.handle(new ProxyRepositoryPathExpiredEvent(path));
+
+        assertTrue(tasks.isEmpty());
+        verify(handler, never()).handleExpiration(any());
+    }
+
+    private void runTasks()
+    {
+        List<Runnable> submitted = new ArrayList<>(tasks);
+        tasks.clear();
+
+        submitted.forEach(Runnable::run);
+    }
+
+    private static RepositoryPath resolve(String layout,
+                                          String path)
+    {
+        MutableRepository repository = new MutableRepository("proxy");
+        repository.setLayout(layout);
+        repository.setType(RepositoryTypeEnum.PROXY.getType());
+        repository.setBasedir(REPOSITORY_BASEDIR.resolve("proxy").toString());
+        repository.setStorage(new MutableStorage("storage0", REPOSITORY_BASEDIR.toString()));
+
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                return Collections.emptyMap();
+            }
+        };
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new Repository(repository), FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        return fileSystem.getRootDirectory().resolve(path);
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.storage.repository.MavenRepositoryFactory;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
+
+import javax.inject.Inject;
+import javax.xml.bind.JAXBException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(SAME_THREAD)
+public class RepositoryPathResolverTest
+        extends TestCaseWithMavenArtifactGenerationAndIndexing
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryPathResolverTest.class);
+
+    private static final String REPOSITORY_RELEASES = "rpr-releases";
+
+    private static final int ITERATIONS = 10000;
+
+    @Inject
+    private ConfigurationManagementService configurationManagementService;
+
+    @Inject
+    private RepositoryFileSystemRegistry fileSystemRegistry;
+
+    @Inject
+    private MavenRepositoryFactory mavenRepositoryFactory;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+
+    @BeforeAll
+    public static void cleanUp()
+            throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    @BeforeEach
+    public void initialize()
+            throws Exception
+    {
+        createRepository(STORAGE0, mavenRepositoryFactory.createRepository(REPOSITORY_RELEASES));
+    }
+
+    @AfterEach
+    public void removeRepositories()
+            throws IOException, JAXBException
+    {
+        removeRepositories(getRepositoriesToClean());
+    }
+
+    public static Set<MutableRepository> getRepositoriesToClean()
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, Maven2LayoutProvider.ALIAS));
+
+        return repositories;
+    }
+
+    @Test
+    public void fileSystemShouldBeReusedUntilRepositoryConfigurationChanges()
+    {
+        Repository repository = getRepository();
+
+        LayoutFileSystem fileSystem = repositoryPathResolver.resolve(repository).getFileSystem();
+        assertSame(fileSystem, repositoryPathResolver.resolve(repository).getFileSystem());
+        assertSame(fileSystem, repositoryPathResolver.resolve(repository, "org/foo/bar").getFileSystem());
+
+        configurationManagementService.setProxyRepositoryMaxConnections(STORAGE0, REPOSITORY_RELEASES, 10);
+
+        Repository updatedRepository = getRepository();
+        LayoutFileSystem updatedFileSystem = repositoryPathResolver.resolve(updatedRepository).getFileSystem();
+
+        assertNotSame(fileSystem, updatedFileSystem);
+        assertSame(updatedRepository, updatedFileSystem.getRepository());
+    }
+
+    @Test
+    public void cachedResolutionShouldAllocateLessThanFileSystemCreation()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+
+        Repository repository = getRepository();
+        LayoutFileSystemFactory fileSystemFactory = fileSystemRegistry.lookupRepositoryFileSystemFactory(repository);
+        long threadId = Thread.currentThread().getId();
+
+        // warm up
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            fileSystemFactory.create(repository).getRootDirectory();
+            repositoryPathResolver.resolve(repository);
+        }
+
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            fileSystemFactory.create(repository).getRootDirectory();
+        }
+        long uncached = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            repositoryPathResolver.resolve(repository);
+        }
+        long cached = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        logger.info(String.format("Allocated bytes per resolution: uncached [%s], cached [%s].",
+                                  uncached / ITERATIONS, cached / ITERATIONS));
+
+        assertTrue(cached < uncached,
+                   String.format("Cached resolution allocated [%s] bytes, file system creation [%s] bytes.", cached,
+                                 uncached));
+    }
+
+    @Test
+    public void missingArtifactEntryShouldNotBeMemoized()
+            throws IOException
+    {
+        Repository repository = getRepository();
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository,
+                                                                       "org/carlspring/strongbox/rpr-memo/1.0/rpr-memo-1.0.jar");
+
+        Path target = repositoryPath.getTarget();
+        Files.createDirectories(target.getParent());
+        Files.write(target, new byte[]{ 1, 2, 3 });
+
+        assertNull(repositoryPath.getArtifactEntry());
+
+        // The entry is created by someone else, between the two lookups of the same path instance.
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(STORAGE0);
+        artifactEntry.setRepositoryId(REPOSITORY_RELEASES);
+        artifactEntry.setArtifactCoordinates(RepositoryFiles.readCoordinates(repositoryPath));
+        artifactEntry = artifactEntryService.save(artifactEntry);
+
+        ArtifactEntry foundArtifactEntry = repositoryPath.getArtifactEntry();
+        assertNotNull(foundArtifactEntry);
+        assertEquals(artifactEntry.getObjectId(), foundArtifactEntry.getObjectId());
+
+        // Found entries are memoized.
+        assertSame(foundArtifactEntry, repositoryPath.getArtifactEntry());
+    }
+
+    private Repository getRepository()
+    {
+        return configurationManagementService.getConfiguration()
+                                             .getStorage(STORAGE0)
+                                             .getRepository(REPOSITORY_RELEASES);
+    }
+
+}
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.providers.layout;
 
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.io.LayoutInputStream;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.MavenRepositoryFactory;
@@ -13,21 +14,35 @@ import org.carlspring.strongbox.xml.configuration.repository.MutableMavenReposit
 import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.security.NoSuchAlgorithmException;
 import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
@@ -43,8 +58,14 @@ public class Maven2LayoutProviderTest
         extends TestCaseWithMavenArtifactGenerationAndIndexing
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(Maven2LayoutProviderTest.class);
+
     private static final String REPOSITORY_RELEASES = "m2lp-releases";
 
+    private static final int THROUGHPUT_FILE_SIZE_MB = 8;
+
+    private static final int THROUGHPUT_ITERATIONS = 5;
+
     @Inject
     private ConfigurationManager configurationManager;
 
@@ -162,4 +183,94 @@ public class Maven2LayoutProviderTest
         assertFalse(artifactFile.exists(), "Failed to delete artifact file " + artifactFile.getAbsolutePath());
     }
 
+    @Test
+    public void testArtifactDigestIsOptIn()
+            throws IOException, NoSuchAlgorithmException, XmlPullParserException
+    {
+        generateArtifact(getRepositoryBasedir(STORAGE0, REPOSITORY_RELEASES).getAbsolutePath(),
+                         "com.artifacts.digest:digest-foo",
+                         new String[] { "1.0" });
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(getRepository(),
+                                                                       "com/artifacts/digest/digest-foo/1.0/digest-foo-1.0.jar");
+
+        try (LayoutInputStream is = (LayoutInputStream) Files.newInputStream(repositoryPath))
+        {
+            IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+
+            assertTrue(is.getDigests().isEmpty());
+        }
+
+        try (LayoutInputStream is = (LayoutInputStream) Files.newInputStream(repositoryPath, LayoutOpenOption.DIGEST))
+        {
+            IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+
+            assertEquals(DigestUtils.md5Hex(Files.readAllBytes(repositoryPath)),
+                         Hex.encodeHexString(is.getMessageDigest(MessageDigestAlgorithms.MD5).digest()));
+        }
+    }
+
+    @Test
+    public void plainArtifactReadShouldBeFasterThanReadWithDigests()
+            throws IOException
+    {
+        String path = "com/artifacts/digest/digest-bar/1.0/digest-bar-1.0.jar";
+        File artifactFile = new File(getRepositoryBasedir(STORAGE0, REPOSITORY_RELEASES), path);
+        artifactFile.getParentFile().mkdirs();
+
+        byte[] content = new byte[1024 * 1024];
+        new Random().nextBytes(content);
+        try (OutputStream os = new FileOutputStream(artifactFile))
+        {
+            for (int i = 0; i < THROUGHPUT_FILE_SIZE_MB; i++)
+            {
+                os.write(content);
+            }
+        }
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(getRepository(), path);
+
+        // warm up
+        read(repositoryPath);
+        read(repositoryPath, LayoutOpenOption.DIGEST);
+
+        long plain = read(repositoryPath);
+        long digest = read(repositoryPath, LayoutOpenOption.DIGEST);
+
+        logger.info(String.format("Read throughput: plain [%s] MB/s, with digests [%s] MB/s.",
+                                  THROUGHPUT_FILE_SIZE_MB * 1000000000L / Math.max(plain, 1),
+                                  THROUGHPUT_FILE_SIZE_MB * 1000000000L / Math.max(digest, 1)));
+
+        assertTrue(plain < digest,
+                   String.format("Plain read took [%s] ns, read with digests [%s] ns.", plain, digest));
+    }
+
+    /**
+     * @return the shortest time of reading the whole path, in nanoseconds
+     */
+    private long read(RepositoryPath repositoryPath,
+                      OpenOption... options)
+            throws IOException
+    {
+        long result = Long.MAX_VALUE;
+        for (int i = 0; i < THROUGHPUT_ITERATIONS; i++)
+        {
+            long start = System.nanoTime();
+            try (InputStream is = Files.newInputStream(repositoryPath, options))
+            {
+                IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+            }
+            result = Math.min(result, System.nanoTime() - start);
+        }
+
+        return result;
+    }
+
+    private Repository getRepository()
+    {
+        return configurationManager.getConfiguration()
+                                   .getStorage(STORAGE0)
+                                   .getRepository(REPOSITORY_RELEASES);
+    }
+
 }
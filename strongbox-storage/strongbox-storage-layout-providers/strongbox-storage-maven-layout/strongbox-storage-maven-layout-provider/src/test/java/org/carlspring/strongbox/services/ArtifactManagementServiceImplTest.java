@@ -32,6 +32,7 @@ import javax.xml.bind.JAXBException;
 import org.apache.maven.artifact.Artifact;
 import org.carlspring.maven.commons.io.filters.JarFilenameFilter;
 import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.artifact.ArtifactDownloadCountAggregator;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
@@ -102,6 +103,9 @@ public class ArtifactManagementServiceImplTest
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private ArtifactDownloadCountAggregator artifactDownloadCountAggregator;
+
     private Set<MutableRepository> getRepositories(TestInfo testInfo)
     {
         Set<MutableRepository> repositories = new LinkedHashSet<>();
@@ -600,6 +604,8 @@ public class ArtifactManagementServiceImplTest
                          String.format("Operation [%s:%s] content size don't match.", i % 2 == 0 ? "write" : "read", i));
         }
 
+        artifactDownloadCountAggregator.flush();
+
         RepositoryPath repositoryPathResult = repositoryPathResolver.resolve(repository, path);
         ArtifactEntry artifactEntry = repositoryPathResult.getArtifactEntry();
 
@@ -715,6 +721,23 @@ public class ArtifactManagementServiceImplTest
                                                                            
         MatcherAssert.assertThat(artifactEntryWithClassifier.getTagSet(), CoreMatchers.notNullValue());
         MatcherAssert.assertThat(artifactEntryWithClassifier.getTagSet().size(), CoreMatchers.equalTo(0));
+
+        // delete the newest version
+        // and confirm the last version tag is moved back to the previous version
+        mavenArtifactManagementService.delete(repositoryPathResolver.resolve(STORAGE0, repositoryId, artifactPathV2),
+                                              true);
+
+        artifactEntry = artifactEntryService.findOneArtifact(STORAGE0, repositoryId, artifactPath);
+        MatcherAssert.assertThat(artifactEntry.getTagSet().size(), CoreMatchers.equalTo(1));
+        MatcherAssert.assertThat(artifactEntry.getTagSet().iterator().next().getName(),
+                                 CoreMatchers.equalTo(ArtifactTag.LAST_VERSION));
+
+        artifactEntryWithClassifier = artifactEntryService.findOneArtifact(STORAGE0,
+                                                                           repositoryId,
+                                                                           artifactPathWithClassifier);
+        MatcherAssert.assertThat(artifactEntryWithClassifier.getTagSet().size(), CoreMatchers.equalTo(1));
+        MatcherAssert.assertThat(artifactEntryWithClassifier.getTagSet().iterator().next().getName(),
+                                 CoreMatchers.equalTo(ArtifactTag.LAST_VERSION));
     }
 
     private Long getResult(int i,
@@ -18,6 +18,7 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -167,6 +168,47 @@ public class ArtifactMetadataServiceReleasesTest
         assertEquals("1.4", metadataAfter.getVersioning().getRelease(), "Unexpected set of versions!");
     }
 
+    @Test
+    public void testIncrementalMetadataUpdate()
+            throws IOException, XmlPullParserException, NoSuchAlgorithmException
+    {
+        String artifactPath = "org/carlspring/strongbox/incremental";
+
+        MavenArtifact firstArtifact = createRelease("org.carlspring.strongbox:incremental:1.1:jar");
+
+        // No metadata yet, the update creates it.
+        mavenMetadataManager.updateMetadata(firstArtifact.getPath());
+
+        createRelease("org.carlspring.strongbox:incremental:1.9:jar");
+        MavenArtifact latestArtifact = createRelease("org.carlspring.strongbox:incremental:1.10:jar");
+        MavenArtifact olderArtifact = createRelease("org.carlspring.strongbox:incremental:1.0:jar");
+
+        mavenMetadataManager.updateMetadata(latestArtifact.getPath());
+        mavenMetadataManager.updateMetadata(olderArtifact.getPath());
+        // The same version again, such as its POM or a classifier.
+        mavenMetadataManager.updateMetadata(olderArtifact.getPath());
+
+        Metadata metadata = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        assertNotNull(metadata);
+        assertEquals("org.carlspring.strongbox", metadata.getGroupId(), "Incorrect groupId!");
+        assertEquals("incremental", metadata.getArtifactId(), "Incorrect artifactId!");
+
+        Versioning versioning = metadata.getVersioning();
+
+        // 1.9 hasn't been added, as only the explicit rebuild walks the version directories.
+        assertEquals(Arrays.asList("1.0", "1.1", "1.10"), versioning.getVersions(), "Unexpected set of versions!");
+        assertEquals("1.10", versioning.getLatest(), "Incorrect latest version!");
+        assertEquals("1.10", versioning.getRelease(), "Incorrect latest release version!");
+        assertNotNull(versioning.getLastUpdated(), "Missing lastUpdated!");
+
+        artifactMetadataService.rebuildMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        metadata = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        assertEquals(4, metadata.getVersioning().getVersions().size(), "Incorrect number of versions stored in metadata!");
+    }
+
     @Test
     public void testDeleteVersionFromMetadata()
             throws IOException, XmlPullParserException, NoSuchAlgorithmException
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenRepositoryArtifact;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.metadata.MetadataType;
 import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
@@ -14,7 +15,10 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Objects;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.Snapshot;
 import org.apache.maven.artifact.repository.metadata.Versioning;
@@ -258,6 +262,81 @@ public class ArtifactMetadataServiceSnapshotsTest
         assertNotNull(snapshotVersioning.getLastUpdated(), "Failed to set lastUpdated field!");
     }
 
+    @Test
+    public void testIncrementalSnapshotMetadataUpdate()
+            throws IOException, XmlPullParserException, NoSuchAlgorithmException
+    {
+        String repositoryBasedir = getRepositoryBasedir(STORAGE0, REPOSITORY_SNAPSHOTS).getAbsolutePath();
+
+        String artifactPath = "org/carlspring/strongbox/incremental";
+        String metadataPath = artifactPath + "/2.0-SNAPSHOT";
+
+        MavenArtifact firstBuild = createTimestampedSnapshot(repositoryBasedir,
+                                                             "org.carlspring.strongbox",
+                                                             "incremental",
+                                                             "2.0",
+                                                             "jar",
+                                                             new String[]{ "javadoc" },
+                                                             1,
+                                                             "20181017.101010");
+        String firstVersion = firstBuild.getVersion();
+
+        mavenMetadataManager.updateMetadata(resolveSnapshot(firstVersion, ".jar"));
+        mavenMetadataManager.updateMetadata(resolveSnapshot(firstVersion, ".pom"));
+        mavenMetadataManager.updateMetadata(resolveSnapshot(firstVersion, "-javadoc.jar"));
+        // The same file again replaces its entry.
+        mavenMetadataManager.updateMetadata(resolveSnapshot(firstVersion, ".jar"));
+
+        Metadata metadata = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_SNAPSHOTS, metadataPath);
+
+        assertNotNull(metadata);
+        assertEquals("2.0-SNAPSHOT", metadata.getVersion(), "Incorrect version!");
+
+        Versioning versioning = metadata.getVersioning();
+
+        assertEquals(3, versioning.getSnapshotVersions().size(), "Incorrect number of snapshot versions!");
+        assertEquals(1, countSnapshotVersions(versioning, firstVersion, null, "jar"));
+        assertEquals(1, countSnapshotVersions(versioning, firstVersion, null, "pom"));
+        assertEquals(1, countSnapshotVersions(versioning, firstVersion, "javadoc", "jar"));
+        assertEquals("20181017.101010", versioning.getSnapshot().getTimestamp(), "Incorrect snapshot timestamp!");
+        assertEquals(1, versioning.getSnapshot().getBuildNumber(), "Incorrect snapshot build number!");
+
+        MavenArtifact secondBuild = createTimestampedSnapshot(repositoryBasedir,
+                                                              "org.carlspring.strongbox",
+                                                              "incremental",
+                                                              "2.0",
+                                                              "jar",
+                                                              new String[]{ "javadoc" },
+                                                              2,
+                                                              "20181017.111010");
+        String secondVersion = secondBuild.getVersion();
+
+        mavenMetadataManager.updateMetadata(resolveSnapshot(secondVersion, "-javadoc.jar"));
+        mavenMetadataManager.updateMetadata(resolveSnapshot(secondVersion, ".jar"));
+
+        metadata = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_SNAPSHOTS, metadataPath);
+        versioning = metadata.getVersioning();
+
+        // The builds are kept, as with the rebuild, each with one entry per classifier and extension.
+        assertEquals(5, versioning.getSnapshotVersions().size(), "Incorrect number of snapshot versions!");
+        assertEquals(1, countSnapshotVersions(versioning, secondVersion, null, "jar"));
+        assertEquals(1, countSnapshotVersions(versioning, secondVersion, "javadoc", "jar"));
+        assertEquals(0, countSnapshotVersions(versioning, secondVersion, null, "pom"));
+        assertEquals(secondVersion,
+                     versioning.getSnapshotVersions().get(versioning.getSnapshotVersions().size() - 1).getVersion(),
+                     "The latest build should be the last one!");
+        assertEquals("20181017.111010", versioning.getSnapshot().getTimestamp(), "Incorrect snapshot timestamp!");
+        assertEquals(2, versioning.getSnapshot().getBuildNumber(), "Incorrect snapshot build number!");
+        assertNotNull(versioning.getLastUpdated(), "Missing lastUpdated!");
+
+        Metadata artifactMetadata = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_SNAPSHOTS, artifactPath);
+
+        assertEquals(Collections.singletonList("2.0-SNAPSHOT"), artifactMetadata.getVersioning().getVersions(),
+                     "Unexpected set of versions!");
+        assertEquals("2.0-SNAPSHOT", artifactMetadata.getVersioning().getLatest(), "Incorrect latest version!");
+        assertNull(artifactMetadata.getVersioning().getRelease(), "Incorrect latest release version!");
+    }
+
     @Test
     public void testSnapshotPluginMetadataRebuild()
             throws IOException, XmlPullParserException, NoSuchAlgorithmException
@@ -340,4 +419,26 @@ public class ArtifactMetadataServiceSnapshotsTest
                      "Incorrect number of versions stored in metadata!");
     }
 
+    private RepositoryPath resolveSnapshot(String version,
+                                           String suffix)
+    {
+        return repositoryPathResolver.resolve(STORAGE0,
+                                              REPOSITORY_SNAPSHOTS,
+                                              "org/carlspring/strongbox/incremental/2.0-SNAPSHOT/incremental-" +
+                                              version + suffix);
+    }
+
+    private static long countSnapshotVersions(Versioning versioning,
+                                              String version,
+                                              String classifier,
+                                              String extension)
+    {
+        return versioning.getSnapshotVersions()
+                         .stream()
+                         .filter(v -> version.equals(v.getVersion()) &&
+                                      extension.equals(v.getExtension()) &&
+                                      Objects.equals(classifier, StringUtils.defaultIfEmpty(v.getClassifier(), null)))
+                         .count();
+    }
+
 }
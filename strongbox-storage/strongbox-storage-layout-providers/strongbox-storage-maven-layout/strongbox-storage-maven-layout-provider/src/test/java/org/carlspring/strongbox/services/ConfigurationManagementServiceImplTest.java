@@ -207,6 +207,22 @@ public class ConfigurationManagementServiceImplTest
         }
     }
 
+    @Test
+    public void configurationSnapshotShouldNotBeAffectedByModifications()
+    {
+        Configuration snapshot = configurationManagementService.getConfiguration();
+
+        configurationManagementService.addRepositoryToGroup(STORAGE0, REPOSITORY_GROUP_1, REPOSITORY_RELEASES_2);
+
+        assertFalse(snapshot.getRepository(STORAGE0, REPOSITORY_GROUP_1)
+                            .getGroupRepositories()
+                            .containsKey(REPOSITORY_RELEASES_2));
+        assertTrue(configurationManagementService.getConfiguration()
+                                                 .getRepository(STORAGE0, REPOSITORY_GROUP_1)
+                                                 .getGroupRepositories()
+                                                 .containsKey(REPOSITORY_RELEASES_2));
+    }
+
     @Test
     public void testRemoveRepositoryFromAssociatedGroups()
     {
@@ -13,10 +13,17 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -276,4 +283,69 @@ public class MavenChecksumServiceTest
                    "The checksum file for metadata is empty!");
     }
 
+    @Test
+    public void testConcurrentChecksumRegeneration()
+            throws IOException,
+                   XmlPullParserException,
+                   NoSuchAlgorithmException
+    {
+        Path basePath = Paths.get(getRepositoryBasedir(STORAGE0, REPOSITORY_RELEASES).getAbsolutePath(),
+                                  "org/carlspring/strongbox/checksum");
+
+        artifactMetadataService.rebuildMetadata(STORAGE0, REPOSITORY_RELEASES, "org/carlspring/strongbox/checksum");
+
+        List<Path> checksumFiles = listFiles(basePath).stream()
+                                                      .filter(MavenChecksumServiceTest::isChecksum)
+                                                      .collect(Collectors.toList());
+        assertFalse(checksumFiles.isEmpty(), "No checksum files have been generated!");
+        for (Path checksumFile : checksumFiles)
+        {
+            Files.write(checksumFile, "corrupted".getBytes());
+        }
+
+        // The directories are visited concurrently, each one of them stores the checksums of its own files.
+        checksumService.regenerateChecksum(STORAGE0, REPOSITORY_RELEASES, "org/carlspring/strongbox/checksum", true);
+
+        List<Path> files = listFiles(basePath);
+        List<Path> contentFiles = files.stream()
+                                       .filter(p -> !isChecksum(p))
+                                       .collect(Collectors.toList());
+        assertTrue(contentFiles.size() >= 7, "Unexpected files: " + contentFiles);
+
+        for (Path contentFile : contentFiles)
+        {
+            assertFalse(contentFile.getFileName().toString().endsWith(".tmp"),
+                        "Temporary checksum file left behind: " + contentFile);
+
+            byte[] content = Files.readAllBytes(contentFile);
+            assertEquals(DigestUtils.md5Hex(content), readChecksum(contentFile, ".md5"),
+                         "Wrong MD5 checksum of " + contentFile);
+            assertEquals(DigestUtils.sha1Hex(content), readChecksum(contentFile, ".sha1"),
+                         "Wrong SHA-1 checksum of " + contentFile);
+        }
+    }
+
+    private static List<Path> listFiles(Path basePath)
+            throws IOException
+    {
+        try (Stream<Path> pathStream = Files.walk(basePath))
+        {
+            return pathStream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isChecksum(Path path)
+    {
+        String fileName = path.getFileName().toString();
+
+        return fileName.endsWith(".md5") || fileName.endsWith(".sha1");
+    }
+
+    private static String readChecksum(Path path,
+                                       String extension)
+            throws IOException
+    {
+        return new String(Files.readAllBytes(path.resolveSibling(path.getFileName() + extension))).trim();
+    }
+
 }
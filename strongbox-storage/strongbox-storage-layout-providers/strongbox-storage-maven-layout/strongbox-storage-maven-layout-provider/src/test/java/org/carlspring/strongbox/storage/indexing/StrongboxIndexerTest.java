@@ -4,17 +4,20 @@ import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.search.SearchResult;
 import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
 import org.carlspring.strongbox.util.IndexContextHelper;
 
 import javax.inject.Inject;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
 import org.apache.lucene.search.Query;
+import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.FlatSearchRequest;
 import org.apache.maven.index.FlatSearchResponse;
 import org.apache.maven.index.Indexer;
@@ -59,6 +62,8 @@ public class StrongboxIndexerTest
 
     private static final String REPOSITORY_RELEASES_6 = "injector-releases-6";
 
+    private static final String REPOSITORY_RELEASES_7 = "injector-releases-7";
+
     /**
      * org/carlspring/ioc/PropertyValueInjector
      * org/carlspring/ioc/InjectionException
@@ -91,7 +96,8 @@ public class StrongboxIndexerTest
                                        REPOSITORY_RELEASES_3,
                                        REPOSITORY_RELEASES_4,
                                        REPOSITORY_RELEASES_5,
-                                       REPOSITORY_RELEASES_6));
+                                       REPOSITORY_RELEASES_6,
+                                       REPOSITORY_RELEASES_7));
     }
 
     public static Set<MutableRepository> getRepositoriesToClean(String... repositoryId)
@@ -285,4 +291,55 @@ public class StrongboxIndexerTest
 
         removeRepositories(getRepositoriesToClean(REPOSITORY_RELEASES_6));
     }
+
+    @Test
+    public void indexerShouldUpdateAndDeleteWithoutCommit()
+            throws Exception
+    {
+        createRepository(STORAGE0, REPOSITORY_RELEASES_7, true);
+
+        RepositoryIndexManager repositoryIndexManager = this.repositoryIndexManager.get();
+
+        String artifactPath = "org/carlspring/properties-injector/1.7/properties-injector-1.7.jar";
+        artifactManagementService.validateAndStore(STORAGE0,
+                                                   REPOSITORY_RELEASES_7,
+                                                   artifactPath,
+                                                   jarArtifact.getInputStream());
+
+        String contextId = IndexContextHelper.getContextId(STORAGE0, REPOSITORY_RELEASES_7,
+                                                           IndexTypeEnum.LOCAL.getType());
+        RepositoryIndexer ri = repositoryIndexManager.getRepositoryIndexer(contextId);
+
+        // Indexing the same artifact again replaces its document.
+        ri.addArtifactToIndex(repositoryPathResolver.resolve(STORAGE0, REPOSITORY_RELEASES_7, artifactPath));
+
+        Set<SearchResult> results = ri.search("org.carlspring", "properties-injector", "1.7", "jar", null);
+
+        assertThat(results.size(), CoreMatchers.equalTo(1));
+
+        ri.delete(Collections.singletonList(new ArtifactInfo(REPOSITORY_RELEASES_7,
+                                                             "org.carlspring",
+                                                             "properties-injector",
+                                                             "1.7",
+                                                             null,
+                                                             "jar")));
+
+        // Uncommitted deletions are visible for the searches.
+        results = ri.search("org.carlspring", "properties-injector", "1.7", "jar", null);
+
+        assertThat(results.size(), CoreMatchers.equalTo(0));
+
+        // And so is the uncommitted addition which follows the deletion.
+        ri.addArtifactToIndex(repositoryPathResolver.resolve(STORAGE0, REPOSITORY_RELEASES_7, artifactPath));
+
+        results = ri.search("org.carlspring", "properties-injector", "1.7", "jar", null);
+
+        assertThat(results.size(), CoreMatchers.equalTo(1));
+
+        ri.commit();
+
+        assertThat(ri.getUncommittedChanges(), CoreMatchers.equalTo(0));
+
+        removeRepositories(getRepositoriesToClean(REPOSITORY_RELEASES_7));
+    }
 }
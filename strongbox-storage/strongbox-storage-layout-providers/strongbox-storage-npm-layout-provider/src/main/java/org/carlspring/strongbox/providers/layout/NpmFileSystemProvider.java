@@ -1,6 +1,11 @@
 package org.carlspring.strongbox.providers.layout;
 
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
 import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 
 import org.slf4j.Logger;
@@ -18,6 +23,9 @@ public class NpmFileSystemProvider extends LayoutFileSystemProvider
     @Inject
     private NpmLayoutProvider layoutProvider;
 
+    @Inject
+    private NpmPackageFeedCache npmPackageFeedCache;
+
     public NpmFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
         super(storageFileSystemProvider);
@@ -29,4 +37,20 @@ public class NpmFileSystemProvider extends LayoutFileSystemProvider
         return layoutProvider;
     }
 
+    @Override
+    public void delete(Path path,
+                       boolean force)
+        throws IOException
+    {
+        boolean directory = Files.isDirectory(path);
+
+        super.delete(path, force);
+
+        // Directory removals don't dispatch any artifact events.
+        if (directory)
+        {
+            npmPackageFeedCache.invalidateAll(((RepositoryPath) path).getRepository());
+        }
+    }
+
 }
@@ -0,0 +1,416 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.npm.metadata.DistTags;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.PackageVersion;
+import org.carlspring.strongbox.npm.metadata.Time;
+import org.carlspring.strongbox.npm.metadata.Versions;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the npm package feeds (packuments) of the hosted repositories, so that they don't need to be rebuilt from
+ * the database, the checksum files and the artifact tags on every `GET /{packageName}`.
+ * <br>
+ * The cached feed of a package is dropped on every change of its package files, and again once the change has been
+ * committed, a directory removal or a trash undelete drops the feeds of the whole repository, and the feed is rebuilt
+ * on the next request. Proxy and group
+ * repositories are not cached, because their package feeds depend on the remote repositories.
+ * <br>
+ * The cache is node-local and the artifact events are only dispatched on the node which made the change, so in a
+ * cluster the other nodes can serve the previous feed for up to `strongbox.npm.packageFeedCache.ttlSeconds`.
+ *
+ * @see NpmPackageSupplier
+ */
+@Component
+public class NpmPackageFeedCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedCache.class);
+
+    private static final Set<ArtifactEventTypeEnum> INVALIDATING_EVENTS = EnumSet.of(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_COPIED,
+                                                                                     ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED);
+
+    /**
+     * Package version fields of the abbreviated package feed, see
+     * https://github.com/npm/registry/blob/master/docs/responses/package-metadata.md#abbreviated-version-object
+     */
+    private static final List<String> ABBREVIATED_VERSION_FIELDS = Arrays.asList("name",
+                                                                                "version",
+                                                                                "deprecated",
+                                                                                "dependencies",
+                                                                                "optionalDependencies",
+                                                                                "devDependencies",
+                                                                                "bundleDependencies",
+                                                                                "peerDependencies",
+                                                                                "bin",
+                                                                                "directories",
+                                                                                "dist",
+                                                                                "engines",
+                                                                                "_hasShrinkwrap");
+
+    @Value("${strongbox.npm.packageFeedCache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.npm.packageFeedCache.ttlSeconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${strongbox.npm.packageFeedCache.maxSize:10000}")
+    private long maxSize;
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private NpmPackageSupplier npmPackageSupplier;
+
+    @Inject
+    @NpmObjectMapper
+    private ObjectMapper npmJacksonMapper;
+
+    /**
+     * storageId:repositoryId/packageId -> package feed.
+     */
+    private Cache<String, NpmPackageFeedContent> packageFeeds;
+
+    /**
+     * Incremented on every invalidation, so that a feed which has been built concurrently with a change is not
+     * cached.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        packageFeeds = CacheBuilder.newBuilder()
+                                   .maximumSize(maxSize)
+                                   .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                                   .build();
+    }
+
+    public NpmPackageFeedContent get(Repository repository,
+                                     String packageScope,
+                                     String packageName)
+        throws IOException
+    {
+        String packageId = NpmArtifactCoordinates.caclulatePackageId(packageScope, packageName);
+        if (!enabled || !repository.isHostedRepository())
+        {
+            return render(packageId, fetchPackageVersions(repository, packageScope, packageName));
+        }
+
+        String key = getKey(repository, packageId);
+        NpmPackageFeedContent result = packageFeeds.getIfPresent(key);
+        if (result != null)
+        {
+            return result;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        result = render(packageId, fetchPackageVersions(repository, packageScope, packageName));
+
+        packageFeeds.put(key, result);
+        // The invalidation could have been missed if the package was changed while the feed was being built, in this
+        // case the feed is returned, but not kept.
+        if (invalidations.get() != invalidationsBefore)
+        {
+            packageFeeds.invalidate(key);
+        }
+
+        return result;
+    }
+
+    public void invalidate(Repository repository,
+                           String packageId)
+    {
+        invalidate(getKey(repository, packageId));
+    }
+
+    /**
+     * Drops the package feeds of the repository, the directory removals don't dispatch artifact events, so
+     * {@link NpmFileSystemProvider} calls this directly.
+     */
+    public void invalidateAll(Repository repository)
+    {
+        invalidateAll(repository.getStorage().getId(), repository.getId());
+    }
+
+    public void invalidateAll(String storageId,
+                              String repositoryId)
+    {
+        String keyPrefix = getKeyPrefix(storageId, repositoryId);
+        invalidateNowAndAfterCommit(() -> packageFeeds.asMap().keySet().removeIf(k -> k.startsWith(keyPrefix)));
+    }
+
+    public void invalidateAll()
+    {
+        invalidateNowAndAfterCommit(packageFeeds::invalidateAll);
+    }
+
+    @EventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
+    {
+        if (INVALIDATING_EVENTS.stream().noneMatch(e -> e.getType() == event.getType()))
+        {
+            return;
+        }
+
+        invalidate(event.getPath());
+        invalidate(event.getTargetPath());
+    }
+
+    @EventListener
+    public void handleEvent(final RepositoryEvent event)
+    {
+        if (event.getType() == RepositoryEventTypeEnum.EVENT_REPOSITORY_UNDELETE_TRASH_FOR_ALL_REPOSITORIES.getType())
+        {
+            invalidateAll();
+        }
+        else if (event.getType() == RepositoryEventTypeEnum.EVENT_REPOSITORY_UNDELETE_TRASH.getType() ||
+                 event.getType() == RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            invalidateAll(event.getStorageId(), event.getRepositoryId());
+        }
+    }
+
+    private void invalidate(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (repositoryPath == null || !isHostedNpmRepository(repositoryPath.getRepository()))
+        {
+            return;
+        }
+
+        NpmArtifactCoordinates coordinates = getPackageCoordinates(repositoryPath);
+        if (coordinates != null)
+        {
+            invalidate(repositoryPath.getRepository(), coordinates.getId());
+        }
+    }
+
+    private void invalidate(String key)
+    {
+        invalidateNowAndAfterCommit(() -> packageFeeds.invalidate(key));
+
+        logger.debug(String.format("Invalidated npm package feed [%s].", key));
+    }
+
+    /**
+     * The artifact events are dispatched within the transaction which makes the change (see
+     * `ArtifactManagementService.store()`), so a feed which is built before the commit still reads the previous
+     * state. The feeds are dropped right away and once more after the commit, which also keeps the feeds which have
+     * been built in between from being cached.
+     */
+    private void invalidateNowAndAfterCommit(Runnable invalidation)
+    {
+        invalidations.incrementAndGet();
+        invalidation.run();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+        {
+            @Override
+            public void afterCommit()
+            {
+                invalidations.incrementAndGet();
+                invalidation.run();
+            }
+        });
+    }
+
+    private boolean isHostedNpmRepository(Repository repository)
+    {
+        return NpmLayoutProvider.ALIAS.equals(repository.getLayout()) && repository.isHostedRepository();
+    }
+
+    /**
+     * @return the coordinates of the package which the path (the package itself or its checksum) belongs to, or
+     *         <code>null</code> if the path isn't a package file.
+     */
+    private NpmArtifactCoordinates getPackageCoordinates(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        if (path.endsWith(".sha1"))
+        {
+            path = path.substring(0, path.length() - ".sha1".length());
+        }
+        if (!path.endsWith(".tgz"))
+        {
+            return null;
+        }
+
+        try
+        {
+            return NpmArtifactCoordinates.parse(path);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    private Map<String, NpmPackageDesc> fetchPackageVersions(Repository repository,
+                                                             String packageScope,
+                                                             String packageName)
+    {
+        Predicate predicate = createSearchPredicate(packageScope, packageName);
+
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        Paginator paginator = new Paginator();
+        paginator.setProperty("version");
+
+        List<Path> searchResult = provider.search(repository.getStorage().getId(), repository.getId(), predicate,
+                                                  paginator);
+
+        Map<String, NpmPackageDesc> result = new TreeMap<>();
+        searchResult.stream()
+                    .map(npmPackageSupplier)
+                    .forEach(p -> result.put(p.getNpmPackage().getVersion(), p));
+
+        return result;
+    }
+
+    private Predicate createSearchPredicate(String packageScope,
+                                            String packageName)
+    {
+        Predicate rootPredicate = Predicate.empty();
+
+        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
+        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.name", packageName)));
+        if (packageScope != null)
+        {
+            rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.scope", packageScope)));
+        }
+
+        return rootPredicate;
+    }
+
+    private NpmPackageFeedContent render(String packageId,
+                                         Map<String, NpmPackageDesc> packageVersions)
+        throws IOException
+    {
+        PackageFeed packageFeed = new PackageFeed();
+
+        packageFeed.setName(packageId);
+        packageFeed.setAdditionalProperty("_id", packageId);
+
+        Versions versions = new Versions();
+        packageFeed.setVersions(versions);
+
+        Time npmTime = new Time();
+        packageFeed.setTime(npmTime);
+
+        DistTags distTags = new DistTags();
+        packageFeed.setDistTags(distTags);
+
+        packageVersions.values().forEach(p -> {
+            PackageVersion npmPackage = p.getNpmPackage();
+            versions.setAdditionalProperty(npmPackage.getVersion(), npmPackage);
+
+            npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
+
+            Date created = npmTime.getCreated();
+            npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
+
+            Date modified = npmTime.getModified();
+            npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
+                    : modified);
+
+            if (p.isLastVersion())
+            {
+                distTags.setLatest(npmPackage.getVersion());
+            }
+        });
+
+        JsonNode packageFeedNode = npmJacksonMapper.valueToTree(packageFeed);
+
+        ObjectNode abbreviatedNode = npmJacksonMapper.createObjectNode();
+        copyField(packageFeedNode, abbreviatedNode, "name");
+        copyField(packageFeedNode, abbreviatedNode, "dist-tags");
+        copyField(packageFeedNode.path("time"), abbreviatedNode, "modified");
+
+        ObjectNode abbreviatedVersionsNode = abbreviatedNode.putObject("versions");
+        packageFeedNode.path("versions").fields().forEachRemaining(e -> {
+            ObjectNode abbreviatedVersionNode = abbreviatedVersionsNode.putObject(e.getKey());
+            ABBREVIATED_VERSION_FIELDS.forEach(f -> copyField(e.getValue(), abbreviatedVersionNode, f));
+        });
+
+        return new NpmPackageFeedContent(npmJacksonMapper.writeValueAsBytes(packageFeedNode),
+                                         npmJacksonMapper.writeValueAsBytes(abbreviatedNode));
+    }
+
+    private void copyField(JsonNode source,
+                           ObjectNode target,
+                           String fieldName)
+    {
+        JsonNode value = source.get(fieldName);
+        if (value != null)
+        {
+            target.set(fieldName, value);
+        }
+    }
+
+    private String getKey(Repository repository,
+                          String packageId)
+    {
+        return getKeyPrefix(repository.getStorage().getId(), repository.getId()) + packageId;
+    }
+
+    private String getKeyPrefix(String storageId,
+                                String repositoryId)
+    {
+        return String.format("%s:%s/", storageId, repositoryId);
+    }
+
+}
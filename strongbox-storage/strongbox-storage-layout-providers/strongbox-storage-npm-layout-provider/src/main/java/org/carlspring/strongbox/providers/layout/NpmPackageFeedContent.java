@@ -0,0 +1,139 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Serialized npm package feed (packument), in both the full and the abbreviated
+ * (`application/vnd.npm.install-v1+json`) forms.
+ * <br>
+ * The gzipped forms and the ETags are computed on first use, so only the
+ * representations which are actually requested are paid for. Each form and
+ * content-coding has its own strong ETag, as the bytes differ.
+ *
+ * @see NpmPackageFeedCache
+ */
+public class NpmPackageFeedContent
+{
+
+    public static final String ABBREVIATED_CONTENT_TYPE = "application/vnd.npm.install-v1+json";
+
+    public static final String GZIP = "gzip";
+
+    private final byte[] content;
+
+    private final byte[] abbreviatedContent;
+
+    private final ConcurrentMap<Boolean, byte[]> gzippedContent = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Boolean, String> etags = new ConcurrentHashMap<>();
+
+    public NpmPackageFeedContent(byte[] content,
+                                 byte[] abbreviatedContent)
+    {
+        this.content = content;
+        this.abbreviatedContent = abbreviatedContent;
+    }
+
+    public byte[] getContent(boolean abbreviated,
+                             boolean gzipped)
+    {
+        if (!gzipped)
+        {
+            return abbreviated ? abbreviatedContent : content;
+        }
+
+        return gzippedContent.computeIfAbsent(abbreviated, a -> gzip(getContent(a, false)));
+    }
+
+    /**
+     * @return the strong ETag of the given representation, the gzipped one
+     *         differs from the identity one only by the `-gzip` suffix, so that
+     *         it doesn't need to be gzipped to be compared.
+     */
+    public String getETag(boolean abbreviated,
+                          boolean gzipped)
+    {
+        String etag = etags.computeIfAbsent(abbreviated, a -> DigestUtils.sha1Hex(getContent(a, false)));
+
+        return String.format(gzipped ? "\"%s-" + GZIP + "\"" : "\"%s\"", etag);
+    }
+
+    /**
+     * @param acceptEncoding
+     *            the `Accept-Encoding` request header
+     * @return <code>true</code> if `gzip` is acceptable, taking into account
+     *         the quality values (`gzip;q=0` disables it)
+     */
+    public static boolean isGzipAccepted(String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(","))
+        {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ENGLISH);
+
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++)
+            {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q="))
+                {
+                    try
+                    {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (GZIP.equals(name) || "x-gzip".equals(name))
+            {
+                gzipQuality = quality;
+            }
+            else if ("*".equals(name))
+            {
+                anyQuality = quality;
+            }
+        }
+
+        if (gzipQuality != null)
+        {
+            return gzipQuality > 0;
+        }
+
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private static byte[] gzip(byte[] bytes)
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(result))
+        {
+            out.write(bytes);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return result.toByteArray();
+    }
+
+}
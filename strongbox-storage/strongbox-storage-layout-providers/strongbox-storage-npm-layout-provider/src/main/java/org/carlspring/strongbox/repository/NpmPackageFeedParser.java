@@ -1,17 +1,21 @@
 package org.carlspring.strongbox.repository;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 import javax.inject.Inject;
-import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
@@ -23,18 +27,18 @@ import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResult;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.npm.metadata.Versions;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
-import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 public class NpmPackageFeedParser
@@ -57,6 +61,9 @@ public class NpmPackageFeedParser
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
     public void parseSearchResult(Repository repository,
                                   SearchResults searchResults)
         throws IOException
@@ -85,33 +92,75 @@ public class NpmPackageFeedParser
         saveArtifactEntrySet(repository, artifactToSaveSet);
     }
 
+    /**
+     * Saves the new entries only. The existing entries are filtered out with a single query for the whole set, then
+     * the entries are saved per artifactId group, each group within its own transaction which is committed before the
+     * group lock is released.
+     */
     private void saveArtifactEntrySet(Repository repository,
                                       Set<ArtifactEntry> artifactToSaveSet)
         throws IOException
     {
-        for (ArtifactEntry e : artifactToSaveSet)
-        {
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(e);
+        String repositoryId = repository.getId();
+        String storageId = repository.getStorage().getId();
 
-            saveArtifactEntry(repositoryPath);
+        Map<String, ArtifactEntry> artifactEntryMap = new LinkedHashMap<>();
+        artifactToSaveSet.forEach(e -> artifactEntryMap.putIfAbsent(e.getArtifactCoordinates().toPath(), e));
+
+        artifactEntryMap.keySet()
+                        .removeAll(artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                                  artifactEntryMap.keySet()));
+
+        Map<String, List<ArtifactEntry>> artifactGroupMap = new LinkedHashMap<>();
+        artifactEntryMap.values().forEach(e -> artifactGroupMap.computeIfAbsent(e.getArtifactCoordinates().getId(),
+                                                                                k -> new ArrayList<>())
+                                                               .add(e));
+
+        for (Entry<String, List<ArtifactEntry>> artifactGroupEntry : artifactGroupMap.entrySet())
+        {
+            saveArtifactEntryGroup(repository, artifactGroupEntry.getKey(), artifactGroupEntry.getValue());
         }
     }
 
-    @Transactional
     public void parseFeed(Repository repository,
                           PackageFeed packageFeed)
         throws IOException
     {
-        if (packageFeed == null)
-        {
-            return;
-        }
+        parseFeeds(repository, Collections.singletonList(packageFeed));
+    }
 
+    /**
+     * Parses the package feeds, the new entries are checked with a single query for all the feeds.
+     */
+    public void parseFeeds(Repository repository,
+                           Collection<PackageFeed> packageFeeds)
+        throws IOException
+    {
         String repositoryId = repository.getId();
         String storageId = repository.getStorage().getId();
 
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
+        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
+        for (PackageFeed packageFeed : packageFeeds)
+        {
+            parseFeed(storageId, repositoryId, packageFeed, lastVersionTag, artifactToSaveSet);
+        }
+
+        saveArtifactEntrySet(repository, artifactToSaveSet);
+    }
+
+    private void parseFeed(String storageId,
+                           String repositoryId,
+                           PackageFeed packageFeed,
+                           ArtifactTag lastVersionTag,
+                           Set<ArtifactEntry> artifactToSaveSet)
+    {
+        if (packageFeed == null)
+        {
+            return;
+        }
+
         Versions versions = packageFeed.getVersions();
         if (versions == null)
         {
@@ -124,7 +173,6 @@ public class NpmPackageFeedParser
             return;
         }
 
-        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
         for (PackageVersion packageVersion : versionMap.values())
         {
             RemoteArtifactEntry remoteArtifactEntry = parseVersion(storageId, repositoryId, packageVersion);
@@ -140,33 +188,44 @@ public class NpmPackageFeedParser
 
             artifactToSaveSet.add(remoteArtifactEntry);
         }
-
-        saveArtifactEntrySet(repository, artifactToSaveSet);
-
     }
 
-    private void saveArtifactEntry(RepositoryPath repositoryPath)
+    private void saveArtifactEntryGroup(Repository repository,
+                                        String artifactId,
+                                        List<ArtifactEntry> artifactEntries)
         throws IOException
     {
-        ArtifactEntry e = repositoryPath.getArtifactEntry();
-        
-        Repository repository = repositoryPath.getRepository();
-        Storage storage = repository.getStorage();
-        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
+        String repositoryId = repository.getId();
+        String storageId = repository.getStorage().getId();
+
+        // The artifact write lock also takes the artifactId group lock, so it excludes the writers of the whole group.
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntries.get(0));
 
         Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
         lock.lock();
 
         try
         {
-            if (artifactEntryService.artifactExists(e.getStorageId(), e.getRepositoryId(),
-                                                    e.getArtifactCoordinates().toPath()))
-            {
-                return;
-            }
-
-            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+            // The group is committed before the lock is released, so the next writer of the group sees its entries.
+            new TransactionTemplate(transactionManager).execute(t -> {
+                // Some of the artifacts may have been stored since the entries were checked.
+                Map<String, ArtifactEntry> artifactEntryMap = new LinkedHashMap<>();
+                artifactEntries.forEach(e -> artifactEntryMap.put(e.getArtifactCoordinates().toPath(), e));
+
+                artifactEntryMap.keySet()
+                                .removeAll(artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                                          artifactEntryMap.keySet()));
+                Collection<ArtifactEntry> newArtifactEntries = artifactEntryMap.values();
+                if (newArtifactEntries.isEmpty())
+                {
+                    return null;
+                }
+
+                RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storageId, repositoryId, artifactId);
+                repositoryArtifactIdGroupService.addArtifactsToGroup(artifactGroup, newArtifactEntries);
+
+                return null;
+            });
         } 
         finally
         {
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.repository;
 
+import org.carlspring.strongbox.client.CacheValidators;
 import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
@@ -14,6 +15,7 @@ import org.carlspring.strongbox.npm.metadata.Change;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCacheValidators;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.Storage;
@@ -30,9 +32,11 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
@@ -55,7 +59,7 @@ import org.springframework.util.Assert;
 public class NpmRepositoryFeatures implements RepositoryFeatures
 {
 
-    private static final int CHANGES_BATCH_SIZE = 500;
+    static final int CHANGES_BATCH_SIZE = 500;
 
     private static final Logger logger = LoggerFactory.getLogger(NpmRepositoryFeatures.class);
 
@@ -90,6 +94,9 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
     @Inject
     private NpmPackageFeedParser npmPackageFeedParser;
 
+    @Inject
+    private ProxyRepositoryCacheValidators proxyRepositoryCacheValidators;
+
     private Set<String> defaultArtifactCoordinateValidators;
 
     @PostConstruct
@@ -187,15 +194,14 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         Long lastCnahgeId = configuration.getLastChangeId();
         String replicateUrl = configuration.getReplicateUrl();
 
-        Long nextChangeId = lastCnahgeId;
-        do
+        Long nextChangeId;
+        while ((nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId + 1))) > lastCnahgeId)
         {
+            // Checkpoint after each ingested batch, so that the catch up resumes from here if it stops.
             lastCnahgeId = nextChangeId;
-            mutableConfiguration.setLastChangeId(nextChangeId);
+            mutableConfiguration.setLastChangeId(lastCnahgeId);
             configurationManagementService.saveRepository(storageId, mutableRepository);
-
-            nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId + 1));
-        } while (nextChangeId > lastCnahgeId);
+        }
     }
 
     private Integer fetchRemoteChangesFeed(Repository repository,
@@ -248,7 +254,8 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             Assert.isTrue(jp.nextFieldName().equals("results"), "npm changes feed should contains `results` field.");
             Assert.isTrue(jp.nextToken() == JsonToken.START_ARRAY, "npm changes feed `results` should be array.");
 
-            StringBuffer sb = new StringBuffer();
+            List<PackageFeed> packageFeeds = new ArrayList<>(CHANGES_BATCH_SIZE);
+            int lastSeq = result;
             while (jp.nextToken() != null)
             {
                 JsonToken nextToken = jp.currentToken();
@@ -258,44 +265,37 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
                 }
 
                 JsonNode node = jp.readValueAsTree();
-                sb.append(node.toString());
-
-                String changeValue = sb.toString();
 
                 Change change;
                 try
                 {
-                    change = npmJacksonMapper.readValue(changeValue, Change.class);
+                    change = npmJacksonMapper.treeToValue(node, Change.class);
                 }
                 catch (Exception e)
                 {
                     logger.error(String.format("Failed to parse NPM cnahges feed [%s] since [%s]: %n %s",
                                                repositoryConfiguration.getReplicateUrl(),
                                                repositoryConfiguration.getLastChangeId(),
-                                               changeValue),
+                                               node),
                                  e);
 
-                    return result;
+                    break;
                 }
 
-                PackageFeed packageFeed = change.getDoc();
-                try
-                {
-                    npmPackageFeedParser.parseFeed(repository, packageFeed);
-                }
-                catch (Exception e)
+                packageFeeds.add(change.getDoc());
+                lastSeq = change.getSeq();
+
+                if (packageFeeds.size() >= CHANGES_BATCH_SIZE)
                 {
-                    logger.error(String.format("Failed to parse NPM feed [%s/%s]",
-                                               repository.getRemoteRepository().getUrl(),
-                                               packageFeed.getName()),
-                                 e);
+                    parseFeeds(repository, packageFeeds);
 
+                    result = lastSeq;
+                    packageFeeds.clear();
                 }
-
-                result = change.getSeq();
-                sb = new StringBuffer();
             }
 
+            parseFeeds(repository, packageFeeds);
+            result = lastSeq;
         }
 
         logger.debug(String.format("Fetched remote cnages for  [%s] since [%s].",
@@ -305,9 +305,52 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         return result;
     }
 
-    private void fetchRemotePackageFeed(String storageId,
-                                        String repositoryId,
-                                        String packageId)
+    private void parseFeeds(Repository repository,
+                            List<PackageFeed> packageFeeds)
+    {
+        if (packageFeeds.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            npmPackageFeedParser.parseFeeds(repository, packageFeeds);
+
+            return;
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to parse NPM feeds batch [%s], fall back to one by one parsing.",
+                                      repository.getRemoteRepository().getUrl()),
+                        e);
+        }
+
+        for (PackageFeed packageFeed : packageFeeds)
+        {
+            try
+            {
+                npmPackageFeedParser.parseFeed(repository, packageFeed);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to parse NPM feed [%s/%s]",
+                                           repository.getRemoteRepository().getUrl(),
+                                           packageFeed == null ? null : packageFeed.getName()),
+                             e);
+            }
+        }
+    }
+
+    /**
+     * @param revalidate
+     *            whether the package feed can be requested conditionally, which is the case if the package versions
+     *            have already been cached from the remote repository
+     */
+    void fetchRemotePackageFeed(String storageId,
+                                String repositoryId,
+                                String packageId,
+                                boolean revalidate)
     {
 
         Storage storage = getConfiguration().getStorage(storageId);
@@ -319,8 +362,10 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             return;
         }
         String remoteRepositoryUrl = remoteRepository.getUrl();
+        String cacheValidatorsKey = String.format("%s:%s/%s", storageId, repositoryId, packageId);
 
         PackageFeed packageFeed;
+        CacheValidators cacheValidators;
         Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
         try
         {
@@ -329,8 +374,35 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             WebTarget service = restClient.target(remoteRepository.getUrl());
             service = service.path(packageId);
 
-            InputStream inputStream = service.request().buildGet().invoke(InputStream.class);
-            packageFeed = npmJacksonMapper.readValue(inputStream, PackageFeed.class);
+            Invocation.Builder request = service.request();
+            CacheValidators currentCacheValidators = revalidate ? proxyRepositoryCacheValidators.get(cacheValidatorsKey)
+                    : null;
+            if (currentCacheValidators != null)
+            {
+                currentCacheValidators.apply(request);
+            }
+
+            Response response = request.get();
+            try
+            {
+                if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode())
+                {
+                    logger.debug(String.format("NPM package feed [%s] has not been modified in [%s].", packageId,
+                                               remoteRepositoryUrl));
+                    return;
+                }
+                if (response.getStatus() != Response.Status.OK.getStatusCode())
+                {
+                    throw new WebApplicationException(response);
+                }
+
+                packageFeed = npmJacksonMapper.readValue(response.readEntity(InputStream.class), PackageFeed.class);
+                cacheValidators = CacheValidators.of(response);
+            }
+            finally
+            {
+                response.close();
+            }
 
             logger.debug(String.format("Downloaded NPM changes feed for [%s].", remoteRepository.getUrl()));
 
@@ -355,7 +427,10 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
                                        repository.getRemoteRepository().getUrl(),
                                        packageFeed.getName()),
                          e);
+            cacheValidators = null;
         }
+
+        proxyRepositoryCacheValidators.put(cacheValidatorsKey, cacheValidators);
     }
 
     @Component
@@ -458,8 +533,9 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             logger.debug(String.format("NPM remote repository [%s] cached package count is [%s]", repository.getId(),
                                        packageCount));
 
+            boolean revalidate = packageCount.longValue() > 0;
             Runnable job = () -> fetchRemotePackageFeed(storage.getId(), repository.getId(),
-                                                        npmSearchRequest.getPackageId());
+                                                        npmSearchRequest.getPackageId(), revalidate);
             if (packageCount.longValue() == 0)
             {
                 // Syncronously fetch remote package feed if ve have no cached
@@ -0,0 +1,207 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.npm.metadata.PackageVersion;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class NpmPackageFeedCacheTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get(new File("target/strongbox-vault/storages/storage0/npm-package-feed-cache").getAbsolutePath());
+
+    private static final String PACKAGE_NAME = "npm-test";
+
+    private NpmPackageFeedCache npmPackageFeedCache;
+
+    private Repository repository;
+
+    /**
+     * The package versions which the database returns, committed or not.
+     */
+    private final AtomicReference<List<Path>> packageVersions = new AtomicReference<>();
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        repository = createRepository();
+
+        RepositoryProvider repositoryProvider = Mockito.mock(RepositoryProvider.class);
+        when(repositoryProvider.search(anyString(), anyString(), any(), any())).then(i -> packageVersions.get());
+
+        RepositoryProviderRegistry repositoryProviderRegistry = Mockito.mock(RepositoryProviderRegistry.class);
+        when(repositoryProviderRegistry.getProvider(anyString())).thenReturn(repositoryProvider);
+
+        NpmPackageSupplier npmPackageSupplier = Mockito.mock(NpmPackageSupplier.class);
+        when(npmPackageSupplier.apply(any())).then(i -> packageDesc(i.getArgument(0)));
+
+        npmPackageFeedCache = new NpmPackageFeedCache();
+        ReflectionTestUtils.setField(npmPackageFeedCache, "enabled", true);
+        ReflectionTestUtils.setField(npmPackageFeedCache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(npmPackageFeedCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(npmPackageFeedCache, "repositoryProviderRegistry", repositoryProviderRegistry);
+        ReflectionTestUtils.setField(npmPackageFeedCache, "npmPackageSupplier", npmPackageSupplier);
+        ReflectionTestUtils.setField(npmPackageFeedCache, "npmJacksonMapper", new ObjectMapper());
+        npmPackageFeedCache.afterPropertiesSet();
+
+        packageVersions.set(Collections.singletonList(resolve("1.0.0")));
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void feedBuiltBeforeTheCommitShouldNotBeCached()
+        throws Exception
+    {
+        assertFalse(getFeed().contains("1.1.0"));
+
+        // The package is stored within a transaction, which dispatches the event before the commit.
+        TransactionSynchronizationManager.initSynchronization();
+        npmPackageFeedCache.handleEvent(new ArtifactEvent<>(resolve("1.1.0"),
+                                                            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        // A concurrent request reads the database before the commit.
+        assertFalse(getFeed().contains("1.1.0"));
+
+        packageVersions.set(Arrays.asList(resolve("1.0.0"), resolve("1.1.0")));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(getFeed().contains("1.1.0"));
+    }
+
+    @Test
+    public void feedShouldBeInvalidatedWithoutTransaction()
+        throws Exception
+    {
+        assertFalse(getFeed().contains("1.1.0"));
+
+        packageVersions.set(Arrays.asList(resolve("1.0.0"), resolve("1.1.0")));
+        npmPackageFeedCache.handleEvent(new ArtifactEvent<>(resolve("1.1.0"),
+                                                            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        assertTrue(getFeed().contains("1.1.0"));
+    }
+
+    @Test
+    public void feedShouldBeCachedUntilInvalidated()
+        throws Exception
+    {
+        assertFalse(getFeed().contains("1.1.0"));
+
+        packageVersions.set(Arrays.asList(resolve("1.0.0"), resolve("1.1.0")));
+
+        assertFalse(getFeed().contains("1.1.0"));
+
+        npmPackageFeedCache.invalidateAll(repository);
+
+        assertTrue(getFeed().contains("1.1.0"));
+    }
+
+    private String getFeed()
+        throws Exception
+    {
+        return new String(npmPackageFeedCache.get(repository, null, PACKAGE_NAME).getContent(false, false),
+                          StandardCharsets.UTF_8);
+    }
+
+    private static NpmPackageDesc packageDesc(Path path)
+    {
+        PackageVersion packageVersion = new PackageVersion();
+        packageVersion.setVersion(path.getParent().getFileName().toString());
+
+        NpmPackageDesc result = new NpmPackageDesc();
+        result.setNpmPackage(packageVersion);
+        result.setReleaseDate(new Date());
+
+        return result;
+    }
+
+    private RepositoryPath resolve(String version)
+    {
+        return repositoryPath().resolve(String.format("%s/%s/%s/%s-%s.tgz",
+                                                      PACKAGE_NAME, PACKAGE_NAME, version, PACKAGE_NAME, version));
+    }
+
+    private static Repository createRepository()
+    {
+        MutableRepository repository = new MutableRepository("npm-releases");
+        repository.setLayout(NpmLayoutProvider.ALIAS);
+        repository.setType(RepositoryTypeEnum.HOSTED.getType());
+        repository.setBasedir(REPOSITORY_BASEDIR.resolve("npm-releases").toString());
+        repository.setStorage(new MutableStorage("storage0", REPOSITORY_BASEDIR.toString()));
+
+        return new Repository(repository);
+    }
+
+    private RepositoryPath repositoryPath()
+    {
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                return Arrays.stream(attributeTypes).collect(Collectors.toMap(Function.identity(), t -> false));
+            }
+        };
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(repository, FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        return fileSystem.getRootDirectory();
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class NpmPackageFeedContentTest
+{
+
+    private static final byte[] CONTENT = "{\"name\":\"npm-test\",\"versions\":{}}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] ABBREVIATED_CONTENT = "{\"name\":\"npm-test\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void eachRepresentationShouldHaveItsOwnETag()
+    {
+        NpmPackageFeedContent content = new NpmPackageFeedContent(CONTENT, ABBREVIATED_CONTENT);
+
+        assertNotEquals(content.getETag(false, false), content.getETag(false, true));
+        assertNotEquals(content.getETag(false, false), content.getETag(true, false));
+        assertNotEquals(content.getETag(true, false), content.getETag(true, true));
+        assertNotEquals(content.getETag(false, true), content.getETag(true, true));
+    }
+
+    @Test
+    public void gzippedContentShouldBeComputedOnce()
+        throws IOException
+    {
+        NpmPackageFeedContent content = new NpmPackageFeedContent(CONTENT, ABBREVIATED_CONTENT);
+
+        byte[] gzipped = content.getContent(false, true);
+
+        assertSame(gzipped, content.getContent(false, true));
+        assertArrayEquals(CONTENT, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+        assertArrayEquals(ABBREVIATED_CONTENT,
+                          IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(content.getContent(true,
+                                                                                                               true)))));
+    }
+
+    @Test
+    public void gzipShouldBeAcceptedAccordingToQualityValues()
+    {
+        assertTrue(NpmPackageFeedContent.isGzipAccepted("gzip"));
+        assertTrue(NpmPackageFeedContent.isGzipAccepted("deflate, gzip"));
+        assertTrue(NpmPackageFeedContent.isGzipAccepted("gzip;q=0.5, identity"));
+        assertTrue(NpmPackageFeedContent.isGzipAccepted("GZIP ; q=1.0"));
+        assertTrue(NpmPackageFeedContent.isGzipAccepted("x-gzip"));
+        assertTrue(NpmPackageFeedContent.isGzipAccepted("*"));
+
+        assertFalse(NpmPackageFeedContent.isGzipAccepted(null));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted(""));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted("identity"));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted("gzip;q=0"));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted("gzip;q=0.000, identity"));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted("*, gzip;q=0"));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted("*;q=0"));
+        assertFalse(NpmPackageFeedContent.isGzipAccepted("br, deflate"));
+    }
+
+}
@@ -0,0 +1,282 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.jackson.NpmJacksonMapperFactory;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCacheValidators;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.MutableRemoteRepository;
+import org.carlspring.strongbox.xml.configuration.repository.remote.MutableNpmRemoteRepositoryConfiguration;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.carlspring.strongbox.repository.NpmRepositoryFeatures.CHANGES_BATCH_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Remote changes feed is ingested in batches, and the last change id is saved after each fetched page. Package feeds
+ * are requested conditionally, with the validators of the previous response.
+ */
+public class NpmRepositoryFeaturesTest
+{
+
+    private static final String STORAGE_ID = "storage-npm";
+
+    private static final String REPOSITORY_ID = "npmjs";
+
+    private static final String PACKAGE_ID = "left-pad";
+
+    private static final String PACKAGE_FEED_KEY = String.format("%s:%s/%s", STORAGE_ID, REPOSITORY_ID, PACKAGE_ID);
+
+    private NpmRepositoryFeatures features;
+
+    private NpmPackageFeedParser npmPackageFeedParser;
+
+    private WebTarget webTarget;
+
+    private Invocation invocation;
+
+    private Invocation.Builder request;
+
+    private ProxyRepositoryCacheValidators cacheValidators;
+
+    private List<Integer> parsedBatches;
+
+    private List<Long> checkpoints;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        MutableNpmRemoteRepositoryConfiguration npmConfiguration = new MutableNpmRemoteRepositoryConfiguration();
+        npmConfiguration.setReplicateUrl("https://replicate.npmjs.com");
+
+        MutableRemoteRepository remoteRepository = new MutableRemoteRepository();
+        remoteRepository.setUrl("https://registry.npmjs.org");
+        remoteRepository.setCustomConfiguration(npmConfiguration);
+
+        MutableStorage storage = new MutableStorage(STORAGE_ID);
+        MutableRepository repository = new MutableRepository(REPOSITORY_ID);
+        repository.setStorage(storage);
+        repository.setRemoteRepository(remoteRepository);
+        storage.addRepository(repository);
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        configuration.addStorage(storage);
+
+        ConfigurationManager configurationManager = mock(ConfigurationManager.class);
+        when(configurationManager.getConfiguration()).thenReturn(new Configuration(configuration));
+
+        checkpoints = new ArrayList<>();
+        ConfigurationManagementService configurationManagementService = mock(ConfigurationManagementService.class);
+        when(configurationManagementService.getMutableConfigurationClone()).thenReturn(configuration);
+        doAnswer(i -> checkpoints.add(npmConfiguration.getLastChangeId())).when(configurationManagementService)
+                                                                           .saveRepository(eq(STORAGE_ID),
+                                                                                           any(MutableRepository.class));
+
+        parsedBatches = new ArrayList<>();
+        npmPackageFeedParser = mock(NpmPackageFeedParser.class);
+        doAnswer(i -> parsedBatches.add(((Collection<?>) i.getArgument(1)).size())).when(npmPackageFeedParser)
+                                                                                 .parseFeeds(any(Repository.class),
+                                                                                             anyCollection());
+
+        invocation = mock(Invocation.class);
+        request = mock(Invocation.Builder.class);
+        when(request.buildGet()).thenReturn(invocation);
+        when(request.header(anyString(), any())).thenReturn(request);
+
+        webTarget = mock(WebTarget.class);
+        when(webTarget.path(anyString())).thenReturn(webTarget);
+        when(webTarget.queryParam(anyString(), any())).thenReturn(webTarget);
+        when(webTarget.request()).thenReturn(request);
+
+        Client client = mock(Client.class);
+        when(client.target(anyString())).thenReturn(webTarget);
+
+        ProxyRepositoryConnectionPoolConfigurationService connectionPoolConfigurationService = mock(
+                ProxyRepositoryConnectionPoolConfigurationService.class);
+        when(connectionPoolConfigurationService.getRestClient()).thenReturn(client);
+
+        cacheValidators = new ProxyRepositoryCacheValidators();
+        ReflectionTestUtils.setField(cacheValidators, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheValidators, "maxSize", 1000L);
+        cacheValidators.afterPropertiesSet();
+
+        features = new NpmRepositoryFeatures();
+        ReflectionTestUtils.setField(features, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(features, "configurationManagementService", configurationManagementService);
+        ReflectionTestUtils.setField(features, "proxyRepositoryConnectionPoolConfigurationService",
+                                     connectionPoolConfigurationService);
+        ReflectionTestUtils.setField(features, "npmPackageFeedParser", npmPackageFeedParser);
+        ReflectionTestUtils.setField(features, "npmJacksonMapper", NpmJacksonMapperFactory.createObjectMapper());
+        ReflectionTestUtils.setField(features, "proxyRepositoryCacheValidators", cacheValidators);
+    }
+
+    @Test
+    public void changesShouldBeParsedInBatches()
+        throws IOException
+    {
+        when(invocation.invoke(InputStream.class)).thenReturn(changesFeed(1, CHANGES_BATCH_SIZE + 1),
+                                                              changesFeed(0, 0));
+
+        features.fetchRemoteChangesFeed(STORAGE_ID, REPOSITORY_ID);
+
+        assertEquals(Arrays.asList(CHANGES_BATCH_SIZE, 1), parsedBatches);
+        assertEquals(Arrays.asList(Long.valueOf(CHANGES_BATCH_SIZE + 1)), checkpoints);
+    }
+
+    @Test
+    public void lastChangeIdShouldBeSavedAfterEachFetch()
+        throws IOException
+    {
+        when(invocation.invoke(InputStream.class)).thenReturn(changesFeed(1, 3), changesFeed(4, 2),
+                                                              changesFeed(0, 0));
+
+        features.fetchRemoteChangesFeed(STORAGE_ID, REPOSITORY_ID);
+
+        assertEquals(Arrays.asList(3L, 5L), checkpoints);
+        verify(webTarget).queryParam("since", 1L);
+        verify(webTarget).queryParam("since", 4L);
+        verify(webTarget).queryParam("since", 6L);
+    }
+
+    @Test
+    public void failedBatchShouldBeParsedOneByOne()
+        throws IOException
+    {
+        doThrow(new IllegalStateException("Broken batch.")).when(npmPackageFeedParser)
+                                                             .parseFeeds(any(Repository.class), anyCollection());
+        doThrow(new IllegalStateException("Broken feed.")).doNothing()
+                                                            .when(npmPackageFeedParser)
+                                                            .parseFeed(any(Repository.class), any(PackageFeed.class));
+        when(invocation.invoke(InputStream.class)).thenReturn(changesFeed(1, 3), changesFeed(0, 0));
+
+        features.fetchRemoteChangesFeed(STORAGE_ID, REPOSITORY_ID);
+
+        verify(npmPackageFeedParser, times(3)).parseFeed(any(Repository.class), any(PackageFeed.class));
+        assertEquals(Arrays.asList(3L), checkpoints);
+    }
+
+    @Test
+    public void notModifiedPackageFeedShouldNotBeParsed()
+    {
+        cacheValidators.put(PACKAGE_FEED_KEY, new CacheValidators("\"v1\"", null));
+
+        Response response = packageFeedResponse(304, null);
+        when(request.get()).thenReturn(response);
+
+        features.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID, true);
+
+        verify(request).header(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        verify(response, never()).readEntity(InputStream.class);
+        verify(npmPackageFeedParser, never()).parseFeed(any(Repository.class), any(PackageFeed.class));
+        assertEquals("\"v1\"", cacheValidators.get(PACKAGE_FEED_KEY).getEntityTag());
+    }
+
+    @Test
+    public void modifiedPackageFeedShouldBeParsedAndKeepTheNewValidators()
+    {
+        cacheValidators.put(PACKAGE_FEED_KEY, new CacheValidators("\"v1\"", null));
+
+        Response response = packageFeedResponse(200, "\"v2\"");
+        when(request.get()).thenReturn(response);
+
+        features.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID, true);
+
+        verify(request).header(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        verify(npmPackageFeedParser).parseFeed(any(Repository.class), any(PackageFeed.class));
+        assertEquals("\"v2\"", cacheValidators.get(PACKAGE_FEED_KEY).getEntityTag());
+    }
+
+    @Test
+    public void packageFeedWithoutValidatorsShouldBeRequestedUnconditionally()
+    {
+        Response response = packageFeedResponse(200, null);
+        when(request.get()).thenReturn(response);
+
+        features.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID, true);
+
+        verify(request, never()).header(anyString(), any());
+        verify(npmPackageFeedParser).parseFeed(any(Repository.class), any(PackageFeed.class));
+        assertNull(cacheValidators.get(PACKAGE_FEED_KEY));
+    }
+
+    @Test
+    public void notCachedPackageFeedShouldNotBeRevalidated()
+    {
+        cacheValidators.put(PACKAGE_FEED_KEY, new CacheValidators("\"v1\"", null));
+
+        Response response = packageFeedResponse(200, "\"v2\"");
+        when(request.get()).thenReturn(response);
+
+        features.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID, false);
+
+        verify(request, never()).header(anyString(), any());
+        assertEquals("\"v2\"", cacheValidators.get(PACKAGE_FEED_KEY).getEntityTag());
+    }
+
+    private static Response packageFeedResponse(int status,
+                                                String entityTag)
+    {
+        String feed = String.format("{\"_id\": \"%s\", \"name\": \"%s\"}", PACKAGE_ID, PACKAGE_ID);
+
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(entityTag);
+        when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+
+        return response;
+    }
+
+    private static InputStream changesFeed(int since,
+                                           int count)
+    {
+        StringBuilder feed = new StringBuilder("{\"results\": [");
+        for (int seq = since; seq < since + count; seq++)
+        {
+            feed.append(seq > since ? "," : "")
+                .append(String.format("{\"seq\": %s, \"id\": \"package-%s\", \"changes\": [], " +
+                                      "\"doc\": {\"_id\": \"package-%s\", \"name\": \"package-%s\"}}",
+                                      seq, seq, seq, seq));
+        }
+        feed.append(String.format("], \"last_seq\": %s}", since + count - 1));
+
+        return new ByteArrayInputStream(feed.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
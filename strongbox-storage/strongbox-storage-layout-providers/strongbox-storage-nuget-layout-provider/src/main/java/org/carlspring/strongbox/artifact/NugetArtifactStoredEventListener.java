@@ -0,0 +1,177 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetPackageAttributes;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.NugetLayoutProvider;
+import org.carlspring.strongbox.storage.metadata.nuget.Framework;
+import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the `.nuspec` fields, the target frameworks and the hash of the NuGet package into the
+ * {@link ArtifactEntry} attributes, once the package has been pushed or cached from the remote repository.
+ *
+ * @see NugetPackageAttributes
+ */
+@Component
+public class NugetArtifactStoredEventListener
+        extends AsyncArtifactEntryHandler
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NugetArtifactStoredEventListener.class);
+
+    private static final String LIBRARY_FOLDER = "lib/";
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    public NugetArtifactStoredEventListener()
+    {
+        this(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED);
+    }
+
+    protected NugetArtifactStoredEventListener(ArtifactEventTypeEnum eventType)
+    {
+        super(eventType);
+    }
+
+    @Override
+    protected boolean supports(RepositoryPath repositoryPath)
+    {
+        return NugetLayoutProvider.ALIAS.equals(repositoryPath.getRepository().getLayout()) &&
+               repositoryPath.getFileName().toString().endsWith(".nupkg");
+    }
+
+    @Override
+    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
+        if (artifactEntry == null)
+        {
+            logger.warn(String.format("No [%s] for [%s].",
+                                      ArtifactEntry.class.getSimpleName(),
+                                      repositoryPath));
+
+            return null;
+        }
+
+        Map<String, String> packageAttributes;
+
+        Lock lock = repositoryPathLock.lock(repositoryPath).readLock();
+        lock.lock();
+        try
+        {
+            packageAttributes = readPackageAttributes(repositoryPath);
+        }
+        catch (NugetFormatException e)
+        {
+            logger.error(String.format("Failed to read Nuget package specification [%s]", repositoryPath), e);
+
+            return null;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (packageAttributes == null)
+        {
+            logger.warn(String.format("No .nuspec found in [%s].", repositoryPath));
+
+            return null;
+        }
+
+        artifactEntry.getArtifactAttributes().putAll(packageAttributes);
+
+        return artifactEntry;
+    }
+
+    private Map<String, String> readPackageAttributes(RepositoryPath repositoryPath)
+        throws IOException,
+               NugetFormatException
+    {
+        Nuspec nuspec = null;
+        Set<Framework> libraryFrameworks = EnumSet.noneOf(Framework.class);
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(Files.newInputStream(repositoryPath))))
+        {
+            for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry())
+            {
+                String name = entry.getName();
+                if (nuspec == null && !entry.isDirectory() && name.indexOf('/') < 0 &&
+                    name.endsWith(Nuspec.DEFAULT_FILE_EXTENSION))
+                {
+                    nuspec = Nuspec.parse(new CloseShieldInputStream(zipInputStream));
+                }
+                else if (name.startsWith(LIBRARY_FOLDER) && name.indexOf('/', LIBRARY_FOLDER.length()) > 0)
+                {
+                    String folder = name.substring(LIBRARY_FOLDER.length(), name.indexOf('/', LIBRARY_FOLDER.length()));
+                    Framework framework = Framework.getByShortName(folder);
+                    if (framework != null)
+                    {
+                        libraryFrameworks.add(framework);
+                    }
+                }
+            }
+        }
+
+        if (nuspec == null)
+        {
+            return null;
+        }
+
+        return NugetPackageAttributes.of(nuspec, libraryFrameworks, readHash(repositoryPath));
+    }
+
+    private String readHash(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Map<String, RepositoryPath> checksumPathMap = repositoryPath.getFileSystem()
+                                                                    .provider()
+                                                                    .resolveChecksumPathMap(repositoryPath);
+        // Nuget package should have only one checksum digest algorithm.
+        RepositoryPath checksumPath = checksumPathMap.values().stream().findFirst().orElse(null);
+        if (checksumPath == null || !Files.exists(checksumPath))
+        {
+            return null;
+        }
+
+        List<String> checksumContents = Files.readAllLines(checksumPath);
+
+        return checksumContents.size() == 1 ? checksumContents.get(0) : null;
+    }
+
+    @Component
+    public static class NugetArtifactUpdatedEventListener
+            extends NugetArtifactStoredEventListener
+    {
+
+        public NugetArtifactUpdatedEventListener()
+        {
+            super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+        }
+
+    }
+
+}
@@ -0,0 +1,276 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import org.carlspring.strongbox.storage.metadata.nuget.DependenciesGroup;
+import org.carlspring.strongbox.storage.metadata.nuget.Dependency;
+import org.carlspring.strongbox.storage.metadata.nuget.Framework;
+import org.carlspring.strongbox.storage.metadata.nuget.FrameworkAssembly;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.aristar.jnuget.files.NugetFormatException;
+import ru.aristar.jnuget.files.nuspec.Dependencies;
+import ru.aristar.jnuget.files.nuspec.NuspecFile;
+import ru.aristar.jnuget.files.nuspec.NuspecFile.Metadata;
+
+/**
+ * The NuGet package fields, which are stored as {@link org.carlspring.strongbox.domain.ArtifactEntry} attributes of
+ * the `.nupkg` artifact, so that the package feeds can be provided without reading the `.nuspec` and checksum files
+ * of each package.
+ *
+ * @see PathNupkg
+ */
+public class NugetPackageAttributes
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NugetPackageAttributes.class);
+
+    public static final String INDEXED = "nuget.indexed";
+
+    public static final String TITLE = "nuget.title";
+
+    public static final String AUTHORS = "nuget.authors";
+
+    public static final String OWNERS = "nuget.owners";
+
+    public static final String DESCRIPTION = "nuget.description";
+
+    public static final String SUMMARY = "nuget.summary";
+
+    public static final String RELEASE_NOTES = "nuget.releaseNotes";
+
+    public static final String COPYRIGHT = "nuget.copyright";
+
+    public static final String LANGUAGE = "nuget.language";
+
+    public static final String TAGS = "nuget.tags";
+
+    public static final String PROJECT_URL = "nuget.projectUrl";
+
+    public static final String ICON_URL = "nuget.iconUrl";
+
+    public static final String LICENSE_URL = "nuget.licenseUrl";
+
+    public static final String REQUIRE_LICENSE_ACCEPTANCE = "nuget.requireLicenseAcceptance";
+
+    public static final String DEPENDENCIES = "nuget.dependencies";
+
+    public static final String TARGET_FRAMEWORKS = "nuget.targetFrameworks";
+
+    public static final String HASH = "nuget.hash";
+
+    private static final String LIST_SEPARATOR = ",";
+
+    /**
+     * Dependencies are stored in the NuGet feed format (`id:versionRange:targetFramework`), and the version ranges
+     * contain commas, so they are separated in the same way as within the feeds.
+     */
+    private static final String DEPENDENCY_SEPARATOR = "|";
+
+    private NugetPackageAttributes()
+    {
+    }
+
+    /**
+     * @param nuspec
+     *            the package specification
+     * @param libraryFrameworks
+     *            frameworks of the `lib` folders of the package
+     * @param hash
+     *            Base64 encoded package hash, can be <code>null</code>
+     * @return the package attributes
+     */
+    public static Map<String, String> of(Nuspec nuspec,
+                                         Collection<Framework> libraryFrameworks,
+                                         String hash)
+    {
+        Map<String, String> result = new HashMap<>();
+        result.put(INDEXED, Boolean.TRUE.toString());
+
+        putIfNotNull(result, TITLE, nuspec.getTitle());
+        putIfNotNull(result, AUTHORS, nuspec.getAuthors());
+        putIfNotNull(result, OWNERS, nuspec.getOwners());
+        putIfNotNull(result, DESCRIPTION, nuspec.getDescription());
+        putIfNotNull(result, SUMMARY, nuspec.getSummary());
+        putIfNotNull(result, RELEASE_NOTES, nuspec.getReleaseNotes());
+        putIfNotNull(result, COPYRIGHT, nuspec.getCopyright());
+        putIfNotNull(result, LANGUAGE, nuspec.getLanguage());
+        putIfNotNull(result, PROJECT_URL, nuspec.getProjectUrl());
+        putIfNotNull(result, ICON_URL, nuspec.getIconUrl());
+        putIfNotNull(result, LICENSE_URL, nuspec.getLicenseUrl());
+        putIfNotNull(result, HASH, hash);
+        result.put(REQUIRE_LICENSE_ACCEPTANCE, String.valueOf(nuspec.isRequireLicenseAcceptance()));
+
+        if (!nuspec.getTags().isEmpty())
+        {
+            result.put(TAGS, String.join(" ", nuspec.getTags()));
+        }
+
+        Set<String> frameworks = new TreeSet<>();
+        List<String> dependencies = new ArrayList<>();
+        if (nuspec.getMetadata().dependencies != null)
+        {
+            for (DependenciesGroup group : nuspec.getDependenciesGroups())
+            {
+                Framework targetFramework = group.getTargetFramework();
+                if (targetFramework != null)
+                {
+                    frameworks.add(targetFramework.name());
+                }
+                group.getDependencies()
+                     .stream()
+                     .map(d -> toDependencyString(d, targetFramework))
+                     .forEach(dependencies::add);
+            }
+        }
+        if (!dependencies.isEmpty())
+        {
+            result.put(DEPENDENCIES, String.join(DEPENDENCY_SEPARATOR, dependencies));
+        }
+
+        // Package without any framework specific content is compatible with every framework, so the attribute is
+        // omitted.
+        libraryFrameworks.stream().map(Framework::name).forEach(frameworks::add);
+        nuspec.getFrameworkAssembly()
+              .stream()
+              .map(FrameworkAssembly::getTargetFrameworks)
+              .filter(f -> f != null)
+              .flatMap(Set::stream)
+              .map(Framework::name)
+              .forEach(frameworks::add);
+        if (!frameworks.isEmpty())
+        {
+            result.put(TARGET_FRAMEWORKS, String.join(LIST_SEPARATOR, frameworks));
+        }
+
+        return result;
+    }
+
+    public static boolean isIndexed(Map<String, String> attributes)
+    {
+        return attributes != null && Boolean.parseBoolean(attributes.get(INDEXED));
+    }
+
+    /**
+     * Restores the package specification from the attributes.
+     */
+    public static NuspecFile toNuspecFile(NugetArtifactCoordinates coordinates,
+                                          Map<String, String> attributes)
+        throws NugetFormatException
+    {
+        NuspecFile result = new NuspecFile();
+
+        Metadata metadata = result.getMetadata();
+        metadata.id = coordinates.getId();
+        metadata.version = ru.aristar.jnuget.Version.parse(coordinates.getVersion());
+        metadata.title = attributes.getOrDefault(TITLE, metadata.id);
+        metadata.authors = attributes.get(AUTHORS);
+        metadata.owners = attributes.get(OWNERS);
+        metadata.description = attributes.get(DESCRIPTION);
+        metadata.summary = attributes.get(SUMMARY);
+        metadata.releaseNotes = attributes.get(RELEASE_NOTES);
+        metadata.copyright = attributes.get(COPYRIGHT);
+        metadata.language = attributes.get(LANGUAGE);
+        metadata.projectUrl = attributes.get(PROJECT_URL);
+        metadata.iconUrl = attributes.get(ICON_URL);
+        metadata.licenseUrl = attributes.get(LICENSE_URL);
+        metadata.requireLicenseAcceptance = Boolean.valueOf(attributes.get(REQUIRE_LICENSE_ACCEPTANCE));
+
+        String tags = attributes.get(TAGS);
+        if (StringUtils.isNotBlank(tags))
+        {
+            metadata.tags = new ArrayList<>(Arrays.asList(StringUtils.split(tags)));
+        }
+
+        String dependencies = attributes.get(DEPENDENCIES);
+        if (StringUtils.isNotBlank(dependencies))
+        {
+            metadata.dependencies = new Dependencies();
+            metadata.dependencies.dependencies = new ArrayList<>();
+            for (String dependency : StringUtils.split(dependencies, DEPENDENCY_SEPARATOR))
+            {
+                try
+                {
+                    ru.aristar.jnuget.Dependency parsedDependency = ru.aristar.jnuget.Dependency.parseString(dependency);
+                    if (parsedDependency != null)
+                    {
+                        metadata.dependencies.dependencies.add(parsedDependency);
+                    }
+                }
+                catch (NugetFormatException e)
+                {
+                    logger.warn(String.format("Failed to parse dependency [%s] of [%s]", dependency, coordinates));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the package target frameworks, all the frameworks if the package is compatible with any of them
+     */
+    public static EnumSet<ru.aristar.jnuget.files.Framework> getTargetFrameworks(Map<String, String> attributes)
+    {
+        String frameworks = attributes.get(TARGET_FRAMEWORKS);
+        if (StringUtils.isBlank(frameworks))
+        {
+            return EnumSet.allOf(ru.aristar.jnuget.files.Framework.class);
+        }
+
+        EnumSet<ru.aristar.jnuget.files.Framework> result = EnumSet.noneOf(ru.aristar.jnuget.files.Framework.class);
+        for (String framework : StringUtils.split(frameworks, LIST_SEPARATOR))
+        {
+            try
+            {
+                result.add(ru.aristar.jnuget.files.Framework.valueOf(framework));
+            }
+            catch (IllegalArgumentException e)
+            {
+                logger.debug(String.format("Unknown framework [%s]", framework));
+            }
+        }
+
+        return result.isEmpty() ? EnumSet.allOf(ru.aristar.jnuget.files.Framework.class) : result;
+    }
+
+    private static String toDependencyString(Dependency dependency,
+                                             Framework targetFramework)
+    {
+        Framework framework = targetFramework != null ? targetFramework : dependency.framework;
+
+        StringBuilder result = new StringBuilder(dependency.getId()).append(':');
+        if (dependency.versionRange != null)
+        {
+            result.append(dependency.versionRange);
+        }
+        if (framework != null)
+        {
+            result.append(':').append(framework.getShortName());
+        }
+
+        return result.toString();
+    }
+
+    private static void putIfNotNull(Map<String, String> attributes,
+                                     String key,
+                                     String value)
+    {
+        if (value != null)
+        {
+            attributes.put(key, value);
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ public class PathNupkg implements Nupkg
     private NuspecFile nuspecFile;
     private Hash hash;
     private NugetArtifactCoordinates artifactCoordinates;
+    private Map<String, String> packageAttributes;
     private boolean exists;
 
     public PathNupkg(RepositoryPath path)
@@ -41,8 +42,22 @@ public class PathNupkg implements Nupkg
         
         this.path = path;
         this.artifactCoordinates = (NugetArtifactCoordinates) path.getArtifactEntry().getArtifactCoordinates();
-        this.nuspecFile = createNuspecFile();
-        this.hash = createHash();
+        this.packageAttributes = path.getArtifactEntry().getArtifactAttributes();
+
+        // Packages stored before the package attributes were introduced still need to be read from the storage.
+        if (NugetPackageAttributes.isIndexed(packageAttributes))
+        {
+            this.exists = true;
+            this.nuspecFile = NugetPackageAttributes.toNuspecFile(artifactCoordinates, packageAttributes);
+            this.hash = packageAttributes.containsKey(NugetPackageAttributes.HASH) ?
+                        new Hash(Base64.getDecoder().decode(packageAttributes.get(NugetPackageAttributes.HASH))) :
+                        createHash();
+        }
+        else
+        {
+            this.nuspecFile = createNuspecFile();
+            this.hash = createHash();
+        }
     }
 
     public RepositoryPath getPath()
@@ -179,8 +194,12 @@ public class PathNupkg implements Nupkg
     @Override
     public EnumSet<Framework> getTargetFramework()
     {
-        // TODO: add framework into RepositoryPath attributes for nuget packages.
-        return EnumSet.allOf(Framework.class);
+        if (!NugetPackageAttributes.isIndexed(packageAttributes))
+        {
+            return EnumSet.allOf(Framework.class);
+        }
+
+        return NugetPackageAttributes.getTargetFrameworks(packageAttributes);
     }
 
     @Override
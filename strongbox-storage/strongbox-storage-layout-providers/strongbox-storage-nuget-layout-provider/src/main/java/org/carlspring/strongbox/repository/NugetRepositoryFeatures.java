@@ -4,6 +4,7 @@ import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
 import org.carlspring.strongbox.client.ArtifactTransportException;
+import org.carlspring.strongbox.client.CacheValidators;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
@@ -21,6 +22,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCacheValidators;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
@@ -37,8 +39,11 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -104,6 +109,9 @@ public class NugetRepositoryFeatures
 
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private ProxyRepositoryCacheValidators proxyRepositoryCacheValidators;
     
     private Set<String> defaultMavenArtifactCoordinateValidators;
 
@@ -165,16 +173,35 @@ public class NugetRepositoryFeatures
         paginator.setSkip(skip);
 
         PackageFeed packageFeed;
+        CacheValidators cacheValidators;
+        String cacheValidatorsKey;
         Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
         try
         {
             logger.debug(String.format("Downloading remote feed for [%s].", remoteRepositoryUrl));
 
             WebTarget service = restClient.target(remoteRepository.getUrl());
-            packageFeed = queryParams(service.path("Search()"), nugetSearchRequest, paginator).request()
-                                                                                              .buildGet()
-                                                                                              .invoke(PackageFeed.class);
-            
+            WebTarget target = queryParams(service.path("Search()"), nugetSearchRequest, paginator);
+            cacheValidatorsKey = getCacheValidatorsKey(repository, target);
+
+            Response response = requestRemoteFeed(target, cacheValidatorsKey);
+            try
+            {
+                if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode())
+                {
+                    // Only the pages with entries are revalidated, so there might be more pages.
+                    logger.debug(String.format("Remote feed [%s] has not been modified.", target.getUri()));
+                    return true;
+                }
+
+                packageFeed = readRemoteFeed(response);
+                cacheValidators = CacheValidators.of(response);
+            }
+            finally
+            {
+                response.close();
+            }
+
             logger.debug(String.format("Downloaded remote feed for [%s], size [%s].",
                                        remoteRepository.getUrl(),
                                        Optional.of(packageFeed).map(f -> f.getEntries().size()).orElse(0)));
@@ -195,10 +222,49 @@ public class NugetRepositoryFeatures
         }
 
         parseFeed(repository, packageFeed);
+        proxyRepositoryCacheValidators.put(cacheValidatorsKey, cacheValidators);
 
         return true;
     }
 
+    /**
+     * Requests the remote feed conditionally, if the validators of the previous response are known.
+     *
+     * @param cacheValidatorsKey
+     *            the key of the previous response validators, or <code>null</code> to request the feed
+     *            unconditionally
+     */
+    private Response requestRemoteFeed(WebTarget target,
+                                       String cacheValidatorsKey)
+    {
+        Invocation.Builder request = target.request();
+
+        CacheValidators cacheValidators = cacheValidatorsKey == null ? null
+                : proxyRepositoryCacheValidators.get(cacheValidatorsKey);
+        if (cacheValidators != null)
+        {
+            cacheValidators.apply(request);
+        }
+
+        return request.get();
+    }
+
+    private PackageFeed readRemoteFeed(Response response)
+    {
+        if (response.getStatus() != Response.Status.OK.getStatusCode())
+        {
+            throw new WebApplicationException(response);
+        }
+
+        return response.readEntity(PackageFeed.class);
+    }
+
+    private String getCacheValidatorsKey(Repository repository,
+                                         WebTarget target)
+    {
+        return String.format("%s:%s/%s", repository.getStorage().getId(), repository.getId(), target.getUri());
+    }
+
     private void parseFeed(Repository repository,
                            PackageFeed packageFeed) throws IOException
     {
@@ -314,6 +380,8 @@ public class NugetRepositoryFeatures
 
             Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
             PackageFeed feed;
+            CacheValidators cacheValidators;
+            String cacheValidatorsKey;
             try
             {
                 WebTarget service = restClient.target(remoteRepository.getUrl());
@@ -335,9 +403,26 @@ public class NugetRepositoryFeatures
                 logger.debug(String.format("Downloading remote feed for [%s].",
                                            remoteRepository.getUrl()));
 
-                feed = queryParams(service.path("Search()"), nugetSearchRequest, event.getPaginator()).request()
-                                                                                                      .buildGet()
-                                                                                                      .invoke(PackageFeed.class);
+                WebTarget target = queryParams(service.path("Search()"), nugetSearchRequest, event.getPaginator());
+                cacheValidatorsKey = getCacheValidatorsKey(repository, target);
+
+                // The feed can be requested conditionally only if its packages have already been cached.
+                Response response = requestRemoteFeed(target, packageCount.longValue() > 0 ? cacheValidatorsKey : null);
+                try
+                {
+                    if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode())
+                    {
+                        logger.debug(String.format("Remote feed [%s] has not been modified.", target.getUri()));
+                        return;
+                    }
+
+                    feed = readRemoteFeed(response);
+                    cacheValidators = CacheValidators.of(response);
+                }
+                finally
+                {
+                    response.close();
+                }
 
                 logger.debug(String.format("Downloaded remote feed for [%s], size [%s].",
                                            remoteRepository.getUrl(),
@@ -355,6 +440,9 @@ public class NugetRepositoryFeatures
             }
 
             parseFeed(repository, feed);
+
+            boolean hasEntries = feed != null && feed.getEntries() != null && !feed.getEntries().isEmpty();
+            proxyRepositoryCacheValidators.put(cacheValidatorsKey, hasEntries ? cacheValidators : null);
         }
 
     }
@@ -0,0 +1,187 @@
+package org.carlspring.strongbox.storage.metadata.nuget;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+/**
+ * NuGet package, which is read from the source stream only once.
+ * <br>
+ * Unlike {@link TempNupkgFile}, the package isn't copied into a temporary file: the {@link Nuspec} is parsed from the
+ * head of the package, which is kept in memory (or in a temporary file, if the nuspec isn't within the first
+ * {@link #HEAD_THRESHOLD} bytes), then the stream provides the whole package, the head followed by the rest of the
+ * source. The package hash is calculated while the package is read, and is available once the stream is read to the
+ * end. The temporary file, if any, is deleted on {@link #close()}.
+ */
+public class NupkgInputStream
+        extends InputStream
+{
+
+    private static final int HEAD_THRESHOLD = 1024 * 1024;
+
+    private final DeferredFileOutputStream head;
+
+    private final Nuspec nuspec;
+
+    private final MessageDigest messageDigest;
+
+    private final InputStream packageStream;
+
+    private String hash;
+
+    /**
+     * @param source
+     *            stream with the package
+     * @throws IOException
+     *             data reading error
+     * @throws NugetFormatException
+     *             the stream does not contain the NuGet package or the format of the package does not conform to the
+     *             standard
+     */
+    public NupkgInputStream(InputStream source)
+        throws IOException,
+               NugetFormatException
+    {
+        this.head = new DeferredFileOutputStream(HEAD_THRESHOLD, "nupkg", "head", null);
+
+        try
+        {
+            try
+            {
+                this.nuspec = loadNuspec(new TeeInputStream(source, head));
+            }
+            finally
+            {
+                head.close();
+            }
+
+            this.messageDigest = MessageDigest.getInstance(MessageDigestAlgorithms.SHA_512);
+            this.packageStream = new SequenceInputStream(openHead(), source);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            deleteHead();
+            throw new NugetFormatException("Unable to calculate hash of package", e);
+        }
+        catch (IOException | NugetFormatException | RuntimeException e)
+        {
+            deleteHead();
+            throw e;
+        }
+    }
+
+    private static Nuspec loadNuspec(InputStream packageStream)
+        throws IOException,
+               NugetFormatException
+    {
+        // The zip stream isn't closed, because the package is read further.
+        ZipInputStream zipInputStream = new ZipInputStream(packageStream);
+
+        ZipEntry entry;
+        do
+        {
+            entry = zipInputStream.getNextEntry();
+        } while (entry != null && (entry.isDirectory() || !entry.getName().endsWith(Nuspec.DEFAULT_FILE_EXTENSION)));
+
+        if (entry == null)
+        {
+            return null;
+        }
+
+        return Nuspec.parse(new CloseShieldInputStream(zipInputStream));
+    }
+
+    private InputStream openHead()
+        throws IOException
+    {
+        if (head.isInMemory())
+        {
+            return new ByteArrayInputStream(head.getData());
+        }
+
+        return new BufferedInputStream(Files.newInputStream(head.getFile().toPath()));
+    }
+
+    /**
+     * @return the package specification, or <code>null</code> if the package doesn't have one
+     */
+    public Nuspec getNuspec()
+    {
+        return nuspec;
+    }
+
+    /**
+     * @return the Base64 encoded SHA-512 hash of the package, or <code>null</code> if the stream hasn't been read to
+     *         the end yet
+     */
+    public String getHash()
+    {
+        return hash;
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        byte[] bytes = new byte[1];
+        int n = read(bytes, 0, 1);
+
+        return n == -1 ? -1 : bytes[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes,
+                    int off,
+                    int len)
+        throws IOException
+    {
+        int n = packageStream.read(bytes, off, len);
+        if (n > 0)
+        {
+            messageDigest.update(bytes, off, n);
+        }
+        else if (n == -1 && hash == null)
+        {
+            hash = DatatypeConverter.printBase64Binary(messageDigest.digest());
+        }
+
+        return n;
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            packageStream.close();
+        }
+        finally
+        {
+            deleteHead();
+        }
+    }
+
+    private void deleteHead()
+    {
+        if (!head.isInMemory() && head.getFile() != null)
+        {
+            head.getFile().delete();
+        }
+    }
+
+}
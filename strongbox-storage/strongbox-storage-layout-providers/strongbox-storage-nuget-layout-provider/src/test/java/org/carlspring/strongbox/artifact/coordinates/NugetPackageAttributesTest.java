@@ -0,0 +1,101 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import org.carlspring.strongbox.storage.metadata.nuget.Framework;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import ru.aristar.jnuget.Dependency;
+import ru.aristar.jnuget.files.nuspec.NuspecFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class NugetPackageAttributesTest
+{
+
+    private static final String NUSPEC = "<?xml version=\"1.0\"?>\n" +
+                                         "<package xmlns=\"http://schemas.microsoft.com/packaging/2011/08/nuspec.xsd\">\n" +
+                                         "    <metadata>\n" +
+                                         "        <id>Org.Carlspring.Strongbox.Examples.Nuget</id>\n" +
+                                         "        <version>1.0.0</version>\n" +
+                                         "        <authors>strongbox</authors>\n" +
+                                         "        <owners>strongbox</owners>\n" +
+                                         "        <requireLicenseAcceptance>false</requireLicenseAcceptance>\n" +
+                                         "        <description>Test package</description>\n" +
+                                         "        <dependencies>\n" +
+                                         "            <group>\n" +
+                                         "                <dependency id=\"RouteMagic\" version=\"1.1.0\" />\n" +
+                                         "            </group>\n" +
+                                         "            <group targetFramework=\"net40\">\n" +
+                                         "                <dependency id=\"jQuery\" version=\"[1.6.0,2.0.0)\" />\n" +
+                                         "                <dependency id=\"WebActivator\" />\n" +
+                                         "            </group>\n" +
+                                         "        </dependencies>\n" +
+                                         "    </metadata>\n" +
+                                         "</package>";
+
+    @Test
+    public void rangedDependenciesShouldBeRestoredWithTheirTargetFramework()
+        throws Exception
+    {
+        Nuspec nuspec = Nuspec.parse(new ByteArrayInputStream(NUSPEC.getBytes(StandardCharsets.UTF_8)));
+
+        Map<String, String> attributes = NugetPackageAttributes.of(nuspec, Collections.emptySet(), null);
+
+        assertEquals("RouteMagic:1.1.0|jQuery:[1.6.0,2.0.0):net40|WebActivator::net40",
+                     attributes.get(NugetPackageAttributes.DEPENDENCIES));
+        assertEquals("net40", attributes.get(NugetPackageAttributes.TARGET_FRAMEWORKS));
+
+        NugetArtifactCoordinates coordinates = new NugetArtifactCoordinates("Org.Carlspring.Strongbox.Examples.Nuget",
+                                                                            "1.0.0",
+                                                                            "nupkg");
+        NuspecFile nuspecFile = NugetPackageAttributes.toNuspecFile(coordinates, attributes);
+
+        List<Dependency> dependencies = nuspecFile.getMetadata().dependencies.dependencies;
+        assertEquals(3, dependencies.size());
+
+        assertEquals("RouteMagic", dependencies.get(0).getId());
+        assertEquals("1.1.0", dependencies.get(0).versionRange.toString());
+        assertNull(dependencies.get(0).framework);
+
+        assertEquals("jQuery", dependencies.get(1).getId());
+        assertEquals("[1.6.0,2.0.0)", dependencies.get(1).versionRange.toString());
+        assertEquals("net40", dependencies.get(1).framework.name());
+
+        assertEquals("WebActivator", dependencies.get(2).getId());
+        assertEquals("net40", dependencies.get(2).framework.name());
+    }
+
+    @Test
+    public void packageWithoutFrameworkSpecificContentShouldTargetAllFrameworks()
+        throws Exception
+    {
+        Map<String, String> attributes = NugetPackageAttributes.of(new Nuspec(), Collections.emptySet(), null);
+
+        assertNull(attributes.get(NugetPackageAttributes.DEPENDENCIES));
+        assertEquals(EnumSet.allOf(ru.aristar.jnuget.files.Framework.class),
+                     NugetPackageAttributes.getTargetFrameworks(attributes));
+    }
+
+    @Test
+    public void targetFrameworksShouldIncludeLibraryFrameworks()
+        throws Exception
+    {
+        Nuspec nuspec = Nuspec.parse(new ByteArrayInputStream(NUSPEC.getBytes(StandardCharsets.UTF_8)));
+
+        Map<String, String> attributes = NugetPackageAttributes.of(nuspec, EnumSet.of(Framework.net45), null);
+
+        assertEquals(EnumSet.of(ru.aristar.jnuget.files.Framework.net40, ru.aristar.jnuget.files.Framework.net45),
+                     NugetPackageAttributes.getTargetFrameworks(attributes));
+    }
+
+}
@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.client.CacheValidators;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.nuget.NugetSearchRequest;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCacheValidators;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactTagService;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.remote.MutableRemoteRepository;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.aristar.jnuget.rss.PackageEntry;
+import ru.aristar.jnuget.rss.PackageFeed;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Remote feed pages are requested conditionally, with the validators of the previous response of the same page.
+ */
+public class NugetRepositoryFeaturesTest
+{
+
+    private static final String STORAGE_ID = "storage-nuget";
+
+    private static final String REPOSITORY_ID = "nuget.org";
+
+    private static final URI FEED_URI = URI.create("https://www.nuget.org/api/v2/Search()?$top=10");
+
+    private static final String CACHE_VALIDATORS_KEY = String.format("%s:%s/%s", STORAGE_ID, REPOSITORY_ID, FEED_URI);
+
+    private NugetRepositoryFeatures features;
+
+    private ProxyRepositoryCacheValidators cacheValidators;
+
+    private ArtifactEntryService artifactEntryService;
+
+    private Invocation.Builder request;
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        MutableRemoteRepository remoteRepository = new MutableRemoteRepository();
+        remoteRepository.setUrl("https://www.nuget.org/api/v2");
+
+        MutableStorage storage = new MutableStorage(STORAGE_ID);
+        MutableRepository repository = new MutableRepository(REPOSITORY_ID);
+        repository.setStorage(storage);
+        repository.setRemoteRepository(remoteRepository);
+        storage.addRepository(repository);
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        configuration.addStorage(storage);
+
+        ConfigurationManager configurationManager = mock(ConfigurationManager.class);
+        when(configurationManager.getConfiguration()).thenReturn(new Configuration(configuration));
+
+        request = mock(Invocation.Builder.class);
+        when(request.header(anyString(), any())).thenReturn(request);
+
+        WebTarget webTarget = mock(WebTarget.class);
+        when(webTarget.path(anyString())).thenReturn(webTarget);
+        when(webTarget.queryParam(anyString(), any())).thenReturn(webTarget);
+        when(webTarget.getUri()).thenReturn(FEED_URI);
+        when(webTarget.request()).thenReturn(request);
+
+        Client client = mock(Client.class);
+        when(client.target(anyString())).thenReturn(webTarget);
+
+        ProxyRepositoryConnectionPoolConfigurationService connectionPoolConfigurationService = mock(
+                ProxyRepositoryConnectionPoolConfigurationService.class);
+        when(connectionPoolConfigurationService.getRestClient()).thenReturn(client);
+
+        // All the packages of the feed are known already.
+        artifactEntryService = mock(ArtifactEntryService.class);
+        when(artifactEntryService.artifactExists(anyString(), anyString(), anyString())).thenReturn(true);
+
+        cacheValidators = new ProxyRepositoryCacheValidators();
+        ReflectionTestUtils.setField(cacheValidators, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheValidators, "maxSize", 1000L);
+        cacheValidators.afterPropertiesSet();
+
+        features = new NugetRepositoryFeatures();
+        ReflectionTestUtils.setField(features, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(features, "proxyRepositoryConnectionPoolConfigurationService",
+                                     connectionPoolConfigurationService);
+        ReflectionTestUtils.setField(features, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(features, "artifactTagService", mock(ArtifactTagService.class));
+        ReflectionTestUtils.setField(features, "proxyRepositoryCacheValidators", cacheValidators);
+    }
+
+    @Test
+    public void notModifiedFeedShouldNotBeParsed()
+        throws Exception
+    {
+        cacheValidators.put(CACHE_VALIDATORS_KEY, new CacheValidators("\"v1\"", null));
+
+        Response response = response(304, null);
+        when(request.get()).thenReturn(response);
+
+        assertTrue(features.downloadRemoteFeed(STORAGE_ID, REPOSITORY_ID, new NugetSearchRequest(), 0, 10));
+
+        verify(request).header(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        verify(response, never()).readEntity(PackageFeed.class);
+        verify(artifactEntryService, never()).artifactExists(anyString(), anyString(), anyString());
+        assertEquals("\"v1\"", cacheValidators.get(CACHE_VALIDATORS_KEY).getEntityTag());
+    }
+
+    @Test
+    public void modifiedFeedShouldBeParsedAndKeepTheNewValidators()
+        throws Exception
+    {
+        cacheValidators.put(CACHE_VALIDATORS_KEY, new CacheValidators("\"v1\"", null));
+
+        Response response = response(200, "\"v2\"");
+        when(request.get()).thenReturn(response);
+
+        assertTrue(features.downloadRemoteFeed(STORAGE_ID, REPOSITORY_ID, new NugetSearchRequest(), 0, 10));
+
+        verify(request).header(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        verify(artifactEntryService).artifactExists(anyString(), anyString(), anyString());
+        assertEquals("\"v2\"", cacheValidators.get(CACHE_VALIDATORS_KEY).getEntityTag());
+    }
+
+    @Test
+    public void feedWithoutValidatorsShouldBeRequestedUnconditionally()
+        throws Exception
+    {
+        Response response = response(200, null);
+        when(request.get()).thenReturn(response);
+
+        assertTrue(features.downloadRemoteFeed(STORAGE_ID, REPOSITORY_ID, new NugetSearchRequest(), 0, 10));
+
+        verify(request, never()).header(anyString(), any());
+        verify(artifactEntryService).artifactExists(anyString(), anyString(), anyString());
+        assertNull(cacheValidators.get(CACHE_VALIDATORS_KEY));
+    }
+
+    private static Response response(int status,
+                                     String entityTag)
+    {
+        PackageEntry packageEntry = mock(PackageEntry.class, RETURNS_DEEP_STUBS);
+        when(packageEntry.getProperties().getId()).thenReturn("Org.Carlspring.Strongbox.Nuget");
+
+        PackageFeed packageFeed = mock(PackageFeed.class);
+        when(packageFeed.getEntries()).thenReturn(Collections.singletonList(packageEntry));
+
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(entityTag);
+        when(response.readEntity(PackageFeed.class)).thenReturn(packageFeed);
+
+        return response;
+    }
+
+}
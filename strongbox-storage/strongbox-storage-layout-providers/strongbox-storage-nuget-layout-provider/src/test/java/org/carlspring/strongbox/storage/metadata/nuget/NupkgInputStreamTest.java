@@ -0,0 +1,107 @@
+package org.carlspring.strongbox.storage.metadata.nuget;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.inject.Inject;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.config.NugetBootersTestConfig;
+import org.carlspring.strongbox.testing.TestCaseWithNugetPackageGeneration;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semver.Version;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+@ContextConfiguration(classes = { NugetBootersTestConfig.class })
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+public class NupkgInputStreamTest
+{
+
+    private static final String PACKAGE_ID = "NUnit";
+
+    private static final String PACKAGE_VERSION = "2.5.9.10348";
+
+    private String baseDirectoryPath;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        baseDirectoryPath = propertiesBooter.getHomeDirectory() + "/tmp/nist";
+
+        File baseDirectory = getCleanBaseDirectory();
+        baseDirectory.mkdirs();
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        getCleanBaseDirectory();
+    }
+
+    private File getCleanBaseDirectory()
+        throws IOException
+    {
+        File baseDirectory = new File(baseDirectoryPath);
+
+        if (baseDirectory.exists())
+        {
+            FileUtils.deleteDirectory(baseDirectory);
+        }
+
+        return baseDirectory;
+    }
+
+    @Test
+    public void testReadNupkgInSinglePass()
+        throws Exception
+    {
+        // GIVEN
+        Path packageFilePath = TestCaseWithNugetPackageGeneration.generatePackageFile(baseDirectoryPath,
+                                                                                      PACKAGE_ID,
+                                                                                      PACKAGE_VERSION,
+                                                                                      (String[]) null);
+
+        String checksumFileName = PACKAGE_ID + "." + PACKAGE_VERSION + ".nupkg.sha512";
+        String expectedHash = MessageDigestUtils.readChecksumFile(packageFilePath.resolveSibling(checksumFileName)
+                                                                                 .toString());
+
+        // WHEN
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageFilePath));
+             NupkgInputStream nupkg = new NupkgInputStream(is))
+        {
+            Nuspec nuspec = nupkg.getNuspec();
+
+            // THEN
+            assertNotNull(nuspec, "Package Specification");
+            assertEquals(PACKAGE_ID, nuspec.getId(), "Package ID");
+            assertEquals(Version.parse(PACKAGE_VERSION), nuspec.getVersion(), "Package Version");
+            assertNull(nupkg.getHash(), "Hash before the package has been read");
+
+            assertArrayEquals(Files.readAllBytes(packageFilePath), IOUtils.toByteArray(nupkg), "Package content");
+            assertEquals(expectedHash, nupkg.getHash(), "Hash calculated from stream");
+        }
+    }
+
+}
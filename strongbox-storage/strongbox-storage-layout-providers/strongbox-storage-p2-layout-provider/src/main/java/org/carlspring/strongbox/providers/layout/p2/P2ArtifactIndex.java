@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.providers.layout.p2;
+
+import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed `artifacts.xml` of a P2 repository, with the artifacts indexed by their coordinates.
+ * <br>
+ * The index remembers the size and the modification time of the `artifacts.xml` and `artifacts.jar` files it has
+ * been created from, see {@link #stamp(Path)}.
+ */
+class P2ArtifactIndex
+{
+
+    static final String ARTIFACTS_XML = "artifacts.xml";
+
+    static final String ARTIFACTS_JAR = "artifacts.jar";
+
+    private final String stamp;
+
+    private final Map<P2ArtifactCoordinates, P2Artifact> artifacts;
+
+    private final List<P2ArtifactRuleProcessor> ruleProcessors;
+
+    P2ArtifactIndex(String stamp,
+                    P2Repository p2Repository)
+    {
+        this.stamp = stamp;
+
+        Map<P2ArtifactCoordinates, P2Artifact> artifactMap = new HashMap<>();
+        if (p2Repository.getArtifacts() != null && p2Repository.getArtifacts().getArtifacts() != null)
+        {
+            for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
+            {
+                artifactMap.putIfAbsent(new P2ArtifactCoordinates(p2Artifact.getId(),
+                                                                  p2Artifact.getVersion(),
+                                                                  p2Artifact.getClassifier()),
+                                        p2Artifact);
+            }
+        }
+        this.artifacts = artifactMap;
+
+        this.ruleProcessors = p2Repository.getMappings() == null ?
+                              Collections.emptyList() :
+                              P2ArtifactRuleProcessor.createProcessors(p2Repository.getMappings());
+    }
+
+    P2Artifact getArtifact(P2ArtifactCoordinates coordinates)
+    {
+        return artifacts.get(coordinates);
+    }
+
+    List<P2ArtifactRuleProcessor> getRuleProcessors()
+    {
+        return ruleProcessors;
+    }
+
+    boolean isUpToDate(String currentStamp)
+    {
+        return stamp.equals(currentStamp);
+    }
+
+    /**
+     * @param artifactsXml the `artifacts.xml` file of the repository
+     * @return the size and the modification time of the repository `artifacts.xml` and `artifacts.jar` files
+     */
+    static String stamp(Path artifactsXml)
+        throws IOException
+    {
+        StringBuilder result = new StringBuilder(fileStamp(artifactsXml));
+
+        Path artifactsJar = artifactsXml.resolveSibling(ARTIFACTS_JAR);
+        if (Files.exists(artifactsJar))
+        {
+            result.append('|').append(fileStamp(artifactsJar));
+        }
+
+        return result.toString();
+    }
+
+    private static String fileStamp(Path path)
+        throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        return String.format("%s:%s", attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+}
@@ -4,22 +4,47 @@ import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 import org.carlspring.strongbox.xml.parsers.GenericParser;
 
 import javax.xml.bind.JAXBException;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
  * The artifact path consists of {id}/{version}/{classifier}. E.g. bundle-name/1.0.0/osgi.bundle
+ * <br>
+ * The parsed `artifacts.xml` of each repository is kept as a {@link P2ArtifactIndex}, which is reloaded only once the
+ * repository `artifacts.xml` or `artifacts.jar` has been changed. The indexes of the repositories which are not used
+ * anymore are evicted.
  */
 public class P2ArtifactReader
 {
 
     private static final Logger logger = LoggerFactory.getLogger(P2ArtifactReader.class);
 
+    private static final long MAX_INDEXES = 100;
+
+    private static final long INDEX_EXPIRATION_MINUTES = 60;
+
+    /**
+     * The indexes by the `artifacts.xml` path of their repositories.
+     */
+    private static final Cache<Path, P2ArtifactIndex> INDEXES = CacheBuilder.newBuilder()
+                                                                            .maximumSize(MAX_INDEXES)
+                                                                            .expireAfterAccess(INDEX_EXPIRATION_MINUTES,
+                                                                                               TimeUnit.MINUTES)
+                                                                            .build();
+
     /**
      * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
      *
@@ -31,32 +56,82 @@ public class P2ArtifactReader
                                                     String bundle)
             throws IOException
     {
-        GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
+        P2ArtifactIndex index;
         try
         {
-            P2Repository p2Repository = repositoryParser.parse(createPath(repositoryBaseDir).toUri().toURL());
-            final P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
-            for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
-            {
-                P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
-                                                                                p2Artifact.getVersion(),
-                                                                                p2Artifact.getClassifier());
-                if (foundArtifact.equals(artifactToFind))
-                {
-                    addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
-                    String bundleFilename = P2ArtifactRuleProcessor.getFilename(p2Repository.getMappings(),
-                                                                                foundArtifact);
-                    foundArtifact.setFilename(bundleFilename);
-                    return foundArtifact;
-                }
-            }
+            index = getIndex(createPath(repositoryBaseDir));
         }
         catch (JAXBException e)
         {
             logger.error(e.getMessage(), e);
+
+            return null;
+        }
+
+        final P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
+        P2Artifact p2Artifact = index.getArtifact(artifactToFind);
+        if (p2Artifact == null)
+        {
+            return null;
+        }
+
+        P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
+                                                                        p2Artifact.getVersion(),
+                                                                        p2Artifact.getClassifier());
+        addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
+        String bundleFilename = P2ArtifactRuleProcessor.getFilename(index.getRuleProcessors(), foundArtifact);
+        foundArtifact.setFilename(bundleFilename);
+
+        return foundArtifact;
+    }
+
+    private static P2ArtifactIndex getIndex(Path artifactsXml)
+            throws IOException, JAXBException
+    {
+        if (!Files.exists(artifactsXml))
+        {
+            throw new FileNotFoundException(artifactsXml.toString());
         }
 
-        return null;
+        Path key = artifactsXml.toAbsolutePath().normalize();
+        String stamp = P2ArtifactIndex.stamp(key);
+
+        P2ArtifactIndex index = INDEXES.getIfPresent(key);
+        if (index != null)
+        {
+            if (index.isUpToDate(stamp))
+            {
+                return index;
+            }
+
+            INDEXES.asMap().remove(key, index);
+        }
+
+        // The cache loads each key once, so the concurrent lookups of an outdated repository just wait for its reload,
+        // while the lookups of the other repositories are not blocked.
+        try
+        {
+            return INDEXES.get(key, () -> loadIndex(key, stamp));
+        }
+        catch (ExecutionException | UncheckedExecutionException e)
+        {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfInstanceOf(e.getCause(), JAXBException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static P2ArtifactIndex loadIndex(Path artifactsXml,
+                                             String stamp)
+            throws IOException, JAXBException
+    {
+        logger.debug(String.format("Loading P2 artifacts index [%s]", artifactsXml));
+
+        GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
+
+        return new P2ArtifactIndex(stamp, repositoryParser.parse(artifactsXml.toUri().toURL()));
     }
 
     private static void addProperties(P2ArtifactCoordinates foundArtifact,
@@ -77,7 +152,7 @@ public class P2ArtifactReader
 
     private static Path createPath(String repositoryBaseDir)
     {
-        final String artifactsFilename = "artifacts.xml";
+        final String artifactsFilename = P2ArtifactIndex.ARTIFACTS_XML;
         if (repositoryBaseDir == null || repositoryBaseDir.isEmpty())
         {
             return Paths.get(artifactsFilename);
@@ -5,6 +5,7 @@ import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
@@ -125,11 +126,13 @@ public class P2ArtifactRuleProcessor
     public static String getFilename(P2Mappings mappings,
                                      P2ArtifactCoordinates p2artifact)
     {
-        Collection<P2ArtifactRuleProcessor> artifacts = mappings.getRules().stream().map(
-                rule -> new P2ArtifactRuleProcessor(rule.getOutput(), rule.getFilter())).collect(
-                Collectors.toList());
+        return getFilename(createProcessors(mappings), p2artifact);
+    }
 
-        for (P2ArtifactRuleProcessor processor : artifacts)
+    public static String getFilename(Collection<P2ArtifactRuleProcessor> processors,
+                                     P2ArtifactCoordinates p2artifact)
+    {
+        for (P2ArtifactRuleProcessor processor : processors)
         {
             if (processor.matches(p2artifact.getProperties()))
             {
@@ -140,4 +143,12 @@ public class P2ArtifactRuleProcessor
         return null;
     }
 
+    public static List<P2ArtifactRuleProcessor> createProcessors(P2Mappings mappings)
+    {
+        return mappings.getRules()
+                       .stream()
+                       .map(rule -> new P2ArtifactRuleProcessor(rule.getOutput(), rule.getFilter()))
+                       .collect(Collectors.toList());
+    }
+
 }
\ No newline at end of file
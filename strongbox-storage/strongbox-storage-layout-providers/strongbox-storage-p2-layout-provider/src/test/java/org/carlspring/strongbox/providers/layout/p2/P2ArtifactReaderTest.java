@@ -6,9 +6,15 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,6 +125,33 @@ public class P2ArtifactReaderTest
         assertEquals(expectedFilename, foundArtifact.getFilename());
     }
 
+    @Test
+    public void testArtifactsReloadedOnChange()
+            throws URISyntaxException, IOException
+    {
+        Path repoDir = Files.createTempDirectory("p2-artifact-reader");
+        try
+        {
+            Path artifactsXml = repoDir.resolve("artifacts.xml");
+            Files.copy(Paths.get(getClass().getResource("artifacts.xml").toURI()), artifactsXml);
+
+            assertNotNull(P2ArtifactReader.getArtifact(repoDir.toString(), PATH));
+
+            String content = new String(Files.readAllBytes(artifactsXml), StandardCharsets.UTF_8);
+            Files.write(artifactsXml, content.replace(ID + "'", ID + ".renamed'").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(artifactsXml,
+                                      FileTime.fromMillis(Files.getLastModifiedTime(artifactsXml).toMillis() + 1000));
+
+            assertNull(P2ArtifactReader.getArtifact(repoDir.toString(), PATH));
+            assertNotNull(P2ArtifactReader.getArtifact(repoDir.toString(),
+                                                       String.format("%s.renamed/%s/%s", ID, VERSION, CLASSIFIER)));
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(repoDir.toFile());
+        }
+    }
+
     private P2ArtifactCoordinates getArtifact()
             throws URISyntaxException, IOException
     {
@@ -0,0 +1,65 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.artifact.ArtifactDownloadCountAggregator;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the {@link ArtifactDownloadCountAggregator} statistics with the
+ * <code>metrics</code> endpoint, so that the lag of the download counts behind
+ * the downloads can be watched.
+ */
+@Component
+public class ArtifactDownloadCountMetrics
+        implements MeterBinder
+{
+
+    static final String PREFIX = "strongbox.downloadCount";
+
+    @Inject
+    private ArtifactDownloadCountAggregator aggregator;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder(PREFIX + ".pending", aggregator, ArtifactDownloadCountAggregator::getPendingEntries)
+             .description("The number of the artifacts with not yet flushed downloads")
+             .register(registry);
+
+        TimeGauge.builder(PREFIX + ".flush.lag", aggregator, TimeUnit.MILLISECONDS,
+                          ArtifactDownloadCountAggregator::getFlushLag)
+                 .description("The age of the oldest not yet flushed download")
+                 .register(registry);
+
+        TimeGauge.builder(PREFIX + ".lastFlush.lag", aggregator, TimeUnit.MILLISECONDS,
+                          ArtifactDownloadCountAggregator::getLastFlushLag)
+                 .description("The age of the oldest download written by the last flush")
+                 .register(registry);
+
+        TimeGauge.builder(PREFIX + ".lastFlush.duration", aggregator, TimeUnit.MILLISECONDS,
+                          ArtifactDownloadCountAggregator::getLastFlushDuration)
+                 .description("The duration of the last flush")
+                 .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".flushed", aggregator, ArtifactDownloadCountAggregator::getFlushedDownloads)
+                       .description("The number of the downloads written into the database")
+                       .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".failures", aggregator, ArtifactDownloadCountAggregator::getFailedFlushes)
+                       .description("The number of the failed attempts to flush the downloads of an artifact")
+                       .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".dropped", aggregator, ArtifactDownloadCountAggregator::getDroppedDownloads)
+                       .description("The number of the downloads discarded, because they couldn't be flushed")
+                       .register(registry);
+    }
+
+}
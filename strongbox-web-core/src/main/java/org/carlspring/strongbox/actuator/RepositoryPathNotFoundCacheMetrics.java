@@ -0,0 +1,52 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.providers.repository.RepositoryPathNotFoundCache;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the {@link RepositoryPathNotFoundCache} statistics with the
+ * <code>metrics</code> endpoint, named the same way as the Micrometer cache
+ * metrics (<code>cache.gets</code>, <code>cache.size</code>).
+ */
+@Component
+public class RepositoryPathNotFoundCacheMetrics
+        implements MeterBinder
+{
+
+    static final String CACHE_NAME = "repositoryPathNotFound";
+
+    @Inject
+    private RepositoryPathNotFoundCache notFoundCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Tags tags = Tags.of("cache", CACHE_NAME);
+
+        FunctionCounter.builder("cache.gets", notFoundCache, RepositoryPathNotFoundCache::getHitCount)
+                       .tags(tags)
+                       .tag("result", "hit")
+                       .description("The number of the lookups of the paths which were recently not found")
+                       .register(registry);
+
+        FunctionCounter.builder("cache.gets", notFoundCache, RepositoryPathNotFoundCache::getMissCount)
+                       .tags(tags)
+                       .tag("result", "miss")
+                       .description("The number of the lookups which had to go to the repository")
+                       .register(registry);
+
+        Gauge.builder("cache.size", notFoundCache, RepositoryPathNotFoundCache::getSize)
+             .tags(tags)
+             .description("The number of the directories which have not found entries")
+             .register(registry);
+    }
+
+}
@@ -1,6 +1,9 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownload;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownloads;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -10,6 +13,7 @@ import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -31,6 +35,9 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    @Inject
+    protected ProxyRepositoryInFlightDownloads proxyRepositoryInFlightDownloads;
+
 
     @ApiOperation(value = "Used to deploy an artifact")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The artifact was deployed successfully."),
@@ -83,12 +90,48 @@ public abstract class BaseArtifactController
             throws Exception
     {
         logger.debug("Resolved path: " + repositoryPath);
-        
+
+        ProxyRepositoryInFlightDownload download = repositoryPath == null ? null
+                : proxyRepositoryInFlightDownloads.get(repositoryPath);
+        if (download != null && !download.retain())
+        {
+            download = null;
+            if (!Files.exists(repositoryPath))
+            {
+                // The download has been released in the meantime, but the artifact has failed to be stored.
+                logger.debug(String.format("Resolving [%s] once again.", repositoryPath));
+
+                Repository repository = repositoryPath.getRepository();
+                repositoryPath = artifactResolutionService.resolvePathStreamThrough(repository.getStorage().getId(),
+                                                                                    repository.getId(),
+                                                                                    RepositoryFiles.relativizePath(repositoryPath));
+                download = repositoryPath == null ? null : proxyRepositoryInFlightDownloads.get(repositoryPath);
+                download = download != null && download.retain() ? download : null;
+            }
+        }
+        if (download != null)
+        {
+            try
+            {
+                return provideInFlightDownloadResponse(request, response, download);
+            }
+            finally
+            {
+                download.release();
+            }
+        }
+
         ArtifactControllerHelper.provideArtifactHeaders(response, repositoryPath);
         if (response.getStatus() == HttpStatus.NOT_FOUND.value())
         {
             return false;
         }
+        else if (ArtifactControllerHelper.isNotModified(request, response, repositoryPath))
+        {
+            logger.debug(String.format("Not modified: [%s]", repositoryPath));
+
+            return true;
+        }
         else if (request.getMethod().equals(RequestMethod.HEAD.name()))
         {
             return true;
@@ -99,7 +142,7 @@ public abstract class BaseArtifactController
         {
             logger.debug("Detected ranged request.");
 
-            ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+            is = ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
         }
 
         copyToResponse(is, response);
@@ -107,4 +150,37 @@ public abstract class BaseArtifactController
         return true;
     }
 
+    /**
+     * The proxied artifact is not cached yet, so we stream it through while
+     * it's being downloaded. Ranged requests are served with the full content
+     * in this case.
+     * <br>
+     * The download should be retained by the caller, so that the spool can't
+     * be released before it's read.
+     */
+    private boolean provideInFlightDownloadResponse(HttpServletRequest request,
+                                                    HttpServletResponse response,
+                                                    ProxyRepositoryInFlightDownload download)
+            throws Exception
+    {
+        RepositoryPath repositoryPath = download.getRepositoryPath();
+        logger.debug("Streaming through: " + repositoryPath);
+
+        ArtifactControllerHelper.provideInFlightDownloadHeaders(response, download);
+        if (ArtifactControllerHelper.isNotModified(request, response, download))
+        {
+            logger.debug(String.format("Not modified: [%s]", repositoryPath));
+
+            return true;
+        }
+        else if (request.getMethod().equals(RequestMethod.HEAD.name()))
+        {
+            return true;
+        }
+
+        copyToResponse(artifactResolutionService.getInputStream(repositoryPath), response);
+
+        return true;
+    }
+
 }
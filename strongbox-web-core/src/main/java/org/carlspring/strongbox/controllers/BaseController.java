@@ -6,7 +6,10 @@ import org.carlspring.strongbox.configuration.MutableConfiguration;
 import org.carlspring.strongbox.controllers.support.ErrorResponseEntityBody;
 import org.carlspring.strongbox.controllers.support.ListEntityBody;
 import org.carlspring.strongbox.controllers.support.ResponseEntityBody;
+import org.carlspring.strongbox.io.FileChannelInputStream;
+import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 import org.carlspring.strongbox.resource.ResourceCloser;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
@@ -16,9 +19,11 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.util.List;
 
 import org.apache.commons.collections.IteratorUtils;
+import org.eclipse.jetty.server.HttpOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
@@ -36,6 +41,8 @@ import org.springframework.http.ResponseEntity;
 public abstract class BaseController
 {
 
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Inject
@@ -264,19 +271,16 @@ public abstract class BaseController
 
         try
         {
-            long totalBytes = 0L;
-
-            int readLength;
-            byte[] bytes = new byte[4096];
-            while ((readLength = is.read(bytes, 0, bytes.length)) != -1)
+            FileChannelInputStream fcis = getFileChannelSource(is, response);
+            if (fcis != null)
             {
-                // Write the artifact
-                os.write(bytes, 0, readLength);
-                os.flush();
+                transfer((RepositoryInputStream) is, fcis.getChannel(), response, (HttpOutput) os);
 
-                totalBytes += readLength;
+                return;
             }
 
+            long totalBytes = copy(is, os);
+
             response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(totalBytes));
             response.flushBuffer();
         }
@@ -287,4 +291,56 @@ public abstract class BaseController
         }
     }
 
+    /**
+     * The content can be served directly from the file only for the whole (non ranged) artifacts of the local
+     * storages, which are not transformed on the way, and only if the response is written by Jetty.
+     */
+    private FileChannelInputStream getFileChannelSource(InputStream is,
+                                                        HttpServletResponse response)
+            throws IOException
+    {
+        if (!(is instanceof RepositoryInputStream) || !(response.getOutputStream() instanceof HttpOutput)
+                || response.getStatus() == HttpStatus.PARTIAL_CONTENT.value())
+        {
+            return null;
+        }
+
+        return StreamUtils.findFileChannelSource(is);
+    }
+
+    private long copy(InputStream is,
+                      OutputStream os)
+            throws IOException
+    {
+        long totalBytes = 0L;
+
+        int readLength;
+        byte[] bytes = new byte[COPY_BUFFER_SIZE];
+        while ((readLength = is.read(bytes, 0, bytes.length)) != -1)
+        {
+            // Write the artifact
+            os.write(bytes, 0, readLength);
+
+            totalBytes += readLength;
+        }
+
+        return totalBytes;
+    }
+
+    private void transfer(RepositoryInputStream is,
+                          FileChannel channel,
+                          HttpServletResponse response,
+                          HttpOutput os)
+            throws IOException
+    {
+        // The content is not read through the repository stream, so it has to be opened explicitly.
+        is.open();
+
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(channel.size() - channel.position()));
+
+        // Jetty reads the file into its pooled (direct) buffers and writes them to the connection, the channel is
+        // closed and the response is completed once all the content has been written.
+        os.sendContent(channel);
+    }
+
 }
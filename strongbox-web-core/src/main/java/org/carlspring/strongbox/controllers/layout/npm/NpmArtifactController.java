@@ -36,15 +36,13 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.npm.NpmSearchRequest;
 import org.carlspring.strongbox.npm.NpmViewRequest;
-import org.carlspring.strongbox.npm.metadata.DistTags;
-import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
-import org.carlspring.strongbox.npm.metadata.Time;
-import org.carlspring.strongbox.npm.metadata.Versions;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedContent;
 import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
 import org.carlspring.strongbox.providers.layout.NpmSearchResultSupplier;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
@@ -70,6 +68,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -114,6 +113,9 @@ public class NpmArtifactController extends BaseArtifactController
 
     @Inject
     private NpmSearchResultSupplier npmSearchResultSupplier;
+
+    @Inject
+    private NpmPackageFeedCache npmPackageFeedCache;
     
     @Inject
     private ViewPackageEventListener viewPackageEventListener;
@@ -219,6 +221,7 @@ public class NpmArtifactController extends BaseArtifactController
                                          @PathVariable(name = "repositoryId") String repositoryId,
                                          @PathVariable(name = "packageScope") String packageScope,
                                          @PathVariable(name = "packageName") String packageName,
+                                         HttpServletRequest request,
                                          HttpServletResponse response)
         throws Exception
     {
@@ -230,51 +233,29 @@ public class NpmArtifactController extends BaseArtifactController
         
         Repository repository = getRepository(storageId, repositoryId);
 
-        PackageFeed packageFeed = new PackageFeed();
-
-        packageFeed.setName(packageId);
-        packageFeed.setAdditionalProperty("_id", packageId);
-        
-        Predicate predicate = createSearchPredicate(packageScope, packageName);
-
-        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
-
-        Paginator paginator = new Paginator();
-        paginator.setProperty("version");
-
-        List<Path> searchResult = provider.search(storageId, repositoryId, predicate, paginator);
-
-        Versions versions = new Versions();
-        packageFeed.setVersions(versions);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        boolean abbreviated = accept != null && accept.contains(NpmPackageFeedContent.ABBREVIATED_CONTENT_TYPE);
 
-        Time npmTime = new Time();
-        packageFeed.setTime(npmTime);
+        NpmPackageFeedContent packageFeedContent = npmPackageFeedCache.get(repository, packageScope, packageName);
 
-        DistTags distTags = new DistTags();
-        packageFeed.setDistTags(distTags);
+        boolean gzipped = NpmPackageFeedContent.isGzipAccepted(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
 
-        searchResult.stream().map(npmPackageSupplier).forEach(p -> {
-            PackageVersion npmPackage = p.getNpmPackage();
-            versions.setAdditionalProperty(npmPackage.getVersion(), npmPackage);
-
-            npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
-
-            Date created = npmTime.getCreated();
-            npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
-
-            Date modified = npmTime.getModified();
-            npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
-                    : modified);
+        response.setHeader(HttpHeaders.VARY, String.format("%s, %s", HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        if (new ServletWebRequest(request, response).checkNotModified(packageFeedContent.getETag(abbreviated, gzipped)))
+        {
+            return;
+        }
 
-            if (p.isLastVersion())
-            {
-                distTags.setLatest(npmPackage.getVersion());
-            }
+        if (gzipped)
+        {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, NpmPackageFeedContent.GZIP);
+        }
 
-        });
+        byte[] content = packageFeedContent.getContent(abbreviated, gzipped);
 
-        response.setContentType(MediaType.APPLICATION_JSON);
-        response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
+        response.setContentType(abbreviated ? NpmPackageFeedContent.ABBREVIATED_CONTENT_TYPE : MediaType.APPLICATION_JSON);
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
     }
 
     @GetMapping(path = "{storageId}/{repositoryId}/{packageName}")
@@ -282,25 +263,11 @@ public class NpmArtifactController extends BaseArtifactController
     public void viewPackageFeed(@PathVariable(name = "storageId") String storageId,
                                 @PathVariable(name = "repositoryId") String repositoryId,
                                 @PathVariable(name = "packageName") String packageName,
+                                HttpServletRequest request,
                                 HttpServletResponse response)
         throws Exception
     {
-        viewPackageFeedWithScope(storageId, repositoryId, null, packageName, response);
-    }
-
-    private Predicate createSearchPredicate(String packageScope,
-                                            String packageName)
-    {
-        Predicate rootPredicate = Predicate.empty();
-
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.name", packageName)));
-        if (packageScope != null)
-        {
-            rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.scope", packageScope)));
-        }
-
-        return rootPredicate;
+        viewPackageFeedWithScope(storageId, repositoryId, null, packageName, request, response);
     }
 
     @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
@@ -329,7 +296,7 @@ public class NpmArtifactController extends BaseArtifactController
             return;
         }
 
-        RepositoryPath path = artifactResolutionService.resolvePath(storageId, repositoryId, coordinates.toPath());
+        RepositoryPath path = artifactResolutionService.resolvePathStreamThrough(storageId, repositoryId, coordinates.toPath());
         provideArtifactDownloadResponse(request, response, httpHeaders, path);
     }
 
@@ -358,7 +325,7 @@ public class NpmArtifactController extends BaseArtifactController
             return;
         }
 
-        RepositoryPath path = artifactResolutionService.resolvePath(storageId, repositoryId, coordinates.toPath());
+        RepositoryPath path = artifactResolutionService.resolvePathStreamThrough(storageId, repositoryId, coordinates.toPath());
         provideArtifactDownloadResponse(request, response, httpHeaders, path);
     }
 
@@ -8,9 +8,11 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
-import org.carlspring.strongbox.io.ReplacingInputStream;
+import org.carlspring.strongbox.io.MalformedMultipartException;
+import org.carlspring.strongbox.io.MultipartPartInputStream;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterQueryParser;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
@@ -20,12 +22,12 @@ import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
-import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
+import org.carlspring.strongbox.storage.metadata.nuget.NupkgInputStream;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 import org.semver.Version;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
@@ -33,9 +35,8 @@ import javax.xml.bind.JAXBException;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -46,8 +47,10 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.fileupload.MultipartStream;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
@@ -57,8 +60,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.aristar.jnuget.files.NugetFormatException;
 import ru.aristar.jnuget.files.Nupkg;
 import ru.aristar.jnuget.rss.*;
@@ -160,6 +161,7 @@ public class NugetArtifactController extends BaseArtifactController
                                             @RequestParam(name = "$top", required = false) Integer top,
                                             @RequestParam(name = "searchTerm", required = false) String searchTerm,
                                             @RequestParam(name = "targetFramework", required = false) String targetFramework,
+                                            HttpServletRequest request,
                                             HttpServletResponse response)
             throws JAXBException, IOException
     {
@@ -171,9 +173,7 @@ public class NugetArtifactController extends BaseArtifactController
         nugetSearchRequest.setTargetFramework(targetFramework);
         repositorySearchEventListener.setNugetSearchRequest(nugetSearchRequest);
         
-        String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
-                                   storageId,
-                                   repositoryId);
+        String feedId = getFeedUri(request, storageId, repositoryId);
 
         Collection<? extends Nupkg> files;
         files = getPackages(storageId,
@@ -185,13 +185,63 @@ public class NugetArtifactController extends BaseArtifactController
                             skip,
                             top);
 
+        return provideFeed(request, response, feedId, files);
+    }
+
+    /**
+     * The feed is built for each request, so it's answered with `304 Not Modified` if none of its packages have
+     * changed since the client has got it.
+     */
+    private ResponseEntity<?> provideFeed(HttpServletRequest request,
+                                          HttpServletResponse response,
+                                          String feedId,
+                                          Collection<? extends Nupkg> files)
+            throws JAXBException, IOException
+    {
+        if (ArtifactControllerHelper.isNotModified(request, response, getFeedETag(feedId, files)))
+        {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+
         PackageFeed feed = transform(feedId, files);
 
-        response.setHeader("content-type", MediaType.APPLICATION_XML);
+        response.setHeader("Content-Type", MediaType.APPLICATION_XML);
         feed.writeXml(response.getOutputStream());
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
+
+    /**
+     * The feed itself is not stored, so its (weak) ETag is derived from what it's built from: the feed id, and the
+     * path, last update, download count and tags of each package, in the order of the feed.
+     */
+    private String getFeedETag(String feedId,
+                               Collection<? extends Nupkg> files)
+            throws IOException
+    {
+        MessageDigest digest = DigestUtils.getSha1Digest();
+        DigestUtils.updateDigest(digest, feedId);
+        for (Nupkg nupkg : files)
+        {
+            RepositoryPath path = ((PathNupkg) nupkg).getPath();
+            ArtifactEntry artifactEntry = path.getArtifactEntry();
+            String tags = artifactEntry.getTagSet()
+                                       .stream()
+                                       .map(ArtifactTag::getName)
+                                       .sorted()
+                                       .collect(Collectors.joining(","));
+
+            DigestUtils.updateDigest(digest, String.format("%n%s %s %s %s",
+                                                           RepositoryFiles.relativizePath(path),
+                                                           Optional.ofNullable(artifactEntry.getLastUpdated())
+                                                                   .map(Date::getTime)
+                                                                   .orElse(0L),
+                                                           artifactEntry.getDownloadCount(),
+                                                           tags));
+        }
+
+        return String.format("W/\"%s\"", Hex.encodeHexString(digest.digest()));
+    }
     
     private PackageFeed transform(String feedId,
                                   Collection<? extends Nupkg> files)
@@ -201,13 +251,14 @@ public class NugetArtifactController extends BaseArtifactController
         feed.setId(feedId);
         feed.setUpdated(new Date());
         feed.setTitle("Packages");
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
         List<PackageEntry> packageEntrys = new ArrayList<>();
         for (Nupkg nupkg : files)
         {
             try
             {
                 PackageEntry entry = createPackageEntry(feedId, (PathNupkg) nupkg);
-                calculateFeedEntryProperties((PathNupkg) nupkg, entry.getProperties());
+                calculateFeedEntryProperties((PathNupkg) nupkg, entry.getProperties(), lastVersionTag);
                 packageEntrys.add(entry);
             }
             catch (NoSuchAlgorithmException | IOException | NugetFormatException e)
@@ -221,7 +272,8 @@ public class NugetArtifactController extends BaseArtifactController
     }
 
     private void calculateFeedEntryProperties(PathNupkg nupkg,
-                                              EntryProperties properties) throws IOException
+                                              EntryProperties properties,
+                                              ArtifactTag lastVersionTag) throws IOException
     {
         RepositoryPath path = nupkg.getPath();
         ArtifactEntry artifactEntry = path.getArtifactEntry();
@@ -239,7 +291,6 @@ public class NugetArtifactController extends BaseArtifactController
         properties.setRating(Double.valueOf(0));
         properties.setVersionRating(Double.valueOf(0));
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
         if (artifactEntry.getTagSet().contains(lastVersionTag))
         {
             properties.setIsLatestVersion(true);
@@ -286,6 +337,7 @@ public class NugetArtifactController extends BaseArtifactController
     public ResponseEntity<?> searchPackageById(@PathVariable(name = "storageId") String storageId,
                                                @PathVariable(name = "repositoryId") String repositoryId,
                                                @RequestParam(name = "id", required = true) String packageId,
+                                               HttpServletRequest request,
                                                HttpServletResponse response)
             throws JAXBException, IOException
     {
@@ -305,16 +357,9 @@ public class NugetArtifactController extends BaseArtifactController
 
         Collection<? extends Nupkg> files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
 
-        String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
-                                   storageId,
-                                   repositoryId);
-
-        PackageFeed feed = transform(feedId, files);
-
-        response.setHeader("Content-Type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        String feedId = getFeedUri(request, storageId, repositoryId);
 
-        return new ResponseEntity<>(HttpStatus.OK);
+        return provideFeed(request, response, feedId, files);
     }
 
     public Collection<? extends Nupkg> getPackages(String storageId,
@@ -422,6 +467,7 @@ public class NugetArtifactController extends BaseArtifactController
 
     @ApiOperation(value = "Used to deploy a package")
     @ApiResponses(value = { @ApiResponse(code = HttpURLConnection.HTTP_OK, message = "The package was deployed successfully."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_BAD_REQUEST, message = "The request is not a valid package upload."),
                             @ApiResponse(code = HttpURLConnection.HTTP_INTERNAL_ERROR, message = "An error occurred.") })
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     @RequestMapping(path = "{storageId}/{repositoryId}/", method = RequestMethod.PUT, consumes = MediaType.MULTIPART_FORM_DATA)
@@ -436,10 +482,8 @@ public class NugetArtifactController extends BaseArtifactController
         URI resourceUri;
         try
         {
-            ServletInputStream is = request.getInputStream();
-            InputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType), is);
-
-            if (packagePartInputStream == null)
+            String boundary = extractBoundary(contentType);
+            if (StringUtils.isEmpty(boundary))
             {
                 logger.error(String.format("Failed to extract Nuget package from request: [%s]:[%s]",
                                            storageId,
@@ -448,10 +492,33 @@ public class NugetArtifactController extends BaseArtifactController
                 return ResponseEntity.badRequest().build();
             }
 
+            MultipartPartInputStream packagePartInputStream = new MultipartPartInputStream(request.getInputStream(),
+                                                                                           boundary);
+
+            // Package Multipart Header should be like follows:
+            // Content-Disposition: form-data; name="package";
+            // filename="package"
+            // Content-Type: application/octet-stream
+            if (!packagePartInputStream.readHeaders().contains("package"))
+            {
+                logger.error(String.format("Invalid package multipart format: [%s]:[%s]", storageId, repositoryId));
+
+                return ResponseEntity.badRequest().build();
+            }
+
             resourceUri = storePackage(storageId, repositoryId, packagePartInputStream);
         }
         catch (Exception e)
         {
+            // The multipart body is read while the package is stored, so the format error can come wrapped.
+            int i = ExceptionUtils.indexOfType(e, MalformedMultipartException.class);
+            if (i >= 0)
+            {
+                logger.error(String.format("Invalid package multipart format: [%s]:[%s]", storageId, repositoryId), e);
+
+                return ResponseEntity.badRequest().body(ExceptionUtils.getThrowables(e)[i].getMessage());
+            }
+
             logger.error(String.format("Failed to process Nuget push request: %s:%s", storageId, repositoryId), e);
 
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
@@ -552,7 +619,7 @@ public class NugetArtifactController extends BaseArtifactController
         String fileName = String.format("%s.%s.nupkg", packageId, packageVersion);
         String path = String.format("%s/%s/%s", packageId, packageVersion, fileName);
 
-        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        RepositoryPath repositoryPath = artifactResolutionService.resolvePathStreamThrough(storageId, repositoryId, path);
         if (provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath))
         {
             response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", fileName));
@@ -574,82 +641,16 @@ public class NugetArtifactController extends BaseArtifactController
         return boundaryString;
     }
 
-    private InputStream extractPackageMultipartStream(String boundaryString,
-                                                      ServletInputStream is)
-            throws IOException
-    {
-        if (StringUtils.isEmpty(boundaryString))
-        {
-            return null;
-        }
-
-        final Path packagePartFile = Files.createTempFile("nupkg", "part");
-        try (OutputStream packagePartOutputStream = new BufferedOutputStream(Files.newOutputStream(packagePartFile)))
-        {
-
-            writePackagePart(boundaryString, is, packagePartOutputStream);
-        }
-
-        return new BufferedInputStream(Files.newInputStream(packagePartFile));
-    }
-
-    private void writePackagePart(String boundaryString,
-                                  InputStream is,
-                                  OutputStream packagePartOutputStream)
-        throws IOException
-    {
-        // According to the specification, the final Boundary of MultipartStream should be prefixed with
-        // `0x0D0x0A0x2D0x2D` characters, but seems that Nuget command line tool has broken Multipart Boundary format.
-        // We need to fix missing starting byte of ending Mulipart boundary (0x0D), which is incorrectly generated by
-        // NuGet `push` implementation.
-        byte[] boundary = boundaryString.getBytes();
-        byte[] boundaryPrefixToFix = {0x00, 0x0A, 0x2D, 0x2D};
-        byte[] boundaryPrefixTarget = {0x00, 0x0D, 0x0A, 0x2D, 0x2D};
-
-        byte[] replacementPattern = new byte[boundary.length + 4];
-        byte[] replacementTarget = new byte[boundary.length + 5];
-
-        System.arraycopy(boundaryPrefixToFix, 0, replacementPattern, 0, 4);
-        System.arraycopy(boundaryPrefixTarget, 0, replacementTarget, 0, 5);
-
-        System.arraycopy(boundary, 0, replacementPattern, 4, boundary.length);
-        System.arraycopy(boundary, 0, replacementTarget, 4, boundary.length);
-
-        Path streamContentPath = Files.createTempFile("boundaryString", "nupkg");
-        ReplacingInputStream replacingIs = new ReplacingInputStream(is, boundaryPrefixToFix, boundaryPrefixTarget);
-        long len = Files.copy(replacingIs, streamContentPath,
-                   StandardCopyOption.REPLACE_EXISTING);
-        System.out.println(len);
-
-        try (InputStream streamContentIs = new BufferedInputStream(Files.newInputStream(streamContentPath)))
-        {
-            MultipartStream multipartStream = new MultipartStream(streamContentIs, boundary, 4096, null);
-            multipartStream.skipPreamble();
-            String header = multipartStream.readHeaders();
-
-            // Package Multipart Header should be like follows:
-            // Content-Disposition: form-data; name="package";
-            // filename="package"
-            // Content-Type: application/octet-stream
-            if (!header.contains("package"))
-            {
-                logger.error("Invalid package multipart format");
-                return;
-            }
-
-            int contentLength = multipartStream.readBodyData(packagePartOutputStream);
-            logger.info(String.format("NuGet package content length [%s]", contentLength));
-        }
-    }
-
     private URI storePackage(String storageId,
                              String repositoryId,
                              InputStream is)
         throws Exception
     {
-        try (TempNupkgFile nupkgFile = new TempNupkgFile(is))
+        // The package is read from the request only once: the nuspec is taken from the head of the package, and the
+        // hash is calculated while the package is stored.
+        try (NupkgInputStream nupkg = new NupkgInputStream(is))
         {
-            Nuspec nuspec = nupkgFile.getNuspec();
+            Nuspec nuspec = nupkg.getNuspec();
             if (nuspec == null)
             {
                 return null;
@@ -664,30 +665,15 @@ public class NugetArtifactController extends BaseArtifactController
                                         nuspecVersion);
 
             RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            nugetArtifactManagementService.validateAndStore(repositoryPath, nupkgFile.getStream());
+            nugetArtifactManagementService.validateAndStore(repositoryPath, nupkg);
+
+            ByteArrayOutputStream nuspecContent = new ByteArrayOutputStream();
+            nuspec.saveTo(nuspecContent);
 
-            Path nuspecFile = Files.createTempFile(nuspec.getId(), "nuspec");
-            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(nuspecFile)))
-            {
-                nuspec.saveTo(outputStream);
-            }
             path = String.format("%s/%s/%s.nuspec", nuspecId, nuspecVersion, nuspecId);
             repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(nuspecFile)))
-            {
-                nugetArtifactManagementService.validateAndStore(repositoryPath, bis);
-            }
-
-            Path hashFile = Files.createTempFile(String.format("%s.%s", nuspecId, nuspecVersion),
-                                                "nupkg.sha512");
-
-            try (OutputStream bos = new BufferedOutputStream(Files.newOutputStream(hashFile)))
-            {
-                Writer writer = new OutputStreamWriter(bos);
-                writer.write(nupkgFile.getHash());
-                writer.flush();
-                bos.flush();
-            }
+            nugetArtifactManagementService.validateAndStore(repositoryPath,
+                                                            new ByteArrayInputStream(nuspecContent.toByteArray()));
 
             path = String.format("%s/%s/%s.%s.nupkg.sha512",
                                  nuspecId,
@@ -695,10 +681,8 @@ public class NugetArtifactController extends BaseArtifactController
                                  nuspecId,
                                  nuspecVersion);
             repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(hashFile)))
-            {
-                nugetArtifactManagementService.validateAndStore(repositoryPath, bis);
-            }
+            byte[] hash = nupkg.getHash().getBytes(StandardCharsets.UTF_8);
+            nugetArtifactManagementService.validateAndStore(repositoryPath, new ByteArrayInputStream(hash));
         }
 
         return new URI("");
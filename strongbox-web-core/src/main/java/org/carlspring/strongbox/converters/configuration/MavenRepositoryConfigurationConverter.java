@@ -17,6 +17,10 @@ public enum MavenRepositoryConfigurationConverter
         MutableMavenRepositoryConfiguration configuration = new MutableMavenRepositoryConfiguration();
         configuration.setIndexingClassNamesEnabled(mavenRepositoryConfigurationForm.isIndexingClassNamesEnabled());
         configuration.setIndexingEnabled(mavenRepositoryConfigurationForm.isIndexingEnabled());
+        if (mavenRepositoryConfigurationForm.getMetadataExpirationSeconds() != null)
+        {
+            configuration.setMetadataExpirationSeconds(mavenRepositoryConfigurationForm.getMetadataExpirationSeconds());
+        }
 
         return configuration;
     }
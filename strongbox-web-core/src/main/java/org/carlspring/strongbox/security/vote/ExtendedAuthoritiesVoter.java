@@ -4,10 +4,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import org.aopalliance.intercept.MethodInvocation;
 import org.carlspring.strongbox.controllers.layout.maven.MavenArtifactController;
-import org.carlspring.strongbox.users.domain.AccessModel;
 import org.carlspring.strongbox.users.dto.UserAccessModelReadContract;
+import org.carlspring.strongbox.users.security.UserAccessModelCache;
 import org.carlspring.strongbox.users.userdetails.SpringSecurityUser;
 import org.carlspring.strongbox.utils.UrlUtils;
 import org.springframework.security.access.ConfigAttribute;
@@ -27,6 +29,9 @@ import org.springframework.stereotype.Component;
 public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVoter
 {
 
+    @Inject
+    private UserAccessModelCache userAccessModelCache;
+
     public ExtendedAuthoritiesVoter()
     {
         super(new ExpressionBasedPreInvocationAdvice());
@@ -46,6 +51,8 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
         private Authentication source;
 
+        private Collection<? extends GrantedAuthority> extendedAuthorities;
+
         public ExtendedAuthorityAuthentication(Authentication target)
         {
             super();
@@ -98,7 +105,8 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
             }
 
             // assign privileges based on custom user access model
-            final Collection<String> customAuthorities = AccessModel.getPathPrivileges(accessModel, UrlUtils.getRequestUri());
+            final Collection<String> customAuthorities = userAccessModelCache.get(userDetails.getUsername(), accessModel)
+                                                                             .getPathPrivileges(requestUri);
             if (customAuthorities == null || customAuthorities.isEmpty())
             {
                 return authorities;
@@ -119,7 +127,13 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
         public Collection<? extends GrantedAuthority> getAuthorities()
         {
-            return calculateExtendedAuthorities(getSourceAuthentication());
+            // The wrapper lives within a single vote, so the authorities are calculated only once.
+            if (extendedAuthorities == null)
+            {
+                extendedAuthorities = calculateExtendedAuthorities(getSourceAuthentication());
+            }
+
+            return extendedAuthorities;
         }
 
         public Object getCredentials()
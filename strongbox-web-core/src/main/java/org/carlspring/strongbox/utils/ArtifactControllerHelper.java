@@ -7,7 +7,9 @@ import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryInFlightDownload;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.FilterInputStream;
 import java.io.IOException;
@@ -16,13 +18,23 @@ import java.nio.file.Files;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
 import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
 import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 
@@ -31,6 +43,17 @@ public class ArtifactControllerHelper
 
     public static final String HEADER_NAME_RANGE = "Range";
 
+    /**
+     * The maximum number of ranges served within a `multipart/byteranges` response.
+     */
+    public static final int MAX_BYTE_RANGES = 64;
+
+    /**
+     * The ranges separated by a gap smaller than this are served as a single part, as the part headers would take
+     * about the same.
+     */
+    private static final long BYTE_RANGES_COALESCING_GAP = 128;
+
     private static final Logger logger = LoggerFactory.getLogger(ArtifactControllerHelper.class);
 
 
@@ -38,22 +61,41 @@ public class ArtifactControllerHelper
     {
     }
 
-    public static void handlePartialDownload(InputStream is,
-                                             HttpHeaders headers,
-                                             HttpServletResponse response)
+    /**
+     * Prepares the response for a ranged request. A malformed `Range` header is ignored, and the whole content is
+     * served instead.
+     *
+     * @return the stream to be copied into the response
+     */
+    public static InputStream handlePartialDownload(InputStream is,
+                                                    HttpHeaders headers,
+                                                    HttpServletResponse response)
             throws IOException
     {
-        ByteRangeHeaderParser parser = new ByteRangeHeaderParser(headers.getFirst(HEADER_NAME_RANGE));
-        List<ByteRange> ranges = parser.getRanges();
+        String rangeHeader = headers.getFirst(HEADER_NAME_RANGE);
+        List<ByteRange> ranges;
+        try
+        {
+            ranges = new ByteRangeHeaderParser(rangeHeader).getRanges();
+        }
+        catch (IllegalArgumentException e)
+        {
+            logger.debug(String.format("Malformed range [%s], serving the whole content.", rangeHeader));
+
+            return is;
+        }
+
         if (ranges.size() == 1)
         {
             logger.debug("Received request for a partial download with a single range.");
             handlePartialDownloadWithSingleRange(is, (ByteRange) ranges.get(0), response);
+
+            return is;
         }
         else
         {
             logger.debug("Received request for a partial download with multiple ranges.");
-            handlePartialDownloadWithMultipleRanges(is, ranges, response);
+            return handlePartialDownloadWithMultipleRanges(is, rangeHeader, response);
         }
     }
 
@@ -62,7 +104,14 @@ public class ArtifactControllerHelper
                                                             HttpServletResponse response)
             throws IOException
     {
-        ByteRangeInputStream bris = StreamUtils.findSource(ByteRangeInputStream.class, (FilterInputStream)is);
+        ByteRangeInputStream bris = findByteRangeSource(is);
+        if (bris == null)
+        {
+            logger.debug("Ranges are not supported by the stream, serving the whole content.");
+
+            return;
+        }
+
         long length = StreamUtils.getLength(bris);
         if (byteRange.getOffset() < length)
         {
@@ -83,13 +132,162 @@ public class ArtifactControllerHelper
         }
     }
 
-    public static void handlePartialDownloadWithMultipleRanges(InputStream is,
-                                                               List<ByteRange> byteRanges,
-                                                               HttpServletResponse response)
+    /**
+     * Serves the ranges as a `multipart/byteranges` response. The ranges are sorted, and the ranges which overlap
+     * or are separated by a gap smaller than the part headers are coalesced. If there are more than
+     * {@link #MAX_BYTE_RANGES} ranges requested, or any of them is malformed, the whole content is served instead.
+     * <br>
+     * The ranges are read from the header, as the zero limit of a {@link ByteRange} is either `0-0`, or open-ended.
+     *
+     * @return the stream to be copied into the response
+     */
+    public static InputStream handlePartialDownloadWithMultipleRanges(InputStream is,
+                                                                      String rangeHeader,
+                                                                      HttpServletResponse response)
             throws IOException
     {
-        // XXX: this is not implemented yet
-        response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        String[] rangeSpecs = getRangeSpecs(rangeHeader);
+        if (rangeSpecs.length > MAX_BYTE_RANGES)
+        {
+            logger.debug(String.format("Too many ranges requested [%s], serving the whole content.",
+                                       rangeSpecs.length));
+
+            return is;
+        }
+
+        ByteRangeInputStream bris = findByteRangeSource(is);
+        if (bris == null)
+        {
+            logger.debug("Ranges are not supported by the stream, serving the whole content.");
+
+            return is;
+        }
+
+        long length = StreamUtils.getLength(bris);
+
+        List<long[]> ranges;
+        try
+        {
+            ranges = coalesceRanges(rangeSpecs, length);
+        }
+        catch (NumberFormatException e)
+        {
+            logger.debug(String.format("Malformed range [%s], serving the whole content.", rangeHeader));
+
+            return is;
+        }
+        if (ranges.isEmpty())
+        {
+            response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.setHeader("Content-Length", "0");
+
+            return new BoundedInputStream(is, 0);
+        }
+
+        response.setStatus(PARTIAL_CONTENT.value());
+        response.setHeader("Accept-Ranges", "bytes");
+
+        if (ranges.size() == 1)
+        {
+            long[] range = ranges.get(0);
+            response.setHeader("Content-Range", String.format("bytes %s-%s/%s", range[0], range[1], length));
+            response.setHeader("Content-Length", String.valueOf(range[1] - range[0] + 1));
+
+            IOUtils.skipFully(is, range[0]);
+
+            return new BoundedInputStream(is, range[1] - range[0] + 1);
+        }
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        MultipartByteRangesInputStream result = new MultipartByteRangesInputStream(is,
+                                                                                   ranges,
+                                                                                   length,
+                                                                                   Optional.ofNullable(response.getContentType())
+                                                                                           .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE),
+                                                                                   boundary);
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setHeader("Content-Length", String.valueOf(result.getContentLength()));
+
+        return result;
+    }
+
+    /**
+     * @return satisfiable ranges as inclusive `{ first, last }` byte positions, sorted and coalesced
+     * @throws NumberFormatException
+     *             if any of the ranges is malformed, like `a-b` or `-`
+     */
+    static List<long[]> coalesceRanges(String[] rangeSpecs,
+                                       long length)
+    {
+        List<long[]> ranges = new ArrayList<>();
+        for (String rangeSpec : rangeSpecs)
+        {
+            int separator = rangeSpec.indexOf('-');
+            if (separator < 0)
+            {
+                continue;
+            }
+
+            String firstPosition = rangeSpec.substring(0, separator).trim();
+            String lastPosition = rangeSpec.substring(separator + 1).trim();
+
+            long first;
+            long last;
+            if (firstPosition.isEmpty())
+            {
+                // Suffix range, the last bytes of the content.
+                first = Math.max(0, length - Long.parseLong(lastPosition));
+                last = length - 1;
+            }
+            else
+            {
+                // `first-last`, or an open-ended `first-` without the last byte position.
+                first = Long.parseLong(firstPosition);
+                last = lastPosition.isEmpty() ? length - 1 : Math.min(Long.parseLong(lastPosition), length - 1);
+            }
+
+            if (first < length && first <= last)
+            {
+                ranges.add(new long[]{ first, last });
+            }
+        }
+
+        ranges.sort(Comparator.comparingLong(r -> r[0]));
+
+        List<long[]> result = new ArrayList<>();
+        for (long[] range : ranges)
+        {
+            long[] previous = result.isEmpty() ? null : result.get(result.size() - 1);
+            if (previous != null && range[0] <= previous[1] + 1 + BYTE_RANGES_COALESCING_GAP)
+            {
+                previous[1] = Math.max(previous[1], range[1]);
+                continue;
+            }
+
+            result.add(range);
+        }
+
+        return result;
+    }
+
+    private static ByteRangeInputStream findByteRangeSource(InputStream is)
+    {
+        if (is instanceof ByteRangeInputStream)
+        {
+            return (ByteRangeInputStream) is;
+        }
+
+        return is instanceof FilterInputStream ? StreamUtils.findSource(ByteRangeInputStream.class, is) : null;
+    }
+
+    /**
+     * @return the `first-last`, `first-` and `-suffix` specs of a `bytes=...` header
+     */
+    static String[] getRangeSpecs(String rangeHeader)
+    {
+        return rangeHeader.substring(rangeHeader.indexOf('=') + 1).split(",");
     }
 
     public static long calculatePartialRangeLength(ByteRange byteRange,
@@ -155,6 +353,69 @@ public class ArtifactControllerHelper
         response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
                 ZonedDateTime.ofInstant(fileAttributes.lastModifiedTime().toInstant(), ZoneId.systemDefault())));
 
+        provideContentType(response, path);
+
+        response.setHeader("Accept-Ranges", "bytes");
+
+        Map<String, String> checksums = new HashMap<>();
+        path.getFileSystem().provider().resolveChecksumPathMap(path).entrySet().stream().forEach(e -> {
+            String checksumValue;
+            try
+            {
+                checksumValue = new String(Files.readAllBytes(e.getValue()), "UTF-8").trim();
+            }
+            catch (IOException ioe)
+            {
+                return;
+            }
+            provideChecksumHeader(response, e.getKey(), checksumValue);
+            checksums.put(e.getKey(), checksumValue);
+        });
+
+        response.setHeader(HttpHeaders.ETAG, getETag(path, fileAttributes, checksums));
+    }
+
+    /**
+     * Same as {@link #provideArtifactHeaders(HttpServletResponse, RepositoryPath)}, but for the proxied artifact
+     * which is not cached yet: the checksums are the remote ones the download is validated against, and the
+     * `Last-Modified` is the remote one. The ranges are not supported, as the content is streamed through.
+     */
+    public static void provideInFlightDownloadHeaders(HttpServletResponse response,
+                                                      ProxyRepositoryInFlightDownload download)
+        throws IOException
+    {
+        RepositoryPath path = download.getRepositoryPath();
+
+        if (download.getContentLength() >= 0)
+        {
+            response.setHeader("Content-Length", String.valueOf(download.getContentLength()));
+        }
+        response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(download.getLastModified(), ZoneId.systemDefault())));
+
+        provideContentType(response, path);
+
+        download.getChecksums().forEach((algorithm, checksum) -> provideChecksumHeader(response, algorithm, checksum));
+
+        // The stored artifact has the same strong ETag, once its checksum has been validated.
+        String sha1 = download.getChecksums().get(MessageDigestAlgorithms.SHA_1);
+        if (sha1 != null)
+        {
+            response.setHeader(HttpHeaders.ETAG, String.format("\"%s\"", sha1));
+        }
+    }
+
+    private static void provideChecksumHeader(HttpServletResponse response,
+                                              String algorithm,
+                                              String checksum)
+    {
+        response.setHeader(String.format("Checksum-%s", algorithm.toUpperCase().replaceAll("-", "")), checksum);
+    }
+
+    private static void provideContentType(HttpServletResponse response,
+                                           RepositoryPath path)
+        throws IOException
+    {
         // TODO: This is far from optimal and will need to have a content type approach at some point:
         if (RepositoryFiles.isChecksum(path) || (path.getFileName().toString().endsWith(".properties")))
         {
@@ -172,25 +433,73 @@ public class ArtifactControllerHelper
         {
             response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
         }
+    }
 
-        response.setHeader("Accept-Ranges", "bytes");
-
-        path.getFileSystem().provider().resolveChecksumPathMap(path).entrySet().stream().forEach(e -> {
-            String checksumValue;
-            try
-            {
-                checksumValue = new String(Files.readAllBytes(e.getValue()), "UTF-8").trim();
-            }
-            catch (IOException ioe)
+    /**
+     * The strong ETag is the stored SHA-1 checksum of the path. If there is no checksum, or the checksum is older
+     * than the path itself, a weak ETag of the size and the last modification time is used.
+     */
+    private static String getETag(RepositoryPath path,
+                                  RepositoryFileAttributes fileAttributes,
+                                  Map<String, String> checksums)
+        throws IOException
+    {
+        String sha1 = checksums.get(MessageDigestAlgorithms.SHA_1);
+        if (sha1 != null && !sha1.isEmpty())
+        {
+            RepositoryPath checksumPath = path.getFileSystem()
+                                              .provider()
+                                              .resolveChecksumPathMap(path)
+                                              .get(MessageDigestAlgorithms.SHA_1);
+            if (Files.getLastModifiedTime(checksumPath).compareTo(fileAttributes.lastModifiedTime()) >= 0)
             {
-                return;
+                // The checksum file may also contain the file name after the checksum.
+                return String.format("\"%s\"", sha1.split("\\s+")[0]);
             }
-            String checksumName = String.format("Checksum-%s",
-                                                e.getKey().toUpperCase().replaceAll("-", ""));
-            response.setHeader(checksumName,
-                               checksumValue);
-        });
-        
+        }
+
+        return String.format("W/\"%s-%s\"", Long.toHexString(fileAttributes.size()),
+                             Long.toHexString(fileAttributes.lastModifiedTime().toMillis()));
+    }
+
+    /**
+     * Checks the `If-None-Match` and `If-Modified-Since` request headers against the `ETag` provided by
+     * {@link #provideArtifactHeaders(HttpServletResponse, RepositoryPath)} and the path modification time.
+     *
+     * @return true, if the response status has been set to `304 Not Modified`
+     */
+    public static boolean isNotModified(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        RepositoryPath path)
+        throws IOException
+    {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        return new ServletWebRequest(request, response).checkNotModified(response.getHeader(HttpHeaders.ETAG),
+                                                                         lastModified);
+    }
+
+    /**
+     * Same as {@link #isNotModified(HttpServletRequest, HttpServletResponse, RepositoryPath)}, but for the headers
+     * provided by {@link #provideInFlightDownloadHeaders(HttpServletResponse, ProxyRepositoryInFlightDownload)}.
+     */
+    public static boolean isNotModified(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        ProxyRepositoryInFlightDownload download)
+    {
+        return new ServletWebRequest(request, response).checkNotModified(response.getHeader(HttpHeaders.ETAG),
+                                                                         download.getLastModified().toEpochMilli());
+    }
+
+    /**
+     * Same as {@link #isNotModified(HttpServletRequest, HttpServletResponse, RepositoryPath)}, but for the generated
+     * responses, which only have an `ETag`.
+     */
+    public static boolean isNotModified(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        String eTag)
+    {
+        return new ServletWebRequest(request, response).checkNotModified(eTag);
     }
 
 }
@@ -0,0 +1,163 @@
+package org.carlspring.strongbox.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+
+/**
+ * The `multipart/byteranges` body of the given content ranges, read from the source stream in a single pass.
+ * <br>
+ * The ranges should be sorted and should not overlap, see
+ * {@link ArtifactControllerHelper#handlePartialDownloadWithMultipleRanges}.
+ */
+public class MultipartByteRangesInputStream
+        extends InputStream
+{
+
+    private final InputStream source;
+
+    private final Iterator<Part> parts;
+
+    private final long contentLength;
+
+    private long position;
+
+    private Part part;
+
+    private InputStream current;
+
+    /**
+     * @param source        the whole content stream
+     * @param ranges        sorted and not overlapping inclusive ranges, as `{ first, last }` byte positions
+     * @param length        the whole content length
+     * @param contentType   the content type of the parts
+     * @param boundary      the multipart boundary
+     */
+    public MultipartByteRangesInputStream(InputStream source,
+                                          List<long[]> ranges,
+                                          long length,
+                                          String contentType,
+                                          String boundary)
+    {
+        this.source = source;
+
+        List<Part> partList = new ArrayList<>();
+        long contentLength = 0;
+        for (long[] range : ranges)
+        {
+            String header = String.format("\r\n--%s\r\nContent-Type: %s\r\nContent-Range: bytes %s-%s/%s\r\n\r\n",
+                                          boundary, contentType, range[0], range[1], length);
+            Part part = new Part(header, range[0], range[1] - range[0] + 1);
+            partList.add(part);
+
+            contentLength += part.header.length + part.length;
+        }
+        Part closing = new Part(String.format("\r\n--%s--\r\n", boundary), 0, 0);
+        partList.add(closing);
+
+        this.contentLength = contentLength + closing.header.length;
+        this.parts = partList.iterator();
+    }
+
+    public long getContentLength()
+    {
+        return contentLength;
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        byte[] bytes = new byte[1];
+        int n = read(bytes, 0, 1);
+
+        return n == -1 ? -1 : bytes[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes,
+                    int off,
+                    int len)
+            throws IOException
+    {
+        while (true)
+        {
+            if (current == null && !next())
+            {
+                return -1;
+            }
+
+            int n = current.read(bytes, off, len);
+            if (n != -1)
+            {
+                return n;
+            }
+
+            current = null;
+        }
+    }
+
+    private boolean next()
+            throws IOException
+    {
+        if (part != null && part.length > 0)
+        {
+            // The part header has been read, so the part content follows.
+            IOUtils.skipFully(source, part.start - position);
+
+            BoundedInputStream content = new BoundedInputStream(source, part.length);
+            content.setPropagateClose(false);
+
+            current = content;
+            position = part.start + part.length;
+            part = null;
+
+            return true;
+        }
+
+        if (!parts.hasNext())
+        {
+            return false;
+        }
+
+        part = parts.next();
+        current = new ByteArrayInputStream(part.header);
+
+        return true;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        source.close();
+    }
+
+    private static class Part
+    {
+
+        private final byte[] header;
+
+        private final long start;
+
+        private final long length;
+
+        private Part(String header,
+                     long start,
+                     long length)
+        {
+            this.header = header.getBytes(StandardCharsets.US_ASCII);
+            this.start = start;
+            this.length = length;
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.artifact.ArtifactDownloadCountAggregator;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class ArtifactDownloadCountMetricsTest
+{
+
+    @Test
+    public void flushStatisticsShouldBeExported()
+    {
+        ArtifactDownloadCountAggregator aggregator = Mockito.mock(ArtifactDownloadCountAggregator.class);
+        when(aggregator.getPendingEntries()).thenReturn(4);
+        when(aggregator.getFlushLag()).thenReturn(1500L);
+        when(aggregator.getLastFlushLag()).thenReturn(1000L);
+        when(aggregator.getLastFlushDuration()).thenReturn(20L);
+        when(aggregator.getFlushedDownloads()).thenReturn(100L);
+        when(aggregator.getFailedFlushes()).thenReturn(2L);
+        when(aggregator.getDroppedDownloads()).thenReturn(1L);
+
+        ArtifactDownloadCountMetrics metrics = new ArtifactDownloadCountMetrics();
+        ReflectionTestUtils.setField(metrics, "aggregator", aggregator);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        String prefix = ArtifactDownloadCountMetrics.PREFIX;
+        assertEquals(4, registry.get(prefix + ".pending").gauge().value());
+        assertEquals(1500, registry.get(prefix + ".flush.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+        assertEquals(1000, registry.get(prefix + ".lastFlush.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+        assertEquals(20, registry.get(prefix + ".lastFlush.duration").timeGauge().value(TimeUnit.MILLISECONDS));
+        assertEquals(100, registry.get(prefix + ".flushed").functionCounter().count());
+        assertEquals(2, registry.get(prefix + ".failures").functionCounter().count());
+        assertEquals(1, registry.get(prefix + ".dropped").functionCounter().count());
+    }
+
+}
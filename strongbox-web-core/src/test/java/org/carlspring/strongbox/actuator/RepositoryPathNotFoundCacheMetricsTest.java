@@ -0,0 +1,36 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.providers.repository.RepositoryPathNotFoundCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class RepositoryPathNotFoundCacheMetricsTest
+{
+
+    @Test
+    public void cacheStatisticsShouldBeExported()
+    {
+        RepositoryPathNotFoundCache notFoundCache = Mockito.mock(RepositoryPathNotFoundCache.class);
+        when(notFoundCache.getHitCount()).thenReturn(3L);
+        when(notFoundCache.getMissCount()).thenReturn(5L);
+        when(notFoundCache.getSize()).thenReturn(2L);
+
+        RepositoryPathNotFoundCacheMetrics metrics = new RepositoryPathNotFoundCacheMetrics();
+        ReflectionTestUtils.setField(metrics, "notFoundCache", notFoundCache);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        String cacheName = RepositoryPathNotFoundCacheMetrics.CACHE_NAME;
+        assertEquals(3, registry.get("cache.gets").tags("cache", cacheName, "result", "hit").functionCounter().count());
+        assertEquals(5, registry.get("cache.gets").tags("cache", cacheName, "result", "miss").functionCounter().count());
+        assertEquals(2, registry.get("cache.size").tags("cache", cacheName).gauge().value());
+    }
+
+}
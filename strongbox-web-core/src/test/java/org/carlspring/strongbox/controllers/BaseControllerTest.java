@@ -0,0 +1,120 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.io.ByteRangeInputStream;
+import org.carlspring.strongbox.io.FileChannelInputStream;
+import org.carlspring.strongbox.io.LayoutInputStream;
+import org.carlspring.strongbox.io.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.input.CountingInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * The content is transferred straight from the file only if none of the streams on the way need to see it.
+ */
+public class BaseControllerTest
+{
+
+    private Path file;
+
+    private FileChannelInputStream source;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        file = Files.createTempFile("strongbox-", ".jar");
+        Files.write(file, new byte[]{ 1, 2, 3 });
+
+        source = new FileChannelInputStream(FileChannel.open(file));
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        source.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void passThroughStreamsShouldExposeTheFileChannel()
+        throws Exception
+    {
+        InputStream is = new LayoutInputStream(new ByteRangeInputStream(source), Collections.emptySet());
+
+        assertSame(source, StreamUtils.findFileChannelSource(is));
+        assertSame(source, StreamUtils.findFileChannelSource(source));
+    }
+
+    @Test
+    public void digestingStreamShouldFallBackToCopy()
+        throws Exception
+    {
+        InputStream is = new LayoutInputStream(new ByteRangeInputStream(source),
+                                               Collections.singleton(MessageDigestAlgorithms.MD5));
+
+        assertNull(StreamUtils.findFileChannelSource(is));
+    }
+
+    @Test
+    public void wrappedStreamShouldFallBackToCopy()
+        throws Exception
+    {
+        InputStream transforming = new FilterInputStream(source)
+        {
+            @Override
+            public int read()
+                throws IOException
+            {
+                return super.read() ^ 0xff;
+            }
+        };
+
+        assertNull(StreamUtils.findFileChannelSource(new LayoutInputStream(transforming, Collections.emptySet())));
+        assertNull(StreamUtils.findFileChannelSource(new CountingInputStream(source)));
+        assertNull(StreamUtils.findFileChannelSource(new BufferedInputStream(source)));
+        assertNull(StreamUtils.findFileChannelSource(Files.newInputStream(file)));
+    }
+
+    @Test
+    public void decompressingStreamShouldFallBackToCopy()
+        throws Exception
+    {
+        Path gzipFile = Files.createTempFile("strongbox-", ".gz");
+        try
+        {
+            try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile)))
+            {
+                out.write(new byte[]{ 1, 2, 3 });
+            }
+
+            try (FileChannelInputStream gzipSource = new FileChannelInputStream(FileChannel.open(gzipFile)))
+            {
+                assertNull(StreamUtils.findFileChannelSource(new LayoutInputStream(new GZIPInputStream(gzipSource),
+                                                                                   Collections.emptySet())));
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(gzipFile);
+        }
+    }
+
+}
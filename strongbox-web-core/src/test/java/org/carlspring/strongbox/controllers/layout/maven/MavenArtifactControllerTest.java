@@ -41,6 +41,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
+import java.util.Random;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -576,6 +577,99 @@ public class MavenArtifactControllerTest
         assertEquals(sha1Remote, sha1Local, "Glued partial fetches did not match SHA-1 checksum!");
     }
 
+    @Test
+    public void testMultipleRangesFetch()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1;
+        String pathToJar = "org/carlspring/strongbox/ranges/ranges-foo/1.0/ranges-foo-1.0.jar";
+        String artifactPath = url + "/" + pathToJar;
+
+        byte[] content = new byte[4096];
+        new Random(1).nextBytes(content);
+
+        Path artifactFile = getRepositoryBasedir(STORAGE0, REPOSITORY_RELEASES1).toPath().resolve(pathToJar);
+        Files.createDirectories(artifactFile.getParent());
+        Files.write(artifactFile, content);
+
+        MockMvcResponse response = given().header("user-agent", "Maven/*")
+                                          .header("Range", "bytes=500-509,0-9,5-19")
+                                          .when()
+                                          .get(artifactPath);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatusCode());
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+
+        byte[] body = response.asByteArray();
+        assertEquals(String.valueOf(body.length), response.getHeader("Content-Length"));
+
+        String multipart = new String(body, "ISO-8859-1");
+        String firstPart = String.format("Content-Range: bytes 0-19/4096\r\n\r\n%s",
+                                         new String(content, 0, 20, "ISO-8859-1"));
+        String secondPart = String.format("Content-Range: bytes 500-509/4096\r\n\r\n%s",
+                                          new String(content, 500, 10, "ISO-8859-1"));
+
+        assertThat(multipart).contains(firstPart, secondPart);
+        assertThat(multipart.indexOf(firstPart)).isLessThan(multipart.indexOf(secondPart));
+        assertThat(multipart).endsWith("--\r\n");
+
+        // The first byte only, not the content from the first byte.
+        response = given().header("user-agent", "Maven/*")
+                          .header("Range", "bytes=4000-4000,0-0")
+                          .when()
+                          .get(artifactPath);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatusCode());
+
+        multipart = new String(response.asByteArray(), "ISO-8859-1");
+        firstPart = String.format("Content-Range: bytes 0-0/4096\r\n\r\n%s\r\n",
+                                  new String(content, 0, 1, "ISO-8859-1"));
+        secondPart = String.format("Content-Range: bytes 4000-4000/4096\r\n\r\n%s\r\n",
+                                   new String(content, 4000, 1, "ISO-8859-1"));
+
+        assertThat(multipart).contains(firstPart, secondPart);
+
+        // Ranges which coalesce into one are served as a single part.
+        response = given().header("user-agent", "Maven/*")
+                          .header("Range", "bytes=0-0,1-9")
+                          .when()
+                          .get(artifactPath);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatusCode());
+        assertEquals("bytes 0-9/4096", response.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOf(content, 10), response.asByteArray());
+    }
+
+    @Test
+    public void testConditionalFetch()
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1;
+        String artifactPath = url + "/org/carlspring/strongbox/partial/partial-foo/3.1/partial-foo-3.1.jar";
+
+        MockMvcResponse response = given().header("user-agent", "Maven/*")
+                                          .when()
+                                          .get(artifactPath);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+
+        String etag = response.getHeader("ETag");
+        assertNotNull(etag, "Failed to provide the ETag header!");
+
+        given().header("user-agent", "Maven/*")
+               .header("If-None-Match", etag)
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given().header("user-agent", "Maven/*")
+               .header("If-None-Match", "\"0000000000000000000000000000000000000000\"")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
     @Test
     public void testCopyArtifactFile()
             throws Exception
@@ -3,7 +3,11 @@ package org.carlspring.strongbox.controllers.layout.npm;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.artifact.generator.NpmPackageGenerator;
 import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedContent;
 import org.carlspring.strongbox.rest.common.NpmRestAssuredBaseTest;
 import org.carlspring.strongbox.storage.repository.MutableRepository;
 import org.carlspring.strongbox.storage.repository.NpmRepositoryFactory;
@@ -15,6 +19,7 @@ import java.nio.file.Path;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import io.restassured.module.mockmvc.response.MockMvcResponse;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +28,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @IntegrationTest
 public class NpmArtifactControllerTest
@@ -34,6 +45,9 @@ public class NpmArtifactControllerTest
     @Inject
     private NpmRepositoryFactory npmRepositoryFactory;
 
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
     @Inject
     @Qualifier("contextBaseUrl")
     private String contextBaseUrl;
@@ -157,4 +171,143 @@ public class NpmArtifactControllerTest
                .header("Content-Length", equalTo(String.valueOf(Files.size(packagePath))));
     }
 
+    @Test
+    public void testPackageFeedUpdatedOnPublish()
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-feed", "1.0.0");
+        String packageFeedUrl = contextBaseUrl + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES + "/" +
+                                coordinates.getId();
+
+        publish(coordinates);
+
+        MockMvcResponse response = given().header("User-Agent", "npm/*")
+                                          .when()
+                                          .get(packageFeedUrl);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals("1.0.0", response.jsonPath().getString("'dist-tags'.latest"));
+
+        String etag = response.getHeader("ETag");
+        assertNotNull(etag);
+
+        given().header("User-Agent", "npm/*")
+               .header("If-None-Match", etag)
+               .when()
+               .get(packageFeedUrl)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        publish(NpmArtifactCoordinates.of(coordinates.getId(), "1.0.1"));
+
+        response = given().header("User-Agent", "npm/*")
+                          .header("If-None-Match", etag)
+                          .when()
+                          .get(packageFeedUrl);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals("1.0.1", response.jsonPath().getString("'dist-tags'.latest"));
+        assertNotNull(response.jsonPath().get("versions.'1.0.0'"));
+        assertNotNull(response.jsonPath().get("versions.'1.0.1'.dist.tarball"));
+
+        // Abbreviated package feed
+        given().header("User-Agent", "npm/*")
+               .header("Accept", NpmPackageFeedContent.ABBREVIATED_CONTENT_TYPE)
+               .when()
+               .get(packageFeedUrl)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .contentType(startsWith(NpmPackageFeedContent.ABBREVIATED_CONTENT_TYPE))
+               .body("name", equalTo(coordinates.getId()))
+               .body("'dist-tags'.latest", equalTo("1.0.1"))
+               .body("versions.'1.0.1'.version", equalTo("1.0.1"))
+               .body("time", nullValue());
+    }
+
+    @Test
+    public void testPackageFeedUpdatedOnVersionDirectoryDelete()
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-feed-delete", "1.0.0");
+        NpmArtifactCoordinates deletedCoordinates = NpmArtifactCoordinates.of(coordinates.getId(), "1.0.1");
+        String packageFeedUrl = contextBaseUrl + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES + "/" +
+                                coordinates.getId();
+
+        publish(coordinates);
+        publish(deletedCoordinates);
+
+        given().header("User-Agent", "npm/*")
+               .when()
+               .get(packageFeedUrl)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.1'.version", equalTo("1.0.1"));
+
+        RepositoryPath versionDirectory = repositoryPathResolver.resolve(STORAGE0,
+                                                                         REPOSITORY_RELEASES,
+                                                                         deletedCoordinates.toPath())
+                                                                .getParent();
+        RepositoryFiles.delete(versionDirectory, true);
+
+        given().header("User-Agent", "npm/*")
+               .when()
+               .get(packageFeedUrl)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.0'.version", equalTo("1.0.0"))
+               .body("versions.'1.0.1'", nullValue());
+    }
+
+    @Test
+    public void testPackageFeedContentCoding()
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-feed-gzip", "1.0.0");
+        String packageFeedUrl = contextBaseUrl + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES + "/" +
+                                coordinates.getId();
+
+        publish(coordinates);
+
+        MockMvcResponse identityResponse = given().header("User-Agent", "npm/*")
+                                                  .header("Accept-Encoding", "gzip;q=0, identity")
+                                                  .when()
+                                                  .get(packageFeedUrl);
+
+        assertEquals(HttpStatus.OK.value(), identityResponse.getStatusCode());
+        assertNull(identityResponse.getHeader("Content-Encoding"));
+
+        MockMvcResponse gzippedResponse = given().header("User-Agent", "npm/*")
+                                                 .header("Accept-Encoding", "gzip")
+                                                 .when()
+                                                 .get(packageFeedUrl);
+
+        assertEquals(HttpStatus.OK.value(), gzippedResponse.getStatusCode());
+        assertEquals("gzip", gzippedResponse.getHeader("Content-Encoding"));
+        assertNotEquals(identityResponse.getHeader("ETag"), gzippedResponse.getHeader("ETag"));
+
+        // The identity ETag doesn't match the gzipped representation.
+        given().header("User-Agent", "npm/*")
+               .header("Accept-Encoding", "gzip")
+               .header("If-None-Match", identityResponse.getHeader("ETag"))
+               .when()
+               .get(packageFeedUrl)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
+    private void publish(NpmArtifactCoordinates coordinates)
+        throws Exception
+    {
+        Path publishJsonPath = packageGenerator.of(coordinates).buildPublishJson();
+
+        given().header("User-Agent", "npm/*")
+               .header("Content-Type", "application/json")
+               .body(Files.readAllBytes(publishJsonPath))
+               .when()
+               .put(contextBaseUrl + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES + "/" +
+                    coordinates.getId())
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
 }
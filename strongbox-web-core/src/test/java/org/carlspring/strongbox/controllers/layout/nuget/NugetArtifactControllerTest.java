@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.controllers.layout.nuget;
 
+import org.carlspring.strongbox.artifact.coordinates.NugetPackageAttributes;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
@@ -13,6 +14,7 @@ import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
 import javax.inject.Inject;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -26,6 +28,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import ru.aristar.jnuget.rss.PackageFeed;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
@@ -116,6 +119,31 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .statusCode(HttpStatus.OK.value());
     }
 
+    @Test
+    public void testMalformedPushRequest()
+        throws Exception
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 + "/";
+
+        // No boundary at all
+        createPushRequest("not a multipart body".getBytes(StandardCharsets.US_ASCII)).when()
+                                                                                    .put(url)
+                                                                                    .peek()
+                                                                                    .then()
+                                                                                    .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        // The closing boundary is missing, which is noticed while the package is being stored
+        Path packageFile = generatePackageFile("Org.Carlspring.Strongbox.Examples.Nuget.Mono.Truncated", "1.0.0");
+        String packageContent = new String(readPackageContent(packageFile), StandardCharsets.ISO_8859_1);
+        String truncatedContent = packageContent.substring(0, packageContent.lastIndexOf("\r\n--"));
+
+        createPushRequest(truncatedContent.getBytes(StandardCharsets.ISO_8859_1)).when()
+                                                                                .put(url)
+                                                                                .peek()
+                                                                                .then()
+                                                                                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     public void testHeaderFetch()
             throws Exception
@@ -296,6 +324,99 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .body("feed.entry[0].title", equalTo("Org.Carlspring.Strongbox.Nuget.Test.Search"));
     }
 
+    @Test
+    public void testPackageAttributesIndexedOnPush()
+        throws Exception
+    {
+        String packageId = "Org.Carlspring.Strongbox.Nuget.Test.Attributes";
+        String packageVersion = "1.0.0";
+        byte[] packageContent = readPackageContent(generatePackageFile(packageId, packageVersion));
+
+        // Push
+        createPushRequest(packageContent).when()
+                                         .put(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" +
+                                              REPOSITORY_RELEASES_1 + "/")
+                                         .peek()
+                                         .then()
+                                         .statusCode(HttpStatus.CREATED.value());
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID,
+                                                                           REPOSITORY_RELEASES_1,
+                                                                           String.format("%s/%s/%s.%s.nupkg",
+                                                                                         packageId,
+                                                                                         packageVersion,
+                                                                                         packageId,
+                                                                                         packageVersion));
+        assertNotNull(artifactEntry);
+
+        Map<String, String> packageAttributes = artifactEntry.getArtifactAttributes();
+        assertTrue(NugetPackageAttributes.isIndexed(packageAttributes));
+        assertEquals("Strongbox Nuget package for tests", packageAttributes.get(NugetPackageAttributes.DESCRIPTION));
+        assertNotNull(packageAttributes.get(NugetPackageAttributes.HASH));
+
+        // FindPackagesById
+        given().header("User-Agent", "NuGet/*")
+               .when()
+               .get(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                    String.format("/FindPackagesById()?id='%s'", packageId))
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .and()
+               .assertThat()
+               .body("feed.entry[0].title", equalTo(packageId));
+    }
+
+    @Test
+    public void testPackageFeedNotModified()
+        throws Exception
+    {
+        String packageId = "Org.Carlspring.Strongbox.Nuget.Test.NotModified";
+        byte[] packageContent = readPackageContent(generatePackageFile(packageId, "1.0.0"));
+
+        createPushRequest(packageContent).when()
+                                         .put(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" +
+                                              REPOSITORY_RELEASES_1 + "/")
+                                         .peek()
+                                         .then()
+                                         .statusCode(HttpStatus.CREATED.value());
+
+        String url = getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                     String.format("/FindPackagesById()?id='%s'", packageId);
+
+        String eTag = given().header("User-Agent", "NuGet/*")
+                             .when()
+                             .get(url)
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .extract()
+                             .header(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        given().header("User-Agent", "NuGet/*")
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        // A new version changes the feed.
+        packageContent = readPackageContent(generatePackageFile(packageId, "1.0.1"));
+
+        createPushRequest(packageContent).when()
+                                         .put(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" +
+                                              REPOSITORY_RELEASES_1 + "/")
+                                         .peek()
+                                         .then()
+                                         .statusCode(HttpStatus.CREATED.value());
+
+        given().header("User-Agent", "NuGet/*")
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
     @Test
     public void testLastVersionPackageSearch()
         throws Exception
@@ -0,0 +1,112 @@
+package org.carlspring.strongbox.utils;
+
+import org.carlspring.strongbox.io.ByteRangeInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArtifactControllerHelperTest
+{
+
+    private static final long LENGTH = 4096;
+
+    @Test
+    public void rangesShouldBeSortedAndCoalesced()
+    {
+        List<long[]> ranges = coalesce("bytes=3000-3009,0-9,5-19,200-209");
+
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new long[]{ 0, 19 }, ranges.get(0));
+        assertArrayEquals(new long[]{ 200, 209 }, ranges.get(1));
+        assertArrayEquals(new long[]{ 3000, 3009 }, ranges.get(2));
+    }
+
+    @Test
+    public void firstByteRangeShouldNotBeOpenEnded()
+    {
+        List<long[]> ranges = coalesce("bytes=0-0,4000-4000");
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[]{ 0, 0 }, ranges.get(0));
+        assertArrayEquals(new long[]{ 4000, 4000 }, ranges.get(1));
+
+        ranges = coalesce("bytes=1000-, 0-0");
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[]{ 0, 0 }, ranges.get(0));
+        assertArrayEquals(new long[]{ 1000, LENGTH - 1 }, ranges.get(1));
+    }
+
+    @Test
+    public void suffixAndOpenEndedRangesShouldBeResolved()
+    {
+        List<long[]> ranges = coalesce("bytes=-10,0-9,5000-5010");
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[]{ 0, 9 }, ranges.get(0));
+        assertArrayEquals(new long[]{ LENGTH - 10, LENGTH - 1 }, ranges.get(1));
+
+        ranges = coalesce("bytes=4000-5000,-5000");
+
+        assertEquals(1, ranges.size());
+        assertArrayEquals(new long[]{ 0, LENGTH - 1 }, ranges.get(0));
+    }
+
+    @Test
+    public void unsatisfiableRangesShouldBeDropped()
+    {
+        assertTrue(coalesce("bytes=4096-4100,5000-,-0").isEmpty());
+    }
+
+    @Test
+    public void malformedRangesShouldBeRejected()
+    {
+        assertThrows(NumberFormatException.class, () -> coalesce("bytes=a-b"));
+        assertThrows(NumberFormatException.class, () -> coalesce("bytes=-"));
+        assertThrows(NumberFormatException.class, () -> coalesce("bytes=0-9,10-x"));
+    }
+
+    @Test
+    public void malformedRangesShouldBeServedWithTheWholeContent()
+        throws Exception
+    {
+        ByteRangeInputStream bris = new ByteRangeInputStream(new ByteArrayInputStream(new byte[(int) LENGTH]));
+        bris.setLength(LENGTH);
+        InputStream is = new BufferedInputStream(bris);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertSame(is, ArtifactControllerHelper.handlePartialDownloadWithMultipleRanges(is, "bytes=0-9,a-b", response));
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(null, response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void streamWithoutRangeSupportShouldBeServedWithTheWholeContent()
+        throws Exception
+    {
+        InputStream is = new ByteArrayInputStream(new byte[(int) LENGTH]);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertSame(is, ArtifactControllerHelper.handlePartialDownloadWithMultipleRanges(is, "bytes=0-9,100-109", response));
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    private static List<long[]> coalesce(String rangeHeader)
+    {
+        return ArtifactControllerHelper.coalesceRanges(ArtifactControllerHelper.getRangeSpecs(rangeHeader), LENGTH);
+    }
+
+}
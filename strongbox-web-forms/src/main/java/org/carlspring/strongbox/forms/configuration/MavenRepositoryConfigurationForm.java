@@ -14,6 +14,8 @@ public class MavenRepositoryConfigurationForm
 
     private boolean indexingClassNamesEnabled;
 
+    private Integer metadataExpirationSeconds;
+
     public boolean isIndexingEnabled()
     {
         return indexingEnabled;
@@ -34,6 +36,16 @@ public class MavenRepositoryConfigurationForm
         this.indexingClassNamesEnabled = indexingClassNamesEnabled;
     }
 
+    public Integer getMetadataExpirationSeconds()
+    {
+        return metadataExpirationSeconds;
+    }
+
+    public void setMetadataExpirationSeconds(final Integer metadataExpirationSeconds)
+    {
+        this.metadataExpirationSeconds = metadataExpirationSeconds;
+    }
+
     @Override
     public <T> T accept(final CustomRepositoryConfigurationFormVisitor<T> visitor)
     {